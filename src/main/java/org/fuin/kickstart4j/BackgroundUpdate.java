@@ -0,0 +1,248 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Transfer of files that continues in the background after the application
+ * was started. While the transfer is running a marker file exists inside the
+ * installation directory. If the transfer fails a second marker file with
+ * the error message is left behind. The started application can use the
+ * static methods {@link #isRunning(File)}, {@link #waitFor(File, long)} and
+ * {@link #isFailed(File)} to find out if all files are available.
+ */
+public final class BackgroundUpdate {
+
+    private static final Logger LOG = Logger.getLogger(BackgroundUpdate.class);
+
+    /** Name of the marker file inside the installation directory. */
+    public static final String MARKER_FILENAME = ".kickstart4j-background";
+
+    /** Name of the marker file for a failed transfer inside the installation directory. */
+    public static final String FAILED_MARKER_FILENAME = ".kickstart4j-background-failed";
+
+    private static final long POLL_MILLIS = 200;
+
+    /** Installation directory. */
+    private final File destDir;
+
+    /** Marker file. */
+    private final File markerFile;
+
+    /** Marker file for a failed transfer. */
+    private final File failedMarkerFile;
+
+    /** Signals if the transfer is finished. */
+    private boolean finished = false;
+
+    /** Signals if the transfer failed. */
+    private boolean failed = false;
+
+    /**
+     * Constructor with installation directory.
+     * 
+     * @param destDir
+     *            Installation directory - Cannot be <code>null</code>.
+     */
+    public BackgroundUpdate(final File destDir) {
+        super();
+        Utils4J.checkNotNull("destDir", destDir);
+        this.destDir = destDir;
+        this.markerFile = new File(destDir, MARKER_FILENAME);
+        this.failedMarkerFile = new File(destDir, FAILED_MARKER_FILENAME);
+    }
+
+    /**
+     * Returns the installation directory.
+     * 
+     * @return Directory.
+     */
+    public final File getDestDir() {
+        return destDir;
+    }
+
+    /**
+     * Creates the marker file and executes the task in a new thread. The
+     * thread is not a daemon, so the Java VM does not end before the task is
+     * finished. A failed marker file of a previous transfer is removed.
+     * 
+     * @param task
+     *            Transfers the remaining files - Cannot be <code>null</code>.
+     */
+    public final void start(final Runnable task) {
+        Utils4J.checkNotNull("task", task);
+        delete(failedMarkerFile);
+        try {
+            markerFile.createNewFile();
+        } catch (final IOException ex) {
+            throw new RuntimeException("Cannot create file: " + markerFile, ex);
+        }
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                String error = "Aborted";
+                try {
+                    task.run();
+                    error = null;
+                } catch (final RuntimeException ex) {
+                    LOG.error("Background update failed!", ex);
+                    error = ex.toString();
+                } finally {
+                    // Failed marker first so it already exists when the other one is gone
+                    if (error != null) {
+                        writeFailedMarker(error);
+                    }
+                    markerFile.delete();
+                    finish(error != null);
+                }
+            }
+        }, "Kickstart4J-Background");
+        thread.start();
+    }
+
+    private void writeFailedMarker(final String error) {
+        try {
+            FileUtils.writeStringToFile(failedMarkerFile, error);
+        } catch (final IOException ex) {
+            LOG.error("Cannot create file: " + failedMarkerFile, ex);
+        }
+    }
+
+    private synchronized void finish(final boolean error) {
+        finished = true;
+        failed = error;
+        notifyAll();
+    }
+
+    /**
+     * Returns if the transfer is still running.
+     * 
+     * @return If not all files are transferred yet <code>true</code> else
+     *         <code>false</code>.
+     */
+    public final synchronized boolean isRunning() {
+        return !finished;
+    }
+
+    /**
+     * Returns if the transfer failed.
+     * 
+     * @return If the transfer was aborted with an error <code>true</code>
+     *         else <code>false</code>.
+     */
+    public final synchronized boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Waits until the transfer is finished.
+     */
+    public final synchronized void waitFor() {
+        while (!finished) {
+            try {
+                wait();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns if a background transfer is running for an installation
+     * directory. This method is intended to be used by the started
+     * application.
+     * 
+     * @param destDir
+     *            Installation directory.
+     * 
+     * @return If not all files are transferred yet <code>true</code> else
+     *         <code>false</code>.
+     */
+    public static boolean isRunning(final File destDir) {
+        return new File(destDir, MARKER_FILENAME).exists();
+    }
+
+    /**
+     * Returns if the last background transfer for an installation directory
+     * failed. This method is intended to be used by the started application.
+     * 
+     * @param destDir
+     *            Installation directory.
+     * 
+     * @return If the transfer was aborted with an error <code>true</code>
+     *         else <code>false</code>.
+     */
+    public static boolean isFailed(final File destDir) {
+        return new File(destDir, FAILED_MARKER_FILENAME).exists();
+    }
+
+    /**
+     * Waits until the background transfer for an installation directory is
+     * finished. This method is intended to be used by the started
+     * application.
+     * 
+     * @param destDir
+     *            Installation directory.
+     * @param timeoutMillis
+     *            Maximum time to wait in milliseconds or <code>0</code> to
+     *            wait without limit.
+     * 
+     * @return If the transfer is finished <code>true</code> else
+     *         <code>false</code> (timeout or interrupted).
+     */
+    public static boolean waitFor(final File destDir, final long timeoutMillis) {
+        final long end = System.currentTimeMillis() + timeoutMillis;
+        while (isRunning(destDir)) {
+            if ((timeoutMillis > 0) && (System.currentTimeMillis() >= end)) {
+                return false;
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the marker files of a previous run that was terminated before
+     * the transfer was finished or that failed.
+     * 
+     * @param destDir
+     *            Installation directory.
+     */
+    public static void clear(final File destDir) {
+        delete(new File(destDir, MARKER_FILENAME));
+        delete(new File(destDir, FAILED_MARKER_FILENAME));
+    }
+
+    private static void delete(final File file) {
+        if (file.exists() && !file.delete()) {
+            LOG.warn("Cannot delete file: " + file);
+        }
+    }
+
+}
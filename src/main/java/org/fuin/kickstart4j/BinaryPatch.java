@@ -0,0 +1,364 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Creates and applies binary patches. A patch is a sequence of "copy" (range
+ * of the old file) and "data" (literal bytes) operations. Matching ranges are
+ * found with a rolling checksum over fixed size blocks of the old file.
+ */
+public final class BinaryPatch {
+
+    /** Default size of the blocks of the old file. */
+    public static final int DEFAULT_BLOCK_SIZE = 2048;
+
+    /**
+     * Default maximum size of the old or new file to create a patch for -
+     * Both files are held in memory while creating the patch.
+     */
+    public static final long DEFAULT_MAX_FILE_SIZE = 32 * 1024 * 1024;
+
+    private static final int MAGIC = 0x4B344A50; // "K4JP"
+
+    private static final int VERSION = 1;
+
+    private static final int OP_END = 0;
+
+    private static final int OP_COPY = 1;
+
+    private static final int OP_DATA = 2;
+
+    private static final int BUF_SIZE = 8192;
+
+    /**
+     * Private constructor.
+     */
+    private BinaryPatch() {
+        throw new UnsupportedOperationException("Creating instances is not allowed!");
+    }
+
+    /**
+     * Creates a patch that converts the old file into the new one. Both files
+     * are read completely into memory.
+     *
+     * @param oldFile
+     *            Previous version of the file.
+     * @param newFile
+     *            Current version of the file.
+     * @param patchFile
+     *            Patch file to create.
+     *
+     * @throws IOException
+     *             Error reading or writing the files.
+     */
+    public static void create(final File oldFile, final File newFile, final File patchFile)
+            throws IOException {
+        final byte[] oldData = FileUtils.readFileToByteArray(oldFile);
+        final byte[] newData = FileUtils.readFileToByteArray(newFile);
+        final OutputStream out = new BufferedOutputStream(FileUtils.openOutputStream(patchFile));
+        try {
+            create(oldData, newData, out, DEFAULT_BLOCK_SIZE);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Creates a patch that converts the old data into the new one.
+     *
+     * @param oldData
+     *            Previous version.
+     * @param newData
+     *            Current version.
+     * @param patch
+     *            Stream to write the patch to.
+     * @param blockSize
+     *            Size of the blocks used to find matching ranges.
+     *
+     * @throws IOException
+     *             Error writing the patch.
+     */
+    public static void create(final byte[] oldData, final byte[] newData,
+            final OutputStream patch, final int blockSize) throws IOException {
+
+        final DataOutputStream out = new DataOutputStream(patch);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(newData.length);
+
+        final Map blocks = createBlockIndex(oldData, blockSize);
+        final CopyWriter writer = new CopyWriter(out);
+        final RollingChecksum checksum = new RollingChecksum();
+
+        int literalStart = 0;
+        int pos = 0;
+        if (newData.length >= blockSize) {
+            checksum.reset(newData, 0, blockSize);
+        }
+        while (pos + blockSize <= newData.length) {
+            final int match = findBlock(blocks, checksum.getValue(), oldData, newData, pos,
+                    blockSize);
+            if (match > -1) {
+                // Extend the match as far as possible
+                int len = blockSize;
+                while ((match + len < oldData.length) && (pos + len < newData.length)
+                        && (oldData[match + len] == newData[pos + len])) {
+                    len++;
+                }
+                writer.data(newData, literalStart, pos - literalStart);
+                writer.copy(match, len);
+                pos = pos + len;
+                literalStart = pos;
+                if (pos + blockSize <= newData.length) {
+                    checksum.reset(newData, pos, blockSize);
+                }
+            } else {
+                if (pos + blockSize < newData.length) {
+                    checksum.roll(newData[pos], newData[pos + blockSize]);
+                }
+                pos++;
+            }
+        }
+        writer.data(newData, literalStart, newData.length - literalStart);
+        writer.flush();
+        out.writeByte(OP_END);
+        out.flush();
+
+    }
+
+    private static Map createBlockIndex(final byte[] data, final int blockSize) {
+        final Map blocks = new HashMap();
+        for (int start = 0; start + blockSize <= data.length; start = start + blockSize) {
+            final Integer key = new Integer(RollingChecksum.calculate(data, start, blockSize));
+            List list = (List) blocks.get(key);
+            if (list == null) {
+                list = new ArrayList();
+                blocks.put(key, list);
+            }
+            list.add(new Integer(start));
+        }
+        return blocks;
+    }
+
+    private static int findBlock(final Map blocks, final int weak, final byte[] oldData,
+            final byte[] newData, final int pos, final int blockSize) {
+        final List list = (List) blocks.get(new Integer(weak));
+        if (list == null) {
+            return -1;
+        }
+        for (int i = 0; i < list.size(); i++) {
+            final int start = ((Integer) list.get(i)).intValue();
+            if (regionEquals(oldData, start, newData, pos, blockSize)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(final byte[] a, final int aOffset, final byte[] b,
+            final int bOffset, final int len) {
+        for (int i = 0; i < len; i++) {
+            if (a[aOffset + i] != b[bOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies a patch to an old file and writes the result to a new file.
+     *
+     * @param oldFile
+     *            File the patch was created for.
+     * @param patch
+     *            Patch to apply.
+     * @param newFile
+     *            File to create.
+     * @param algorithm
+     *            Name of the hash algorithm.
+     *
+     * @return Hash of the new file.
+     *
+     * @throws IOException
+     *             Error reading or writing the files or invalid patch format.
+     */
+    public static String apply(final File oldFile, final InputStream patch, final File newFile,
+            final String algorithm) throws IOException {
+
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(patch));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid patch format");
+        }
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unknown patch version: " + version);
+        }
+        final long expectedLength = in.readLong();
+
+        final MessageDigest digest = HashAlgorithm.createDigest(algorithm);
+        final RandomAccessFile old = new RandomAccessFile(oldFile, "r");
+        try {
+            final OutputStream out = new DigestOutputStream(new BufferedOutputStream(FileUtils
+                    .openOutputStream(newFile)), digest);
+            try {
+                final byte[] buf = new byte[BUF_SIZE];
+                long length = 0;
+                int op;
+                while ((op = in.readByte()) != OP_END) {
+                    if (op == OP_COPY) {
+                        old.seek(in.readLong());
+                        final int len = in.readInt();
+                        copy(old, out, buf, len);
+                        length = length + len;
+                    } else if (op == OP_DATA) {
+                        final int len = in.readInt();
+                        copy(in, out, buf, len);
+                        length = length + len;
+                    } else {
+                        throw new IOException("Unknown patch operation: " + op);
+                    }
+                }
+                if (length != expectedLength) {
+                    throw new IOException("Patch result has wrong length: " + length
+                            + " (expected " + expectedLength + ")");
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            old.close();
+        }
+        return Utils.encodeHex(digest.digest());
+
+    }
+
+    private static void copy(final RandomAccessFile in, final OutputStream out, final byte[] buf,
+            final int len) throws IOException {
+        int remaining = len;
+        while (remaining > 0) {
+            final int count = Math.min(remaining, buf.length);
+            in.readFully(buf, 0, count);
+            out.write(buf, 0, count);
+            remaining = remaining - count;
+        }
+    }
+
+    private static void copy(final DataInputStream in, final OutputStream out, final byte[] buf,
+            final int len) throws IOException {
+        int remaining = len;
+        while (remaining > 0) {
+            final int count = Math.min(remaining, buf.length);
+            in.readFully(buf, 0, count);
+            out.write(buf, 0, count);
+            remaining = remaining - count;
+        }
+    }
+
+    /**
+     * Applies a patch file to an old file.
+     *
+     * @param oldFile
+     *            File the patch was created for.
+     * @param patchFile
+     *            Patch to apply.
+     * @param newFile
+     *            File to create.
+     * @param algorithm
+     *            Name of the hash algorithm.
+     *
+     * @return Hash of the new file.
+     *
+     * @throws IOException
+     *             Error reading or writing the files or invalid patch format.
+     */
+    public static String apply(final File oldFile, final File patchFile, final File newFile,
+            final String algorithm) throws IOException {
+        final InputStream in = new FileInputStream(patchFile);
+        try {
+            return apply(oldFile, in, newFile, algorithm);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Writes the operations and merges adjacent copy ranges.
+     */
+    private static final class CopyWriter {
+
+        private final DataOutputStream out;
+
+        private long copyOffset = -1;
+
+        private int copyLength = 0;
+
+        public CopyWriter(final DataOutputStream out) {
+            super();
+            this.out = out;
+        }
+
+        public void copy(final long offset, final int len) throws IOException {
+            if ((copyLength > 0) && (copyOffset + copyLength == offset)) {
+                copyLength = copyLength + len;
+            } else {
+                flush();
+                copyOffset = offset;
+                copyLength = len;
+            }
+        }
+
+        public void data(final byte[] data, final int offset, final int len) throws IOException {
+            if (len > 0) {
+                flush();
+                out.writeByte(OP_DATA);
+                out.writeInt(len);
+                out.write(data, offset, len);
+            }
+        }
+
+        public void flush() throws IOException {
+            if (copyLength > 0) {
+                out.writeByte(OP_COPY);
+                out.writeLong(copyOffset);
+                out.writeInt(copyLength);
+                copyLength = 0;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,560 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Block checksums of a source file. A client uses the index to find the
+ * unchanged blocks in any older local copy of the file (rolling weak checksum
+ * plus a short strong checksum) and loads only the missing byte ranges from
+ * the server. Other than a {@link SrcFilePatch} the index works for every
+ * local version of the file. This class is immutable.
+ */
+public final class BlockIndex {
+
+    private static final Logger LOG = Logger.getLogger(BlockIndex.class);
+
+    /** Default size of the blocks. */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    /** Default minimum size of a file to create an index for. */
+    public static final long DEFAULT_MIN_FILE_SIZE = 1024 * 1024;
+
+    private static final int MAGIC = 0x4B344A42; // "K4JB"
+
+    private static final int VERSION = 1;
+
+    /** Number of bytes of the MD5 hash stored per block. */
+    private static final int STRONG_LENGTH = 8;
+
+    /** Missing ranges with a smaller gap are loaded with one request. */
+    private static final int MAX_GAP = 16 * 1024;
+
+    private static final int BUF_SIZE = 64 * 1024;
+
+    private final int blockSize;
+
+    private final long fileLength;
+
+    private final int[] weak;
+
+    private final byte[] strong;
+
+    /**
+     * Constructor with all arguments.
+     * 
+     * @param blockSize
+     *            Size of the blocks.
+     * @param fileLength
+     *            Length of the file.
+     * @param weak
+     *            Rolling checksum of every complete block.
+     * @param strong
+     *            Truncated MD5 hash of every complete block.
+     */
+    private BlockIndex(final int blockSize, final long fileLength, final int[] weak,
+            final byte[] strong) {
+        super();
+        this.blockSize = blockSize;
+        this.fileLength = fileLength;
+        this.weak = weak;
+        this.strong = strong;
+    }
+
+    /**
+     * Returns the size of the blocks.
+     * 
+     * @return Block size.
+     */
+    public final int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns the length of the file.
+     * 
+     * @return File length.
+     */
+    public final long getFileLength() {
+        return fileLength;
+    }
+
+    /**
+     * Returns the number of complete blocks. A trailing partial block is not
+     * indexed and always loaded from the server.
+     * 
+     * @return Number of blocks.
+     */
+    public final int getBlockCount() {
+        return weak.length;
+    }
+
+    /**
+     * Finds the blocks of the file in a local seed file. The seed file is
+     * read once with a rolling checksum - Blocks may be found at any offset.
+     * 
+     * @param seedFile
+     *            Local file, usually an older version of the file.
+     * 
+     * @return Offset of every block in the seed file or <code>-1</code> if
+     *         the block was not found.
+     * 
+     * @throws IOException
+     *             Error reading the seed file.
+     */
+    public final long[] findBlocks(final File seedFile) throws IOException {
+
+        final long[] found = new long[weak.length];
+        for (int i = 0; i < found.length; i++) {
+            found[i] = -1;
+        }
+        if (weak.length == 0) {
+            return found;
+        }
+        final Map blocks = createBlockMap();
+        final MessageDigest digest = HashAlgorithm.createDigest(HashAlgorithm.MD5);
+        final RollingChecksum checksum = new RollingChecksum();
+        int remaining = weak.length;
+
+        final InputStream in = new FileInputStream(seedFile);
+        try {
+            final byte[] buf = new byte[Math.max(BUF_SIZE, 2 * blockSize)];
+            long bufStart = 0;
+            int len = 0;
+            int pos = 0;
+            boolean eof = false;
+            boolean reset = true;
+            while (remaining > 0) {
+                if ((len - pos <= blockSize) && !eof) {
+                    // Keep the current window and fill up the buffer
+                    System.arraycopy(buf, pos, buf, 0, len - pos);
+                    bufStart = bufStart + pos;
+                    len = len - pos;
+                    pos = 0;
+                    len = fill(in, buf, len);
+                    eof = (len < buf.length);
+                }
+                if (len - pos < blockSize) {
+                    break;
+                }
+                if (reset) {
+                    checksum.reset(buf, pos, blockSize);
+                    reset = false;
+                }
+                final int matches = match(blocks, checksum.getValue(), digest, buf, pos, found,
+                        bufStart + pos);
+                if (matches > -1) {
+                    remaining = remaining - matches;
+                    pos = pos + blockSize;
+                    reset = true;
+                } else {
+                    if (len - pos == blockSize) {
+                        break;
+                    }
+                    checksum.roll(buf[pos], buf[pos + blockSize]);
+                    pos++;
+                }
+            }
+        } finally {
+            in.close();
+        }
+        return found;
+
+    }
+
+    private static int fill(final InputStream in, final byte[] buf, final int len)
+            throws IOException {
+        int filled = len;
+        while (filled < buf.length) {
+            final int count = in.read(buf, filled, buf.length - filled);
+            if (count == -1) {
+                break;
+            }
+            filled = filled + count;
+        }
+        return filled;
+    }
+
+    private Map createBlockMap() {
+        final Map blocks = new HashMap();
+        for (int i = 0; i < weak.length; i++) {
+            final Integer key = new Integer(weak[i]);
+            List list = (List) blocks.get(key);
+            if (list == null) {
+                list = new ArrayList();
+                blocks.put(key, list);
+            }
+            list.add(new Integer(i));
+        }
+        return blocks;
+    }
+
+    /**
+     * Marks all blocks with the same content as the window.
+     * 
+     * @return Number of newly found blocks or <code>-1</code> if the window
+     *         matches no block.
+     */
+    private int match(final Map blocks, final int weakValue, final MessageDigest digest,
+            final byte[] buf, final int pos, final long[] found, final long offset) {
+        final List list = (List) blocks.get(new Integer(weakValue));
+        if (list == null) {
+            return -1;
+        }
+        digest.update(buf, pos, blockSize);
+        final byte[] hash = digest.digest();
+        int matches = -1;
+        for (int i = 0; i < list.size(); i++) {
+            final int block = ((Integer) list.get(i)).intValue();
+            if (strongEquals(block, hash)) {
+                if (matches == -1) {
+                    matches = 0;
+                }
+                if (found[block] == -1) {
+                    found[block] = offset;
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private boolean strongEquals(final int block, final byte[] hash) {
+        final int start = block * STRONG_LENGTH;
+        for (int i = 0; i < STRONG_LENGTH; i++) {
+            if (strong[start + i] != hash[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a file from the blocks found in a local seed file and the
+     * missing byte ranges loaded from the source file URL. Adjacent missing
+     * blocks are loaded with a single range request.
+     * 
+     * @param seedFile
+     *            Local file, usually an older version of the file.
+     * @param srcFileUrl
+     *            URL of the complete file.
+     * @param targetFile
+     *            File to create - Cannot be the same as the seed file.
+     * 
+     * @return Number of bytes loaded from the source file URL.
+     * 
+     * @throws IOException
+     *             Error reading or writing the files or the server does not
+     *             support range requests.
+     */
+    public final long sync(final File seedFile, final URL srcFileUrl, final File targetFile)
+            throws IOException {
+
+        final long[] found = findBlocks(seedFile);
+
+        final List ranges = new ArrayList();
+        final byte[] buf = new byte[Math.max(BUF_SIZE, blockSize)];
+        final RandomAccessFile seed = new RandomAccessFile(seedFile, "r");
+        try {
+            final RandomAccessFile out = new RandomAccessFile(targetFile, "rw");
+            try {
+                out.setLength(0);
+                for (int i = 0; i < found.length; i++) {
+                    final long start = (long) i * blockSize;
+                    if (found[i] == -1) {
+                        addRange(ranges, start, start + blockSize);
+                    } else {
+                        seed.seek(found[i]);
+                        seed.readFully(buf, 0, blockSize);
+                        out.seek(start);
+                        out.write(buf, 0, blockSize);
+                    }
+                }
+                final long tailStart = (long) found.length * blockSize;
+                if (tailStart < fileLength) {
+                    addRange(ranges, tailStart, fileLength);
+                }
+                long loaded = 0;
+                for (int i = 0; i < ranges.size(); i++) {
+                    final long[] range = (long[]) ranges.get(i);
+                    loadRange(srcFileUrl, range[0], range[1], out, buf);
+                    loaded = loaded + (range[1] - range[0]);
+                }
+                out.setLength(fileLength);
+                return loaded;
+            } finally {
+                out.close();
+            }
+        } finally {
+            seed.close();
+        }
+
+    }
+
+    private static void addRange(final List ranges, final long start, final long end) {
+        if (ranges.size() > 0) {
+            final long[] last = (long[]) ranges.get(ranges.size() - 1);
+            if (start - last[1] <= MAX_GAP) {
+                last[1] = end;
+                return;
+            }
+        }
+        ranges.add(new long[] { start, end });
+    }
+
+    private static void loadRange(final URL url, final long start, final long end,
+            final RandomAccessFile out, final byte[] buf) throws IOException {
+        final Transport.Response response = Utils.getTransport().open(url, start, end);
+        try {
+            final boolean partial = response.isPartial();
+            if ((start > 0) && !partial) {
+                throw new IOException("Server does not support range requests: " + url);
+            }
+            final InputStream in = response.getInputStream();
+            out.seek(start);
+            long remaining = end - start;
+            while (remaining > 0) {
+                final int count = in.read(buf, 0, (int) Math.min(remaining, buf.length));
+                if (count == -1) {
+                    throw new IOException("Unexpected end of file: " + url + " [offset="
+                            + (end - remaining) + "]");
+                }
+                out.write(buf, 0, count);
+                remaining = remaining - count;
+            }
+            if (partial) {
+                // Reaching the end of the range allows reusing the connection
+                in.read();
+            }
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Loads the index and creates a file from a local seed file and the
+     * missing byte ranges. The target file is only replaced if the result has
+     * the expected hash. Errors are logged and signaled by the return value -
+     * The caller is expected to fall back to a full download in this case.
+     * 
+     * @param blocksUrl
+     *            URL of the index.
+     * @param srcFileUrl
+     *            URL of the complete file.
+     * @param seedFile
+     *            Local file, usually an older version of the file.
+     * @param targetFile
+     *            File to create - May be the same as the seed file.
+     * @param expectedHash
+     *            Expected hash of the created file.
+     * @param algorithm
+     *            Name of the hash algorithm of the expected hash.
+     * 
+     * @return If the target file was successfully created <code>true</code>
+     *         else <code>false</code>.
+     */
+    public static boolean syncTo(final String blocksUrl, final URL srcFileUrl,
+            final File seedFile, final File targetFile, final String expectedHash,
+            final String algorithm) {
+        final File newFile = new File(targetFile.getParentFile(), targetFile.getName() + ".sync");
+        try {
+            final BlockIndex index;
+            final InputStream in = Utils.openStream(new URL(blocksUrl));
+            try {
+                index = read(in);
+            } finally {
+                in.close();
+            }
+            final long loaded = index.sync(seedFile, srcFileUrl, newFile);
+            final String hash = HashAlgorithm.createHash(newFile, algorithm);
+            if (!hash.equals(expectedHash)) {
+                LOG.warn("Synchronized file has wrong hash: " + seedFile + " [expected="
+                        + expectedHash + ", actual=" + hash + "]");
+                return false;
+            }
+            if (targetFile.exists() && !targetFile.delete()) {
+                throw new IOException("Cannot delete file: " + targetFile);
+            }
+            if (!newFile.renameTo(targetFile)) {
+                throw new IOException("Cannot rename file: " + newFile + " => " + targetFile);
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Synchronized " + targetFile + " [loaded=" + loaded + ", length="
+                        + index.getFileLength() + "]");
+            }
+            return true;
+        } catch (final IOException ex) {
+            LOG.warn("Error synchronizing file: " + srcFileUrl, ex);
+            return false;
+        } catch (final RuntimeException ex) {
+            LOG.warn("Error synchronizing file: " + srcFileUrl, ex);
+            return false;
+        } finally {
+            newFile.delete();
+        }
+    }
+
+    /**
+     * Writes the index to a stream.
+     * 
+     * @param out
+     *            Stream to write to - Will not be closed.
+     * 
+     * @throws IOException
+     *             Error writing the index.
+     */
+    public final void write(final OutputStream out) throws IOException {
+        final DataOutputStream dout = new DataOutputStream(new BufferedOutputStream(out));
+        dout.writeInt(MAGIC);
+        dout.writeInt(VERSION);
+        dout.writeInt(blockSize);
+        dout.writeLong(fileLength);
+        dout.writeInt(weak.length);
+        for (int i = 0; i < weak.length; i++) {
+            dout.writeInt(weak[i]);
+            dout.write(strong, i * STRONG_LENGTH, STRONG_LENGTH);
+        }
+        dout.flush();
+    }
+
+    /**
+     * Writes the index to a file.
+     * 
+     * @param file
+     *            File to create.
+     * 
+     * @throws IOException
+     *             Error writing the index.
+     */
+    public final void write(final File file) throws IOException {
+        final OutputStream out = FileUtils.openOutputStream(file);
+        try {
+            write(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads an index from a stream.
+     * 
+     * @param in
+     *            Stream to read from - Will not be closed.
+     * 
+     * @return New index.
+     * 
+     * @throws IOException
+     *             Error reading the stream or invalid format.
+     */
+    public static BlockIndex read(final InputStream in) throws IOException {
+        final DataInputStream din = new DataInputStream(new BufferedInputStream(in));
+        if (din.readInt() != MAGIC) {
+            throw new IOException("Invalid block index format");
+        }
+        final int version = din.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unknown block index version: " + version);
+        }
+        final int blockSize = din.readInt();
+        final long fileLength = din.readLong();
+        final int count = din.readInt();
+        if ((blockSize <= 0) || (count < 0) || ((long) count * blockSize > fileLength)) {
+            throw new IOException("Invalid block index header [blockSize=" + blockSize
+                    + ", fileLength=" + fileLength + ", count=" + count + "]");
+        }
+        final int[] weak = new int[count];
+        final byte[] strong = new byte[count * STRONG_LENGTH];
+        for (int i = 0; i < count; i++) {
+            weak[i] = din.readInt();
+            din.readFully(strong, i * STRONG_LENGTH, STRONG_LENGTH);
+        }
+        return new BlockIndex(blockSize, fileLength, weak, strong);
+    }
+
+    /**
+     * Creates the index for a file.
+     * 
+     * @param file
+     *            File to create an index for.
+     * @param blockSize
+     *            Size of the blocks.
+     * 
+     * @return New index.
+     * 
+     * @throws IOException
+     *             Error reading the file.
+     */
+    public static BlockIndex create(final File file, final int blockSize) throws IOException {
+        Utils4J.checkNotNull("file", file);
+        final long fileLength = file.length();
+        final int count = (int) (fileLength / blockSize);
+        final int[] weak = new int[count];
+        final byte[] strong = new byte[count * STRONG_LENGTH];
+        final MessageDigest digest = HashAlgorithm.createDigest(HashAlgorithm.MD5);
+        final byte[] buf = new byte[blockSize];
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file)));
+        try {
+            for (int i = 0; i < count; i++) {
+                in.readFully(buf);
+                weak[i] = RollingChecksum.calculate(buf, 0, blockSize);
+                digest.update(buf);
+                System.arraycopy(digest.digest(), 0, strong, i * STRONG_LENGTH, STRONG_LENGTH);
+            }
+        } finally {
+            in.close();
+        }
+        return new BlockIndex(blockSize, fileLength, weak, strong);
+    }
+
+    /**
+     * Creates the index for a file with the default block size.
+     * 
+     * @param file
+     *            File to create an index for.
+     * 
+     * @return New index.
+     * 
+     * @throws IOException
+     *             Error reading the file.
+     */
+    public static BlockIndex create(final File file) throws IOException {
+        return create(file, DEFAULT_BLOCK_SIZE);
+    }
+
+}
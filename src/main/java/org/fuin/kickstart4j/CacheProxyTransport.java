@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Transport that loads files through a {@link CacheServer}. The URL of the
+ * request is the proxy prefix followed by the complete original URL. If the
+ * cache server does not know the file the original URL is loaded directly.
+ * If the cache server cannot be reached it's not used for some time and all
+ * requests go to the original URLs.
+ */
+public final class CacheProxyTransport implements Transport {
+
+    private static final Logger LOG = Logger.getLogger(CacheProxyTransport.class);
+
+    /** Time the cache server is not used after an error. */
+    private static final long FAILURE_PAUSE_MILLIS = 60 * 1000;
+
+    /** Transport used for the requests. */
+    private final Transport delegate;
+
+    /** URL prefix of the cache server (ends with a slash). */
+    private final String proxyUrl;
+
+    /** Time until the cache server is not used. */
+    private long excludedUntil = 0;
+
+    /**
+     * Constructor with underlying transport and proxy prefix.
+     * 
+     * @param delegate
+     *            Transport used for the requests - Cannot be
+     *            <code>null</code>.
+     * @param proxyUrl
+     *            URL prefix of the cache server - Cannot be <code>null</code>.
+     */
+    public CacheProxyTransport(final Transport delegate, final String proxyUrl) {
+        super();
+        Utils4J.checkNotNull("delegate", delegate);
+        Utils4J.checkNotNull("proxyUrl", proxyUrl);
+        this.delegate = delegate;
+        if (proxyUrl.endsWith("/")) {
+            this.proxyUrl = proxyUrl;
+        } else {
+            this.proxyUrl = proxyUrl + "/";
+        }
+    }
+
+    /**
+     * Returns the URL prefix of the cache server.
+     * 
+     * @return URL prefix ending with a slash.
+     */
+    public final String getProxyUrl() {
+        return proxyUrl;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final Response open(final URL url, final long offset, final long end)
+            throws IOException {
+        final String urlStr = url.toExternalForm();
+        final String protocol = url.getProtocol();
+        if ((protocol.equals("http") || protocol.equals("https")) && !urlStr.startsWith(proxyUrl)
+                && isAvailable()) {
+            Response response = null;
+            try {
+                response = delegate.open(new URL(proxyUrl + urlStr), offset, end);
+                if ((offset > 0) && response.isRangeNotSatisfiable()) {
+                    return response;
+                }
+                return new OpenedResponse(response, response.getInputStream());
+            } catch (final FileNotFoundException ex) {
+                // File is unknown to the cache server
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Not cached: " + urlStr);
+                }
+                close(response);
+            } catch (final IOException ex) {
+                close(response);
+                failed();
+                LOG.warn("Cache server failed - Loading files directly for "
+                        + (FAILURE_PAUSE_MILLIS / 1000) + " seconds [" + ex + "]");
+            }
+        }
+        return delegate.open(url, offset, end);
+    }
+
+    private static void close(final Response response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    private synchronized boolean isAvailable() {
+        return System.currentTimeMillis() >= excludedUntil;
+    }
+
+    private synchronized void failed() {
+        excludedUntil = System.currentTimeMillis() + FAILURE_PAUSE_MILLIS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final TransportStatistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    /**
+     * Response with an already opened stream.
+     */
+    private static final class OpenedResponse implements Response {
+
+        private final Response response;
+
+        private final InputStream in;
+
+        public OpenedResponse(final Response response, final InputStream in) {
+            super();
+            this.response = response;
+            this.in = in;
+        }
+
+        public boolean isPartial() throws IOException {
+            return response.isPartial();
+        }
+
+        public boolean isRangeNotSatisfiable() throws IOException {
+            return response.isRangeNotSatisfiable();
+        }
+
+        public InputStream getInputStream() {
+            return in;
+        }
+
+        public void close() {
+            IOUtils.closeQuietly(in);
+            response.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,618 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Small HTTP server that serves the files of an application configuration
+ * from a local disk cache to other Kickstart4J clients. A client requests
+ * the cache server URL followed by the complete original URL of a file (See
+ * {@link CacheProxyTransport}). Only files listed in the configuration are
+ * served: A missing file is loaded once from the original URL, verified with
+ * the hash from the configuration and added to the cache. Requests for
+ * unknown URLs are answered with "404 Not Found" so the client loads them
+ * directly. The configuration is read again if an unknown URL is requested
+ * (at most once per minute) to pick up new versions. At most
+ * {@link #MAX_REQUESTS} requests are answered at the same time - Further
+ * connections wait until a request is finished. A client that does not send
+ * it's request within {@link #READ_TIMEOUT_MILLIS} is disconnected.
+ */
+public final class CacheServer {
+
+    private static final Logger LOG = Logger.getLogger(CacheServer.class);
+
+    /** Default port. */
+    public static final int DEFAULT_PORT = 8765;
+
+    /** Maximum number of requests answered at the same time. */
+    public static final int MAX_REQUESTS = 32;
+
+    /** Maximum time to wait for data from a client (milliseconds). */
+    public static final int READ_TIMEOUT_MILLIS = 30 * 1000;
+
+    private static final long RELOAD_MILLIS = 60 * 1000;
+
+    private static final String CRLF = "\r\n";
+
+    private static final String ENCODING = "ISO-8859-1";
+
+    private static final int BUF_SIZE = 8192;
+
+    /** URL of the application configuration. */
+    private final URL configFileUrl;
+
+    /** Directory for the cached files. */
+    private final File cacheDir;
+
+    /**
+     * Cached files - Created with the hash algorithm of the configuration when
+     * it's loaded.
+     */
+    private ContentStore store = null;
+
+    /** Port to listen on. */
+    private final int port;
+
+    /** Prefer the manifest next to the configuration. */
+    private final boolean useManifest;
+
+    /** Key = Source file URL, Value = {@link SrcFile}. */
+    private Map srcFiles = null;
+
+    /** Time the configuration was loaded. */
+    private long loadedAt = 0;
+
+    /** Key = Hash, Value = Lock object. */
+    private final Map locks = new HashMap();
+
+    private ServerSocket serverSocket;
+
+    /** Lock for the number of requests. */
+    private final Object requestLock = new Object();
+
+    /** Number of requests currently answered. */
+    private int activeRequests = 0;
+
+    /**
+     * Constructor that reads the XML configuration.
+     * 
+     * @param configFileUrl
+     *            URL of the application configuration - Cannot be
+     *            <code>null</code>.
+     * @param cacheDir
+     *            Directory for the cached files - Cannot be <code>null</code>.
+     * @param port
+     *            Port to listen on or <code>0</code> to use any free port.
+     */
+    public CacheServer(final URL configFileUrl, final File cacheDir, final int port) {
+        this(configFileUrl, cacheDir, port, false);
+    }
+
+    /**
+     * Constructor with all arguments.
+     * 
+     * @param configFileUrl
+     *            URL of the application configuration - Cannot be
+     *            <code>null</code>.
+     * @param cacheDir
+     *            Directory for the cached files - Cannot be <code>null</code>.
+     * @param port
+     *            Port to listen on or <code>0</code> to use any free port.
+     * @param useManifest
+     *            Prefer the {@link ConfigManifest} next to the configuration
+     *            (like {@link Kickstart4J} with "-useManifest true")
+     *            <code>true</code> or always read the XML configuration
+     *            <code>false</code>.
+     */
+    public CacheServer(final URL configFileUrl, final File cacheDir, final int port,
+            final boolean useManifest) {
+        super();
+        Utils4J.checkNotNull("configFileUrl", configFileUrl);
+        Utils4J.checkNotNull("cacheDir", cacheDir);
+        this.configFileUrl = configFileUrl;
+        this.cacheDir = cacheDir;
+        this.port = port;
+        this.useManifest = useManifest;
+    }
+
+    /**
+     * Opens the server socket and starts accepting requests in a new thread.
+     * 
+     * @throws IOException
+     *             Error opening the server socket.
+     */
+    public final synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("The server is already running!");
+        }
+        serverSocket = new ServerSocket(port);
+        final ServerSocket socket = serverSocket;
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                accept(socket);
+            }
+        }, "Kickstart4J-CacheServer");
+        thread.start();
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Cache server started: port=" + getPort() + ", dir=" + cacheDir
+                    + ", config=" + configFileUrl);
+        }
+    }
+
+    /**
+     * Closes the server socket. Running requests are completed.
+     */
+    public final synchronized void stop() {
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (final IOException ex) {
+                LOG.warn("Error closing server socket", ex);
+            }
+            serverSocket = null;
+        }
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     * 
+     * @return Port or <code>-1</code> if the server is not running.
+     */
+    public final synchronized int getPort() {
+        if (serverSocket == null) {
+            return -1;
+        }
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept(final ServerSocket socket) {
+        while (true) {
+            if (!beginRequest()) {
+                return;
+            }
+            final Socket client;
+            try {
+                client = socket.accept();
+            } catch (final IOException ex) {
+                endRequest();
+                if (!socket.isClosed()) {
+                    LOG.error("Error accepting connection", ex);
+                }
+                return;
+            }
+            final Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        handle(client);
+                    } finally {
+                        endRequest();
+                    }
+                }
+            }, "Kickstart4J-CacheServer-Request");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Waits until less than {@link #MAX_REQUESTS} requests are running and
+     * counts a new one.
+     * 
+     * @return If the request can be started <code>true</code> else
+     *         <code>false</code> (interrupted).
+     */
+    private boolean beginRequest() {
+        synchronized (requestLock) {
+            while (activeRequests >= MAX_REQUESTS) {
+                try {
+                    requestLock.wait();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            activeRequests++;
+            return true;
+        }
+    }
+
+    private void endRequest() {
+        synchronized (requestLock) {
+            activeRequests--;
+            requestLock.notifyAll();
+        }
+    }
+
+    /**
+     * Answers a single request. The connection is closed afterwards.
+     * 
+     * @param client
+     *            Connection.
+     */
+    private void handle(final Socket client) {
+        try {
+            try {
+                client.setSoTimeout(READ_TIMEOUT_MILLIS);
+                final InputStream in = client.getInputStream();
+                final OutputStream out = new BufferedOutputStream(client.getOutputStream());
+                handle(in, out);
+                out.flush();
+            } finally {
+                client.close();
+            }
+        } catch (final SocketTimeoutException ex) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Client timed out: " + ex);
+            }
+        } catch (final SocketException ex) {
+            // Client closed the connection
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Connection closed: " + ex);
+            }
+        } catch (final IOException ex) {
+            LOG.warn("Error answering request", ex);
+        }
+    }
+
+    private void handle(final InputStream in, final OutputStream out) throws IOException {
+
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, ENCODING));
+        final String requestLine = reader.readLine();
+        if (requestLine == null) {
+            return;
+        }
+        long[] range = null;
+        String line;
+        while (((line = reader.readLine()) != null) && (line.length() > 0)) {
+            if (line.toLowerCase().startsWith("range:")) {
+                range = parseRange(line.substring(6).trim());
+            }
+        }
+
+        final String[] parts = requestLine.split(" ");
+        if ((parts.length != 3) || !parts[1].startsWith("/")) {
+            writeStatus(out, "400 Bad Request");
+            return;
+        }
+        final boolean head = parts[0].equals("HEAD");
+        if (!head && !parts[0].equals("GET")) {
+            writeStatus(out, "405 Method Not Allowed");
+            return;
+        }
+        final String url = parts[1].substring(1);
+        final SrcFile srcFile = findSrcFile(url);
+        if (srcFile == null) {
+            writeStatus(out, "404 Not Found");
+            return;
+        }
+        final File file = fill(srcFile);
+        if (file == null) {
+            writeStatus(out, "502 Bad Gateway");
+            return;
+        }
+
+        final long size = file.length();
+        final long offset;
+        final long last;
+        if (range == null) {
+            offset = 0;
+            last = size - 1;
+            writeHeader(out, "200 OK", size, null);
+        } else {
+            if (range[0] >= size) {
+                writeStatus(out, "416 Requested Range Not Satisfiable",
+                        "Content-Range: bytes */" + size);
+                return;
+            }
+            offset = range[0];
+            if ((range[1] == -1) || (range[1] >= size)) {
+                last = size - 1;
+            } else {
+                last = range[1];
+            }
+            writeHeader(out, "206 Partial Content", last - offset + 1, "Content-Range: bytes "
+                    + offset + "-" + last + "/" + size);
+        }
+        if (!head) {
+            final InputStream fileIn = new FileInputStream(file);
+            try {
+                IOUtils.skip(fileIn, offset);
+                final byte[] buf = new byte[BUF_SIZE];
+                long remaining = last - offset + 1;
+                while (remaining > 0) {
+                    final int count = fileIn.read(buf, 0, (int) Math.min(remaining, buf.length));
+                    if (count == -1) {
+                        break;
+                    }
+                    out.write(buf, 0, count);
+                    remaining = remaining - count;
+                }
+            } finally {
+                fileIn.close();
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("SERVED " + srcFile + " (bytes " + offset + "-" + last + ")");
+        }
+
+    }
+
+    /**
+     * Returns a single range ("bytes=N-" or "bytes=N-M"). Other ranges
+     * (suffix or multiple ranges) are ignored and the complete file is sent.
+     * 
+     * @param range
+     *            Value of the "Range" header.
+     * 
+     * @return Start offset and last position (inclusive, <code>-1</code> for
+     *         the end of the file) or <code>null</code>.
+     */
+    private static long[] parseRange(final String range) {
+        if (!range.startsWith("bytes=") || (range.indexOf(',') > -1)) {
+            return null;
+        }
+        final int dash = range.indexOf('-');
+        if (dash < 7) {
+            return null;
+        }
+        try {
+            final long start = Long.parseLong(range.substring(6, dash).trim());
+            final String lastStr = range.substring(dash + 1).trim();
+            final long last;
+            if (lastStr.length() == 0) {
+                last = -1;
+            } else {
+                last = Long.parseLong(lastStr);
+                if (last < start) {
+                    return null;
+                }
+            }
+            return new long[] { start, last };
+        } catch (final NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static void writeStatus(final OutputStream out, final String status)
+            throws IOException {
+        writeStatus(out, status, null);
+    }
+
+    private static void writeStatus(final OutputStream out, final String status,
+            final String extraHeader) throws IOException {
+        writeHeader(out, status, 0, extraHeader);
+    }
+
+    private static void writeHeader(final OutputStream out, final String status,
+            final long length, final String extraHeader) throws IOException {
+        final StringBuffer sb = new StringBuffer();
+        sb.append("HTTP/1.1 " + status + CRLF);
+        sb.append("Content-Type: application/octet-stream" + CRLF);
+        sb.append("Content-Length: " + length + CRLF);
+        sb.append("Accept-Ranges: bytes" + CRLF);
+        if (extraHeader != null) {
+            sb.append(extraHeader + CRLF);
+        }
+        sb.append("Connection: close" + CRLF);
+        sb.append(CRLF);
+        out.write(sb.toString().getBytes(ENCODING));
+    }
+
+    /**
+     * Finds the source file for a URL. The configuration is read again if the
+     * URL is unknown and the last read is older than a minute.
+     * 
+     * @param url
+     *            Original URL.
+     * 
+     * @return Source file or <code>null</code> if the URL is unknown.
+     */
+    private synchronized SrcFile findSrcFile(final String url) {
+        final String key = normalize(url);
+        if (key == null) {
+            return null;
+        }
+        if ((srcFiles == null)
+                || (!srcFiles.containsKey(key) && (System.currentTimeMillis() - loadedAt > RELOAD_MILLIS))) {
+            loadConfig();
+        }
+        if (srcFiles == null) {
+            return null;
+        }
+        return (SrcFile) srcFiles.get(key);
+    }
+
+    private void loadConfig() {
+        loadedAt = System.currentTimeMillis();
+        try {
+            final Config config;
+            if (useManifest) {
+                config = ConfigManifest.create(configFileUrl);
+            } else {
+                config = ConfigParser.create(configFileUrl);
+            }
+            final String algorithm = config.getHashAlgorithm();
+            if ((store == null) || !store.getAlgorithm().equals(algorithm)) {
+                store = new ContentStore(cacheDir, algorithm);
+            }
+            final Map map = new HashMap();
+            final List list = config.getSrcFiles();
+            for (int i = 0; i < list.size(); i++) {
+                final SrcFile srcFile = (SrcFile) list.get(i);
+                final String key = normalize(srcFile.getSrcFileUrl());
+                if (key != null) {
+                    map.put(key, srcFile);
+                }
+            }
+            srcFiles = map;
+            if (LOG.isInfoEnabled()) {
+                LOG.info("Configuration loaded: " + map.size() + " files");
+            }
+        } catch (final InvalidConfigException ex) {
+            LOG.error("Cannot load configuration: " + configFileUrl, ex);
+        }
+    }
+
+    private static String normalize(final String url) {
+        try {
+            return new URL(url).toExternalForm();
+        } catch (final MalformedURLException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Makes sure the cache contains a file. Concurrent requests for the same
+     * file wait for a single transfer.
+     * 
+     * @param srcFile
+     *            File to load.
+     * 
+     * @return File inside the cache or <code>null</code> if it cannot be
+     *         loaded.
+     */
+    private File fill(final SrcFile srcFile) {
+        final ContentStore contentStore = getStore();
+        final String hash = srcFile.getMd5Hash();
+        synchronized (getLock(hash)) {
+            if (contentStore.contains(hash, srcFile.getSize())) {
+                return contentStore.getFile(hash);
+            }
+            File tmpFile = null;
+            try {
+                final File dir = contentStore.getDir();
+                if (!dir.exists() && !dir.mkdirs()) {
+                    throw new IOException("Cannot create directory: " + dir);
+                }
+                tmpFile = File.createTempFile(hash, ".download", dir);
+                final String loadedHash = srcFile.createDownload(tmpFile, null,
+                        contentStore.getAlgorithm()).execute(null, 0, srcFile.getSizeAsInt());
+                if (!loadedHash.equals(hash)) {
+                    LOG.error("Hash of loaded file (" + loadedHash
+                            + ") is different from configuration hash (" + hash + ")! ["
+                            + srcFile.getSrcFileUrl() + "]");
+                    return null;
+                }
+                contentStore.add(hash, tmpFile);
+                if (LOG.isInfoEnabled()) {
+                    LOG.info("CACHED " + srcFile.getSrcFileUrl());
+                }
+            } catch (final IOException ex) {
+                LOG.error("Cannot load file: " + srcFile.getSrcFileUrl(), ex);
+                return null;
+            } catch (final RuntimeException ex) {
+                LOG.error("Cannot load file: " + srcFile.getSrcFileUrl(), ex);
+                return null;
+            } finally {
+                if (tmpFile != null) {
+                    tmpFile.delete();
+                }
+            }
+            if (contentStore.contains(hash, srcFile.getSize())) {
+                return contentStore.getFile(hash);
+            }
+            return null;
+        }
+    }
+
+    private synchronized ContentStore getStore() {
+        return store;
+    }
+
+    private Object getLock(final String hash) {
+        synchronized (locks) {
+            Object lock = locks.get(hash);
+            if (lock == null) {
+                lock = new Object();
+                locks.put(hash, lock);
+            }
+            return lock;
+        }
+    }
+
+    /**
+     * Starts a cache server.
+     * 
+     * @param args
+     *            Optional "-useManifest", configuration URL, cache directory
+     *            and optional port.
+     * 
+     * @throws IOException
+     *             Error opening the server socket.
+     */
+    public static void main(final String[] args) throws IOException {
+
+        boolean useManifest = false;
+        int first = 0;
+        if ((args != null) && (args.length > 0) && args[0].equals("-useManifest")) {
+            useManifest = true;
+            first = 1;
+        }
+        final int count;
+        if (args == null) {
+            count = 0;
+        } else {
+            count = args.length - first;
+        }
+        if ((count != 2) && (count != 3)) {
+            System.out.println("java -classpath <CP> " + CacheServer.class.getName()
+                    + " [-useManifest] <CONFIG-URL> <CACHE-DIR> [<PORT>]");
+            System.out.println("    -useManifest = Prefer the binary manifest next to the"
+                    + " configuration");
+            System.out.println("    <CONFIG-URL> = URL of the application configuration");
+            System.out.println("    <CACHE-DIR> = Directory for the cached files");
+            System.out.println("    <PORT> = Port to listen on (default " + DEFAULT_PORT + ")");
+            return;
+        }
+
+        final URL configFileUrl = new URL(args[first]);
+        final File cacheDir = new File(args[first + 1]);
+        final int port;
+        if (count == 3) {
+            port = Integer.parseInt(args[first + 2]);
+        } else {
+            port = DEFAULT_PORT;
+        }
+        final CacheServer server = new CacheServer(configFileUrl, cacheDir, port, useManifest);
+        server.start();
+        System.out.println("Cache server listening on port " + server.getPort());
+
+    }
+
+}
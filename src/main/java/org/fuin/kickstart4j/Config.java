@@ -1,1087 +1,1689 @@
-/**
- * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
- * reserved. <http://www.fuin.org/>
- *
- * This library is free software; you can redistribute it and/or modify it under
- * the terms of the GNU Lesser General Public License as published by the Free
- * Software Foundation; either version 3 of the License, or (at your option) any
- * later version.
- *
- * This library is distributed in the hope that it will be useful, but WITHOUT
- * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
- * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
- * details.
- *
- * You should have received a copy of the GNU Lesser General Public License
- * along with this library. If not, see <http://www.gnu.org/licenses/>.
- */
-package org.fuin.kickstart4j;
-
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.Writer;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.StringTokenizer;
-
-import javax.swing.UIManager;
-
-import org.apache.commons.io.IOUtils;
-import org.fuin.utils4j.ToDebugStringCapable;
-import org.fuin.utils4j.Utils4J;
-
-/**
- * Configuration for the application. The <code>cmdLineOptions</code> map
- * contains all arguments from the command line that are not known standard
- * arguments. This way it's possible to add application specific parameters for
- * the installation process. The entries <code>userHome</code> and
- * <code>destDir</code> are predefined values.
- */
-public final class Config implements ToDebugStringCapable, SimpleAttributesEqualsCapable {
-
-    /** Fully qualified LnF class name. */
-    private String lookAndFeelClassName = UIManager.getSystemLookAndFeelClassName();
-
-    /** Unique id filename for the application. */
-    private String idFilename;
-
-    /** Determines if the program terminates with <code>System.exit(..)</code>. */
-    private boolean exitAfterExecute = true;
-
-    /** Local path where the files should be copied to. */
-    private String destPath = null;
-
-    /** Determines if the user should be prompted for the destination directory. */
-    private boolean silentInstall = false;
-
-    /** Determines if the user should be prompted if an update is available. */
-    private boolean silentUpdate = false;
-
-    /** Determines if this is the first installation. */
-    private boolean firstInstallation = true;
-
-    /** Locale to use. */
-    private Locale locale = Locale.getDefault();
-
-    /** File containing the localized installation messages. */
-    private String msgFileUrl = null;
-
-    /** Message properties needed for the installer. */
-    private MessagesWrapper messages = null;
-
-    /** Load only the "jar" entries on startup? */
-    private boolean lazyLoading = false;
-
-    /** Options from the command line. */
-    private Map cmdLineOptions = new HashMap();
-
-    /** Java executable. */
-    private String javaExe = null;
-
-    /** Command line including (without java executable itself). */
-    private String javaArgs = null;
-
-    /** Title of the application. */
-    private String title = null;
-
-    /** Vendor of the application. */
-    private String vendor = null;
-
-    /** Short description of the application. */
-    private String description = null;
-
-    /** List of known files. */
-    private List srcFiles = new ArrayList();
-
-    /** List of directories to create. */
-    private List mkDirs = new ArrayList();
-
-    /** List of known directories. */
-    private List srcDirs = new ArrayList();
-
-    /** URL of the configuration file (only required when lazyLoading=true). */
-    private String configFileUrl = null;
-
-    /** Target application version. */
-    private String version = null;
-
-    /** Encoding to use for XML output. */
-    private String xmlEncoding = "ISO-8859-1";
-
-    /** Show a "starting application" frame? */
-    private boolean showStartFrame = true;
-
-    /** Show the start frame for N seconds after application has started. */
-    private int startFrameDelaySeconds = 2;
-
-    /** Name and path of the log file. */
-    private String logFilename = System.getProperty("user.home") + File.separator
-            + "kickstart4j.log";
-
-    /**
-     * Default constructor.
-     */
-    public Config() {
-        super();
-        cmdLineOptions.put("userHome", System.getProperty("user.home"));
-    }
-
-    /**
-     * Returns the name of the LookAndFeel class.
-     * 
-     * @return Fully qualified LnF class name - Always non-null.
-     */
-    public final String getLookAndFeelClassName() {
-        return lookAndFeelClassName;
-    }
-
-    /**
-     * Sets the name of the Look and Feel class.
-     * 
-     * @param lnfClassName
-     *            Full qualified Java LookAndFeel class name - System
-     *            LookAndFeel is used when <code>null</code>.
-     */
-    public final void setLookAndFeelClassName(final String lnfClassName) {
-        if (lnfClassName == null) {
-            this.lookAndFeelClassName = UIManager.getSystemLookAndFeelClassName();
-        } else {
-            this.lookAndFeelClassName = lnfClassName;
-        }
-    }
-
-    /**
-     * Returns whether the program should terminate after executing.
-     * 
-     * @return If the program terminates with <code>System.exit(..)</code>
-     *         <code>true</code> (DEFAULT) else <code>false</code>.
-     */
-    public final boolean isExitAfterExecute() {
-        return exitAfterExecute;
-    }
-
-    /**
-     * Sets whether the program should terminate after executing.
-     * 
-     * @param exitAfterExecute
-     *            If the program should terminate with
-     *            <code>System.exit(..)</code> <code>true</code> (DEFAULT) else
-     *            <code>false</code>.
-     */
-    public final void setExitAfterExecute(final boolean exitAfterExecute) {
-        this.exitAfterExecute = exitAfterExecute;
-    }
-
-    /**
-     * Returns the local destination path where the files should be copied to.
-     * 
-     * @return Local path - Always non-<code>null</code> if <code>check()</code>
-     *         throws no exceptions.
-     */
-    public final File getDestDir() {
-        return new File(getDestPath());
-    }
-
-    /**
-     * Returns the local destination path where the files should be copied to.
-     * 
-     * @return Path.
-     */
-    public final String getDestPath() {
-        return Utils4J.replaceVars(destPath, cmdLineOptions);
-    }
-
-    /**
-     * Sets the local destination path where the files should be copied to.
-     * 
-     * @param destPath
-     *            Path - Cannot be <code>null</code>
-     */
-    public final void setDestPath(final String destPath) {
-        if (destPath == null) {
-            throw new IllegalArgumentException("The argument 'destPath' cannot be null!");
-        }
-        this.destPath = destPath;
-    }
-
-    /**
-     * Returns the unique id filename for the application.
-     * 
-     * @return Name of the application ID file - Always non-<code>null</code> if
-     *         <code>check()</code> throws no exceptions.
-     */
-    public final String getIdFilename() {
-        return Utils4J.replaceVars(idFilename, cmdLineOptions);
-    }
-
-    /**
-     * Sets the unique id filename for the application.
-     * 
-     * @param id
-     *            Unique ID - Must be a valid filename on the target system - A
-     *            <code>null</code> value is not allowed!
-     */
-    public final void setIdFilename(final String id) {
-        if (id == null) {
-            throw new IllegalArgumentException("The argument 'id' cannot be null!");
-        }
-        this.idFilename = id;
-    }
-
-    /**
-     * Determines if the user should be prompted for the destination directory.
-     * 
-     * @return If "destDir" should be used without asking the user
-     *         <code>true</code> else <code>false</code>.
-     */
-    public final boolean isSilentInstall() {
-        return silentInstall;
-    }
-
-    /**
-     * Determines if the user should be prompted for the destination directory.
-     * 
-     * @param silentInstall
-     *            If "destDir" should be used without asking the user
-     *            <code>true</code> else <code>false</code>.
-     */
-    public final void setSilentInstall(final boolean silentInstall) {
-        this.silentInstall = silentInstall;
-    }
-
-    /**
-     * Determines if the user should be asked if an update is available.
-     * 
-     * @return If updates should be executed without asking the user
-     *         <code>true</code> else <code>false</code>.
-     */
-    public final boolean isSilentUpdate() {
-        return silentUpdate;
-    }
-
-    /**
-     * Determines if the user should be asked if an update is available.
-     * 
-     * @param silentUpdate
-     *            If updates should be executed without asking the user
-     *            <code>true</code> else <code>false</code>.
-     */
-    public final void setSilentUpdate(final boolean silentUpdate) {
-        this.silentUpdate = silentUpdate;
-    }
-
-    /**
-     * Determines if this is the first installation.
-     * 
-     * @return If this is the first installation <code>true</code> else
-     *         <code>false</code>.
-     */
-    public final boolean isFirstInstallation() {
-        return firstInstallation;
-    }
-
-    /**
-     * Determines if this is the first installation.
-     * 
-     * @param firstInstallation
-     *            If this is the first installation <code>true</code> else
-     *            <code>false</code>.
-     */
-    public final void setFirstInstallation(final boolean firstInstallation) {
-        this.firstInstallation = firstInstallation;
-    }
-
-    /**
-     * Returns the locale to use.
-     * 
-     * @return Locale - Always non-<code>null</code>.
-     */
-    public final Locale getLocale() {
-        return locale;
-    }
-
-    /**
-     * Sets the locale to use.
-     * 
-     * @param locale
-     *            Locale to set - A <code>null</code> value resets the property
-     *            to <code>Locale.getDefault()</code>.
-     */
-    public final void setLocale(final Locale locale) {
-        if (locale == null) {
-            this.locale = Locale.getDefault();
-        } else {
-            this.locale = locale;
-        }
-    }
-
-    /**
-     * Sets the locale to use as a String.
-     * 
-     * @param locale
-     *            Locale "lang" or "lang,country" or "lang,country,variant" - A
-     *            <code>null</code> value resets the property to
-     *            <code>Locale.getDefault()</code>.
-     */
-    public final void setLocale(final String locale) {
-        if (locale == null) {
-            this.locale = Locale.getDefault();
-        } else {
-            final StringTokenizer tok = new StringTokenizer(locale, ",");
-            final int count = tok.countTokens();
-            final String language;
-            final String country;
-            final String variant;
-            if (count == 1) {
-                language = tok.nextToken();
-                country = "";
-                variant = "";
-            } else if (count == 2) {
-                language = tok.nextToken();
-                country = tok.nextToken();
-                variant = "";
-            } else if (count == 3) {
-                language = tok.nextToken();
-                country = tok.nextToken();
-                variant = tok.nextToken();
-            } else {
-                throw new IllegalArgumentException("The argument '" + locale + "' is not valid!");
-            }
-            this.locale = new Locale(language, country, variant);
-        }
-    }
-
-    /**
-     * Returns the file containing the localized installation messages.
-     * 
-     * @return Message file URL - If <code>null</code> the internal default
-     *         messages will be used.
-     */
-    public final String getMsgFileUrl() {
-        return msgFileUrl;
-    }
-
-    /**
-     * Returns the file containing the localized installation messages. A
-     * <code>MalformedURLException</code> is wrapped into a
-     * <code>RuntimeException</code>.
-     * 
-     * @return Message file URL - If <code>null</code> the internal default
-     *         messages will be used.
-     */
-    public final URL getMsgFileURL() {
-        if (msgFileUrl == null) {
-            return null;
-        }
-        try {
-            return new URL(msgFileUrl);
-        } catch (final MalformedURLException ex) {
-            throw new RuntimeException(ex);
-        }
-    }
-
-    /**
-     * Sets the file containing the localized installation messages.
-     * 
-     * @param msgFileUrl
-     *            Message file URL - A <code>null</code> value will result in
-     *            usage of the internal default messages.
-     */
-    public final void setMsgFileUrl(final String msgFileUrl) {
-        if (msgFileUrl == null) {
-            this.msgFileUrl = null;
-        } else {
-            this.msgFileUrl = msgFileUrl.trim();
-        }
-    }
-
-    /**
-     * Checks if the configuration is valid.
-     * 
-     * @throws InvalidConfigException
-     *             The configuration is not valid.
-     */
-    public final void check() throws InvalidConfigException {
-        if (destPath == null) {
-            throw new InvalidConfigException("The 'destPath' is null!");
-        }
-        if (idFilename == null) {
-            throw new InvalidConfigException("The 'idFilename' is null!");
-        }
-        if ((lazyLoading) && ((configFileUrl == null) || (configFileUrl.trim().length() == 0))) {
-            throw new InvalidConfigException("The 'configFileUrl' is null or empty!");
-        }
-    }
-
-    /**
-     * Returns the message properties needed for the installer.
-     * 
-     * @return Localized messages.
-     */
-    public final MessagesWrapper getMessages() {
-        if (messages == null) {
-            try {
-                messages = new MessagesWrapper(Utils4J.loadProperties(getMsgFileURL()));
-            } catch (final RuntimeException ex) {
-                // Load default messages
-                messages = new MessagesWrapper(locale);
-            }
-        }
-
-        return messages;
-    }
-
-    /**
-     * Returns if lazy loading is active.
-     * 
-     * @return If lazy loading is enabled <code>true</code> else
-     *         <code>false</code>.
-     */
-    public final boolean isLazyLoading() {
-        return lazyLoading;
-    }
-
-    /**
-     * Sets the information if lazy loading is active.
-     * 
-     * @param lazyLoading
-     *            To enable lazy loading <code>true</code> else
-     *            <code>false</code> (disable lazy loading)).
-     */
-    public final void setLazyLoading(final boolean lazyLoading) {
-        this.lazyLoading = lazyLoading;
-    }
-
-    /**
-     * Returns the options form the command line.
-     * 
-     * @return Key/value <code>String</code> pairs.
-     */
-    public final Map getCmdLineOptions() {
-        return cmdLineOptions;
-    }
-
-    /**
-     * Returns the command line arguments.
-     * 
-     * @return Arguments for the Java executable.
-     */
-    public final String getJavaArgs() {
-        return Utils4J.replaceVars(javaArgs, cmdLineOptions);
-    }
-
-    /**
-     * Sets the command line arguments.
-     * 
-     * @param javaArgs
-     *            Arguments for the Java executable.
-     */
-    public final void setJavaArgs(final String javaArgs) {
-        this.javaArgs = javaArgs;
-    }
-
-    /**
-     * Returns the Java executable.
-     * 
-     * @return Java executable.
-     */
-    public final String getJavaExe() {
-        return Utils4J.replaceVars(javaExe, cmdLineOptions);
-    }
-
-    /**
-     * Sets the Java executable.
-     * 
-     * @param javaExe
-     *            Java executable.
-     */
-    public final void setJavaExe(final String javaExe) {
-        this.javaExe = javaExe;
-    }
-
-    /**
-     * Returns a short description of the application.
-     * 
-     * @return Description.
-     */
-    public final String getDescription() {
-        return Utils4J.replaceVars(description, cmdLineOptions);
-    }
-
-    /**
-     * Sets the short description of the application.
-     * 
-     * @param description
-     *            Description.
-     */
-    public final void setDescription(final String description) {
-        this.description = description;
-    }
-
-    /**
-     * Returns the title of the application.
-     * 
-     * @return Title.
-     */
-    public final String getTitle() {
-        return Utils4J.replaceVars(title, cmdLineOptions);
-    }
-
-    /**
-     * Sets the title of the application.
-     * 
-     * @param title
-     *            Title.
-     */
-    public final void setTitle(final String title) {
-        this.title = title;
-    }
-
-    /**
-     * Returns the vendor information.
-     * 
-     * @return Vendor.
-     */
-    public final String getVendor() {
-        return Utils4J.replaceVars(vendor, cmdLineOptions);
-    }
-
-    /**
-     * Sets the vendor information.
-     * 
-     * @param vendor
-     *            Vendor.
-     */
-    public final void setVendor(final String vendor) {
-        this.vendor = vendor;
-    }
-
-    /**
-     * Returns the list of known source files.
-     * 
-     * @return List of <code>SrcFile</code> objects.
-     */
-    public final List getSrcFiles() {
-        return srcFiles;
-    }
-
-    /**
-     * Returns the list of directories to create.
-     * 
-     * @return List of <code>MkDir</code> objects.
-     */
-    public final List getMkDirs() {
-        return mkDirs;
-    }
-
-    /**
-     * Returns the list of known source directories.
-     * 
-     * @return List of <code>SrcDir</code> objects.
-     */
-    public final List getSrcDirs() {
-        return srcDirs;
-    }
-
-    /**
-     * Returns the URL of the configuration file (only used when
-     * lazyLoading=true).
-     * 
-     * @return URL or <code>null</code>.
-     */
-    public final String getConfigFileUrl() {
-        return Utils4J.replaceVars(configFileUrl, cmdLineOptions);
-    }
-
-    /**
-     * Returns the URL of the configuration file (only used when
-     * lazyLoading=true).
-     * 
-     * @return URL or <code>null</code>.
-     */
-    public final URL getConfigFileURL() {
-        if (configFileUrl == null) {
-            return null;
-        }
-        try {
-            return new URL(Utils4J.replaceVars(configFileUrl, cmdLineOptions));
-        } catch (final MalformedURLException ex) {
-            throw new RuntimeException("Error creating URL from String '" + configFileUrl + "'!",
-                    ex);
-        }
-    }
-
-    /**
-     * Sets the URL of the configuration file (only used when lazyLoading=true).
-     * 
-     * @param configFileUrl
-     *            URL or <code>null</code>.
-     */
-    public final void setConfigFileUrl(final String configFileUrl) {
-        this.configFileUrl = configFileUrl;
-    }
-
-    /**
-     * Returns the target application version.
-     * 
-     * @return Version or <code>null</code> if not set.
-     */
-    public final String getVersion() {
-        return Utils4J.replaceVars(version, cmdLineOptions);
-    }
-
-    /**
-     * Sets the target application version.
-     * 
-     * @param version
-     *            Version or <code>null</code>.
-     */
-    public final void setVersion(final String version) {
-        this.version = version;
-    }
-
-    /**
-     * Returns the encoding to use for XML out.
-     * 
-     * @return Encoding like "ISO-8859-1" (default) or "UTF-8".
-     */
-    public final String getXmlEncoding() {
-        return xmlEncoding;
-    }
-
-    /**
-     * Sets the encoding to use for XML out.
-     * 
-     * @param encoding
-     *            Encoding like "ISO-8859-1" (default) or "UTF-8".
-     */
-    public final void setXmlEncoding(final String encoding) {
-        this.xmlEncoding = encoding;
-    }
-
-    /**
-     * Show a "starting application" frame?
-     * 
-     * @return If a frame will be displayed <code>true</code> (default) else
-     *         <code>false</code>.
-     */
-    public final boolean isShowStartFrame() {
-        return showStartFrame;
-    }
-
-    /**
-     * Show a "starting application" frame?
-     * 
-     * @param b
-     *            If a frame should be displayed <code>true</code> else
-     *            <code>false</code>.
-     */
-    public final void setShowStartFrame(final boolean b) {
-        showStartFrame = b;
-    }
-
-    /**
-     * Show the start frame for N seconds after application has started.
-     * 
-     * @return Seconds (Default = 2)
-     */
-    public final int getStartFrameDelaySeconds() {
-        return startFrameDelaySeconds;
-    }
-
-    /**
-     * Show the start frame for N seconds after application has started.
-     * 
-     * @param seconds
-     *            Number of seconds.
-     */
-    public final void setStartFrameDelaySeconds(final int seconds) {
-        startFrameDelaySeconds = seconds;
-    }
-
-    /**
-     * Returns the name and path of the log file.
-     * 
-     * @return Name and path of log file - ALways non-<code>null</code>.
-     */
-    public final String getLogFilename() {
-        return Utils4J.replaceVars(logFilename, cmdLineOptions);
-    }
-
-    /**
-     * Sets the name and path of the log file.
-     * 
-     * @param logFilename
-     *            Log filename - A <code>null</code> value will set the name to
-     *            "kickstart4j.log".
-     */
-    public final void setLogFilename(final String logFilename) {
-        if (logFilename == null) {
-            this.logFilename = System.getProperty("user.home") + File.separator + "kickstart4j.log";
-        } else {
-            this.logFilename = logFilename.trim();
-        }
-    }
-
-    /**
-     * Find a source file by it's path and filename.
-     * 
-     * @param path
-     *            Path - Cannot be <code>null</code> but empty.
-     * @param filename
-     *            Filename to find - Cannot be <code>null</code>.
-     * 
-     * @return Source file - Always non-<code>null</code>.
-     * 
-     * @throws SrcFileNotFoundException
-     *             The file was not found.
-     */
-    public final SrcFile findSrcFile(final String path, final String filename)
-            throws SrcFileNotFoundException {
-
-        Utils4J.checkNotNull("path", path);
-        Utils4J.checkNotNull("filename", filename);
-
-        final String systemPath = path.replace('/', File.separatorChar);
-
-        for (int i = 0; i < srcFiles.size(); i++) {
-            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
-            if (srcFile.getPath().equals(systemPath) && srcFile.getFilename().equals(filename)) {
-                return srcFile;
-            }
-        }
-
-        throw new SrcFileNotFoundException(path, filename);
-    }
-
-    /**
-     * Find a source directory by it's path.
-     * 
-     * @param path
-     *            Path - Cannot be <code>null</code> but empty.
-     * 
-     * @return Source directory - Always non-<code>null</code>.
-     * 
-     * @throws SrcDirNotFoundException
-     *             The directory was not found.
-     */
-    public final SrcDir findSrcDir(final String path) throws SrcDirNotFoundException {
-
-        Utils4J.checkNotNull("path", path);
-
-        final String systemPath = path.replace('/', File.separatorChar);
-
-        for (int i = 0; i < srcDirs.size(); i++) {
-            final SrcDir srcDir = (SrcDir) srcDirs.get(i);
-            if (srcDir.getPath().equals(systemPath)) {
-                return srcDir;
-            }
-        }
-
-        throw new SrcDirNotFoundException(path);
-    }
-
-    /**
-     * Replaces a source file with another one.
-     * 
-     * @param oldSrcFile
-     *            Source file to replace.
-     * @param newSrcFile
-     *            File to insert.
-     */
-    public final void replace(final SrcFile oldSrcFile, final SrcFile newSrcFile) {
-        final int i = srcFiles.indexOf(oldSrcFile);
-        if (i == -1) {
-            throw new IllegalArgumentException("The source file '" + oldSrcFile
-                    + "' was not found!");
-        }
-        srcFiles.remove(i);
-        srcFiles.add(i, newSrcFile);
-    }
-
-    private String getText(final String value, final String defaultVal) {
-        if (value == null) {
-            return defaultVal;
-        }
-        return value;
-    }
-
-    private String getTag(final String tag, final String value, final String defaultVal) {
-        if ((value == null) && (defaultVal == null)) {
-            return "<" + tag + "/>";
-        }
-        return "<" + tag + ">" + getText(value, defaultVal) + "</" + tag + ">";
-    }
-
-    private String getTag(final String tag, final boolean value) {
-        return "<" + tag + ">" + value + "</" + tag + ">";
-    }
-
-    private String getTag(final String tag, final int value) {
-        return "<" + tag + ">" + value + "</" + tag + ">";
-    }
-
-    private String getTag(final String tag, final Locale locale, final Locale defaultLocale) {
-        if ((locale == null) && (defaultLocale == null)) {
-            return "<" + tag + "/>";
-        }
-        if (locale == null) {
-            return "<" + tag + ">" + defaultLocale.getLanguage() + "</" + tag + ">";
-        }
-        return "<" + tag + ">" + locale.getLanguage() + "</" + tag + ">";
-    }
-
-    private String getTagLine(final String tag, final String value, final String defaultVal) {
-        return getTag(tag, value, defaultVal) + IOUtils.LINE_SEPARATOR;
-    }
-
-    private String getTagLine(final String tag, final boolean value) {
-        return getTag(tag, value) + IOUtils.LINE_SEPARATOR;
-    }
-
-    private String getTagLine(final String tag, final int value) {
-        return getTag(tag, value) + IOUtils.LINE_SEPARATOR;
-    }
-
-    private String getTagLine(final String tag, final Locale locale, final Locale defaultLocale) {
-        return getTag(tag, locale, defaultLocale) + IOUtils.LINE_SEPARATOR;
-    }
-
-    /**
-     * Returns the configuration as XML with all variables replaced with their
-     * values.
-     * 
-     * @return XML configuration.
-     */
-    public final String toStaticXML() {
-        final StringBuffer sb = new StringBuffer();
-        sb.append("<?xml version=\"1.0\" encoding=\"" + xmlEncoding + "\"?>"
-                + IOUtils.LINE_SEPARATOR);
-        sb.append("<application>" + IOUtils.LINE_SEPARATOR);
-        sb.append("  " + getTagLine("version", getVersion(), null));
-        sb.append("  " + getTagLine("title", getTitle(), null));
-        sb.append("  " + getTagLine("vendor", getVendor(), null));
-        sb.append("  " + getTagLine("description", getDescription(), null));
-        sb.append("  " + getTagLine("exitAfterExecute", isExitAfterExecute()));
-        sb.append("  " + getTagLine("destPath", getDestPath(), null));
-        sb.append("  " + getTagLine("idFilename", getIdFilename(), ".yourapp"));
-        sb.append("  " + getTagLine("silentInstall", isSilentInstall()));
-        sb.append("  " + getTagLine("silentUpdate", isSilentUpdate()));
-        sb.append("  " + getTagLine("locale", locale, Locale.getDefault()));
-        sb.append("  " + getTagLine("lazyLoading", isLazyLoading()));
-        sb.append("  " + getTagLine("showStartFrame", isShowStartFrame()));
-        sb.append("  " + getTagLine("startFrameDelaySeconds", getStartFrameDelaySeconds()));
-        sb.append("  " + getTagLine("logFilename", getLogFilename(), null));
-        sb.append("  " + getTagLine("javaExe", getJavaExe(), null));
-        sb.append("  "
-                + getTagLine("javaArgs", getJavaArgs(),
-                        "-classpath ${classpath} com.company.product.MainClass"));
-        sb.append("  " + getTagLine("msgFileUrl", msgFileUrl, null));
-        for (int i = 0; i < mkDirs.size(); i++) {
-            final MkDir mkDir = (MkDir) mkDirs.get(i);
-            sb.append("  " + mkDir.toXML() + IOUtils.LINE_SEPARATOR);
-        }
-        for (int i = 0; i < srcDirs.size(); i++) {
-            final SrcDir srcDir = (SrcDir) srcDirs.get(i);
-            sb.append("  " + srcDir.toXML() + IOUtils.LINE_SEPARATOR);
-        }
-        for (int i = 0; i < srcFiles.size(); i++) {
-            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
-            sb.append("  " + srcFile.toXML() + IOUtils.LINE_SEPARATOR);
-        }
-        sb.append("</application>" + IOUtils.LINE_SEPARATOR);
-        return sb.toString();
-    }
-
-    /**
-     * Returns the configuration as XML with no variables replaced.
-     * 
-     * @return XML configuration.
-     */
-    public final String toVarXML() {
-        final StringBuffer sb = new StringBuffer();
-        sb.append("<?xml version=\"1.0\" encoding=\"" + xmlEncoding + "\"?>"
-                + IOUtils.LINE_SEPARATOR);
-        sb.append("<application>" + IOUtils.LINE_SEPARATOR);
-        sb.append("  " + getTagLine("version", version, null));
-        sb.append("  " + getTagLine("title", title, "Your title"));
-        sb.append("  " + getTagLine("vendor", vendor, null));
-        sb.append("  " + getTagLine("description", description, null));
-        sb.append("  " + getTagLine("exitAfterExecute", exitAfterExecute));
-        sb.append("  " + getTagLine("destPath", destPath, "C:\\Program Files\\yourapp\\"));
-        sb.append("  " + getTagLine("idFilename", idFilename, ".yourapp"));
-        sb.append("  " + getTagLine("silentInstall", silentInstall));
-        sb.append("  " + getTagLine("silentUpdate", silentUpdate));
-        sb.append("  " + getTagLine("locale", locale, Locale.getDefault()));
-        sb.append("  " + getTagLine("lazyLoading", lazyLoading));
-        sb.append("  " + getTagLine("showStartFrame", isShowStartFrame()));
-        sb.append("  " + getTagLine("startFrameDelaySeconds", getStartFrameDelaySeconds()));
-        sb.append("  " + getTagLine("logFilename", logFilename, null));
-        sb.append("  " + getTagLine("javaExe", javaExe, "jre/bin/java.exe"));
-        sb.append("  "
-                + getTagLine("javaArgs", javaArgs,
-                        "-classpath ${classpath} com.company.product.MainClass"));
-        sb.append("  " + getTagLine("msgFileUrl", msgFileUrl, null));
-        for (int i = 0; i < mkDirs.size(); i++) {
-            final MkDir mkDir = (MkDir) mkDirs.get(i);
-            sb.append("  " + mkDir.toXML() + IOUtils.LINE_SEPARATOR);
-        }
-        for (int i = 0; i < srcDirs.size(); i++) {
-            final SrcDir srcDir = (SrcDir) srcDirs.get(i);
-            sb.append("  " + srcDir.toXML() + IOUtils.LINE_SEPARATOR);
-        }
-        for (int i = 0; i < srcFiles.size(); i++) {
-            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
-            sb.append("  " + srcFile.toXML() + IOUtils.LINE_SEPARATOR);
-        }
-        sb.append("</application>" + IOUtils.LINE_SEPARATOR);
-        return sb.toString();
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    public final String toString() {
-        return toDebugString();
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    public final String toDebugString() {
-        final StringBuffer sb = new StringBuffer();
-        sb.append("configFileUrl=" + getConfigFileUrl() + ", ");
-        sb.append("version=" + getVersion() + ", ");
-        sb.append("title=" + getTitle() + ", ");
-        sb.append("vendor=" + getVendor() + ", ");
-        sb.append("description=" + getDescription() + ", ");
-        sb.append("exitAfterExecute=" + isExitAfterExecute() + ", ");
-        sb.append("destPath=" + getDestPath() + ", ");
-        sb.append("idFilename=" + getIdFilename() + ", ");
-        sb.append("silentInstall=" + isSilentInstall() + ", ");
-        sb.append("silentUpdate=" + isSilentUpdate() + ", ");
-        sb.append("locale=" + getLocale() + ", ");
-        sb.append("lazyLoading=" + isLazyLoading() + ", ");
-        sb.append("showStartFrame=" + isShowStartFrame() + ", ");
-        sb.append("startFrameDelaySeconds=" + getStartFrameDelaySeconds() + ", ");
-        sb.append("javaExe=" + getJavaExe() + ", ");
-        sb.append("javaArgs=" + getJavaArgs() + ", ");
-        sb.append("msgFileUrl=" + getMsgFileUrl() + ", ");
-        sb.append("xmlEncoding=" + getXmlEncoding());
-        sb.append("logFilename=" + getLogFilename());
-        sb.append("srcFiles.size()=" + srcFiles.size());
-        sb.append("srcDirs.size()=" + srcDirs.size());
-        sb.append("mkDirs.size()=" + mkDirs.size());
-        return sb.toString();
-    }
-
-    /**
-     * Writes this configuration to an XML file with no variables replaced.
-     * 
-     * @param configFile
-     *            Target file.
-     * @param backup
-     *            Create a backup if this file already exists (same filename but
-     *            with ".bak" extension).
-     * 
-     * @throws IOException
-     *             Error writing the file.
-     */
-    public final void writeToVarXML(final File configFile, final boolean backup) throws IOException {
-        writeToXML(toVarXML(), configFile, backup);
-    }
-
-    /**
-     * Writes this configuration to an XML file with all variables replaced with
-     * their values.
-     * 
-     * @param configFile
-     *            Target file.
-     * @param backup
-     *            Create a backup if this file already exists (same filename but
-     *            with ".bak" extension).
-     * 
-     * @throws IOException
-     *             Error writing the file.
-     */
-    public final void writeToStaticXML(final File configFile, final boolean backup)
-            throws IOException {
-        writeToXML(toStaticXML(), configFile, backup);
-    }
-
-    /**
-     * Writes this configuration to an XML file.
-     * 
-     * @param configFile
-     *            Target file. If this file already exists a backup (same
-     *            filename but with ".bak" extension) will be created.
-     * @param backup
-     *            Create a backup if this file already exists (same filename but
-     *            with ".bak" extension).
-     * 
-     * @throws IOException
-     *             Error writing the file.
-     */
-    private final void writeToXML(final String xml, final File file, final boolean backup)
-            throws IOException {
-
-        // Save old file?
-        if (backup) {
-            final File bakFile = new File(file + ".bak");
-            if (bakFile.exists()) {
-                bakFile.delete();
-            }
-            file.renameTo(bakFile);
-        }
-
-        // Write current values
-        final Writer writer = new BufferedWriter(new FileWriter(file));
-        try {
-            writer.write(xml);
-        } finally {
-            writer.close();
-        }
-
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    public final boolean simpleAttributesEquals(final Object obj) {
-        if (obj == null) {
-            return false;
-        }
-        if (!(obj instanceof Config)) {
-            return false;
-        }
-        final Config theOther = (Config) obj;
-        return Utils.nullSafeEquals(lookAndFeelClassName, theOther.lookAndFeelClassName)
-                && Utils.nullSafeEquals(idFilename, theOther.idFilename)
-                && (exitAfterExecute == theOther.exitAfterExecute)
-                && Utils.nullSafeEquals(destPath, theOther.destPath)
-                && (silentInstall == theOther.silentInstall)
-                && (silentUpdate == theOther.silentUpdate)
-                && (firstInstallation == theOther.firstInstallation)
-                && Utils.nullSafeEquals(locale, theOther.locale)
-                && Utils.nullSafeEquals(msgFileUrl, theOther.msgFileUrl)
-                && (lazyLoading == theOther.lazyLoading)
-                && Utils.nullSafeEquals(javaExe, theOther.javaExe)
-                && Utils.nullSafeEquals(javaArgs, theOther.javaArgs)
-                && Utils.nullSafeEquals(title, theOther.title)
-                && Utils.nullSafeEquals(vendor, theOther.vendor)
-                && Utils.nullSafeEquals(description, theOther.description)
-                && Utils.nullSafeEquals(configFileUrl, theOther.configFileUrl)
-                && Utils.nullSafeEquals(version, theOther.version)
-                && Utils.nullSafeEquals(xmlEncoding, theOther.xmlEncoding)
-                && (showStartFrame == theOther.showStartFrame)
-                && (startFrameDelaySeconds == theOther.startFrameDelaySeconds)
-                && Utils.nullSafeEquals(logFilename, theOther.logFilename);
-    }
-}
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+import javax.swing.UIManager;
+
+import org.apache.commons.io.IOUtils;
+import org.fuin.utils4j.ToDebugStringCapable;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Configuration for the application. The <code>cmdLineOptions</code> map
+ * contains all arguments from the command line that are not known standard
+ * arguments. This way it's possible to add application specific parameters for
+ * the installation process. The entries <code>userHome</code> and
+ * <code>destDir</code> are predefined values.
+ */
+public final class Config implements ToDebugStringCapable, SimpleAttributesEqualsCapable {
+
+    /** Fully qualified LnF class name. */
+    private String lookAndFeelClassName = UIManager.getSystemLookAndFeelClassName();
+
+    /** Unique id filename for the application. */
+    private String idFilename;
+
+    /** Determines if the program terminates with <code>System.exit(..)</code>. */
+    private boolean exitAfterExecute = true;
+
+    /** Local path where the files should be copied to. */
+    private String destPath = null;
+
+    /** Determines if the user should be prompted for the destination directory. */
+    private boolean silentInstall = false;
+
+    /** Determines if the user should be prompted if an update is available. */
+    private boolean silentUpdate = false;
+
+    /** Determines if this is the first installation. */
+    private boolean firstInstallation = true;
+
+    /** Locale to use. */
+    private Locale locale = Locale.getDefault();
+
+    /** File containing the localized installation messages. */
+    private String msgFileUrl = null;
+
+    /** Message properties needed for the installer. */
+    private MessagesWrapper messages = null;
+
+    /** Load only the "jar" entries on startup? */
+    private boolean lazyLoading = false;
+
+    /** Options from the command line. */
+    private Map cmdLineOptions = new HashMap();
+
+    /** Java executable. */
+    private String javaExe = null;
+
+    /** Command line including (without java executable itself). */
+    private String javaArgs = null;
+
+    /** Title of the application. */
+    private String title = null;
+
+    /** Vendor of the application. */
+    private String vendor = null;
+
+    /** Short description of the application. */
+    private String description = null;
+
+    /** List of known files. */
+    private List srcFiles = new ArrayList();
+
+    /** List of directories to create. */
+    private List mkDirs = new ArrayList();
+
+    /** List of known directories. */
+    private List srcDirs = new ArrayList();
+
+    /** List of alternative source locations. */
+    private List mirrors = new ArrayList();
+
+    /** List of archives with several small source files. */
+    private List packs = new ArrayList();
+
+    /** URL of the configuration file (only required when lazyLoading=true). */
+    private String configFileUrl = null;
+
+    /** Target application version. */
+    private String version = null;
+
+    /** Encoding to use for XML output. */
+    private String xmlEncoding = "ISO-8859-1";
+
+    /** Show a "starting application" frame? */
+    private boolean showStartFrame = true;
+
+    /** Show the start frame for N seconds after application has started. */
+    private int startFrameDelaySeconds = 2;
+
+    /** Name and path of the log file. */
+    private String logFilename = System.getProperty("user.home") + File.separator
+            + "kickstart4j.log";
+
+    /** Number of files transferred concurrently. */
+    private int downloadThreads = 1;
+
+    /** Calculate the hash of every local file instead of using the hash index? */
+    private boolean verifyAllFiles = false;
+
+    /** Number of threads used for checking the local files at startup. */
+    private int scanThreads = 1;
+
+    /** Use the content store shared by all applications of the user? */
+    private boolean sharedStore = false;
+
+    /** Extract archives while they are loaded? */
+    private boolean streamingUnzip = false;
+
+    /** Number of threads used for extracting an archive. */
+    private int unzipThreads = 1;
+
+    /** Write new and changed files to a staging directory first? */
+    private boolean stagedUpdate = false;
+
+    /** Timeout for connecting a server in seconds (0 = Java default). */
+    private int connectTimeoutSeconds = 0;
+
+    /** Timeout for reading from a server in seconds (0 = Java default). */
+    private int readTimeoutSeconds = 0;
+
+    /** Maximum number of concurrent connections per host. */
+    private int maxConnectionsPerHost = DefaultTransport.DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    /** Full qualified name of the transport class or NULL for the default. */
+    private String transportClassName = null;
+
+    /** Start the application before all files are transferred. */
+    private boolean launchFirst = false;
+
+    /** Pause between two files loaded in the background in milliseconds. */
+    private int prefetchPauseMillis = 500;
+
+    /** URL prefix of a LAN cache server or NULL. */
+    private String cacheProxyUrl = null;
+
+    /** Minimum number of missing files to load a pack. */
+    private int packThreshold = 10;
+
+    /** Algorithm of the file hashes. */
+    private String hashAlgorithm = HashAlgorithm.MD5;
+
+    /** Fingerprint of the manifest written together with the XML or NULL. */
+    private String manifestFingerprint = null;
+
+    /**
+     * Default constructor.
+     */
+    public Config() {
+        super();
+        cmdLineOptions.put("userHome", System.getProperty("user.home"));
+    }
+
+    /**
+     * Returns the name of the LookAndFeel class.
+     * 
+     * @return Fully qualified LnF class name - Always non-null.
+     */
+    public final String getLookAndFeelClassName() {
+        return lookAndFeelClassName;
+    }
+
+    /**
+     * Sets the name of the Look and Feel class.
+     * 
+     * @param lnfClassName
+     *            Full qualified Java LookAndFeel class name - System
+     *            LookAndFeel is used when <code>null</code>.
+     */
+    public final void setLookAndFeelClassName(final String lnfClassName) {
+        if (lnfClassName == null) {
+            this.lookAndFeelClassName = UIManager.getSystemLookAndFeelClassName();
+        } else {
+            this.lookAndFeelClassName = lnfClassName;
+        }
+    }
+
+    /**
+     * Returns whether the program should terminate after executing.
+     * 
+     * @return If the program terminates with <code>System.exit(..)</code>
+     *         <code>true</code> (DEFAULT) else <code>false</code>.
+     */
+    public final boolean isExitAfterExecute() {
+        return exitAfterExecute;
+    }
+
+    /**
+     * Sets whether the program should terminate after executing.
+     * 
+     * @param exitAfterExecute
+     *            If the program should terminate with
+     *            <code>System.exit(..)</code> <code>true</code> (DEFAULT) else
+     *            <code>false</code>.
+     */
+    public final void setExitAfterExecute(final boolean exitAfterExecute) {
+        this.exitAfterExecute = exitAfterExecute;
+    }
+
+    /**
+     * Returns the local destination path where the files should be copied to.
+     * 
+     * @return Local path - Always non-<code>null</code> if <code>check()</code>
+     *         throws no exceptions.
+     */
+    public final File getDestDir() {
+        return new File(getDestPath());
+    }
+
+    /**
+     * Returns the local destination path where the files should be copied to.
+     * 
+     * @return Path.
+     */
+    public final String getDestPath() {
+        return Utils4J.replaceVars(destPath, cmdLineOptions);
+    }
+
+    /**
+     * Sets the local destination path where the files should be copied to.
+     * 
+     * @param destPath
+     *            Path - Cannot be <code>null</code>
+     */
+    public final void setDestPath(final String destPath) {
+        if (destPath == null) {
+            throw new IllegalArgumentException("The argument 'destPath' cannot be null!");
+        }
+        this.destPath = destPath;
+    }
+
+    /**
+     * Returns the unique id filename for the application.
+     * 
+     * @return Name of the application ID file - Always non-<code>null</code> if
+     *         <code>check()</code> throws no exceptions.
+     */
+    public final String getIdFilename() {
+        return Utils4J.replaceVars(idFilename, cmdLineOptions);
+    }
+
+    /**
+     * Sets the unique id filename for the application.
+     * 
+     * @param id
+     *            Unique ID - Must be a valid filename on the target system - A
+     *            <code>null</code> value is not allowed!
+     */
+    public final void setIdFilename(final String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("The argument 'id' cannot be null!");
+        }
+        this.idFilename = id;
+    }
+
+    /**
+     * Determines if the user should be prompted for the destination directory.
+     * 
+     * @return If "destDir" should be used without asking the user
+     *         <code>true</code> else <code>false</code>.
+     */
+    public final boolean isSilentInstall() {
+        return silentInstall;
+    }
+
+    /**
+     * Determines if the user should be prompted for the destination directory.
+     * 
+     * @param silentInstall
+     *            If "destDir" should be used without asking the user
+     *            <code>true</code> else <code>false</code>.
+     */
+    public final void setSilentInstall(final boolean silentInstall) {
+        this.silentInstall = silentInstall;
+    }
+
+    /**
+     * Determines if the user should be asked if an update is available.
+     * 
+     * @return If updates should be executed without asking the user
+     *         <code>true</code> else <code>false</code>.
+     */
+    public final boolean isSilentUpdate() {
+        return silentUpdate;
+    }
+
+    /**
+     * Determines if the user should be asked if an update is available.
+     * 
+     * @param silentUpdate
+     *            If updates should be executed without asking the user
+     *            <code>true</code> else <code>false</code>.
+     */
+    public final void setSilentUpdate(final boolean silentUpdate) {
+        this.silentUpdate = silentUpdate;
+    }
+
+    /**
+     * Determines if this is the first installation.
+     * 
+     * @return If this is the first installation <code>true</code> else
+     *         <code>false</code>.
+     */
+    public final boolean isFirstInstallation() {
+        return firstInstallation;
+    }
+
+    /**
+     * Determines if this is the first installation.
+     * 
+     * @param firstInstallation
+     *            If this is the first installation <code>true</code> else
+     *            <code>false</code>.
+     */
+    public final void setFirstInstallation(final boolean firstInstallation) {
+        this.firstInstallation = firstInstallation;
+    }
+
+    /**
+     * Returns the locale to use.
+     * 
+     * @return Locale - Always non-<code>null</code>.
+     */
+    public final Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Sets the locale to use.
+     * 
+     * @param locale
+     *            Locale to set - A <code>null</code> value resets the property
+     *            to <code>Locale.getDefault()</code>.
+     */
+    public final void setLocale(final Locale locale) {
+        if (locale == null) {
+            this.locale = Locale.getDefault();
+        } else {
+            this.locale = locale;
+        }
+    }
+
+    /**
+     * Sets the locale to use as a String.
+     * 
+     * @param locale
+     *            Locale "lang" or "lang,country" or "lang,country,variant" - A
+     *            <code>null</code> value resets the property to
+     *            <code>Locale.getDefault()</code>.
+     */
+    public final void setLocale(final String locale) {
+        if (locale == null) {
+            this.locale = Locale.getDefault();
+        } else {
+            final StringTokenizer tok = new StringTokenizer(locale, ",");
+            final int count = tok.countTokens();
+            final String language;
+            final String country;
+            final String variant;
+            if (count == 1) {
+                language = tok.nextToken();
+                country = "";
+                variant = "";
+            } else if (count == 2) {
+                language = tok.nextToken();
+                country = tok.nextToken();
+                variant = "";
+            } else if (count == 3) {
+                language = tok.nextToken();
+                country = tok.nextToken();
+                variant = tok.nextToken();
+            } else {
+                throw new IllegalArgumentException("The argument '" + locale + "' is not valid!");
+            }
+            this.locale = new Locale(language, country, variant);
+        }
+    }
+
+    /**
+     * Returns the file containing the localized installation messages.
+     * 
+     * @return Message file URL - If <code>null</code> the internal default
+     *         messages will be used.
+     */
+    public final String getMsgFileUrl() {
+        return msgFileUrl;
+    }
+
+    /**
+     * Returns the file containing the localized installation messages. A
+     * <code>MalformedURLException</code> is wrapped into a
+     * <code>RuntimeException</code>.
+     * 
+     * @return Message file URL - If <code>null</code> the internal default
+     *         messages will be used.
+     */
+    public final URL getMsgFileURL() {
+        if (msgFileUrl == null) {
+            return null;
+        }
+        try {
+            return new URL(msgFileUrl);
+        } catch (final MalformedURLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Sets the file containing the localized installation messages.
+     * 
+     * @param msgFileUrl
+     *            Message file URL - A <code>null</code> value will result in
+     *            usage of the internal default messages.
+     */
+    public final void setMsgFileUrl(final String msgFileUrl) {
+        if (msgFileUrl == null) {
+            this.msgFileUrl = null;
+        } else {
+            this.msgFileUrl = msgFileUrl.trim();
+        }
+    }
+
+    /**
+     * Checks if the configuration is valid.
+     * 
+     * @throws InvalidConfigException
+     *             The configuration is not valid.
+     */
+    public final void check() throws InvalidConfigException {
+        if (destPath == null) {
+            throw new InvalidConfigException("The 'destPath' is null!");
+        }
+        if (idFilename == null) {
+            throw new InvalidConfigException("The 'idFilename' is null!");
+        }
+        if ((lazyLoading) && ((configFileUrl == null) || (configFileUrl.trim().length() == 0))) {
+            throw new InvalidConfigException("The 'configFileUrl' is null or empty!");
+        }
+    }
+
+    /**
+     * Returns the message properties needed for the installer.
+     * 
+     * @return Localized messages.
+     */
+    public final MessagesWrapper getMessages() {
+        if (messages == null) {
+            try {
+                messages = new MessagesWrapper(Utils4J.loadProperties(getMsgFileURL()));
+            } catch (final RuntimeException ex) {
+                // Load default messages
+                messages = new MessagesWrapper(locale);
+            }
+        }
+
+        return messages;
+    }
+
+    /**
+     * Returns if lazy loading is active.
+     * 
+     * @return If lazy loading is enabled <code>true</code> else
+     *         <code>false</code>.
+     */
+    public final boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    /**
+     * Sets the information if lazy loading is active.
+     * 
+     * @param lazyLoading
+     *            To enable lazy loading <code>true</code> else
+     *            <code>false</code> (disable lazy loading)).
+     */
+    public final void setLazyLoading(final boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
+    }
+
+    /**
+     * Returns the options form the command line.
+     * 
+     * @return Key/value <code>String</code> pairs.
+     */
+    public final Map getCmdLineOptions() {
+        return cmdLineOptions;
+    }
+
+    /**
+     * Returns the command line arguments.
+     * 
+     * @return Arguments for the Java executable.
+     */
+    public final String getJavaArgs() {
+        return Utils4J.replaceVars(javaArgs, cmdLineOptions);
+    }
+
+    /**
+     * Sets the command line arguments.
+     * 
+     * @param javaArgs
+     *            Arguments for the Java executable.
+     */
+    public final void setJavaArgs(final String javaArgs) {
+        this.javaArgs = javaArgs;
+    }
+
+    /**
+     * Returns the Java executable.
+     * 
+     * @return Java executable.
+     */
+    public final String getJavaExe() {
+        return Utils4J.replaceVars(javaExe, cmdLineOptions);
+    }
+
+    /**
+     * Sets the Java executable.
+     * 
+     * @param javaExe
+     *            Java executable.
+     */
+    public final void setJavaExe(final String javaExe) {
+        this.javaExe = javaExe;
+    }
+
+    /**
+     * Returns a short description of the application.
+     * 
+     * @return Description.
+     */
+    public final String getDescription() {
+        return Utils4J.replaceVars(description, cmdLineOptions);
+    }
+
+    /**
+     * Sets the short description of the application.
+     * 
+     * @param description
+     *            Description.
+     */
+    public final void setDescription(final String description) {
+        this.description = description;
+    }
+
+    /**
+     * Returns the title of the application.
+     * 
+     * @return Title.
+     */
+    public final String getTitle() {
+        return Utils4J.replaceVars(title, cmdLineOptions);
+    }
+
+    /**
+     * Sets the title of the application.
+     * 
+     * @param title
+     *            Title.
+     */
+    public final void setTitle(final String title) {
+        this.title = title;
+    }
+
+    /**
+     * Returns the vendor information.
+     * 
+     * @return Vendor.
+     */
+    public final String getVendor() {
+        return Utils4J.replaceVars(vendor, cmdLineOptions);
+    }
+
+    /**
+     * Sets the vendor information.
+     * 
+     * @param vendor
+     *            Vendor.
+     */
+    public final void setVendor(final String vendor) {
+        this.vendor = vendor;
+    }
+
+    /**
+     * Returns the list of known source files.
+     * 
+     * @return List of <code>SrcFile</code> objects.
+     */
+    public final List getSrcFiles() {
+        return srcFiles;
+    }
+
+    /**
+     * Returns the list of directories to create.
+     * 
+     * @return List of <code>MkDir</code> objects.
+     */
+    public final List getMkDirs() {
+        return mkDirs;
+    }
+
+    /**
+     * Returns the list of known source directories.
+     * 
+     * @return List of <code>SrcDir</code> objects.
+     */
+    public final List getSrcDirs() {
+        return srcDirs;
+    }
+
+    /**
+     * Returns the list of alternative locations of the source files.
+     * 
+     * @return List of <code>Mirror</code> objects.
+     */
+    public final List getMirrors() {
+        return mirrors;
+    }
+
+    /**
+     * Returns the list of archives that contain several small source files.
+     * 
+     * @return List of <code>Pack</code> objects.
+     */
+    public final List getPacks() {
+        return packs;
+    }
+
+    /**
+     * Returns the URL of the configuration file (only used when
+     * lazyLoading=true).
+     * 
+     * @return URL or <code>null</code>.
+     */
+    public final String getConfigFileUrl() {
+        return Utils4J.replaceVars(configFileUrl, cmdLineOptions);
+    }
+
+    /**
+     * Returns the URL of the configuration file (only used when
+     * lazyLoading=true).
+     * 
+     * @return URL or <code>null</code>.
+     */
+    public final URL getConfigFileURL() {
+        if (configFileUrl == null) {
+            return null;
+        }
+        try {
+            return new URL(Utils4J.replaceVars(configFileUrl, cmdLineOptions));
+        } catch (final MalformedURLException ex) {
+            throw new RuntimeException("Error creating URL from String '" + configFileUrl + "'!",
+                    ex);
+        }
+    }
+
+    /**
+     * Sets the URL of the configuration file (only used when lazyLoading=true).
+     * 
+     * @param configFileUrl
+     *            URL or <code>null</code>.
+     */
+    public final void setConfigFileUrl(final String configFileUrl) {
+        this.configFileUrl = configFileUrl;
+    }
+
+    /**
+     * Returns the target application version.
+     * 
+     * @return Version or <code>null</code> if not set.
+     */
+    public final String getVersion() {
+        return Utils4J.replaceVars(version, cmdLineOptions);
+    }
+
+    /**
+     * Sets the target application version.
+     * 
+     * @param version
+     *            Version or <code>null</code>.
+     */
+    public final void setVersion(final String version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns the encoding to use for XML out.
+     * 
+     * @return Encoding like "ISO-8859-1" (default) or "UTF-8".
+     */
+    public final String getXmlEncoding() {
+        return xmlEncoding;
+    }
+
+    /**
+     * Sets the encoding to use for XML out.
+     * 
+     * @param encoding
+     *            Encoding like "ISO-8859-1" (default) or "UTF-8".
+     */
+    public final void setXmlEncoding(final String encoding) {
+        this.xmlEncoding = encoding;
+    }
+
+    /**
+     * Show a "starting application" frame?
+     * 
+     * @return If a frame will be displayed <code>true</code> (default) else
+     *         <code>false</code>.
+     */
+    public final boolean isShowStartFrame() {
+        return showStartFrame;
+    }
+
+    /**
+     * Show a "starting application" frame?
+     * 
+     * @param b
+     *            If a frame should be displayed <code>true</code> else
+     *            <code>false</code>.
+     */
+    public final void setShowStartFrame(final boolean b) {
+        showStartFrame = b;
+    }
+
+    /**
+     * Show the start frame for N seconds after application has started.
+     * 
+     * @return Seconds (Default = 2)
+     */
+    public final int getStartFrameDelaySeconds() {
+        return startFrameDelaySeconds;
+    }
+
+    /**
+     * Show the start frame for N seconds after application has started.
+     * 
+     * @param seconds
+     *            Number of seconds.
+     */
+    public final void setStartFrameDelaySeconds(final int seconds) {
+        startFrameDelaySeconds = seconds;
+    }
+
+    /**
+     * Returns the name and path of the log file.
+     * 
+     * @return Name and path of log file - ALways non-<code>null</code>.
+     */
+    public final String getLogFilename() {
+        return Utils4J.replaceVars(logFilename, cmdLineOptions);
+    }
+
+    /**
+     * Sets the name and path of the log file.
+     * 
+     * @param logFilename
+     *            Log filename - A <code>null</code> value will set the name to
+     *            "kickstart4j.log".
+     */
+    public final void setLogFilename(final String logFilename) {
+        if (logFilename == null) {
+            this.logFilename = System.getProperty("user.home") + File.separator + "kickstart4j.log";
+        } else {
+            this.logFilename = logFilename.trim();
+        }
+    }
+
+    /**
+     * Returns the number of files transferred concurrently.
+     * 
+     * @return Number of download threads (Default = 1).
+     */
+    public final int getDownloadThreads() {
+        return downloadThreads;
+    }
+
+    /**
+     * Sets the number of files transferred concurrently.
+     * 
+     * @param threads
+     *            Number of download threads - Values less than one are treated
+     *            as one.
+     */
+    public final void setDownloadThreads(final int threads) {
+        if (threads < 1) {
+            this.downloadThreads = 1;
+        } else {
+            this.downloadThreads = threads;
+        }
+    }
+
+    /**
+     * Determines if the hash of every local file is calculated at startup.
+     * 
+     * @return If the hash index is ignored and all files are verified
+     *         <code>true</code> else <code>false</code> (default).
+     */
+    public final boolean isVerifyAllFiles() {
+        return verifyAllFiles;
+    }
+
+    /**
+     * Determines if the hash of every local file is calculated at startup.
+     * 
+     * @param verifyAllFiles
+     *            If the hash index should be ignored and all files should be
+     *            verified <code>true</code> else <code>false</code>.
+     */
+    public final void setVerifyAllFiles(final boolean verifyAllFiles) {
+        this.verifyAllFiles = verifyAllFiles;
+    }
+
+    /**
+     * Returns the number of threads used for checking the local files at
+     * startup.
+     * 
+     * @return Number of scan threads (Default = 1).
+     */
+    public final int getScanThreads() {
+        return scanThreads;
+    }
+
+    /**
+     * Sets the number of threads used for checking the local files at
+     * startup.
+     * 
+     * @param threads
+     *            Number of scan threads - Values less than one are treated as
+     *            one.
+     */
+    public final void setScanThreads(final int threads) {
+        if (threads < 1) {
+            this.scanThreads = 1;
+        } else {
+            this.scanThreads = threads;
+        }
+    }
+
+    /**
+     * Determines if the files are kept in a content store shared by all
+     * applications of the user. Files already in the store are not
+     * transferred again.
+     * 
+     * @return If the shared store is used <code>true</code> else
+     *         <code>false</code> (default).
+     */
+    public final boolean isSharedStore() {
+        return sharedStore;
+    }
+
+    /**
+     * Determines if the files are kept in a content store shared by all
+     * applications of the user.
+     * 
+     * @param sharedStore
+     *            If the shared store should be used <code>true</code> else
+     *            <code>false</code>.
+     */
+    public final void setSharedStore(final boolean sharedStore) {
+        this.sharedStore = sharedStore;
+    }
+
+    /**
+     * Determines if archives are extracted while they are loaded instead of
+     * decompressing them after the transfer.
+     * 
+     * @return If archives are extracted while loading <code>true</code> else
+     *         <code>false</code> (default).
+     */
+    public final boolean isStreamingUnzip() {
+        return streamingUnzip;
+    }
+
+    /**
+     * Determines if archives are extracted while they are loaded.
+     * 
+     * @param streamingUnzip
+     *            If archives should be extracted while loading
+     *            <code>true</code> else <code>false</code>.
+     */
+    public final void setStreamingUnzip(final boolean streamingUnzip) {
+        this.streamingUnzip = streamingUnzip;
+    }
+
+    /**
+     * Returns the number of threads used for extracting an archive.
+     * 
+     * @return Number of unzip threads (Default = 1).
+     */
+    public final int getUnzipThreads() {
+        return unzipThreads;
+    }
+
+    /**
+     * Sets the number of threads used for extracting an archive.
+     * 
+     * @param threads
+     *            Number of unzip threads - Values less than one are treated as
+     *            one.
+     */
+    public final void setUnzipThreads(final int threads) {
+        if (threads < 1) {
+            this.unzipThreads = 1;
+        } else {
+            this.unzipThreads = threads;
+        }
+    }
+
+    /**
+     * Determines if new and changed files are written to a staging directory
+     * and moved into the installation directory after all files are loaded.
+     * An interrupted update then leaves the previous version intact.
+     * 
+     * @return If updates are staged <code>true</code> else <code>false</code>
+     *         (default).
+     */
+    public final boolean isStagedUpdate() {
+        return stagedUpdate;
+    }
+
+    /**
+     * Determines if new and changed files are written to a staging directory
+     * first.
+     * 
+     * @param stagedUpdate
+     *            If updates should be staged <code>true</code> else
+     *            <code>false</code>.
+     */
+    public final void setStagedUpdate(final boolean stagedUpdate) {
+        this.stagedUpdate = stagedUpdate;
+    }
+
+    /**
+     * Returns the timeout for connecting a server.
+     * 
+     * @return Timeout in seconds or <code>0</code> if the default of the Java
+     *         runtime is used (default).
+     */
+    public final int getConnectTimeoutSeconds() {
+        return connectTimeoutSeconds;
+    }
+
+    /**
+     * Sets the timeout for connecting a server.
+     * 
+     * @param seconds
+     *            Timeout in seconds or <code>0</code> to use the default of
+     *            the Java runtime.
+     */
+    public final void setConnectTimeoutSeconds(final int seconds) {
+        this.connectTimeoutSeconds = seconds;
+    }
+
+    /**
+     * Returns the timeout for reading from a server.
+     * 
+     * @return Timeout in seconds or <code>0</code> if the default of the Java
+     *         runtime is used (default).
+     */
+    public final int getReadTimeoutSeconds() {
+        return readTimeoutSeconds;
+    }
+
+    /**
+     * Sets the timeout for reading from a server.
+     * 
+     * @param seconds
+     *            Timeout in seconds or <code>0</code> to use the default of
+     *            the Java runtime.
+     */
+    public final void setReadTimeoutSeconds(final int seconds) {
+        this.readTimeoutSeconds = seconds;
+    }
+
+    /**
+     * Returns the maximum number of concurrent connections per host.
+     * 
+     * @return Number of connections (Default = 5).
+     */
+    public final int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of concurrent connections per host.
+     * 
+     * @param max
+     *            Number of connections - Values less than one are treated as
+     *            one.
+     */
+    public final void setMaxConnectionsPerHost(final int max) {
+        if (max < 1) {
+            this.maxConnectionsPerHost = 1;
+        } else {
+            this.maxConnectionsPerHost = max;
+        }
+    }
+
+    /**
+     * Returns the full qualified name of the class used to transfer the files.
+     * The class must implement {@link Transport} and have a public constructor
+     * with three <code>int</code> arguments (connect timeout, read timeout,
+     * maximum connections per host) or a public no-argument constructor.
+     * 
+     * @return Class name or <code>null</code> if {@link DefaultTransport} is
+     *         used (default).
+     */
+    public final String getTransportClassName() {
+        return transportClassName;
+    }
+
+    /**
+     * Sets the full qualified name of the class used to transfer the files.
+     * 
+     * @param className
+     *            Class name - <code>null</code> or an empty string selects
+     *            {@link DefaultTransport}.
+     */
+    public final void setTransportClassName(final String className) {
+        if ((className == null) || (className.trim().length() == 0)) {
+            this.transportClassName = null;
+        } else {
+            this.transportClassName = className.trim();
+        }
+    }
+
+    /**
+     * Returns if the application is started as soon as the files to be added
+     * to the classpath and the files to be loaded always are up to date. The
+     * remaining files are transferred in the background while the application
+     * is running (See {@link BackgroundUpdate}). This has no effect if lazy
+     * loading is enabled.
+     * 
+     * @return If the application is started first <code>true</code> else
+     *         <code>false</code> (default).
+     */
+    public final boolean isLaunchFirst() {
+        return launchFirst;
+    }
+
+    /**
+     * Sets if the application is started as soon as the files to be added to
+     * the classpath and the files to be loaded always are up to date.
+     * 
+     * @param launchFirst
+     *            If the application is started first <code>true</code> else
+     *            <code>false</code>.
+     */
+    public final void setLaunchFirst(final boolean launchFirst) {
+        this.launchFirst = launchFirst;
+    }
+
+    /**
+     * Returns the pause between two files loaded by the background prefetch
+     * of the {@link SrcFileLoader}.
+     * 
+     * @return Pause in milliseconds (Default = 500).
+     */
+    public final int getPrefetchPauseMillis() {
+        return prefetchPauseMillis;
+    }
+
+    /**
+     * Sets the pause between two files loaded by the background prefetch of
+     * the {@link SrcFileLoader}.
+     * 
+     * @param millis
+     *            Pause in milliseconds - Negative values are treated as zero.
+     */
+    public final void setPrefetchPauseMillis(final int millis) {
+        if (millis < 0) {
+            this.prefetchPauseMillis = 0;
+        } else {
+            this.prefetchPauseMillis = millis;
+        }
+    }
+
+    /**
+     * Returns the URL prefix of a cache server (See {@link CacheServer}). If
+     * it's not set in the configuration the command line option
+     * "cacheProxyUrl" is used.
+     * 
+     * @return URL prefix (for example "http://cachehost:8765/") or
+     *         <code>null</code> if files are loaded directly (default).
+     */
+    public final String getCacheProxyUrl() {
+        if (cacheProxyUrl == null) {
+            return (String) cmdLineOptions.get("cacheProxyUrl");
+        }
+        return cacheProxyUrl;
+    }
+
+    /**
+     * Returns if the {@link ConfigManifest} next to the XML configuration
+     * should be used. The manifest is loaded before the configuration so only
+     * the command line option "useManifest" is used.
+     * 
+     * @return If the command line option "useManifest" is "true"
+     *         <code>true</code> else <code>false</code> (default).
+     */
+    public final boolean isUseManifest() {
+        return "true".equals(cmdLineOptions.get("useManifest"));
+    }
+
+    /**
+     * Sets the URL prefix of a cache server.
+     * 
+     * @param url
+     *            URL prefix - <code>null</code> or an empty string disables
+     *            the cache server.
+     */
+    public final void setCacheProxyUrl(final String url) {
+        if ((url == null) || (url.trim().length() == 0)) {
+            this.cacheProxyUrl = null;
+        } else {
+            this.cacheProxyUrl = url.trim();
+        }
+    }
+
+    /**
+     * Returns the minimum number of missing files of a {@link Pack} that
+     * causes the pack to be loaded instead of the single files.
+     * 
+     * @return Number of files (Default = 10).
+     */
+    public final int getPackThreshold() {
+        return packThreshold;
+    }
+
+    /**
+     * Sets the minimum number of missing files of a {@link Pack} that causes
+     * the pack to be loaded instead of the single files.
+     * 
+     * @param threshold
+     *            Number of files - Values less than one are treated as one.
+     */
+    public final void setPackThreshold(final int threshold) {
+        if (threshold < 1) {
+            this.packThreshold = 1;
+        } else {
+            this.packThreshold = threshold;
+        }
+    }
+
+    /**
+     * Returns the algorithm used to calculate the hashes of the files (See
+     * {@link HashAlgorithm}).
+     * 
+     * @return Name of the algorithm (Default = "MD5").
+     */
+    public final String getHashAlgorithm() {
+        return hashAlgorithm;
+    }
+
+    /**
+     * Sets the algorithm used to calculate the hashes of the files.
+     * 
+     * @param name
+     *            Name of an algorithm supported by {@link HashAlgorithm} -
+     *            <code>null</code> or an empty string selects "MD5".
+     */
+    public final void setHashAlgorithm(final String name) {
+        if ((name == null) || (name.trim().length() == 0)) {
+            this.hashAlgorithm = HashAlgorithm.MD5;
+        } else {
+            if (!HashAlgorithm.isSupported(name.trim())) {
+                throw new IllegalArgumentException("Unknown hash algorithm: " + name);
+            }
+            this.hashAlgorithm = name.trim();
+        }
+    }
+
+    /**
+     * Returns the fingerprint of the {@link ConfigManifest} that was written
+     * together with the XML configuration.
+     * 
+     * @return Fingerprint or <code>null</code> if there is no manifest.
+     */
+    public final String getManifestFingerprint() {
+        return manifestFingerprint;
+    }
+
+    /**
+     * Sets the fingerprint of the {@link ConfigManifest} that was written
+     * together with the XML configuration.
+     * 
+     * @param fingerprint
+     *            Fingerprint or <code>null</code> if there is no manifest.
+     */
+    public final void setManifestFingerprint(final String fingerprint) {
+        this.manifestFingerprint = fingerprint;
+    }
+
+    /**
+     * Find a source file by it's path and filename.
+     * 
+     * @param path
+     *            Path - Cannot be <code>null</code> but empty.
+     * @param filename
+     *            Filename to find - Cannot be <code>null</code>.
+     * 
+     * @return Source file - Always non-<code>null</code>.
+     * 
+     * @throws SrcFileNotFoundException
+     *             The file was not found.
+     */
+    public final SrcFile findSrcFile(final String path, final String filename)
+            throws SrcFileNotFoundException {
+
+        Utils4J.checkNotNull("path", path);
+        Utils4J.checkNotNull("filename", filename);
+
+        final String systemPath = path.replace('/', File.separatorChar);
+
+        for (int i = 0; i < srcFiles.size(); i++) {
+            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+            if (srcFile.getPath().equals(systemPath) && srcFile.getFilename().equals(filename)) {
+                return srcFile;
+            }
+        }
+
+        throw new SrcFileNotFoundException(path, filename);
+    }
+
+    /**
+     * Find a source directory by it's path.
+     * 
+     * @param path
+     *            Path - Cannot be <code>null</code> but empty.
+     * 
+     * @return Source directory - Always non-<code>null</code>.
+     * 
+     * @throws SrcDirNotFoundException
+     *             The directory was not found.
+     */
+    public final SrcDir findSrcDir(final String path) throws SrcDirNotFoundException {
+
+        Utils4J.checkNotNull("path", path);
+
+        final String systemPath = path.replace('/', File.separatorChar);
+
+        for (int i = 0; i < srcDirs.size(); i++) {
+            final SrcDir srcDir = (SrcDir) srcDirs.get(i);
+            if (srcDir.getPath().equals(systemPath)) {
+                return srcDir;
+            }
+        }
+
+        throw new SrcDirNotFoundException(path);
+    }
+
+    /**
+     * Replaces a source file with another one.
+     * 
+     * @param oldSrcFile
+     *            Source file to replace.
+     * @param newSrcFile
+     *            File to insert.
+     */
+    public final void replace(final SrcFile oldSrcFile, final SrcFile newSrcFile) {
+        final int i = srcFiles.indexOf(oldSrcFile);
+        if (i == -1) {
+            throw new IllegalArgumentException("The source file '" + oldSrcFile
+                    + "' was not found!");
+        }
+        srcFiles.remove(i);
+        srcFiles.add(i, newSrcFile);
+    }
+
+    private String getText(final String value, final String defaultVal) {
+        if (value == null) {
+            return defaultVal;
+        }
+        return value;
+    }
+
+    private String getTag(final String tag, final String value, final String defaultVal) {
+        if ((value == null) && (defaultVal == null)) {
+            return "<" + tag + "/>";
+        }
+        return "<" + tag + ">" + getText(value, defaultVal) + "</" + tag + ">";
+    }
+
+    private String getTag(final String tag, final boolean value) {
+        return "<" + tag + ">" + value + "</" + tag + ">";
+    }
+
+    private String getTag(final String tag, final int value) {
+        return "<" + tag + ">" + value + "</" + tag + ">";
+    }
+
+    private String getTag(final String tag, final Locale locale, final Locale defaultLocale) {
+        if ((locale == null) && (defaultLocale == null)) {
+            return "<" + tag + "/>";
+        }
+        if (locale == null) {
+            return "<" + tag + ">" + defaultLocale.getLanguage() + "</" + tag + ">";
+        }
+        return "<" + tag + ">" + locale.getLanguage() + "</" + tag + ">";
+    }
+
+    private String getTagLine(final String tag, final String value, final String defaultVal) {
+        return getTag(tag, value, defaultVal) + IOUtils.LINE_SEPARATOR;
+    }
+
+    private String getTagLine(final String tag, final boolean value) {
+        return getTag(tag, value) + IOUtils.LINE_SEPARATOR;
+    }
+
+    private String getTagLine(final String tag, final int value) {
+        return getTag(tag, value) + IOUtils.LINE_SEPARATOR;
+    }
+
+    private String getTagLine(final String tag, final Locale locale, final Locale defaultLocale) {
+        return getTag(tag, locale, defaultLocale) + IOUtils.LINE_SEPARATOR;
+    }
+
+    /**
+     * Returns the configuration as XML with all variables replaced with their
+     * values.
+     * 
+     * @return XML configuration.
+     */
+    public final String toStaticXML() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append("<?xml version=\"1.0\" encoding=\"" + xmlEncoding + "\"?>"
+                + IOUtils.LINE_SEPARATOR);
+        sb.append("<application>" + IOUtils.LINE_SEPARATOR);
+        sb.append("  " + getTagLine("version", getVersion(), null));
+        sb.append("  " + getTagLine("title", getTitle(), null));
+        sb.append("  " + getTagLine("vendor", getVendor(), null));
+        sb.append("  " + getTagLine("description", getDescription(), null));
+        sb.append("  " + getTagLine("exitAfterExecute", isExitAfterExecute()));
+        sb.append("  " + getTagLine("destPath", getDestPath(), null));
+        sb.append("  " + getTagLine("idFilename", getIdFilename(), ".yourapp"));
+        sb.append("  " + getTagLine("silentInstall", isSilentInstall()));
+        sb.append("  " + getTagLine("silentUpdate", isSilentUpdate()));
+        sb.append("  " + getTagLine("locale", locale, Locale.getDefault()));
+        sb.append("  " + getTagLine("lazyLoading", isLazyLoading()));
+        sb.append("  " + getTagLine("showStartFrame", isShowStartFrame()));
+        sb.append("  " + getTagLine("startFrameDelaySeconds", getStartFrameDelaySeconds()));
+        sb.append("  " + getTagLine("logFilename", getLogFilename(), null));
+        sb.append("  " + getTagLine("downloadThreads", getDownloadThreads()));
+        sb.append("  " + getTagLine("verifyAllFiles", isVerifyAllFiles()));
+        sb.append("  " + getTagLine("scanThreads", getScanThreads()));
+        sb.append("  " + getTagLine("sharedStore", isSharedStore()));
+        sb.append("  " + getTagLine("streamingUnzip", isStreamingUnzip()));
+        sb.append("  " + getTagLine("unzipThreads", getUnzipThreads()));
+        sb.append("  " + getTagLine("stagedUpdate", isStagedUpdate()));
+        sb.append("  " + getTagLine("connectTimeoutSeconds", getConnectTimeoutSeconds()));
+        sb.append("  " + getTagLine("readTimeoutSeconds", getReadTimeoutSeconds()));
+        sb.append("  " + getTagLine("maxConnectionsPerHost", getMaxConnectionsPerHost()));
+        sb.append("  " + getTagLine("transportClassName", getTransportClassName(), null));
+        sb.append("  " + getTagLine("launchFirst", isLaunchFirst()));
+        sb.append("  " + getTagLine("prefetchPauseMillis", getPrefetchPauseMillis()));
+        sb.append("  " + getTagLine("cacheProxyUrl", getCacheProxyUrl(), null));
+        sb.append("  " + getTagLine("packThreshold", getPackThreshold()));
+        sb.append("  " + getTagLine("hashAlgorithm", getHashAlgorithm(), HashAlgorithm.MD5));
+        sb.append("  " + getTagLine("javaExe", getJavaExe(), null));
+        sb.append("  "
+                + getTagLine("javaArgs", getJavaArgs(),
+                        "-classpath ${classpath} com.company.product.MainClass"));
+        sb.append("  " + getTagLine("msgFileUrl", msgFileUrl, null));
+        for (int i = 0; i < mkDirs.size(); i++) {
+            final MkDir mkDir = (MkDir) mkDirs.get(i);
+            sb.append("  " + mkDir.toXML() + IOUtils.LINE_SEPARATOR);
+        }
+        for (int i = 0; i < srcDirs.size(); i++) {
+            final SrcDir srcDir = (SrcDir) srcDirs.get(i);
+            sb.append("  " + srcDir.toXML() + IOUtils.LINE_SEPARATOR);
+        }
+        for (int i = 0; i < mirrors.size(); i++) {
+            final Mirror mirror = (Mirror) mirrors.get(i);
+            sb.append("  " + mirror.toXML() + IOUtils.LINE_SEPARATOR);
+        }
+        for (int i = 0; i < srcFiles.size(); i++) {
+            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+            sb.append("  " + srcFile.toXML() + IOUtils.LINE_SEPARATOR);
+        }
+        for (int i = 0; i < packs.size(); i++) {
+            final Pack pack = (Pack) packs.get(i);
+            sb.append("  " + pack.toXML() + IOUtils.LINE_SEPARATOR);
+        }
+        sb.append("</application>" + IOUtils.LINE_SEPARATOR);
+        return sb.toString();
+    }
+
+    /**
+     * Returns the configuration as XML with no variables replaced.
+     * 
+     * @return XML configuration.
+     */
+    public final String toVarXML() {
+        return toVarXML(true);
+    }
+
+    /**
+     * Returns the configuration as XML with no variables replaced.
+     * 
+     * @param withFiles
+     *            Include the source files and packs <code>true</code> or only
+     *            the other values <code>false</code>.
+     * 
+     * @return XML configuration.
+     */
+    public final String toVarXML(final boolean withFiles) {
+        final StringBuffer sb = new StringBuffer();
+        sb.append("<?xml version=\"1.0\" encoding=\"" + xmlEncoding + "\"?>"
+                + IOUtils.LINE_SEPARATOR);
+        sb.append("<application>" + IOUtils.LINE_SEPARATOR);
+        // First line so a client can find it by loading only the head
+        if (withFiles && (manifestFingerprint != null)) {
+            sb.append("  " + getTagLine("manifest", manifestFingerprint, null));
+        }
+        sb.append("  " + getTagLine("version", version, null));
+        sb.append("  " + getTagLine("title", title, "Your title"));
+        sb.append("  " + getTagLine("vendor", vendor, null));
+        sb.append("  " + getTagLine("description", description, null));
+        sb.append("  " + getTagLine("exitAfterExecute", exitAfterExecute));
+        sb.append("  " + getTagLine("destPath", destPath, "C:\\Program Files\\yourapp\\"));
+        sb.append("  " + getTagLine("idFilename", idFilename, ".yourapp"));
+        sb.append("  " + getTagLine("silentInstall", silentInstall));
+        sb.append("  " + getTagLine("silentUpdate", silentUpdate));
+        sb.append("  " + getTagLine("locale", locale, Locale.getDefault()));
+        sb.append("  " + getTagLine("lazyLoading", lazyLoading));
+        sb.append("  " + getTagLine("showStartFrame", isShowStartFrame()));
+        sb.append("  " + getTagLine("startFrameDelaySeconds", getStartFrameDelaySeconds()));
+        sb.append("  " + getTagLine("logFilename", logFilename, null));
+        sb.append("  " + getTagLine("downloadThreads", downloadThreads));
+        sb.append("  " + getTagLine("verifyAllFiles", verifyAllFiles));
+        sb.append("  " + getTagLine("scanThreads", scanThreads));
+        sb.append("  " + getTagLine("sharedStore", sharedStore));
+        sb.append("  " + getTagLine("streamingUnzip", streamingUnzip));
+        sb.append("  " + getTagLine("unzipThreads", unzipThreads));
+        sb.append("  " + getTagLine("stagedUpdate", stagedUpdate));
+        sb.append("  " + getTagLine("connectTimeoutSeconds", connectTimeoutSeconds));
+        sb.append("  " + getTagLine("readTimeoutSeconds", readTimeoutSeconds));
+        sb.append("  " + getTagLine("maxConnectionsPerHost", maxConnectionsPerHost));
+        sb.append("  " + getTagLine("transportClassName", transportClassName, null));
+        sb.append("  " + getTagLine("launchFirst", launchFirst));
+        sb.append("  " + getTagLine("prefetchPauseMillis", prefetchPauseMillis));
+        sb.append("  " + getTagLine("cacheProxyUrl", cacheProxyUrl, null));
+        sb.append("  " + getTagLine("packThreshold", packThreshold));
+        sb.append("  " + getTagLine("hashAlgorithm", hashAlgorithm, HashAlgorithm.MD5));
+        sb.append("  " + getTagLine("javaExe", javaExe, "jre/bin/java.exe"));
+        sb.append("  "
+                + getTagLine("javaArgs", javaArgs,
+                        "-classpath ${classpath} com.company.product.MainClass"));
+        sb.append("  " + getTagLine("msgFileUrl", msgFileUrl, null));
+        for (int i = 0; i < mkDirs.size(); i++) {
+            final MkDir mkDir = (MkDir) mkDirs.get(i);
+            sb.append("  " + mkDir.toXML() + IOUtils.LINE_SEPARATOR);
+        }
+        for (int i = 0; i < srcDirs.size(); i++) {
+            final SrcDir srcDir = (SrcDir) srcDirs.get(i);
+            sb.append("  " + srcDir.toXML() + IOUtils.LINE_SEPARATOR);
+        }
+        for (int i = 0; i < mirrors.size(); i++) {
+            final Mirror mirror = (Mirror) mirrors.get(i);
+            sb.append("  " + mirror.toXML() + IOUtils.LINE_SEPARATOR);
+        }
+        if (withFiles) {
+            for (int i = 0; i < srcFiles.size(); i++) {
+                final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+                sb.append("  " + srcFile.toXML() + IOUtils.LINE_SEPARATOR);
+            }
+            for (int i = 0; i < packs.size(); i++) {
+                final Pack pack = (Pack) packs.get(i);
+                sb.append("  " + pack.toXML() + IOUtils.LINE_SEPARATOR);
+            }
+        }
+        sb.append("</application>" + IOUtils.LINE_SEPARATOR);
+        return sb.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final String toString() {
+        return toDebugString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final String toDebugString() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append("configFileUrl=" + getConfigFileUrl() + ", ");
+        sb.append("version=" + getVersion() + ", ");
+        sb.append("title=" + getTitle() + ", ");
+        sb.append("vendor=" + getVendor() + ", ");
+        sb.append("description=" + getDescription() + ", ");
+        sb.append("exitAfterExecute=" + isExitAfterExecute() + ", ");
+        sb.append("destPath=" + getDestPath() + ", ");
+        sb.append("idFilename=" + getIdFilename() + ", ");
+        sb.append("silentInstall=" + isSilentInstall() + ", ");
+        sb.append("silentUpdate=" + isSilentUpdate() + ", ");
+        sb.append("locale=" + getLocale() + ", ");
+        sb.append("lazyLoading=" + isLazyLoading() + ", ");
+        sb.append("showStartFrame=" + isShowStartFrame() + ", ");
+        sb.append("startFrameDelaySeconds=" + getStartFrameDelaySeconds() + ", ");
+        sb.append("downloadThreads=" + getDownloadThreads() + ", ");
+        sb.append("verifyAllFiles=" + isVerifyAllFiles() + ", ");
+        sb.append("scanThreads=" + getScanThreads() + ", ");
+        sb.append("sharedStore=" + isSharedStore() + ", ");
+        sb.append("streamingUnzip=" + isStreamingUnzip() + ", ");
+        sb.append("unzipThreads=" + getUnzipThreads() + ", ");
+        sb.append("stagedUpdate=" + isStagedUpdate() + ", ");
+        sb.append("connectTimeoutSeconds=" + getConnectTimeoutSeconds() + ", ");
+        sb.append("readTimeoutSeconds=" + getReadTimeoutSeconds() + ", ");
+        sb.append("maxConnectionsPerHost=" + getMaxConnectionsPerHost() + ", ");
+        sb.append("transportClassName=" + getTransportClassName() + ", ");
+        sb.append("launchFirst=" + isLaunchFirst() + ", ");
+        sb.append("prefetchPauseMillis=" + getPrefetchPauseMillis() + ", ");
+        sb.append("cacheProxyUrl=" + getCacheProxyUrl() + ", ");
+        sb.append("packThreshold=" + getPackThreshold() + ", ");
+        sb.append("hashAlgorithm=" + getHashAlgorithm() + ", ");
+        sb.append("javaExe=" + getJavaExe() + ", ");
+        sb.append("javaArgs=" + getJavaArgs() + ", ");
+        sb.append("msgFileUrl=" + getMsgFileUrl() + ", ");
+        sb.append("xmlEncoding=" + getXmlEncoding());
+        sb.append("logFilename=" + getLogFilename());
+        sb.append("srcFiles.size()=" + srcFiles.size());
+        sb.append("srcDirs.size()=" + srcDirs.size());
+        sb.append("mkDirs.size()=" + mkDirs.size());
+        sb.append("mirrors.size()=" + mirrors.size());
+        sb.append("packs.size()=" + packs.size());
+        return sb.toString();
+    }
+
+    /**
+     * Writes this configuration to an XML file with no variables replaced.
+     * 
+     * @param configFile
+     *            Target file.
+     * @param backup
+     *            Create a backup if this file already exists (same filename but
+     *            with ".bak" extension).
+     * 
+     * @throws IOException
+     *             Error writing the file.
+     */
+    public final void writeToVarXML(final File configFile, final boolean backup) throws IOException {
+        writeToXML(toVarXML(), configFile, backup);
+    }
+
+    /**
+     * Writes this configuration to an XML file with all variables replaced with
+     * their values.
+     * 
+     * @param configFile
+     *            Target file.
+     * @param backup
+     *            Create a backup if this file already exists (same filename but
+     *            with ".bak" extension).
+     * 
+     * @throws IOException
+     *             Error writing the file.
+     */
+    public final void writeToStaticXML(final File configFile, final boolean backup)
+            throws IOException {
+        writeToXML(toStaticXML(), configFile, backup);
+    }
+
+    /**
+     * Writes this configuration to an XML file.
+     * 
+     * @param configFile
+     *            Target file. If this file already exists a backup (same
+     *            filename but with ".bak" extension) will be created.
+     * @param backup
+     *            Create a backup if this file already exists (same filename but
+     *            with ".bak" extension).
+     * 
+     * @throws IOException
+     *             Error writing the file.
+     */
+    private final void writeToXML(final String xml, final File file, final boolean backup)
+            throws IOException {
+
+        // Save old file?
+        if (backup) {
+            final File bakFile = new File(file + ".bak");
+            if (bakFile.exists()) {
+                bakFile.delete();
+            }
+            file.renameTo(bakFile);
+        }
+
+        // Write current values
+        final Writer writer = new BufferedWriter(new FileWriter(file));
+        try {
+            writer.write(xml);
+        } finally {
+            writer.close();
+        }
+
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final boolean simpleAttributesEquals(final Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (!(obj instanceof Config)) {
+            return false;
+        }
+        final Config theOther = (Config) obj;
+        return Utils.nullSafeEquals(lookAndFeelClassName, theOther.lookAndFeelClassName)
+                && Utils.nullSafeEquals(idFilename, theOther.idFilename)
+                && (exitAfterExecute == theOther.exitAfterExecute)
+                && Utils.nullSafeEquals(destPath, theOther.destPath)
+                && (silentInstall == theOther.silentInstall)
+                && (silentUpdate == theOther.silentUpdate)
+                && (firstInstallation == theOther.firstInstallation)
+                && Utils.nullSafeEquals(locale, theOther.locale)
+                && Utils.nullSafeEquals(msgFileUrl, theOther.msgFileUrl)
+                && (lazyLoading == theOther.lazyLoading)
+                && Utils.nullSafeEquals(javaExe, theOther.javaExe)
+                && Utils.nullSafeEquals(javaArgs, theOther.javaArgs)
+                && Utils.nullSafeEquals(title, theOther.title)
+                && Utils.nullSafeEquals(vendor, theOther.vendor)
+                && Utils.nullSafeEquals(description, theOther.description)
+                && Utils.nullSafeEquals(configFileUrl, theOther.configFileUrl)
+                && Utils.nullSafeEquals(version, theOther.version)
+                && Utils.nullSafeEquals(xmlEncoding, theOther.xmlEncoding)
+                && (showStartFrame == theOther.showStartFrame)
+                && (startFrameDelaySeconds == theOther.startFrameDelaySeconds)
+                && Utils.nullSafeEquals(logFilename, theOther.logFilename)
+                && (downloadThreads == theOther.downloadThreads)
+                && (verifyAllFiles == theOther.verifyAllFiles)
+                && (scanThreads == theOther.scanThreads)
+                && (sharedStore == theOther.sharedStore)
+                && (streamingUnzip == theOther.streamingUnzip)
+                && (unzipThreads == theOther.unzipThreads)
+                && (stagedUpdate == theOther.stagedUpdate)
+                && (connectTimeoutSeconds == theOther.connectTimeoutSeconds)
+                && (readTimeoutSeconds == theOther.readTimeoutSeconds)
+                && (maxConnectionsPerHost == theOther.maxConnectionsPerHost)
+                && Utils.nullSafeEquals(transportClassName, theOther.transportClassName)
+                && (launchFirst == theOther.launchFirst)
+                && (prefetchPauseMillis == theOther.prefetchPauseMillis)
+                && Utils.nullSafeEquals(cacheProxyUrl, theOther.cacheProxyUrl)
+                && (packThreshold == theOther.packThreshold)
+                && hashAlgorithm.equals(theOther.hashAlgorithm);
+    }
+}
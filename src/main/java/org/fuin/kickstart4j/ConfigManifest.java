@@ -0,0 +1,768 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Compact binary form of a configuration that is located next to the XML
+ * configuration (Same URL with {@link #EXTENSION} appended). All values except
+ * the source files and packs are stored as a small XML document. Source files
+ * and packs are stored with variable length numbers, raw hash bytes and a
+ * table for shared paths and URL prefixes. The manifest is written by the
+ * {@link ConfigUpdater} before the XML configuration. The first element of
+ * the XML configuration contains the fingerprint of the manifest, so a client
+ * only loads the manifest and the first bytes of the XML to check that both
+ * belong together. A manifest that is not referenced by the XML configuration
+ * (for example if only one of them was uploaded) is ignored. After editing
+ * the XML by hand the {@link ConfigUpdater} must be run again to update the
+ * manifest. {@link Kickstart4J} only uses the manifest if started with the
+ * command line option "-useManifest true".
+ */
+public final class ConfigManifest {
+
+    private static final Logger LOG = Logger.getLogger(ConfigManifest.class);
+
+    /** Extension appended to the URL of the XML configuration. */
+    public static final String EXTENSION = ".bin";
+
+    private static final int MAGIC = 0x4B344A4D; // "K4JM"
+
+    private static final int VERSION = 3;
+
+    /** Number of bytes loaded from the XML to find the manifest fingerprint. */
+    private static final int XML_HEAD_SIZE = 1024;
+
+    private static final String FINGERPRINT_START = "<manifest>";
+
+    private static final String FINGERPRINT_END = "</manifest>";
+
+    private static final int FLAG_UNZIP = 1;
+
+    private static final int FLAG_LOAD_ALWAYS = 2;
+
+    private static final int FLAG_ADD_TO_CLASSPATH = 4;
+
+    /** The hash is stored as raw bytes and not as a string. */
+    private static final int FLAG_RAW_HASH = 8;
+
+    /** The source file URL ends with the filename. */
+    private static final int FLAG_URL_FILENAME = 16;
+
+    private static final int FLAG_GZIP = 32;
+
+    private static final int FLAG_BLOCKS = 64;
+
+    /**
+     * Private constructor.
+     */
+    private ConfigManifest() {
+        throw new UnsupportedOperationException("Creating instances is not allowed!");
+    }
+
+    /**
+     * Returns the URL of the manifest for a XML configuration.
+     * 
+     * @param configFileURL
+     *            URL of the XML configuration.
+     * 
+     * @return URL of the manifest.
+     */
+    public static URL getManifestURL(final URL configFileURL) {
+        try {
+            return new URL(configFileURL.toExternalForm() + EXTENSION);
+        } catch (final MalformedURLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Returns the manifest file for a XML configuration file.
+     * 
+     * @param configFile
+     *            XML configuration file.
+     * 
+     * @return Manifest file.
+     */
+    public static File getManifestFile(final File configFile) {
+        return new File(configFile.getParentFile(), configFile.getName() + EXTENSION);
+    }
+
+    /**
+     * Creates the fingerprint of a manifest.
+     * 
+     * @param data
+     *            Content of the manifest.
+     * 
+     * @return Length and MD5 hash of the content.
+     */
+    public static String createFingerprint(final byte[] data) {
+        Utils4J.checkNotNull("data", data);
+        final byte[] hash = HashAlgorithm.createDigest(HashAlgorithm.MD5).digest(data);
+        return data.length + ":" + Utils.encodeHex(hash);
+    }
+
+    /**
+     * Writes the configuration as manifest. Variables are not replaced and
+     * the manifest fingerprint of the configuration is not included.
+     * 
+     * @param config
+     *            Configuration to write.
+     * @param out
+     *            Stream to write to - Will not be closed.
+     * 
+     * @throws IOException
+     *             Error writing the stream.
+     */
+    public static void write(final Config config, final OutputStream out) throws IOException {
+
+        final List srcFiles = config.getSrcFiles();
+        final int hashLength = getHashLength(srcFiles);
+
+        // Files and packs first to collect the shared strings
+        final StringTable table = new StringTable();
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        final DataOutputStream body = new DataOutputStream(bout);
+        writeVarLong(body, srcFiles.size());
+        for (int i = 0; i < srcFiles.size(); i++) {
+            writeSrcFile(body, table, (SrcFile) srcFiles.get(i), hashLength);
+        }
+        final List packs = config.getPacks();
+        writeVarLong(body, packs.size());
+        for (int i = 0; i < packs.size(); i++) {
+            final Pack pack = (Pack) packs.get(i);
+            writeUrl(body, table, pack.getSrcFileUrl());
+            writeVarLong(body, pack.getSize());
+            final List members = pack.getMembers();
+            writeVarLong(body, members.size());
+            for (int j = 0; j < members.size(); j++) {
+                writeUrl(body, table, (String) members.get(j));
+            }
+        }
+        body.flush();
+
+        final DataOutputStream dout = new DataOutputStream(new BufferedOutputStream(out));
+        dout.writeInt(MAGIC);
+        writeVarLong(dout, VERSION);
+        writeString(dout, config.toVarXML(false));
+        writeVarLong(dout, hashLength);
+        final List strings = table.getStrings();
+        writeVarLong(dout, strings.size());
+        for (int i = 0; i < strings.size(); i++) {
+            writeString(dout, (String) strings.get(i));
+        }
+        bout.writeTo(dout);
+        dout.flush();
+
+    }
+
+    private static int getHashLength(final List srcFiles) {
+        if (srcFiles.size() == 0) {
+            return 0;
+        }
+        return ((SrcFile) srcFiles.get(0)).getMd5Hash().length() / 2;
+    }
+
+    private static void writeSrcFile(final DataOutputStream out, final StringTable table,
+            final SrcFile srcFile, final int hashLength) throws IOException {
+
+        final byte[] rawHash = decodeHex(srcFile.getMd5Hash(), hashLength);
+        final String srcFileUrl = srcFile.getSrcFileUrl();
+        final int urlPrefixEnd = srcFileUrl.lastIndexOf('/') + 1;
+        final boolean urlFilename = srcFileUrl.substring(urlPrefixEnd).equals(
+                srcFile.getFilename());
+
+        int flags = 0;
+        flags = flags | flag(srcFile.isUnzip(), FLAG_UNZIP);
+        flags = flags | flag(srcFile.isLoadAlways(), FLAG_LOAD_ALWAYS);
+        flags = flags | flag(srcFile.isAddToClasspath(), FLAG_ADD_TO_CLASSPATH);
+        flags = flags | flag(rawHash != null, FLAG_RAW_HASH);
+        flags = flags | flag(urlFilename, FLAG_URL_FILENAME);
+        flags = flags | flag(srcFile.getGzipSrcFileUrl() != null, FLAG_GZIP);
+        flags = flags | flag(srcFile.getBlocksUrl() != null, FLAG_BLOCKS);
+        writeVarLong(out, flags);
+
+        writeVarLong(out, table.indexOf(srcFile.getPath()));
+        writeString(out, srcFile.getFilename());
+        if (rawHash == null) {
+            writeString(out, srcFile.getMd5Hash());
+        } else {
+            out.write(rawHash);
+        }
+        writeVarLong(out, srcFile.getSize());
+        writeVarLong(out, zigZag(srcFile.getOrder()));
+        if (urlFilename) {
+            writeVarLong(out, table.indexOf(srcFileUrl.substring(0, urlPrefixEnd)));
+        } else {
+            writeUrl(out, table, srcFileUrl);
+        }
+        if (srcFile.getGzipSrcFileUrl() != null) {
+            writeUrl(out, table, srcFile.getGzipSrcFileUrl());
+        }
+        if (srcFile.getBlocksUrl() != null) {
+            writeUrl(out, table, srcFile.getBlocksUrl());
+        }
+        final List patches = srcFile.getPatches();
+        writeVarLong(out, patches.size());
+        for (int i = 0; i < patches.size(); i++) {
+            final SrcFilePatch patch = (SrcFilePatch) patches.get(i);
+            writeString(out, patch.getFromHash());
+            writeVarLong(out, patch.getSize());
+            writeUrl(out, table, patch.getSrcFileUrl());
+        }
+
+    }
+
+    private static int flag(final boolean value, final int flag) {
+        if (value) {
+            return flag;
+        }
+        return 0;
+    }
+
+    /**
+     * Writes the part up to the last slash as index into the string table
+     * and the rest as string.
+     */
+    private static void writeUrl(final DataOutputStream out, final StringTable table,
+            final String url) throws IOException {
+        final int prefixEnd = url.lastIndexOf('/') + 1;
+        writeVarLong(out, table.indexOf(url.substring(0, prefixEnd)));
+        writeString(out, url.substring(prefixEnd));
+    }
+
+    private static String readUrl(final Input in, final String[] table)
+            throws IOException {
+        final String prefix = table[readIndex(in, table)];
+        final String name = in.readString();
+        if (prefix.length() == 0) {
+            return name;
+        }
+        if (name.length() == 0) {
+            return prefix;
+        }
+        return prefix + name;
+    }
+
+    private static int readIndex(final Input in, final String[] table)
+            throws IOException {
+        final long index = in.readVarLong();
+        if ((index < 0) || (index >= table.length)) {
+            throw new IOException("Invalid string table index: " + index);
+        }
+        return (int) index;
+    }
+
+    /**
+     * Writes the configuration as manifest file. The returned fingerprint
+     * should be set in the configuration before writing the XML
+     * configuration (See {@link Config#setManifestFingerprint(String)}).
+     * 
+     * @param config
+     *            Configuration to write.
+     * @param file
+     *            File to create.
+     * 
+     * @return Fingerprint of the manifest.
+     * 
+     * @throws IOException
+     *             Error writing the file.
+     */
+    public static String write(final Config config, final File file) throws IOException {
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        write(config, bout);
+        final byte[] data = bout.toByteArray();
+        FileUtils.writeByteArrayToFile(file, data);
+        return createFingerprint(data);
+    }
+
+    /**
+     * Fills an object from a manifest.
+     * 
+     * @param config
+     *            Configuration to populate.
+     * @param data
+     *            Content of the manifest.
+     * @param url
+     *            URL the manifest was loaded from - Only used for error
+     *            messages.
+     * 
+     * @throws InvalidConfigException
+     *             Invalid manifest format.
+     */
+    public static void read(final Config config, final byte[] data, final URL url)
+            throws InvalidConfigException {
+
+        Utils4J.checkNotNull("config", config);
+        Utils4J.checkNotNull("data", data);
+
+        try {
+            final Input in = new Input(data);
+            readHeader(in);
+            new ConfigParser(config).parse(in.readString(), url);
+
+            final int hashLength = (int) in.readVarLong();
+            final String[] table = new String[(int) in.readVarLong()];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = in.readString();
+            }
+
+            final int fileCount = (int) in.readVarLong();
+            final List srcFiles = config.getSrcFiles();
+            for (int i = 0; i < fileCount; i++) {
+                srcFiles.add(readSrcFile(in, table, hashLength));
+            }
+            final int packCount = (int) in.readVarLong();
+            for (int i = 0; i < packCount; i++) {
+                final String srcFileUrl = readUrl(in, table);
+                final long size = in.readVarLong();
+                final int memberCount = (int) in.readVarLong();
+                final List members = new ArrayList(memberCount);
+                for (int j = 0; j < memberCount; j++) {
+                    members.add(readUrl(in, table));
+                }
+                config.getPacks().add(new Pack(srcFileUrl, size, members));
+            }
+        } catch (final IOException ex) {
+            throw new InvalidConfigException(url, ex);
+        }
+
+    }
+
+    /**
+     * Reads the header of a manifest.
+     */
+    private static void readHeader(final Input in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid manifest format");
+        }
+        final long version = in.readVarLong();
+        if (version != VERSION) {
+            throw new IOException("Unknown manifest version: " + version);
+        }
+    }
+
+    /**
+     * Returns the manifest fingerprint from the start of a XML configuration.
+     * 
+     * @param xmlHead
+     *            First bytes of the XML configuration file.
+     * 
+     * @return Fingerprint or <code>null</code> if the first element is not
+     *         a manifest fingerprint.
+     */
+    public static String getFingerprint(final byte[] xmlHead) {
+        Utils4J.checkNotNull("xmlHead", xmlHead);
+        // The fingerprint contains only ASCII characters
+        final String head;
+        try {
+            head = new String(xmlHead, "ISO-8859-1");
+        } catch (final UnsupportedEncodingException ex) {
+            throw new RuntimeException(ex);
+        }
+        final int application = head.indexOf("<application>");
+        if (application == -1) {
+            return null;
+        }
+        final int start = head.indexOf('<', application + 1);
+        if ((start == -1) || !head.startsWith(FINGERPRINT_START, start)) {
+            return null;
+        }
+        final int end = head.indexOf(FINGERPRINT_END, start);
+        if (end == -1) {
+            return null;
+        }
+        return head.substring(start + FINGERPRINT_START.length(), end).trim();
+    }
+
+    /**
+     * Checks if a manifest is referenced by a XML configuration.
+     * 
+     * @param data
+     *            Content of the manifest.
+     * @param xmlHead
+     *            First bytes of the XML configuration file.
+     * 
+     * @return If the fingerprint in the XML matches the manifest
+     *         <code>true</code> else <code>false</code>.
+     */
+    public static boolean isReferencedBy(final byte[] data, final byte[] xmlHead) {
+        Utils4J.checkNotNull("data", data);
+        return createFingerprint(data).equals(getFingerprint(xmlHead));
+    }
+
+    private static SrcFile readSrcFile(final Input in, final String[] table,
+            final int hashLength) throws IOException {
+
+        final int flags = (int) in.readVarLong();
+        final String path = table[readIndex(in, table)];
+        final String filename = in.readString();
+        final String hash;
+        if ((flags & FLAG_RAW_HASH) == 0) {
+            hash = in.readString();
+        } else {
+            hash = in.readHex(hashLength);
+        }
+        final long size = in.readVarLong();
+        final int order = unZigZag(in.readVarLong());
+        final String srcFileUrl;
+        if ((flags & FLAG_URL_FILENAME) == 0) {
+            srcFileUrl = readUrl(in, table);
+        } else {
+            srcFileUrl = table[readIndex(in, table)] + filename;
+        }
+        SrcFile srcFile = new SrcFile(path, filename, hash, size, (flags & FLAG_UNZIP) != 0,
+                (flags & FLAG_LOAD_ALWAYS) != 0, (flags & FLAG_ADD_TO_CLASSPATH) != 0,
+                srcFileUrl, order);
+        if ((flags & FLAG_GZIP) != 0) {
+            srcFile = srcFile.withGzipSrcFileUrl(readUrl(in, table));
+        }
+        if ((flags & FLAG_BLOCKS) != 0) {
+            srcFile = srcFile.withBlocksUrl(readUrl(in, table));
+        }
+        final int patchCount = (int) in.readVarLong();
+        if (patchCount > 0) {
+            final List patches = new ArrayList(patchCount);
+            for (int i = 0; i < patchCount; i++) {
+                final String fromHash = in.readString();
+                final long patchSize = in.readVarLong();
+                patches.add(new SrcFilePatch(fromHash, patchSize, readUrl(in, table)));
+            }
+            srcFile = srcFile.withPatches(patches);
+        }
+        return srcFile;
+
+    }
+
+    /**
+     * Fills an object from the manifest next to a XML configuration. If there
+     * is no manifest or it is not referenced by the current XML configuration
+     * the XML configuration is used. To verify the manifest only the first
+     * bytes of the XML configuration are loaded.
+     * 
+     * @param config
+     *            Configuration to populate.
+     * @param configFileURL
+     *            URL of the XML configuration file.
+     * 
+     * @throws InvalidConfigException
+     *             Error reading the manifest or the XML configuration.
+     */
+    public static void parse(final Config config, final URL configFileURL)
+            throws InvalidConfigException {
+
+        Utils4J.checkNotNull("config", config);
+        Utils4J.checkNotNull("configFileURL", configFileURL);
+
+        final URL manifestURL = getManifestURL(configFileURL);
+        final byte[] data;
+        try {
+            data = load(manifestURL);
+        } catch (final IOException ex) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("No manifest - Using XML configuration: " + manifestURL + " [" + ex
+                        + "]");
+            }
+            ConfigParser.parse(config, configFileURL);
+            return;
+        }
+        final byte[] xmlHead;
+        try {
+            xmlHead = loadHead(configFileURL);
+        } catch (final IOException ex) {
+            throw new InvalidConfigException(configFileURL, ex);
+        }
+        if (!isReferencedBy(data, xmlHead)) {
+            LOG.warn("Manifest is not referenced by the XML configuration"
+                    + " - Using XML configuration: " + manifestURL);
+            ConfigParser.parse(config, configFileURL);
+            return;
+        }
+        read(config, data, manifestURL);
+
+    }
+
+    private static byte[] load(final URL url) throws IOException {
+        final InputStream in = Utils.openStream(url);
+        try {
+            return IOUtils.toByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Loads the first bytes of a file. Servers that don't support ranges
+     * send the complete file but only the first bytes are read.
+     */
+    private static byte[] loadHead(final URL url) throws IOException {
+        final Transport.Response response = Utils.getTransport().open(url, 0, XML_HEAD_SIZE);
+        try {
+            final InputStream in = response.getInputStream();
+            final byte[] buf = new byte[XML_HEAD_SIZE];
+            int count = 0;
+            int n;
+            while ((count < buf.length) && ((n = in.read(buf, count, buf.length - count)) > 0)) {
+                count = count + n;
+            }
+            final byte[] head = new byte[count];
+            System.arraycopy(buf, 0, head, 0, count);
+            return head;
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Creates an object from the manifest next to a XML configuration. If
+     * there is no manifest or it is not referenced by the current XML
+     * configuration the XML configuration is used.
+     * 
+     * @param configFileURL
+     *            URL of the XML configuration file.
+     * 
+     * @return Configuration filled with values from the manifest or XML.
+     * 
+     * @throws InvalidConfigException
+     *             Error reading the manifest or the XML configuration.
+     */
+    public static Config create(final URL configFileURL) throws InvalidConfigException {
+        final Config config = new Config();
+        parse(config, configFileURL);
+        return config;
+    }
+
+    /**
+     * Converts a hash into bytes.
+     * 
+     * @return Bytes or <code>null</code> if the hash is not a lower case hex
+     *         string with the expected number of bytes.
+     */
+    private static byte[] decodeHex(final String hash, final int length) {
+        if (hash.length() != length * 2) {
+            return null;
+        }
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            final int high = Character.digit(hash.charAt(2 * i), 16);
+            final int low = Character.digit(hash.charAt(2 * i + 1), 16);
+            if ((high == -1) || (low == -1)) {
+                return null;
+            }
+            data[i] = (byte) ((high << 4) | low);
+        }
+        // Upper case letters would not survive the round trip
+        if (!Utils.encodeHex(data).equals(hash)) {
+            return null;
+        }
+        return data;
+    }
+
+    private static long zigZag(final int value) {
+        return ((long) value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(final long value) {
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    private static void writeVarLong(final DataOutputStream out, final long value)
+            throws IOException {
+        long rest = value;
+        while ((rest & ~0x7FL) != 0) {
+            out.writeByte((int) ((rest & 0x7F) | 0x80));
+            rest = rest >>> 7;
+        }
+        out.writeByte((int) rest);
+    }
+
+    private static void writeString(final DataOutputStream out, final String str)
+            throws IOException {
+        final byte[] data = str.getBytes("UTF-8");
+        writeVarLong(out, data.length);
+        out.write(data);
+    }
+
+    /**
+     * Measures size and parse time of a XML configuration file and the
+     * manifest created from it.
+     * 
+     * @param args
+     *            Path and name of the XML configuration file.
+     * 
+     * @throws InvalidConfigException
+     *             Error parsing the configuration.
+     * @throws IOException
+     *             Error writing the manifest.
+     */
+    public static void main(final String[] args) throws InvalidConfigException, IOException {
+
+        if ((args == null) || (args.length != 1)) {
+            System.out.println("java -classpath <CP> " + ConfigManifest.class.getName()
+                    + " <CONFIG-FILE>");
+            return;
+        }
+        final File configFile = new File(args[0]);
+        Utils4J.checkValidFile(configFile);
+        final URL configFileURL = configFile.toURI().toURL();
+        final File manifestFile = File.createTempFile("kickstart4j", EXTENSION);
+        try {
+            write(ConfigParser.create(configFile), manifestFile);
+            final byte[] data = FileUtils.readFileToByteArray(manifestFile);
+
+            // First passes warm up the JIT
+            final int passes = 5;
+            long xmlMillis = 0;
+            long manifestMillis = 0;
+            int files = 0;
+            for (int pass = 0; pass < passes; pass++) {
+                long start = System.currentTimeMillis();
+                files = ConfigParser.create(configFileURL).getSrcFiles().size();
+                xmlMillis = System.currentTimeMillis() - start;
+                start = System.currentTimeMillis();
+                read(new Config(), data, configFileURL);
+                manifestMillis = System.currentTimeMillis() - start;
+            }
+            System.out.println("Files: " + files);
+            System.out.println("XML: " + configFile.length() + " bytes, " + xmlMillis + " ms");
+            System.out.println("Manifest: " + data.length + " bytes, " + manifestMillis + " ms");
+        } finally {
+            manifestFile.delete();
+        }
+
+    }
+
+    /**
+     * Reads the manifest content. Avoids the synchronized single byte reads
+     * of the standard streams.
+     */
+    private static final class Input {
+
+        private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+        private final byte[] data;
+
+        private int pos;
+
+        public Input(final byte[] data) {
+            super();
+            this.data = data;
+            this.pos = 0;
+        }
+
+        private void check(final long length) throws IOException {
+            if ((length < 0) || (length > data.length - pos)) {
+                throw new IOException("Unexpected end of manifest [pos=" + pos + ", length="
+                        + length + "]");
+            }
+        }
+
+        public int readInt() throws IOException {
+            check(4);
+            final int value = ((data[pos] & 0xFF) << 24) | ((data[pos + 1] & 0xFF) << 16)
+                    | ((data[pos + 2] & 0xFF) << 8) | (data[pos + 3] & 0xFF);
+            pos = pos + 4;
+            return value;
+        }
+
+        public long readVarLong() throws IOException {
+            long value = 0;
+            int shift = 0;
+            while (shift < 64) {
+                check(1);
+                final int b = data[pos++];
+                value = value | ((long) (b & 0x7F) << shift);
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+                shift = shift + 7;
+            }
+            throw new IOException("Invalid variable length number");
+        }
+
+        public String readString() throws IOException {
+            final long length = readVarLong();
+            check(length);
+            final String str;
+            try {
+                str = new String(data, pos, (int) length, "UTF-8");
+            } catch (final UnsupportedEncodingException ex) {
+                throw new RuntimeException(ex);
+            }
+            pos = pos + (int) length;
+            return str;
+        }
+
+        public String readHex(final int length) throws IOException {
+            check(length);
+            final char[] chars = new char[length * 2];
+            for (int i = 0; i < length; i++) {
+                final int b = data[pos + i] & 0xFF;
+                chars[2 * i] = HEX_DIGITS[b >>> 4];
+                chars[2 * i + 1] = HEX_DIGITS[b & 0x0F];
+            }
+            pos = pos + length;
+            return new String(chars);
+        }
+
+    }
+
+    /**
+     * Strings that are stored only once and referenced by their index.
+     */
+    private static final class StringTable {
+
+        private final Map indexes = new HashMap();
+
+        private final List strings = new ArrayList();
+
+        public int indexOf(final String str) {
+            final Integer index = (Integer) indexes.get(str);
+            if (index != null) {
+                return index.intValue();
+            }
+            indexes.put(str, new Integer(strings.size()));
+            strings.add(str);
+            return strings.size() - 1;
+        }
+
+        public List getStrings() {
+            return strings;
+        }
+
+    }
+
+}
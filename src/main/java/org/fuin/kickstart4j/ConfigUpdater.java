@@ -1,372 +1,716 @@
-/**
- * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
- * reserved. <http://www.fuin.org/>
- *
- * This library is free software; you can redistribute it and/or modify it under
- * the terms of the GNU Lesser General Public License as published by the Free
- * Software Foundation; either version 3 of the License, or (at your option) any
- * later version.
- *
- * This library is distributed in the hope that it will be useful, but WITHOUT
- * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
- * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
- * details.
- *
- * You should have received a copy of the GNU Lesser General Public License
- * along with this library. If not, see <http://www.gnu.org/licenses/>.
- */
-package org.fuin.kickstart4j;
-
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.net.MalformedURLException;
-import java.util.ArrayList;
-import java.util.List;
-
-import org.apache.commons.io.FileUtils;
-import org.fuin.utils4j.Utils4J;
-
-/**
- * Creates or updates a configuration.
- */
-public final class ConfigUpdater {
-
-    /** Configuration to update. */
-    private final Config config;
-
-    /** Listener to inform about progress. */
-    private final ConfigUpdaterListener listener;
-
-    /**
-     * Default constructor.
-     */
-    public ConfigUpdater() {
-        super();
-        this.config = new Config();
-        this.listener = new DefaultListener();
-    }
-
-    /**
-     * Constructor with listener.
-     * 
-     * @param listener
-     *            Used for writing log messages - Cannot be <code>null</code>.
-     */
-    public ConfigUpdater(final ConfigUpdaterListener listener) {
-        super();
-        this.config = new Config();
-        Utils4J.checkNotNull("listener", listener);
-        this.listener = listener;
-    }
-
-    /**
-     * Constructor with configuration file.
-     * 
-     * @param configFile
-     *            Existing configuration file.
-     * 
-     * @throws InvalidConfigException
-     *             Error parsing an existing configuration.
-     */
-    public ConfigUpdater(final File configFile) throws InvalidConfigException {
-        this(configFile, new DefaultListener());
-    }
-
-    /**
-     * Constructor with configuration file and log printer.
-     * 
-     * @param configFile
-     *            Existing configuration file.
-     * @param listener
-     *            Used for writing log messages.
-     * 
-     * @throws InvalidConfigException
-     *             Error parsing an existing configuration.
-     */
-    public ConfigUpdater(final File configFile, final ConfigUpdaterListener listener)
-            throws InvalidConfigException {
-        super();
-        Utils4J.checkNotNull("configFile", configFile);
-        Utils4J.checkValidFile(configFile);
-        this.config = ConfigParser.create(configFile);
-        Utils4J.checkNotNull("listener", listener);
-        this.listener = listener;
-    }
-
-    /**
-     * Copies the remote file to a local file and informs the listener.
-     * 
-     * @param remoteFile
-     *            Remote file to copy.
-     * @param file
-     *            Target file.
-     * @param nr
-     *            Current file number.
-     * @param max
-     *            Total files.
-     * 
-     * @throws IOException
-     *             Error while copying.
-     */
-    private void copyToFile(final RemoteFile remoteFile, final File file, final int nr,
-            final int max) throws IOException {
-
-        try {
-            FileUtils.copyURLToFile(remoteFile.getSrcFileUrl(), file);
-            listener.onCopy(remoteFile, file, nr, max);
-        } catch (final FileNotFoundException ex) {
-            if (remoteFile.isErrorIfNotFound()) {
-                throw ex;
-            } else {
-                listener.onNotFound(remoteFile, file, nr, max);
-            }
-        }
-
-    }
-
-    /**
-     * Locate a source file by it's path and filename in the list.
-     * 
-     * @param srcFiles
-     *            List of <code>SrcFile</code> objects.
-     * @param remoteFile
-     *            Remote file to find.
-     * 
-     * @return Source file or <code>null</code> if nothing was found.
-     */
-    private SrcFile findSrcFile(final List srcFiles, final RemoteFile remoteFile) {
-        for (int i = 0; i < srcFiles.size(); i++) {
-            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
-            if (remoteFile.getDestSlashPath().equals(srcFile.getSlashPath())
-                    && remoteFile.getDestFilename().equals(srcFile.getFilename())) {
-                return srcFile;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Clears the source file list in the configuration (!) and adds the remote
-     * files in the list. Informations (like "unzip", "loadAlways" or
-     * "addToClasspath") of known source files will be preserved.
-     * 
-     * @param remoteFileList
-     *            List with <code>RemoteFile</code> objects.
-     * 
-     * @throws IOException
-     *             Error while copying.
-     */
-    public final void update(final List remoteFileList) throws IOException {
-
-        final List oldSrcFiles = new ArrayList();
-        oldSrcFiles.addAll(config.getSrcFiles());
-        config.getSrcFiles().clear();
-
-        final File localFile = File.createTempFile("kickstart4j-config-creator-", ".tmp");
-
-        final int size = remoteFileList.size();
-        for (int i = 0; i < size; i++) {
-            final RemoteFile remoteFile = (RemoteFile) remoteFileList.get(i);
-            final String fileMd5Hash;
-            final long fileLength;
-            if ((remoteFile.getMd5Hash() != null) && (remoteFile.getLength() > 0)) {
-                fileMd5Hash = remoteFile.getMd5Hash();
-                fileLength = remoteFile.getLength();
-            } else {
-                copyToFile(remoteFile, localFile, (i + 1), size);
-                fileMd5Hash = Utils4J.createHashMD5(localFile);
-                fileLength = localFile.length();
-            }
-
-            final SrcFile oldSrcFile = findSrcFile(oldSrcFiles, remoteFile);
-            final SrcFile newSrcFile;
-            if (oldSrcFile == null) {
-                // New file
-                newSrcFile = new SrcFile(remoteFile.getDestPath(), remoteFile.getDestFilename(),
-                        fileMd5Hash, fileLength, false, false, false, remoteFile.getSrcFileUrl()
-                                .toExternalForm(), 0);
-            } else {
-                // Updated file
-                newSrcFile = new SrcFile(remoteFile.getDestPath(), remoteFile.getDestFilename(),
-                        fileMd5Hash, fileLength, oldSrcFile.isUnzip(), oldSrcFile.isLoadAlways(),
-                        oldSrcFile.isAddToClasspath(), remoteFile.getSrcFileUrl().toExternalForm(),
-                        oldSrcFile.getOrder());
-            }
-            config.getSrcFiles().add(newSrcFile);
-
-        }
-
-        localFile.delete();
-
-    }
-
-    /**
-     * Adds all files in a directory and it's sub directories to the remote file
-     * list.
-     * 
-     * @param baseDir
-     *            Base directory.
-     * @param dir
-     *            Directory inside the base directory or one of it's sub
-     *            directories.
-     * @param remoteFiles
-     *            Remote file list to add the files to.
-     */
-    private static void addSrcFiles(final File baseDir, final File dir, final List remoteFiles) {
-
-        final File[] files = dir.listFiles();
-        for (int i = 0; i < files.length; i++) {
-            if (files[i].isDirectory()) {
-                addSrcFiles(baseDir, files[i], remoteFiles);
-            } else {
-                final String path = getRelativePath(baseDir, dir);
-                final String filename = files[i].getName();
-                try {
-                    final RemoteFile remoteFile = new RemoteFile(files[i].toURI().toURL(), path,
-                            filename, false);
-                    remoteFiles.add(remoteFile);
-                } catch (final MalformedURLException ex) {
-                    throw new RuntimeException(ex);
-                }
-            }
-        }
-
-    }
-
-    /**
-     * Returns a relative path for the directory.
-     * 
-     * @param baseDir
-     *            Base directory.
-     * @param dir
-     *            Directory inside the base directory.
-     * 
-     * @return Relative path with slash instead of system path separator.
-     */
-    private static String getRelativePath(final File baseDir, final File dir) {
-        return Utils4J.getRelativePath(baseDir, dir).replace(File.separatorChar, '/');
-    }
-
-    /**
-     * Creates a remote file list of the directory and it's sub directories.
-     * 
-     * @param dir
-     *            Directory to parse.
-     * 
-     * @return List of <code>RemoteFile</code> objects.
-     */
-    private static List createRemoteFileList(final File dir) {
-        final List remoteFiles = new ArrayList();
-        addSrcFiles(dir, dir, remoteFiles);
-        return remoteFiles;
-    }
-
-    /**
-     * Clears the source file list in the configuration (!) and adds all files
-     * in the directory (and it's sub directories). Informations (like "unzip",
-     * "loadAlways" or "addToClasspath") of known source files will be
-     * preserved.
-     * 
-     * @param baseDir
-     *            Source directory to create a configuration for.
-     * 
-     * @throws IOException
-     *             Error while copying.
-     */
-    public final void update(final File baseDir) throws IOException {
-        final List remoteFiles = createRemoteFileList(baseDir);
-        update(remoteFiles);
-    }
-
-    /**
-     * Returns the configuration.
-     * 
-     * @return Configuration.
-     */
-    public final Config getConfig() {
-        return config;
-    }
-
-    /**
-     * Returns the listener to inform about progress.
-     * 
-     * @return Listener - Always non-<code>null</code>.
-     */
-    public final ConfigUpdaterListener getListener() {
-        return listener;
-    }
-
-    /**
-     * Outputs events to the console.
-     */
-    protected static final class DefaultListener implements ConfigUpdaterListener {
-
-        /**
-         * {@inheritDoc}
-         */
-        public void onCopy(final RemoteFile remoteFile, final File file, final int nr, final int max) {
-
-            System.out.println("COPY " + nr + "/" + max + ": " + remoteFile.getSrcFileUrl());
-
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        public void onNotFound(final RemoteFile remoteFile, final File file, final int nr,
-                final int max) {
-
-            System.out.println("NOT FOUND " + nr + "/" + max + ": " + remoteFile.getSrcFileUrl());
-
-        }
-
-    }
-
-    /**
-     * Creates a new configuration file or updates an existing one.
-     * 
-     * @param args
-     *            First argument is the path and name of the configuration file.
-     *            Second argument is the directory to create the configuration
-     *            for.
-     * 
-     * @throws InvalidConfigException
-     *             Error parsing an existing configuration file.
-     * @throws IOException
-     *             I/O-Error.
-     */
-    public static void main(final String[] args) throws InvalidConfigException, IOException {
-
-        // We have exactly two arguments
-        if ((args == null) || (args.length != 2)) {
-            System.out.println("java -classpath <CP> " + ConfigUpdater.class.getName()
-                    + " <CONFIG-FILE> <APP-DIR>");
-            System.out.println("    <CONFIG-FILE> = Path and name of configuration file");
-            System.out.println("    <APP-DIR> = Path and name of existing application directory");
-            return;
-        }
-
-        // Check if arguments are valid file and directory
-        final File baseDir = new File(args[1]);
-        Utils4J.checkValidDir(baseDir);
-        final File configFile = new File(args[0]);
-        Utils4J.checkValidDir(configFile.getParentFile());
-
-        // Create updater and start
-        final ConfigUpdater updater;
-        if (configFile.exists()) {
-            System.out.println("READ " + configFile);
-            updater = new ConfigUpdater(configFile);
-        } else {
-            updater = new ConfigUpdater();
-        }
-        updater.update(baseDir);
-
-        // Save configuration to disk
-        updater.getConfig().writeToVarXML(configFile, true);
-        System.out.println("SAVED " + configFile);
-
-    }
-
-}
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Creates or updates a configuration.
+ */
+public final class ConfigUpdater {
+
+    /** Default maximum size of a file to be added to a pack. */
+    public static final long DEFAULT_MAX_PACK_FILE_SIZE = 64 * 1024;
+
+    /** Default maximum size of all files in a pack. */
+    public static final long DEFAULT_MAX_PACK_SIZE = 4 * 1024 * 1024;
+
+    /** Configuration to update. */
+    private final Config config;
+
+    /** Listener to inform about progress. */
+    private final ConfigUpdaterListener listener;
+
+    /**
+     * Default constructor.
+     */
+    public ConfigUpdater() {
+        super();
+        this.config = new Config();
+        this.listener = new DefaultListener();
+    }
+
+    /**
+     * Constructor with listener.
+     * 
+     * @param listener
+     *            Used for writing log messages - Cannot be <code>null</code>.
+     */
+    public ConfigUpdater(final ConfigUpdaterListener listener) {
+        super();
+        this.config = new Config();
+        Utils4J.checkNotNull("listener", listener);
+        this.listener = listener;
+    }
+
+    /**
+     * Constructor with configuration file.
+     * 
+     * @param configFile
+     *            Existing configuration file.
+     * 
+     * @throws InvalidConfigException
+     *             Error parsing an existing configuration.
+     */
+    public ConfigUpdater(final File configFile) throws InvalidConfigException {
+        this(configFile, new DefaultListener());
+    }
+
+    /**
+     * Constructor with configuration file and log printer.
+     * 
+     * @param configFile
+     *            Existing configuration file.
+     * @param listener
+     *            Used for writing log messages.
+     * 
+     * @throws InvalidConfigException
+     *             Error parsing an existing configuration.
+     */
+    public ConfigUpdater(final File configFile, final ConfigUpdaterListener listener)
+            throws InvalidConfigException {
+        super();
+        Utils4J.checkNotNull("configFile", configFile);
+        Utils4J.checkValidFile(configFile);
+        this.config = ConfigParser.create(configFile);
+        Utils4J.checkNotNull("listener", listener);
+        this.listener = listener;
+    }
+
+    /**
+     * Copies the remote file to a local file and informs the listener.
+     * 
+     * @param remoteFile
+     *            Remote file to copy.
+     * @param file
+     *            Target file.
+     * @param nr
+     *            Current file number.
+     * @param max
+     *            Total files.
+     * 
+     * @throws IOException
+     *             Error while copying.
+     */
+    private void copyToFile(final RemoteFile remoteFile, final File file, final int nr,
+            final int max) throws IOException {
+
+        try {
+            Utils.copyURLToFile(remoteFile.getSrcFileUrl(), file);
+            listener.onCopy(remoteFile, file, nr, max);
+        } catch (final FileNotFoundException ex) {
+            if (remoteFile.isErrorIfNotFound()) {
+                throw ex;
+            } else {
+                listener.onNotFound(remoteFile, file, nr, max);
+            }
+        }
+
+    }
+
+    /**
+     * Locate a source file by it's path and filename in the list.
+     * 
+     * @param srcFiles
+     *            List of <code>SrcFile</code> objects.
+     * @param remoteFile
+     *            Remote file to find.
+     * 
+     * @return Source file or <code>null</code> if nothing was found.
+     */
+    private SrcFile findSrcFile(final List srcFiles, final RemoteFile remoteFile) {
+        for (int i = 0; i < srcFiles.size(); i++) {
+            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+            if (remoteFile.getDestSlashPath().equals(srcFile.getSlashPath())
+                    && remoteFile.getDestFilename().equals(srcFile.getFilename())) {
+                return srcFile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Clears the source file list in the configuration (!) and adds the remote
+     * files in the list. Informations (like "unzip", "loadAlways" or
+     * "addToClasspath") of known source files will be preserved. All packs
+     * are removed - Use <code>createPacks(..)</code> to create new ones.
+     * 
+     * @param remoteFileList
+     *            List with <code>RemoteFile</code> objects.
+     * 
+     * @throws IOException
+     *             Error while copying.
+     */
+    public final void update(final List remoteFileList) throws IOException {
+
+        final List oldSrcFiles = new ArrayList();
+        oldSrcFiles.addAll(config.getSrcFiles());
+        config.getSrcFiles().clear();
+        config.getPacks().clear();
+
+        final File localFile = File.createTempFile("kickstart4j-config-creator-", ".tmp");
+
+        final int size = remoteFileList.size();
+        for (int i = 0; i < size; i++) {
+            final RemoteFile remoteFile = (RemoteFile) remoteFileList.get(i);
+            final String fileMd5Hash;
+            final long fileLength;
+            if ((remoteFile.getMd5Hash() != null) && (remoteFile.getLength() > 0)) {
+                fileMd5Hash = remoteFile.getMd5Hash();
+                fileLength = remoteFile.getLength();
+            } else {
+                copyToFile(remoteFile, localFile, (i + 1), size);
+                fileMd5Hash = HashAlgorithm.createHash(localFile, config.getHashAlgorithm());
+                fileLength = localFile.length();
+            }
+
+            final SrcFile oldSrcFile = findSrcFile(oldSrcFiles, remoteFile);
+            final SrcFile newSrcFile;
+            if (oldSrcFile == null) {
+                // New file
+                newSrcFile = new SrcFile(remoteFile.getDestPath(), remoteFile.getDestFilename(),
+                        fileMd5Hash, fileLength, false, false, false, remoteFile.getSrcFileUrl()
+                                .toExternalForm(), 0);
+            } else {
+                // Updated file - Patches, the compressed copy and the block
+                // index are only valid for the same content
+                final SrcFile updatedSrcFile = new SrcFile(remoteFile.getDestPath(), remoteFile
+                        .getDestFilename(), fileMd5Hash, fileLength, oldSrcFile.isUnzip(),
+                        oldSrcFile.isLoadAlways(), oldSrcFile.isAddToClasspath(), remoteFile
+                                .getSrcFileUrl().toExternalForm(), oldSrcFile.getOrder());
+                if (oldSrcFile.getMd5Hash().equals(fileMd5Hash)) {
+                    newSrcFile = updatedSrcFile.withPatches(oldSrcFile.getPatches())
+                            .withGzipSrcFileUrl(oldSrcFile.getGzipSrcFileUrl()).withBlocksUrl(
+                                    oldSrcFile.getBlocksUrl());
+                } else {
+                    newSrcFile = updatedSrcFile;
+                }
+            }
+            config.getSrcFiles().add(newSrcFile);
+
+        }
+
+        localFile.delete();
+
+    }
+
+    /**
+     * Adds all files in a directory and it's sub directories to the remote file
+     * list.
+     * 
+     * @param baseDir
+     *            Base directory.
+     * @param dir
+     *            Directory inside the base directory or one of it's sub
+     *            directories.
+     * @param remoteFiles
+     *            Remote file list to add the files to.
+     */
+    private static void addSrcFiles(final File baseDir, final File dir, final List remoteFiles) {
+
+        final File[] files = dir.listFiles();
+        for (int i = 0; i < files.length; i++) {
+            if (files[i].isDirectory()) {
+                addSrcFiles(baseDir, files[i], remoteFiles);
+            } else {
+                final String path = getRelativePath(baseDir, dir);
+                final String filename = files[i].getName();
+                try {
+                    final RemoteFile remoteFile = new RemoteFile(files[i].toURI().toURL(), path,
+                            filename, false);
+                    remoteFiles.add(remoteFile);
+                } catch (final MalformedURLException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Returns a relative path for the directory.
+     * 
+     * @param baseDir
+     *            Base directory.
+     * @param dir
+     *            Directory inside the base directory.
+     * 
+     * @return Relative path with slash instead of system path separator.
+     */
+    private static String getRelativePath(final File baseDir, final File dir) {
+        return Utils4J.getRelativePath(baseDir, dir).replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Creates a remote file list of the directory and it's sub directories.
+     * 
+     * @param dir
+     *            Directory to parse.
+     * 
+     * @return List of <code>RemoteFile</code> objects.
+     */
+    private static List createRemoteFileList(final File dir) {
+        final List remoteFiles = new ArrayList();
+        addSrcFiles(dir, dir, remoteFiles);
+        return remoteFiles;
+    }
+
+    /**
+     * Clears the source file list in the configuration (!) and adds all files
+     * in the directory (and it's sub directories). Informations (like "unzip",
+     * "loadAlways" or "addToClasspath") of known source files will be
+     * preserved.
+     * 
+     * @param baseDir
+     *            Source directory to create a configuration for.
+     * 
+     * @throws IOException
+     *             Error while copying.
+     */
+    public final void update(final File baseDir) throws IOException {
+        final List remoteFiles = createRemoteFileList(baseDir);
+        update(remoteFiles);
+    }
+
+    /**
+     * Creates binary patches from the previous version of the application
+     * directory for all changed source files and adds them to the
+     * configuration. Patches that are not smaller than the file itself are
+     * skipped. Files where the previous or the current version is larger than
+     * the given maximum size are skipped, too, because both versions are read
+     * into memory to create the patch. This method should be called after one
+     * of the <code>update(..)</code> methods.
+     * 
+     * @param previousDir
+     *            Directory with the previous version of the application.
+     * @param patchDir
+     *            Directory to write the patch files to.
+     * @param patchBaseUrl
+     *            URL of the patch directory on the server.
+     * @param maxFileSize
+     *            Maximum size of the previous and the current version of a
+     *            file to create a patch for.
+     * 
+     * @throws IOException
+     *             Error creating a patch.
+     */
+    public final void createPatches(final File previousDir, final File patchDir,
+            final String patchBaseUrl, final long maxFileSize) throws IOException {
+
+        Utils4J.checkValidDir(previousDir);
+        Utils4J.checkNotNull("patchDir", patchDir);
+        Utils4J.checkNotNull("patchBaseUrl", patchBaseUrl);
+
+        final List srcFiles = new ArrayList(config.getSrcFiles());
+        for (int i = 0; i < srcFiles.size(); i++) {
+            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+            final File previousFile = srcFile.getDestFile(previousDir);
+            if (!previousFile.isFile() || (previousFile.length() > maxFileSize)
+                    || (srcFile.getSize() > maxFileSize)) {
+                continue;
+            }
+            final String fromHash = HashAlgorithm.createHash(previousFile, config
+                    .getHashAlgorithm());
+            if (fromHash.equals(srcFile.getMd5Hash()) || (srcFile.findPatch(fromHash) != null)) {
+                continue;
+            }
+            final String patchName = getRelativeName(srcFile) + "." + fromHash + ".patch";
+            final File patchFile = new File(patchDir, patchName);
+            final File currentFile = new File(patchDir, patchName + ".tmp");
+            try {
+                Utils.copyURLToFile(srcFile.getSrcFileURL(), currentFile);
+                BinaryPatch.create(previousFile, currentFile, patchFile);
+            } finally {
+                currentFile.delete();
+            }
+            if (patchFile.length() >= srcFile.getSize()) {
+                patchFile.delete();
+                continue;
+            }
+            final String patchUrl;
+            if (patchBaseUrl.endsWith("/")) {
+                patchUrl = patchBaseUrl + patchName;
+            } else {
+                patchUrl = patchBaseUrl + "/" + patchName;
+            }
+            final SrcFilePatch patch = new SrcFilePatch(fromHash, patchFile.length(), patchUrl);
+            final List patches = new ArrayList(srcFile.getPatches());
+            patches.add(patch);
+            config.replace(srcFile, srcFile.withPatches(patches));
+            listener.onPatch(srcFile, patch);
+        }
+
+    }
+
+    /**
+     * Groups small source files into ZIP archives and adds them to the
+     * configuration. Clients load a pack instead of the single files if
+     * enough of it's members are missing. Existing packs are replaced. This
+     * method should be called after one of the <code>update(..)</code>
+     * methods.
+     * 
+     * @param packDir
+     *            Directory to write the packs to.
+     * @param packBaseUrl
+     *            URL of the pack directory on the server.
+     * @param maxFileSize
+     *            Maximum size of a file to be added to a pack.
+     * @param maxPackSize
+     *            Maximum size of all files in a pack.
+     * 
+     * @throws IOException
+     *             Error creating a pack.
+     */
+    public final void createPacks(final File packDir, final String packBaseUrl,
+            final long maxFileSize, final long maxPackSize) throws IOException {
+
+        Utils4J.checkNotNull("packDir", packDir);
+        Utils4J.checkNotNull("packBaseUrl", packBaseUrl);
+
+        config.getPacks().clear();
+        final List srcFiles = config.getSrcFiles();
+        List group = new ArrayList();
+        long groupSize = 0;
+        for (int i = 0; i < srcFiles.size(); i++) {
+            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+            if (srcFile.getSize() > maxFileSize) {
+                continue;
+            }
+            if ((groupSize + srcFile.getSize() > maxPackSize) && (group.size() > 0)) {
+                createPack(packDir, packBaseUrl, group);
+                group = new ArrayList();
+                groupSize = 0;
+            }
+            group.add(srcFile);
+            groupSize = groupSize + srcFile.getSize();
+        }
+        createPack(packDir, packBaseUrl, group);
+
+    }
+
+    private void createPack(final File packDir, final String packBaseUrl, final List srcFiles)
+            throws IOException {
+
+        // A single file gains nothing
+        if (srcFiles.size() < 2) {
+            return;
+        }
+
+        final List members = new ArrayList();
+        final File tmpFile = new File(packDir, "pack.tmp");
+        final ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(FileUtils
+                .openOutputStream(tmpFile)));
+        try {
+            for (int i = 0; i < srcFiles.size(); i++) {
+                final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+                final String name = Pack.getMemberName(srcFile);
+                out.putNextEntry(new ZipEntry(name));
+                final InputStream in = Utils.openStream(srcFile.getSrcFileURL());
+                try {
+                    IOUtils.copy(in, out);
+                } finally {
+                    in.close();
+                }
+                out.closeEntry();
+                members.add(name);
+            }
+        } finally {
+            out.close();
+        }
+
+        // Name by content so outdated copies in caches are never used
+        final String packName = "pack-"
+                + HashAlgorithm.createHash(tmpFile, config.getHashAlgorithm()) + ".zip";
+        final File packFile = new File(packDir, packName);
+        if (packFile.exists() && !packFile.delete()) {
+            throw new IOException("Cannot delete file: " + packFile);
+        }
+        if (!tmpFile.renameTo(packFile)) {
+            throw new IOException("Cannot rename file: " + tmpFile + " => " + packFile);
+        }
+        final String packUrl;
+        if (packBaseUrl.endsWith("/")) {
+            packUrl = packBaseUrl + packName;
+        } else {
+            packUrl = packBaseUrl + "/" + packName;
+        }
+        final Pack pack = new Pack(packUrl, packFile.length(), members);
+        config.getPacks().add(pack);
+        listener.onPack(pack);
+
+    }
+
+    /**
+     * Creates block indexes for all source files with a minimum size and adds
+     * their URLs to the configuration. Clients use an index to update an
+     * existing local copy of any older version by loading only the changed
+     * blocks. Indexes of unchanged files are kept. This method should be
+     * called after one of the <code>update(..)</code> methods.
+     * 
+     * @param blocksDir
+     *            Directory to write the block indexes to.
+     * @param blocksBaseUrl
+     *            URL of the block index directory on the server.
+     * @param minFileSize
+     *            Minimum size of a file to create an index for.
+     * 
+     * @throws IOException
+     *             Error creating an index.
+     */
+    public final void createBlockIndexes(final File blocksDir, final String blocksBaseUrl,
+            final long minFileSize) throws IOException {
+
+        Utils4J.checkNotNull("blocksDir", blocksDir);
+        Utils4J.checkNotNull("blocksBaseUrl", blocksBaseUrl);
+
+        final List srcFiles = new ArrayList(config.getSrcFiles());
+        for (int i = 0; i < srcFiles.size(); i++) {
+            final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+            if ((srcFile.getSize() < minFileSize) || (srcFile.getBlocksUrl() != null)) {
+                continue;
+            }
+            final String blocksName = getRelativeName(srcFile) + "." + srcFile.getMd5Hash()
+                    + ".blocks";
+            final File blocksFile = new File(blocksDir, blocksName);
+            final File currentFile = new File(blocksDir, blocksName + ".tmp");
+            try {
+                Utils.copyURLToFile(srcFile.getSrcFileURL(), currentFile);
+                BlockIndex.create(currentFile).write(blocksFile);
+            } finally {
+                currentFile.delete();
+            }
+            final String blocksUrl;
+            if (blocksBaseUrl.endsWith("/")) {
+                blocksUrl = blocksBaseUrl + blocksName;
+            } else {
+                blocksUrl = blocksBaseUrl + "/" + blocksName;
+            }
+            final SrcFile indexedFile = srcFile.withBlocksUrl(blocksUrl);
+            config.replace(srcFile, indexedFile);
+            listener.onBlocks(indexedFile, blocksFile);
+        }
+
+    }
+
+    private static String getRelativeName(final SrcFile srcFile) {
+        final String path = srcFile.getSlashPath();
+        if (path.length() == 0) {
+            return srcFile.getFilename();
+        }
+        return path + "/" + srcFile.getFilename();
+    }
+
+    /**
+     * Returns the configuration.
+     * 
+     * @return Configuration.
+     */
+    public final Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the listener to inform about progress.
+     * 
+     * @return Listener - Always non-<code>null</code>.
+     */
+    public final ConfigUpdaterListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Outputs events to the console.
+     */
+    protected static final class DefaultListener implements ConfigUpdaterListener {
+
+        /**
+         * {@inheritDoc}
+         */
+        public void onCopy(final RemoteFile remoteFile, final File file, final int nr, final int max) {
+
+            System.out.println("COPY " + nr + "/" + max + ": " + remoteFile.getSrcFileUrl());
+
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void onNotFound(final RemoteFile remoteFile, final File file, final int nr,
+                final int max) {
+
+            System.out.println("NOT FOUND " + nr + "/" + max + ": " + remoteFile.getSrcFileUrl());
+
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void onPatch(final SrcFile srcFile, final SrcFilePatch patch) {
+
+            System.out.println("PATCH " + patch.getSrcFileUrl() + " (" + patch.getSize() + " of "
+                    + srcFile.getSize() + " bytes)");
+
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void onPack(final Pack pack) {
+
+            System.out.println("PACK " + pack.getSrcFileUrl() + " (" + pack.getMembers().size()
+                    + " files, " + pack.getSize() + " bytes)");
+
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void onBlocks(final SrcFile srcFile, final File blocksFile) {
+
+            System.out.println("BLOCKS " + srcFile.getBlocksUrl() + " (" + blocksFile.length()
+                    + " bytes)");
+
+        }
+
+    }
+
+    /**
+     * Creates a new configuration file or updates an existing one.
+     * 
+     * @param args
+     *            Optional leading arguments are "-manifest" to write a
+     *            {@link ConfigManifest} next to the configuration file and
+     *            "-blocks" followed by the directory to write block indexes
+     *            to and the URL of that directory on the server. Next argument
+     *            is the path and name of the configuration file. Next argument
+     *            is the directory to create the configuration for. The
+     *            optional next three arguments are the directory with the
+     *            previous version, the directory to write binary patches to
+     *            and the URL of that directory on the server. The last two
+     *            optional arguments are the directory to write packs to and
+     *            the URL of that directory on the server.
+     * 
+     * @throws InvalidConfigException
+     *             Error parsing an existing configuration file.
+     * @throws IOException
+     *             I/O-Error.
+     */
+    public static void main(final String[] args) throws InvalidConfigException, IOException {
+
+        // Options come first
+        int first = 0;
+        boolean manifest = false;
+        String blocksDir = null;
+        String blocksUrl = null;
+        while ((args != null) && (first < args.length)) {
+            if (args[first].equals("-manifest")) {
+                manifest = true;
+                first = first + 1;
+            } else if (args[first].equals("-blocks") && (first + 2 < args.length)) {
+                blocksDir = args[first + 1];
+                blocksUrl = args[first + 2];
+                first = first + 3;
+            } else {
+                break;
+            }
+        }
+
+        // We have exactly two, four, five or seven other arguments
+        final int count;
+        if (args == null) {
+            count = 0;
+        } else {
+            count = args.length - first;
+        }
+        if ((count != 2) && (count != 4) && (count != 5) && (count != 7)) {
+            System.out.println("java -classpath <CP> " + ConfigUpdater.class.getName()
+                    + " [-manifest] [-blocks <BLOCKS-DIR> <BLOCKS-URL>] <CONFIG-FILE> <APP-DIR>"
+                    + " [<PREV-DIR> <PATCH-DIR> <PATCH-URL>] [<PACK-DIR> <PACK-URL>]");
+            System.out.println("    -manifest = Write a binary manifest next to the config file"
+                    + " (Used by clients started with '-useManifest true')");
+            System.out.println("    <BLOCKS-DIR> = Directory to write block indexes to");
+            System.out.println("    <BLOCKS-URL> = URL of the block index directory");
+            System.out.println("    <CONFIG-FILE> = Path and name of configuration file");
+            System.out.println("    <APP-DIR> = Path and name of existing application directory");
+            System.out.println("    <PREV-DIR> = Directory with the previous application version");
+            System.out.println("    <PATCH-DIR> = Directory to write binary patches to");
+            System.out.println("    <PATCH-URL> = URL of the patch directory on the server");
+            System.out.println("    <PACK-DIR> = Directory to write packs of small files to");
+            System.out.println("    <PACK-URL> = URL of the pack directory on the server");
+            return;
+        }
+
+        // Check if arguments are valid file and directory
+        final File baseDir = new File(args[first + 1]);
+        Utils4J.checkValidDir(baseDir);
+        final File configFile = new File(args[first]);
+        Utils4J.checkValidDir(configFile.getParentFile());
+
+        // Create updater and start
+        final ConfigUpdater updater;
+        if (configFile.exists()) {
+            System.out.println("READ " + configFile);
+            updater = new ConfigUpdater(configFile);
+        } else {
+            updater = new ConfigUpdater();
+        }
+        updater.update(baseDir);
+        if (count >= 5) {
+            updater.createPatches(new File(args[first + 2]), new File(args[first + 3]),
+                    args[first + 4], BinaryPatch.DEFAULT_MAX_FILE_SIZE);
+        }
+        if ((count == 4) || (count == 7)) {
+            updater.createPacks(new File(args[args.length - 2]), args[args.length - 1],
+                    DEFAULT_MAX_PACK_FILE_SIZE, DEFAULT_MAX_PACK_SIZE);
+        }
+        if (blocksDir != null) {
+            updater.createBlockIndexes(new File(blocksDir), blocksUrl,
+                    BlockIndex.DEFAULT_MIN_FILE_SIZE);
+        }
+
+        // An existing manifest is always kept in sync with the XML - It's
+        // written first because the XML contains the manifest fingerprint
+        final Config updated = updater.getConfig();
+        final File manifestFile = ConfigManifest.getManifestFile(configFile);
+        if (manifest || manifestFile.exists()) {
+            updated.setManifestFingerprint(ConfigManifest.write(updated, manifestFile));
+            System.out.println("SAVED " + manifestFile);
+        } else {
+            updated.setManifestFingerprint(null);
+        }
+
+        // Save configuration to disk
+        updated.writeToVarXML(configFile, true);
+        System.out.println("SAVED " + configFile);
+
+    }
+
+}
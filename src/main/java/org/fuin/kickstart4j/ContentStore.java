@@ -0,0 +1,334 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Content addressable store for files shared by all applications of a user.
+ * Files are copied into the store and are materialized in the installation
+ * directory with a hard link. If the runtime or the file system does not
+ * support hard links the file is copied. Hard links require a Java 7 runtime
+ * ("java.nio.file.Files.createLink(..)") and are created by reflection. As a
+ * write into an installed file also changes the linked store file, the size
+ * and modification time of every store file are kept in a fingerprint file
+ * and the hash is verified before a file is materialized. All methods are
+ * thread safe.
+ */
+public final class ContentStore {
+
+    private static final Logger LOG = Logger.getLogger(ContentStore.class);
+
+    /** Name of the store directory inside the user's home directory. */
+    public static final String DEFAULT_DIRNAME = ".kickstart4j-store";
+
+    /** "java.io.File.toPath()" or <code>null</code> if not available. */
+    private static final Method TO_PATH;
+
+    /** "java.nio.file.Files.createLink(Path, Path)" or <code>null</code>. */
+    private static final Method CREATE_LINK;
+
+    static {
+        Method toPath = null;
+        Method createLink = null;
+        try {
+            final Class pathClass = Class.forName("java.nio.file.Path");
+            final Class filesClass = Class.forName("java.nio.file.Files");
+            toPath = File.class.getMethod("toPath", new Class[] {});
+            createLink = filesClass.getMethod("createLink", new Class[] { pathClass, pathClass });
+        } catch (final ClassNotFoundException ex) {
+            toPath = null;
+            createLink = null;
+        } catch (final NoSuchMethodException ex) {
+            toPath = null;
+            createLink = null;
+        }
+        TO_PATH = toPath;
+        CREATE_LINK = createLink;
+    }
+
+    /** Extension of the fingerprint files. */
+    private static final String FINGERPRINT_EXTENSION = ".fp";
+
+    /** Base directory of the store. */
+    private final File dir;
+
+    /** Algorithm of the hashes used as file names. */
+    private final String algorithm;
+
+    /**
+     * Constructor with hash algorithm. The store is located in the user's
+     * home directory. Files hashed with another algorithm than MD5 are kept in
+     * a sub directory named like the algorithm.
+     * 
+     * @param algorithm
+     *            Algorithm of the hashes - Cannot be <code>null</code>.
+     */
+    public ContentStore(final String algorithm) {
+        this(getDefaultDir(algorithm), algorithm);
+    }
+
+    private static File getDefaultDir(final String algorithm) {
+        final File dir = new File(Utils4J.getUserHomeDir(), DEFAULT_DIRNAME);
+        if (algorithm.equals(HashAlgorithm.MD5)) {
+            return dir;
+        }
+        return new File(dir, algorithm);
+    }
+
+    /**
+     * Constructor with store directory and hash algorithm.
+     * 
+     * @param dir
+     *            Base directory of the store - Cannot be <code>null</code>.
+     * @param algorithm
+     *            Algorithm of the hashes - Cannot be <code>null</code>.
+     */
+    public ContentStore(final File dir, final String algorithm) {
+        super();
+        Utils4J.checkNotNull("dir", dir);
+        Utils4J.checkNotNull("algorithm", algorithm);
+        this.dir = dir;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Returns the base directory of the store.
+     * 
+     * @return Directory.
+     */
+    public final File getDir() {
+        return dir;
+    }
+
+    /**
+     * Returns the file for a given hash. The file may not exist.
+     * 
+     * @param hash
+     *            Hash of the file.
+     * 
+     * @return File inside the store.
+     */
+    public final File getFile(final String hash) {
+        return new File(new File(dir, hash.substring(0, 2)), hash);
+    }
+
+    /**
+     * Returns the hash algorithm of the store.
+     * 
+     * @return Algorithm name.
+     */
+    public final String getAlgorithm() {
+        return algorithm;
+    }
+
+    private File getFingerprintFile(final String hash) {
+        final File file = getFile(hash);
+        return new File(file.getParentFile(), file.getName() + FINGERPRINT_EXTENSION);
+    }
+
+    private static String createFingerprint(final File file) {
+        return file.length() + " " + file.lastModified();
+    }
+
+    /**
+     * Checks if the store contains a file. The file must have the expected
+     * size and must not have been modified since it was added.
+     * 
+     * @param hash
+     *            Hash of the file.
+     * @param size
+     *            Expected size of the file.
+     * 
+     * @return If an unmodified file with the hash and size exists
+     *         <code>true</code> else <code>false</code>.
+     */
+    public final boolean contains(final String hash, final long size) {
+        final File file = getFile(hash);
+        if (!file.isFile() || (file.length() != size)) {
+            return false;
+        }
+        final File fingerprintFile = getFingerprintFile(hash);
+        if (!fingerprintFile.isFile()) {
+            return false;
+        }
+        try {
+            return FileUtils.readFileToString(fingerprintFile).trim().equals(
+                    createFingerprint(file));
+        } catch (final IOException ex) {
+            LOG.warn("Cannot read fingerprint: " + fingerprintFile, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Removes a file from the store. Errors are only logged.
+     * 
+     * @param hash
+     *            Hash of the file.
+     */
+    private synchronized void remove(final String hash) {
+        final File file = getFile(hash);
+        if (file.exists() && !file.delete()) {
+            LOG.warn("Cannot delete file: " + file);
+        }
+        getFingerprintFile(hash).delete();
+    }
+
+    /**
+     * Creates a file in the installation directory from the store. The hash of
+     * the store file is verified first - A file that does not match is
+     * removed from the store. An existing destination file is replaced.
+     * 
+     * @param hash
+     *            Hash of the file.
+     * @param size
+     *            Expected size of the file.
+     * @param destFile
+     *            Target file.
+     * 
+     * @return If the file was found in the store and created <code>true</code>
+     *         else <code>false</code>.
+     */
+    public final boolean materialize(final String hash, final long size, final File destFile) {
+        if (!contains(hash, size)) {
+            return false;
+        }
+        final File storeFile = getFile(hash);
+        final String storeHash = HashAlgorithm.createHash(storeFile, algorithm);
+        if (!storeHash.equals(hash)) {
+            LOG.warn("Removed modified file from store: " + storeFile + " [actual hash="
+                    + storeHash + "]");
+            remove(hash);
+            return false;
+        }
+        try {
+            transfer(storeFile, destFile);
+            return true;
+        } catch (final IOException ex) {
+            LOG.warn("Cannot materialize file from store: " + destFile, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Adds a copy of a file to the store. Nothing happens if the store already
+     * contains the hash. Errors are only logged.
+     * 
+     * @param hash
+     *            Verified hash of the file.
+     * @param file
+     *            File to add.
+     */
+    public final void add(final String hash, final File file) {
+        if (contains(hash, file.length())) {
+            return;
+        }
+        final File storeFile = getFile(hash);
+        File tmpFile = null;
+        try {
+            final File parent = storeFile.getParentFile();
+            if (!parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Cannot create directory: " + parent);
+            }
+            // Unique name as other applications may use the store concurrently
+            tmpFile = File.createTempFile(hash, ".tmp", parent);
+            // Never link the installed file - Writes into it would change the store
+            FileUtils.copyFile(file, tmpFile);
+            synchronized (this) {
+                if (storeFile.exists() && !storeFile.delete()) {
+                    throw new IOException("Cannot delete file: " + storeFile);
+                }
+                if (!tmpFile.renameTo(storeFile)) {
+                    throw new IOException("Cannot rename file: " + tmpFile + " => "
+                            + storeFile);
+                }
+                FileUtils.writeStringToFile(getFingerprintFile(hash),
+                        createFingerprint(storeFile));
+            }
+        } catch (final IOException ex) {
+            LOG.warn("Cannot add file to store: " + file, ex);
+        } finally {
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Creates a hard link or a copy of a file.
+     * 
+     * @param srcFile
+     *            Existing file.
+     * @param destFile
+     *            File to create - An existing file will be deleted.
+     * 
+     * @throws IOException
+     *             Error creating the file.
+     */
+    private static void transfer(final File srcFile, final File destFile) throws IOException {
+        if (destFile.exists() && !destFile.delete()) {
+            throw new IOException("Cannot delete file: " + destFile);
+        }
+        final File parent = destFile.getParentFile();
+        if ((parent != null) && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory: " + parent);
+        }
+        if (!createLink(destFile, srcFile)) {
+            FileUtils.copyFile(srcFile, destFile);
+        }
+    }
+
+    /**
+     * Creates a hard link.
+     * 
+     * @param link
+     *            Link to create.
+     * @param existing
+     *            Existing file.
+     * 
+     * @return If the link was created <code>true</code> else <code>false</code>.
+     */
+    private static boolean createLink(final File link, final File existing) {
+        if (CREATE_LINK == null) {
+            return false;
+        }
+        try {
+            final Object linkPath = TO_PATH.invoke(link, new Object[] {});
+            final Object existingPath = TO_PATH.invoke(existing, new Object[] {});
+            CREATE_LINK.invoke(null, new Object[] { linkPath, existingPath });
+            return true;
+        } catch (final IllegalAccessException ex) {
+            return false;
+        } catch (final InvocationTargetException ex) {
+            // For example not supported by the file system
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Cannot create hard link: " + link, ex.getTargetException());
+            }
+            return false;
+        }
+    }
+
+}
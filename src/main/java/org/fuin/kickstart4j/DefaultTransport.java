@@ -0,0 +1,503 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.log4j.Logger;
+
+/**
+ * Transport based on <code>URLConnection</code>. The connections are kept
+ * alive and reused by the keep-alive cache of the Java runtime. A connection
+ * is only returned to the cache if the response was read completely and
+ * closed - This class makes sure that happens and limits the number of
+ * concurrent connections per host. As the runtime does not report if a
+ * connection was reused, the statistics assume that an idle connection
+ * returned to the cache is used by the next request to the same host.
+ * Timeouts are set for every connection with
+ * "URLConnection.setConnectTimeout(..)" and "setReadTimeout(..)" that require
+ * a Java 5 runtime and are called by reflection. On older runtimes the system
+ * properties of the Sun HTTP client ("sun.net.client.defaultConnectTimeout"
+ * and "sun.net.client.defaultReadTimeout") are used - These are only
+ * effective if set before the first HTTP connection. Complete files are
+ * requested with GZIP content encoding and decompressed transparently - Range
+ * requests always use the identity encoding so the offset refers to the
+ * decompressed content. The byte counter of the statistics contains the
+ * transferred (compressed) bytes.
+ */
+public final class DefaultTransport implements Transport {
+
+    private static final Logger LOG = Logger.getLogger(DefaultTransport.class);
+
+    /** Default maximum number of connections per host. */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 5;
+
+    /** HTTP status 416 (not defined in <code>HttpURLConnection</code>). */
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    /**
+     * Maximum time to wait for a free connection slot before the limit is
+     * exceeded (milliseconds).
+     */
+    private static final long MAX_ACQUIRE_WAIT_MILLIS = 60 * MILLIS_PER_SECOND;
+
+    /** "URLConnection.setConnectTimeout(int)" or <code>null</code>. */
+    private static final Method SET_CONNECT_TIMEOUT;
+
+    /** "URLConnection.setReadTimeout(int)" or <code>null</code>. */
+    private static final Method SET_READ_TIMEOUT;
+
+    static {
+        Method setConnectTimeout = null;
+        Method setReadTimeout = null;
+        try {
+            setConnectTimeout = URLConnection.class.getMethod("setConnectTimeout",
+                    new Class[] { Integer.TYPE });
+            setReadTimeout = URLConnection.class.getMethod("setReadTimeout",
+                    new Class[] { Integer.TYPE });
+        } catch (final NoSuchMethodException ex) {
+            setConnectTimeout = null;
+            setReadTimeout = null;
+        }
+        SET_CONNECT_TIMEOUT = setConnectTimeout;
+        SET_READ_TIMEOUT = setReadTimeout;
+    }
+
+    /** Timeout for connecting a server in milliseconds or <code>0</code>. */
+    private final int connectTimeoutMillis;
+
+    /** Timeout for reading from a server in milliseconds or <code>0</code>. */
+    private final int readTimeoutMillis;
+
+    /** Maximum number of concurrent connections per host. */
+    private final int maxConnectionsPerHost;
+
+    /** Key = "host:port", Value = {@link Host}. */
+    private final Map hosts = new HashMap();
+
+    /** Counters. */
+    private final TransportStatistics statistics = new TransportStatistics();
+
+    /**
+     * Default constructor. Uses the timeouts of the Java runtime and
+     * {@link #DEFAULT_MAX_CONNECTIONS_PER_HOST}.
+     */
+    public DefaultTransport() {
+        this(0, 0, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    /**
+     * Constructor with all arguments. The timeouts are set for every
+     * connection of this transport. The maximum number of connections is also
+     * passed as "http.maxConnections" to the keep-alive cache of the runtime,
+     * which only reads it before the first HTTP connection - The limit per
+     * host is always enforced by this class.
+     * 
+     * @param connectTimeoutSeconds
+     *            Timeout for connecting a server in seconds or <code>0</code>
+     *            to keep the default of the Java runtime.
+     * @param readTimeoutSeconds
+     *            Timeout for reading from a server in seconds or
+     *            <code>0</code> to keep the default of the Java runtime.
+     * @param maxConnectionsPerHost
+     *            Maximum number of concurrent connections per host - Values
+     *            less than one are treated as one.
+     */
+    public DefaultTransport(final int connectTimeoutSeconds, final int readTimeoutSeconds,
+            final int maxConnectionsPerHost) {
+        super();
+        this.connectTimeoutMillis = Math.max(connectTimeoutSeconds, 0) * MILLIS_PER_SECOND;
+        this.readTimeoutMillis = Math.max(readTimeoutSeconds, 0) * MILLIS_PER_SECOND;
+        if (maxConnectionsPerHost < 1) {
+            this.maxConnectionsPerHost = 1;
+        } else {
+            this.maxConnectionsPerHost = maxConnectionsPerHost;
+        }
+        System.setProperty("http.keepAlive", "true");
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", String.valueOf(this.maxConnectionsPerHost));
+        }
+        if (SET_CONNECT_TIMEOUT == null) {
+            if (connectTimeoutMillis > 0) {
+                System.setProperty("sun.net.client.defaultConnectTimeout", String
+                        .valueOf(connectTimeoutMillis));
+            }
+            if (readTimeoutMillis > 0) {
+                System.setProperty("sun.net.client.defaultReadTimeout", String
+                        .valueOf(readTimeoutMillis));
+            }
+        }
+    }
+
+    /**
+     * Sets the timeouts of a connection if the runtime supports it.
+     * 
+     * @param con
+     *            Connection that is not connected yet.
+     */
+    private void setTimeouts(final URLConnection con) {
+        if (SET_CONNECT_TIMEOUT == null) {
+            return;
+        }
+        try {
+            if (connectTimeoutMillis > 0) {
+                SET_CONNECT_TIMEOUT.invoke(con, new Object[] {
+                        new Integer(connectTimeoutMillis) });
+            }
+            if (readTimeoutMillis > 0) {
+                SET_READ_TIMEOUT.invoke(con, new Object[] { new Integer(readTimeoutMillis) });
+            }
+        } catch (final IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        } catch (final InvocationTargetException ex) {
+            throw new RuntimeException(ex.getTargetException());
+        }
+    }
+
+    /**
+     * Returns the maximum number of concurrent connections per host.
+     * 
+     * @return Number of connections.
+     */
+    public final int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final Response open(final URL url, final long offset, final long end)
+            throws IOException {
+        final String protocol = url.getProtocol();
+        if (!protocol.equals("http") && !protocol.equals("https")) {
+            statistics.addRequest(false);
+            final URLConnection con = url.openConnection();
+            setTimeouts(con);
+            return new UrlResponse(con, null);
+        }
+        final Host host = getHost(url);
+        final boolean reused = host.acquire(url.getHost());
+        try {
+            final URLConnection con = url.openConnection();
+            setTimeouts(con);
+            if (end > 0) {
+                con.setRequestProperty("Range", "bytes=" + offset + "-" + (end - 1));
+            } else if (offset > 0) {
+                con.setRequestProperty("Range", "bytes=" + offset + "-");
+            } else {
+                con.setRequestProperty("Accept-Encoding", "gzip");
+            }
+            statistics.addRequest(reused);
+            return new UrlResponse(con, host);
+        } catch (final IOException ex) {
+            host.release(false);
+            statistics.addError();
+            throw ex;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final TransportStatistics getStatistics() {
+        return statistics;
+    }
+
+    private Host getHost(final URL url) {
+        final int port;
+        if (url.getPort() == -1) {
+            port = url.getDefaultPort();
+        } else {
+            port = url.getPort();
+        }
+        final String key = url.getHost() + ":" + port;
+        synchronized (hosts) {
+            Host host = (Host) hosts.get(key);
+            if (host == null) {
+                host = new Host(maxConnectionsPerHost);
+                hosts.put(key, host);
+            }
+            return host;
+        }
+    }
+
+    /**
+     * Connections to a single host.
+     */
+    private static final class Host {
+
+        private final int max;
+
+        private int active = 0;
+
+        private int idle = 0;
+
+        public Host(final int max) {
+            super();
+            this.max = max;
+        }
+
+        /**
+         * Waits until a connection is available. If no connection is released
+         * within a minute (for example because a caller never closed a
+         * response) the limit is exceeded instead of blocking forever.
+         * 
+         * @param name
+         *            Name of the host (only used for logging).
+         * 
+         * @return If an idle connection is (probably) available
+         *         <code>true</code> else <code>false</code>.
+         * 
+         * @throws InterruptedIOException
+         *             The thread was interrupted while waiting.
+         */
+        public synchronized boolean acquire(final String name) throws InterruptedIOException {
+            final long end = System.currentTimeMillis() + MAX_ACQUIRE_WAIT_MILLIS;
+            while (active >= max) {
+                final long remaining = end - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    LOG.warn("No connection to '" + name + "' released within "
+                            + MAX_ACQUIRE_WAIT_MILLIS + " ms - Exceeding the limit of " + max);
+                    break;
+                }
+                try {
+                    wait(remaining);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for connection");
+                }
+            }
+            active++;
+            if (idle > 0) {
+                idle--;
+                return true;
+            }
+            return false;
+        }
+
+        public synchronized void release(final boolean keepAlive) {
+            active--;
+            if (keepAlive && (idle < max)) {
+                idle++;
+            }
+            notifyAll();
+        }
+
+    }
+
+    /**
+     * Response based on an URL connection.
+     */
+    private final class UrlResponse implements Response {
+
+        private final URLConnection con;
+
+        private final Host host;
+
+        private ResponseInputStream in = null;
+
+        private InputStream decoded = null;
+
+        private boolean closed = false;
+
+        /** Signals that the status was read but maybe not the content. */
+        private boolean responseReceived = false;
+
+        public UrlResponse(final URLConnection con, final Host host) {
+            super();
+            this.con = con;
+            this.host = host;
+        }
+
+        public boolean isPartial() throws IOException {
+            return getResponseCode() == HttpURLConnection.HTTP_PARTIAL;
+        }
+
+        public boolean isRangeNotSatisfiable() throws IOException {
+            return getResponseCode() == HTTP_RANGE_NOT_SATISFIABLE;
+        }
+
+        private int getResponseCode() throws IOException {
+            if (con instanceof HttpURLConnection) {
+                final int code = ((HttpURLConnection) con).getResponseCode();
+                responseReceived = true;
+                return code;
+            }
+            return -1;
+        }
+
+        public InputStream getInputStream() throws IOException {
+            if (in == null) {
+                try {
+                    in = new ResponseInputStream(this, con.getInputStream());
+                    if ("gzip".equalsIgnoreCase(con.getContentEncoding())) {
+                        decoded = new GzipResponseInputStream(in);
+                    } else {
+                        decoded = in;
+                    }
+                } catch (final IOException ex) {
+                    statistics.addError();
+                    close();
+                    throw ex;
+                }
+            }
+            return decoded;
+        }
+
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            boolean keepAlive = false;
+            if (in != null) {
+                keepAlive = in.isEof()
+                        && !"close".equalsIgnoreCase(con.getHeaderField("Connection"));
+                IOUtils.closeQuietly(in.getDelegate());
+            } else if (con instanceof HttpURLConnection) {
+                keepAlive = discard((HttpURLConnection) con);
+            }
+            if (host != null) {
+                host.release(keepAlive);
+            }
+        }
+
+        /**
+         * Discards a response that was not read.
+         * 
+         * @param http
+         *            Connection.
+         * 
+         * @return If the connection can be reused <code>true</code> else
+         *         <code>false</code>.
+         */
+        private boolean discard(final HttpURLConnection http) {
+            // Reading the error page allows reusing the connection
+            final InputStream err = http.getErrorStream();
+            if (err != null) {
+                try {
+                    IOUtils.copy(err, new NullOutputStream());
+                    return true;
+                } catch (final IOException ex) {
+                    return false;
+                } finally {
+                    IOUtils.closeQuietly(err);
+                }
+            }
+            if (responseReceived) {
+                // The runtime skips a small rest of the content or closes
+                // the connection
+                try {
+                    http.getInputStream().close();
+                } catch (final IOException ex) {
+                    // Ignore
+                }
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * Decompresses the response. The remaining bytes after the GZIP trailer
+     * are skipped at the end so that the connection can be reused.
+     */
+    private static final class GzipResponseInputStream extends GZIPInputStream {
+
+        private final ResponseInputStream raw;
+
+        public GzipResponseInputStream(final ResponseInputStream raw) throws IOException {
+            super(raw);
+            this.raw = raw;
+        }
+
+        public int read(final byte[] buf, final int off, final int len) throws IOException {
+            final int count = super.read(buf, off, len);
+            if ((count == -1) && !raw.isEof()) {
+                IOUtils.copy(raw, new NullOutputStream());
+            }
+            return count;
+        }
+
+    }
+
+    /**
+     * Counts the bytes, remembers if the end was reached and closes the
+     * response.
+     */
+    private final class ResponseInputStream extends FilterInputStream {
+
+        private final Response response;
+
+        private boolean eof = false;
+
+        public ResponseInputStream(final Response response, final InputStream in) {
+            super(in);
+            this.response = response;
+        }
+
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b == -1) {
+                eof = true;
+            } else {
+                statistics.addBytes(1);
+            }
+            return b;
+        }
+
+        public int read(final byte[] buf, final int off, final int len) throws IOException {
+            final int count = super.read(buf, off, len);
+            if (count == -1) {
+                eof = true;
+            } else {
+                statistics.addBytes(count);
+            }
+            return count;
+        }
+
+        public void close() throws IOException {
+            response.close();
+        }
+
+        public boolean isEof() {
+            return eof;
+        }
+
+        public InputStream getDelegate() {
+            return in;
+        }
+
+    }
+
+}
@@ -0,0 +1,468 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Hash algorithms for the file hashes in the configuration. Every algorithm
+ * is available as a <code>MessageDigest</code>: Names of the
+ * "java.security" providers (like "MD5", "SHA-1" or "SHA-256") are used
+ * directly, checksums (like "CRC32" or "Adler32") are wrapped. Checksums are
+ * a lot faster but only detect changes - They give no protection against
+ * manipulated files. Additional checksums (for example "xxHash" from a
+ * library) can be registered with {@link #register(String, Class, int)}.
+ * "CRC32C" is registered automatically on a Java 9 runtime. There is no
+ * process wide default: The algorithm is always passed explicitly and is
+ * taken from the configuration. Checksums of files larger than
+ * {@link #DIRECT_THRESHOLD} are calculated from a direct buffer without
+ * copying the data into the heap if the checksum supports it (Java 8 or
+ * later). All methods are thread safe.
+ */
+public final class HashAlgorithm {
+
+    /** MD5 (Default). */
+    public static final String MD5 = "MD5";
+
+    /** SHA-1. */
+    public static final String SHA1 = "SHA-1";
+
+    /** SHA-256. */
+    public static final String SHA256 = "SHA-256";
+
+    /** CRC-32 checksum. */
+    public static final String CRC32 = "CRC32";
+
+    /** Adler-32 checksum. */
+    public static final String ADLER32 = "Adler32";
+
+    /** CRC-32C checksum (only available on Java 9 or later). */
+    public static final String CRC32C = "CRC32C";
+
+    /** Minimum size of a file to be read into a direct buffer. */
+    public static final long DIRECT_THRESHOLD = 16 * 1024 * 1024;
+
+    /** Size of the direct buffer. */
+    private static final int DIRECT_BUF_SIZE = 1024 * 1024;
+
+    private static final int BUF_SIZE = 64 * 1024;
+
+    /** Key = Name, Value = {@link ChecksumType}. */
+    private static final Map CHECKSUMS = new HashMap();
+
+    static {
+        register(CRC32, CRC32.class, 4);
+        register(ADLER32, Adler32.class, 4);
+        try {
+            register(CRC32C, Class.forName("java.util.zip.CRC32C"), 4);
+        } catch (final ClassNotFoundException ex) {
+            // Not available before Java 9
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private HashAlgorithm() {
+        throw new UnsupportedOperationException("Creating instances is not allowed!");
+    }
+
+    /**
+     * Registers a checksum as hash algorithm.
+     * 
+     * @param name
+     *            Name of the algorithm - Cannot be <code>null</code>.
+     * @param checksumClass
+     *            Implementation of <code>java.util.zip.Checksum</code> with a
+     *            public default constructor - Cannot be <code>null</code>.
+     * @param length
+     *            Number of bytes of the checksum value (1-8).
+     */
+    public static void register(final String name, final Class checksumClass, final int length) {
+        Utils4J.checkNotNull("name", name);
+        Utils4J.checkNotNull("checksumClass", checksumClass);
+        if (!Checksum.class.isAssignableFrom(checksumClass)) {
+            throw new IllegalArgumentException("The class '" + checksumClass.getName()
+                    + "' does not implement '" + Checksum.class.getName() + "'!");
+        }
+        if ((length < 1) || (length > 8)) {
+            throw new IllegalArgumentException("The length must be between 1 and 8: " + length);
+        }
+        synchronized (CHECKSUMS) {
+            CHECKSUMS.put(name, new ChecksumType(checksumClass, length));
+        }
+    }
+
+    /**
+     * Checks if an algorithm is available.
+     * 
+     * @param name
+     *            Name of the algorithm.
+     * 
+     * @return If the algorithm can be used <code>true</code> else
+     *         <code>false</code>.
+     */
+    public static boolean isSupported(final String name) {
+        try {
+            createDigest(name);
+            return true;
+        } catch (final IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the names of the built-in and registered algorithms that are
+     * available.
+     * 
+     * @return List of <code>String</code> objects.
+     */
+    public static List getNames() {
+        final List names = new ArrayList();
+        final String[] standard = new String[] { MD5, SHA1, SHA256 };
+        for (int i = 0; i < standard.length; i++) {
+            if (isSupported(standard[i])) {
+                names.add(standard[i]);
+            }
+        }
+        synchronized (CHECKSUMS) {
+            names.addAll(CHECKSUMS.keySet());
+        }
+        return names;
+    }
+
+    /**
+     * Creates a new digest for an algorithm.
+     * 
+     * @param name
+     *            Name of the algorithm - Cannot be <code>null</code>.
+     * 
+     * @return Digest.
+     */
+    public static MessageDigest createDigest(final String name) {
+        Utils4J.checkNotNull("name", name);
+        final ChecksumType type;
+        synchronized (CHECKSUMS) {
+            type = (ChecksumType) CHECKSUMS.get(name);
+        }
+        if (type != null) {
+            return new ChecksumDigest(name, type.newChecksum(), type.getLength(), type
+                    .getUpdateBuffer());
+        }
+        try {
+            return MessageDigest.getInstance(name);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalArgumentException("Unknown hash algorithm: " + name);
+        }
+    }
+
+    /**
+     * Calculates the hash of a file. An <code>IOException</code> is wrapped
+     * into a <code>RuntimeException</code>.
+     * 
+     * @param file
+     *            File to read.
+     * @param name
+     *            Name of the algorithm.
+     * 
+     * @return Hash as lower case hexadecimal string.
+     */
+    public static String createHash(final File file, final String name) {
+        return createHash(file, name, file.length() >= DIRECT_THRESHOLD);
+    }
+
+    private static String createHash(final File file, final String name, final boolean direct) {
+        final MessageDigest digest = createDigest(name);
+        try {
+            if (direct && isDirectSupported(digest)) {
+                updateDirect((ChecksumDigest) digest, file);
+            } else {
+                updateStream(digest, file);
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error reading file: " + file, ex);
+        }
+        return Utils.encodeHex(digest.digest());
+    }
+
+    private static void updateStream(final MessageDigest digest, final File file)
+            throws IOException {
+        final InputStream in = new FileInputStream(file);
+        try {
+            final byte[] buf = new byte[BUF_SIZE];
+            int count;
+            while ((count = in.read(buf)) > -1) {
+                digest.update(buf, 0, count);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Checks if a digest can be updated from a direct buffer. This is only
+     * the case for checksums with an <code>update(ByteBuffer)</code> method
+     * (Java 8 or later). A <code>MessageDigest</code> would copy a direct
+     * buffer into a heap array anyway, so the cryptographic hashes always
+     * use the stream.
+     * 
+     * @param digest
+     *            Digest to check.
+     * 
+     * @return If the direct buffer path can be used <code>true</code> else
+     *         <code>false</code>.
+     */
+    private static boolean isDirectSupported(final MessageDigest digest) {
+        return (digest instanceof ChecksumDigest) && ((ChecksumDigest) digest).isDirectSupported();
+    }
+
+    /**
+     * Updates the checksum with the content of a file read through a channel
+     * into a direct buffer. The checksum reads the buffer in place - The data
+     * is not copied into the heap.
+     * 
+     * @param digest
+     *            Checksum digest to update.
+     * @param file
+     *            File to read.
+     * 
+     * @throws IOException
+     *             Error reading the file.
+     */
+    private static void updateDirect(final ChecksumDigest digest, final File file)
+            throws IOException {
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            final FileChannel channel = in.getChannel();
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(DIRECT_BUF_SIZE);
+            while (channel.read(buffer) > -1) {
+                buffer.flip();
+                digest.updateDirect(buffer);
+                buffer.clear();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Measures the throughput of all available algorithms. For a file both
+     * the stream and the direct buffer path are measured.
+     * 
+     * @param args
+     *            Optional file to hash - Without a file 256 MB of memory are
+     *            hashed.
+     */
+    public static void main(final String[] args) {
+
+        final File file;
+        if ((args != null) && (args.length == 1)) {
+            file = new File(args[0]);
+            Utils4J.checkValidFile(file);
+        } else {
+            file = null;
+        }
+        final byte[] data = new byte[BUF_SIZE];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + (i >>> 8));
+        }
+        final int rounds = 4096;
+        final long bytes;
+        if (file == null) {
+            bytes = (long) rounds * data.length;
+        } else {
+            bytes = file.length();
+        }
+
+        final List names = getNames();
+        for (int i = 0; i < names.size(); i++) {
+            final String name = (String) names.get(i);
+            if (file == null) {
+                // First pass warms up the JIT
+                long millis = 0;
+                for (int pass = 0; pass < 2; pass++) {
+                    final long start = System.currentTimeMillis();
+                    final MessageDigest digest = createDigest(name);
+                    for (int j = 0; j < rounds; j++) {
+                        digest.update(data, 0, data.length);
+                    }
+                    digest.digest();
+                    millis = System.currentTimeMillis() - start;
+                }
+                printResult(name, bytes, millis);
+            } else {
+                // First pass warms up the JIT and the file system cache
+                long streamMillis = 0;
+                long directMillis = 0;
+                for (int pass = 0; pass < 2; pass++) {
+                    long start = System.currentTimeMillis();
+                    createHash(file, name, false);
+                    streamMillis = System.currentTimeMillis() - start;
+                    start = System.currentTimeMillis();
+                    createHash(file, name, true);
+                    directMillis = System.currentTimeMillis() - start;
+                }
+                printResult(name + " (stream)", bytes, streamMillis);
+                if (isDirectSupported(createDigest(name))) {
+                    printResult(name + " (direct)", bytes, directMillis);
+                }
+            }
+        }
+
+    }
+
+    private static void printResult(final String name, final long bytes, final long millis) {
+        final long mbPerSecond = (bytes * 1000 / Math.max(millis, 1)) / (1024 * 1024);
+        System.out.println(name + ": " + mbPerSecond + " MB/s (" + bytes + " bytes in " + millis
+                + " ms)");
+    }
+
+    /**
+     * Checksum class and length of the value.
+     */
+    private static final class ChecksumType {
+
+        private final Class checksumClass;
+
+        private final int length;
+
+        /** Method "update(ByteBuffer)" or <code>null</code> if not available. */
+        private final Method updateBuffer;
+
+        public ChecksumType(final Class checksumClass, final int length) {
+            super();
+            this.checksumClass = checksumClass;
+            this.length = length;
+            this.updateBuffer = findUpdateBuffer(checksumClass);
+        }
+
+        private static Method findUpdateBuffer(final Class checksumClass) {
+            try {
+                return checksumClass.getMethod("update", new Class[] { ByteBuffer.class });
+            } catch (final NoSuchMethodException ex) {
+                // Not available before Java 8
+                return null;
+            }
+        }
+
+        public Checksum newChecksum() {
+            try {
+                return (Checksum) checksumClass.newInstance();
+            } catch (final InstantiationException ex) {
+                throw new RuntimeException(ex);
+            } catch (final IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public Method getUpdateBuffer() {
+            return updateBuffer;
+        }
+
+    }
+
+    /**
+     * Message digest that calculates a checksum. The value is returned as
+     * big endian bytes.
+     */
+    private static final class ChecksumDigest extends MessageDigest {
+
+        private final Checksum checksum;
+
+        private final int length;
+
+        /** Method "update(ByteBuffer)" of the checksum or <code>null</code>. */
+        private final Method updateBuffer;
+
+        public ChecksumDigest(final String name, final Checksum checksum, final int length,
+                final Method updateBuffer) {
+            super(name);
+            this.checksum = checksum;
+            this.length = length;
+            this.updateBuffer = updateBuffer;
+        }
+
+        public boolean isDirectSupported() {
+            return updateBuffer != null;
+        }
+
+        /**
+         * Updates the checksum with the remaining bytes of a buffer. Only
+         * allowed if {@link #isDirectSupported()} returns <code>true</code>.
+         */
+        public void updateDirect(final ByteBuffer buffer) {
+            try {
+                updateBuffer.invoke(checksum, new Object[] { buffer });
+            } catch (final IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            } catch (final InvocationTargetException ex) {
+                throw new RuntimeException(ex.getTargetException());
+            }
+        }
+
+        protected int engineGetDigestLength() {
+            return length;
+        }
+
+        protected void engineUpdate(final byte input) {
+            checksum.update(input);
+        }
+
+        protected void engineUpdate(final byte[] input, final int offset, final int len) {
+            checksum.update(input, offset, len);
+        }
+
+        protected byte[] engineDigest() {
+            final long value = checksum.getValue();
+            checksum.reset();
+            final byte[] result = new byte[length];
+            for (int i = 0; i < length; i++) {
+                result[i] = (byte) (value >>> (8 * (length - 1 - i)));
+            }
+            return result;
+        }
+
+        protected void engineReset() {
+            checksum.reset();
+        }
+
+    }
+
+}
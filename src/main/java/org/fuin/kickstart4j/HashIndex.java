@@ -0,0 +1,246 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.StringTokenizer;
+
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Persistent index of the last verified hashes of the files in the
+ * installation directory. An entry is only used if size and modification time
+ * of the local file are still the same as at the time the hash was calculated.
+ * The index is discarded if it was created with another hash algorithm. All
+ * methods are thread safe.
+ */
+public final class HashIndex {
+
+    private static final Logger LOG = Logger.getLogger(HashIndex.class);
+
+    /** Name of the index file inside the installation directory. */
+    public static final String FILENAME = ".kickstart4j-hashes";
+
+    private static final String SEPARATOR = ",";
+
+    /** Key of the hash algorithm entry (file keys always contain a slash). */
+    private static final String ALGORITHM_KEY = "algorithm";
+
+    /** Index file. */
+    private final File file;
+
+    /** Ignore the entries and calculate every hash. */
+    private final boolean verifyAll;
+
+    /** Algorithm of the hashes. */
+    private final String algorithm;
+
+    /** Key = relative slash path and filename, Value = "size,mtime,hash". */
+    private final Properties entries;
+
+    /** Number of hashes taken from the index. */
+    private int hits = 0;
+
+    /** Number of hashes calculated. */
+    private int misses = 0;
+
+    /** Signals if the entries changed since loading. */
+    private boolean changed = false;
+
+    /**
+     * Constructor with installation directory and hash algorithm. An existing
+     * index file is loaded.
+     *
+     * @param destDir
+     *            Installation directory - Cannot be <code>null</code>.
+     * @param verifyAll
+     *            If <code>true</code> the existing entries are ignored and
+     *            the hash of every file is calculated (the results are still
+     *            stored in the index).
+     * @param algorithm
+     *            Name of the hash algorithm - Cannot be <code>null</code>.
+     */
+    public HashIndex(final File destDir, final boolean verifyAll, final String algorithm) {
+        super();
+        Utils4J.checkNotNull("destDir", destDir);
+        Utils4J.checkNotNull("algorithm", algorithm);
+        this.file = new File(destDir, FILENAME);
+        this.verifyAll = verifyAll;
+        this.algorithm = algorithm;
+        this.entries = load(file, algorithm);
+    }
+
+    private static Properties load(final File file, final String algorithm) {
+        if (file.exists()) {
+            try {
+                final Properties props = Utils4J.loadProperties(file);
+                // Indexes without algorithm were always created with MD5
+                final String indexAlgorithm = props.getProperty(ALGORITHM_KEY,
+                        HashAlgorithm.MD5);
+                if (indexAlgorithm.equals(algorithm)) {
+                    props.setProperty(ALGORITHM_KEY, algorithm);
+                    return props;
+                }
+                LOG.info("Ignoring hash index created with " + indexAlgorithm + ": " + file);
+            } catch (final RuntimeException ex) {
+                LOG.warn("Ignoring unreadable hash index: " + file, ex);
+            }
+        }
+        final Properties props = new Properties();
+        props.setProperty(ALGORITHM_KEY, algorithm);
+        return props;
+    }
+
+    /**
+     * Returns the hash of a local file. The value is taken from the index
+     * if size and modification time did not change. Otherwise the hash is
+     * calculated and stored in the index.
+     *
+     * @param key
+     *            Relative path and filename with slash ("/") as separator.
+     * @param localFile
+     *            Existing local file.
+     *
+     * @return Hash of the file.
+     */
+    public final String getHash(final String key, final File localFile) {
+        final long size = localFile.length();
+        final long lastModified = localFile.lastModified();
+        if (!verifyAll) {
+            final String hash = find(key, size, lastModified);
+            if (hash != null) {
+                synchronized (this) {
+                    hits++;
+                }
+                return hash;
+            }
+        }
+        final String hash = HashAlgorithm.createHash(localFile, algorithm);
+        synchronized (this) {
+            misses++;
+        }
+        put(key, size, lastModified, hash);
+        return hash;
+    }
+
+    /**
+     * Returns the algorithm of the hashes.
+     *
+     * @return Name of the algorithm.
+     */
+    public final String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Stores the verified hash of a local file.
+     *
+     * @param key
+     *            Relative path and filename with slash ("/") as separator.
+     * @param localFile
+     *            Existing local file.
+     * @param hash
+     *            Verified hash of the file.
+     */
+    public final void put(final String key, final File localFile, final String hash) {
+        put(key, localFile.length(), localFile.lastModified(), hash);
+    }
+
+    /**
+     * Removes an entry from the index.
+     *
+     * @param key
+     *            Relative path and filename with slash ("/") as separator.
+     */
+    public final synchronized void remove(final String key) {
+        if (entries.remove(key) != null) {
+            changed = true;
+        }
+    }
+
+    private synchronized String find(final String key, final long size, final long lastModified) {
+        final String value = entries.getProperty(key);
+        if (value == null) {
+            return null;
+        }
+        final StringTokenizer tok = new StringTokenizer(value, SEPARATOR);
+        if (tok.countTokens() != 3) {
+            return null;
+        }
+        try {
+            if ((Long.parseLong(tok.nextToken()) != size)
+                    || (Long.parseLong(tok.nextToken()) != lastModified)) {
+                return null;
+            }
+        } catch (final NumberFormatException ex) {
+            return null;
+        }
+        return tok.nextToken();
+    }
+
+    private synchronized void put(final String key, final long size, final long lastModified,
+            final String hash) {
+        entries.setProperty(key, size + SEPARATOR + lastModified + SEPARATOR + hash);
+        changed = true;
+    }
+
+    /**
+     * Writes the index to disk if it has changed.
+     */
+    public final synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        final File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            Utils4J.saveProperties(tmpFile, entries,
+                    "# --- DO NOT EDIT --- Generated by Kickstart4J ---");
+            if (file.exists() && !file.delete()) {
+                LOG.warn("Cannot delete old hash index: " + file);
+            }
+            if (!tmpFile.renameTo(file)) {
+                LOG.warn("Cannot rename hash index: " + tmpFile + " => " + file);
+            }
+            changed = false;
+        } catch (final RuntimeException ex) {
+            // The index is only an optimization
+            LOG.warn("Cannot write hash index: " + file, ex);
+        }
+    }
+
+    /**
+     * Returns the number of hashes that were taken from the index.
+     *
+     * @return Number of avoided hash calculations.
+     */
+    public final synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of hashes that had to be calculated.
+     *
+     * @return Number of hash calculations.
+     */
+    public final synchronized int getMisses() {
+        return misses;
+    }
+
+}
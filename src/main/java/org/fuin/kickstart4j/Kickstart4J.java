@@ -1,610 +1,1208 @@
-/**
- * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
- * reserved. <http://www.fuin.org/>
- *
- * This library is free software; you can redistribute it and/or modify it under
- * the terms of the GNU Lesser General Public License as published by the Free
- * Software Foundation; either version 3 of the License, or (at your option) any
- * later version.
- *
- * This library is distributed in the hope that it will be useful, but WITHOUT
- * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
- * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
- * details.
- *
- * You should have received a copy of the GNU Lesser General Public License
- * along with this library. If not, see <http://www.gnu.org/licenses/>.
- */
-package org.fuin.kickstart4j;
-
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.PrintStream;
-import java.net.URL;
-import java.util.List;
-import java.util.Locale;
-import java.util.Properties;
-
-import javax.swing.JFrame;
-import javax.swing.JOptionPane;
-
-import org.apache.commons.exec.CommandLine;
-import org.apache.log4j.Logger;
-import org.apache.log4j.PropertyConfigurator;
-import org.fuin.utils4j.Cancelable;
-import org.fuin.utils4j.Utils4J;
-import org.fuin.utils4swing.common.ScreenCenterPositioner;
-import org.fuin.utils4swing.common.Utils4Swing;
-import org.fuin.utils4swing.dialogs.CanceledException;
-import org.fuin.utils4swing.dialogs.DirectorySelector;
-import org.fuin.utils4swing.progress.FileCopyProgressListener;
-import org.fuin.utils4swing.progress.FileCopyProgressMonitor;
-import org.fuin.utils4swing.threadsafe.ThreadSafeJOptionPane;
-
-/**
- * Main application.
- */
-public final class Kickstart4J {
-
-    private static final Logger LOG = Logger.getLogger(Kickstart4J.class);
-
-    private static final String PROGRAM_TERMINATED_WITH_ERROR = "Program terminated with error!";
-
-    private static final String INCOMPLETE_FILE = ".incomplete";
-
-    private static final String PROGRAM_DIRECTORY_KEY = "program-directory";
-
-    /** Configuration used for the application. */
-    private final Config config;
-
-    /** Listens to life cycle events. */
-    private Kickstart4JListener listener;
-
-    /**
-     * Constructor with configuration.
-     * 
-     * @param config
-     *            Configuration to use.
-     */
-    public Kickstart4J(final Config config) {
-        super();
-        if (config == null) {
-            throw new IllegalArgumentException("The argument 'config' cannot be null!");
-        }
-        this.config = config;
-        this.listener = new DefaultListener();
-    }
-
-    /**
-     * Returns the life cycle listener.
-     * 
-     * @return Listener - Always non-<code>null</code>.
-     */
-    public final Kickstart4JListener getListener() {
-        return listener;
-    }
-
-    /**
-     * Sets the life cycle listener.
-     * 
-     * @param listener
-     *            Listener - Will be set to a default listener if
-     *            <code>null</code>.
-     */
-    public final void setListener(final Kickstart4JListener listener) {
-        if (listener == null) {
-            this.listener = new DefaultListener();
-        } else {
-            this.listener = listener;
-        }
-    }
-
-    /**
-     * Initialize file logging with configuration values.
-     */
-    private void initLogging() {
-
-        try {
-            final File logFile = new File(config.getLogFilename()).getCanonicalFile();
-
-            boolean ok = true;
-            if (!logFile.getParentFile().exists()) {
-                ok = logFile.getParentFile().mkdirs();
-            }
-
-            if (ok) {
-                final Properties props = new Properties();
-                props.put("log4j.rootLogger", "INFO, FILE");
-                props.put("log4j.appender.FILE", "org.apache.log4j.RollingFileAppender");
-                props.put("log4j.appender.FILE.File", logFile.toString());
-                props.put("log4j.appender.FILE.MaxFileSize", "1MB");
-                props.put("log4j.appender.FILE.MaxBackupIndex", "1");
-                props.put("log4j.appender.FILE.layout", "org.apache.log4j.PatternLayout");
-                props.put("log4j.appender.FILE.layout.ConversionPattern", "%d [%t] %-5p %c - %m%n");
-                PropertyConfigurator.configure(props);
-            } else {
-                LOG.error("Cannot create log directory: " + logFile.getParentFile());
-            }
-        } catch (final IOException ex) {
-            LOG.error("Cannot create log!", ex);
-        }
-
-    }
-
-    /**
-     * Executes the installer/updater.
-     * 
-     * @throws CanceledException
-     *             The user canceled the installation.
-     * @throws InvalidConfigException
-     *             The configuration is invalid.
-     */
-    public final void execute() throws CanceledException, InvalidConfigException {
-
-        Locale.setDefault(config.getLocale());
-        final File destDir = getDestDir();
-        config.getCmdLineOptions().put("destDir", destDir.toString());
-
-        // Check configuration AFTER destination directory is set
-        // and logging is initialized
-        config.check();
-        initLogging();
-        listener.initComplete();
-
-        // Start the update
-        final UpdateSet updateSet = new UpdateSet(config.getSrcFiles(), config.getMkDirs(),
-                destDir, config.isLazyLoading());
-        if (updateSet.isUpdateNecessary()) {
-            if (LOG.isInfoEnabled()) {
-                LOG.info("An update is available: New=" + updateSet.getNewFiles().size()
-                        + ", Changed=" + updateSet.getChangedFiles().size() + ", Deleted="
-                        + updateSet.getDeletedFiles().size() + ", SilentInstall="
-                        + config.isSilentInstall() + ", SilentUpdate=" + config.isSilentUpdate()
-                        + ", FirstInstallation=" + config.isFirstInstallation());
-            }
-            if (config.isSilentUpdate() || config.isFirstInstallation()
-                    || isAnswerYes(config.getMessages().getUpdateAvailable())) {
-                execute(updateSet);
-                final File installationIncompleteFile = new File(destDir, INCOMPLETE_FILE);
-                if (installationIncompleteFile.exists()) {
-                    installationIncompleteFile.delete();
-                }
-            }
-        } else {
-            LOG.info("Files are up to date");
-        }
-
-        final JFrame startFrame = showStartFrame();
-
-        config.getCmdLineOptions().put("classpath", updateSet.createClasspath());
-
-        // Write the config to the target directory
-        saveConfigToTargetDir(destDir);
-
-        // Run the target application
-        final CommandLine commandLine = new CommandLine(config.getJavaExe());
-        commandLine.addArguments(config.getJavaArgs(), false);
-        logStart(destDir, commandLine.toString());
-        new ApplicationStarter(destDir, commandLine, startFrame, listener, config).execute();
-
-    }
-
-    private JFrame showStartFrame() {
-        if (config.isShowStartFrame()) {
-            final JFrame startFrame = Utils4Swing.createShowAndPosition(config.getMessages()
-                    .getStartDialogTitle(), new StartPanel(), false, new ScreenCenterPositioner());
-            startFrame.setResizable(false);
-            return startFrame;
-        } else {
-            return null;
-        }
-    }
-
-    private void saveConfigToTargetDir(final File destDir) {
-        final File appXmlFile = new File(destDir, "application.xml");
-        try {
-            final String localConfigFileUrl = appXmlFile.toURI().toURL().toString();
-            config.setConfigFileUrl(localConfigFileUrl);
-            config.getCmdLineOptions().put("configFileUrl", localConfigFileUrl);
-            config.writeToStaticXML(appXmlFile, true);
-        } catch (final IOException ex) {
-            throw new RuntimeException("Error writing " + appXmlFile + "!", ex);
-        }
-    }
-
-    private File getIdFile(final Config config) {
-        return new File(Utils4J.getUserHomeDir(), config.getIdFilename());
-    }
-
-    private void execute(final UpdateSet updateSet) throws CanceledException {
-        executeMkdirs(updateSet.getDestDir(), updateSet.getMkDirs());
-
-        final List orderList = updateSet.getOrderList();
-        for (int i = 0; i < orderList.size(); i++) {
-            final int order = ((Integer) orderList.get(i)).intValue();
-
-            final List newFiles = updateSet.getNewFiles(order);
-            final List changedFiles = updateSet.getChangedFiles(order);
-            final List deletedFiles = updateSet.getDeletedFiles(order);
-            executeCopy(updateSet.getDestDir(), newFiles, changedFiles, deletedFiles);
-
-            final List decompressFiles = updateSet.getDecompressFiles(order);
-            executeDecompress(updateSet.getDestDir(), decompressFiles);
-
-        }
-
-    }
-
-    private void executeMkdirs(final File destDir, final List mkdirs) {
-
-        for (int i = 0; i < mkdirs.size(); i++) {
-            final MkDir mkDir = (MkDir) mkdirs.get(i);
-            final File dirToCreate = mkDir.getDestDir(destDir);
-            if (dirToCreate.exists()) {
-                LOG.info("MKDIR: " + dirToCreate + " (Already exists)");
-            } else {
-                final boolean ok = dirToCreate.mkdirs();
-                if (LOG.isInfoEnabled()) {
-                    if (ok) {
-                        LOG.info("MKDIR: " + dirToCreate);
-                    } else {
-                        LOG.info("MKDIR FAILED: " + dirToCreate);
-                    }
-                }
-            }
-        }
-
-    }
-
-    private void executeCopy(final File destDir, final List newFiles, final List changedFiles,
-            final List deletedFiles) throws CanceledException {
-
-        final int max = newFiles.size() + changedFiles.size();
-        if (max > 0) {
-
-            final Cancelable cancelable = new Cancelable() {
-
-                private volatile boolean canceled = false;
-
-                public void cancel() {
-                    canceled = true;
-                }
-
-                public boolean isCanceled() {
-                    return canceled;
-                }
-            };
-
-            final FileCopyProgressMonitor monitor = new FileCopyProgressMonitor(cancelable,
-                    config.getTitle(), config.getMessages().getProgressMonitorTransferText(),
-                    config.getMessages().getProgressMonitorSrcLabelText(), config.getMessages()
-                            .getProgressMonitorDestLabelText(), max);
-
-            int count = 0;
-
-            monitor.open();
-            try {
-
-                // New files
-                if (cancelable.isCanceled()) {
-                    throw new CanceledException();
-                }
-                count = copyFiles(destDir, cancelable, monitor, newFiles, count, "NEW");
-
-                // Changed files
-                if (cancelable.isCanceled()) {
-                    throw new CanceledException();
-                }
-                count = copyFiles(destDir, cancelable, monitor, changedFiles, count, "CHANGED");
-
-                // No longer existent (deleted) files
-                if (cancelable.isCanceled()) {
-                    throw new CanceledException();
-                }
-                for (int i = 0; i < deletedFiles.size(); i++) {
-                    if (cancelable.isCanceled()) {
-                        break;
-                    }
-                    count = count + 1;
-                    final String file = (String) deletedFiles.get(i);
-                    final File destFile = new File(destDir, file);
-                    final boolean ok = destFile.delete();
-                    if (LOG.isInfoEnabled()) {
-                        if (ok) {
-                            LOG.info("DELETED: " + destFile);
-                        } else {
-                            LOG.info("DELETE FAILED: " + destFile);
-                        }
-                    }
-                    monitor.updateFile("", destFile.toString(), count, 0);
-                }
-
-            } finally {
-                monitor.close();
-            }
-
-        }
-    }
-
-    private void executeDecompress(final File destDir, final List compressedFiles)
-            throws CanceledException {
-
-        final int max = compressedFiles.size();
-        if (max > 0) {
-
-            final Cancelable cancelable = new Cancelable() {
-
-                private volatile boolean canceled = false;
-
-                public void cancel() {
-                    canceled = true;
-                }
-
-                public boolean isCanceled() {
-                    return canceled;
-                }
-            };
-
-            final FileCopyProgressMonitor monitor = new FileCopyProgressMonitor(cancelable,
-                    config.getTitle(), config.getMessages().getProgressMonitorDecompressText(),
-                    config.getMessages().getProgressMonitorSrcLabelText(), config.getMessages()
-                            .getProgressMonitorDestLabelText(), max);
-
-            monitor.open();
-            try {
-
-                for (int i = 0; i < max; i++) {
-                    final SrcFile file = (SrcFile) compressedFiles.get(i);
-                    final File compressedFile = file.getDestFile(destDir);
-                    if (LOG.isInfoEnabled()) {
-                        LOG.info("Decompressing: " + compressedFile);
-                    }
-                    Utils.unzip(monitor, compressedFile, (i + 1), destDir, cancelable);
-                }
-
-            } finally {
-                monitor.close();
-            }
-
-        }
-    }
-
-    private int copyFiles(final File destDir, final Cancelable cancelable,
-            final FileCopyProgressListener listener, final List files, final int total,
-            final String type) {
-
-        int count = total;
-
-        for (int i = 0; i < files.size(); i++) {
-            if (cancelable.isCanceled()) {
-                break;
-            }
-            count = count + 1;
-            final SrcFile file = (SrcFile) files.get(i);
-            final URL srcFileUrl = file.getSrcFileURL();
-            final File destFile = file.getDestFile(destDir);
-            try {
-                Utils.copyURLToFile(listener, srcFileUrl, destFile, count, file.getSizeAsInt());
-            } catch (final FileNotFoundException ex) {
-                throw new RuntimeException("Source file not found!", ex);
-            }
-            final String hash = Utils4J.createHashMD5(destFile);
-            if (!hash.equals(file.getMd5Hash())) {
-                LOG.error("Hash local file (" + hash + ") is different from configuration hash ("
-                        + file.getMd5Hash() + ")! [" + srcFileUrl + "]");
-            }
-            if (LOG.isInfoEnabled()) {
-                LOG.info(type + ": " + srcFileUrl + " => " + destFile);
-            }
-        }
-
-        return count;
-
-    }
-
-    private void logStart(final File dir, final String commandLine) {
-        try {
-            final File file = new File(dir, "start.log");
-            final FileWriter writer = new FileWriter(file);
-            try {
-                writer.write(commandLine);
-            } finally {
-                writer.close();
-            }
-        } catch (final IOException ex) {
-            throw new RuntimeException(ex);
-        }
-    }
-
-    private File getDestDir() throws CanceledException {
-        final File installationIncompleteFile;
-        final File dir;
-        final File idFile = getIdFile(config);
-        if (idFile.exists()) {
-            // Update
-            final Properties props = Utils4J.loadProperties(idFile);
-            final String dirStr = props.getProperty(PROGRAM_DIRECTORY_KEY);
-            if (dirStr == null) {
-                throw new IllegalStateException("The property '" + PROGRAM_DIRECTORY_KEY
-                        + "' was not found inside '" + idFile + "'!");
-            }
-            dir = new File(dirStr);
-            Utils4J.checkValidDir(dir);
-            installationIncompleteFile = new File(dir, INCOMPLETE_FILE);
-        } else {
-            // First installation or file removed
-            final String dirStr;
-            final Properties props = new Properties();
-            if (config.isSilentInstall()) {
-                dirStr = config.getDestDir().toString();
-            } else {
-                // Ask User for destination directory
-                dirStr = DirectorySelector.selectDirectory(
-                        config.getMessages().getSelectDestinationDirectory(),
-                        config.getDestDir().toString()).getDirectory();
-            }
-            props.setProperty(PROGRAM_DIRECTORY_KEY, dirStr);
-            Utils4J.saveProperties(idFile, props,
-                    "# --- DO NOT EDIT OR DELETE --- Generated by Kickstart4J ---");
-            dir = new File(dirStr);
-            installationIncompleteFile = new File(dir, INCOMPLETE_FILE);
-            if (!dir.exists()) {
-                try {
-                    dir.mkdirs();
-                    installationIncompleteFile.createNewFile();
-                } catch (final IOException ex) {
-                    throw new RuntimeException("Cannot create file '" + installationIncompleteFile
-                            + "'!");
-                }
-            }
-        }
-        config.setFirstInstallation(installationIncompleteFile.exists());
-        return dir;
-    }
-
-    private static boolean isAnswerYes(final String message) {
-        final int result = ThreadSafeJOptionPane.showConfirmDialog(null, message, "TITLE",
-                JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
-        return result == JOptionPane.YES_OPTION;
-    }
-
-    /**
-     * Shows a message and exits the program with <code>System.exit(..)</code>.
-     * 
-     * @param message
-     *            Message to display.
-     * @param exitCode
-     *            System exit code.
-     */
-    public static void showMessageAndExit(final String message, final int exitCode) {
-        ThreadSafeJOptionPane.showMessageDialog(null, message, "Hint",
-                JOptionPane.INFORMATION_MESSAGE);
-        System.exit(exitCode);
-    }
-
-    /**
-     * Shows an error message and exits the program with
-     * <code>System.exit(..)</code>.
-     * 
-     * @param parser
-     *            Parser for usage display.
-     * @param ex
-     *            Exception to display.
-     * @param exitCode
-     *            System exit code.
-     */
-    public static void displayCmdLineExceptionAndExit(final CmdLineParser parser,
-            final CmdLineException ex, final int exitCode) {
-        final StringBuffer sb = new StringBuffer();
-        sb.append(ex.getMessage());
-        sb.append("\n");
-        sb.append("\n");
-        sb.append("java Kickstart4J [options]");
-        sb.append("\n");
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
-        parser.printUsage(out);
-        sb.append(out.toString());
-        sb.append("\n");
-        System.out.println(sb);
-        ErrorDialog.showAndExit(sb.toString(), exitCode);
-    }
-
-    /**
-     * Shows an error message and exits the program with
-     * <code>System.exit(..)</code>.
-     * 
-     * @param ex
-     *            Exception to display.
-     * @param exitCode
-     *            System exit code.
-     */
-    public static void displayExceptionAndExit(final Exception ex, final int exitCode) {
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
-        ex.printStackTrace(new PrintStream(out));
-        final String msg = out.toString();
-        System.err.println(msg);
-        ErrorDialog.showAndExit(msg, exitCode);
-    }
-
-    /**
-     * Empty implementation.
-     */
-    private static final class DefaultListener implements Kickstart4JListener {
-
-        /**
-         * {@inheritDoc}
-         */
-        public final void initComplete() {
-            // Do nothing
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        public void startupComplete() {
-            // Do nothing
-        }
-
-    }
-
-    /**
-     * Main method used to start the installer/updater. If you want to start it
-     * from another Java application you can simply use
-     * <code>new Kickstart4J(kickstart4JConfig).execute()</code> instead of
-     * calling this method.
-     * 
-     * @param args
-     *            Command line arguments.
-     */
-    public static void main(final String[] args) {
-
-        final Logger log = Logger.getLogger(Kickstart4J.class);
-
-        final Config config = new Config();
-        try {
-
-            // Parse command line
-            final CmdLineParser cmdLineParser = new CmdLineParser(Locale.getDefault());
-            try {
-                cmdLineParser.parse(args);
-                if (log.isDebugEnabled()) {
-                    log.info("Command line arguments: " + cmdLineParser);
-                }
-
-                // Set user defined options from command line
-                cmdLineParser.copyToConfig(config);
-
-                // Load the configuration and start update
-                try {
-                    ConfigParser.parse(config, config.getConfigFileURL());
-                    if (log.isInfoEnabled()) {
-                        log.info("Configuration: " + config);
-                    }
-
-                    Utils4Swing.initLookAndFeel(config.getLookAndFeelClassName());
-                    (new Kickstart4J(config)).execute();
-
-                } catch (final CanceledException ex) {
-                    log.info("Operation canceled by user!");
-                    showMessageAndExit(config.getMessages().getOperationCanceled(), 1);
-                } catch (final InvalidConfigException ex) {
-                    log.error(PROGRAM_TERMINATED_WITH_ERROR, ex);
-                    displayExceptionAndExit(ex, 1);
-                }
-
-            } catch (final CmdLineException ex) {
-                log.error(PROGRAM_TERMINATED_WITH_ERROR, ex);
-                displayCmdLineExceptionAndExit(cmdLineParser, ex, 1);
-            }
-
-        } catch (final RuntimeException ex) {
-            log.error(PROGRAM_TERMINATED_WITH_ERROR, ex);
-            displayExceptionAndExit(ex, 1);
-        }
-
-    }
-
-}
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PropertyConfigurator;
+import org.fuin.utils4j.Cancelable;
+import org.fuin.utils4j.Utils4J;
+import org.fuin.utils4swing.common.ScreenCenterPositioner;
+import org.fuin.utils4swing.common.Utils4Swing;
+import org.fuin.utils4swing.dialogs.CanceledException;
+import org.fuin.utils4swing.dialogs.DirectorySelector;
+import org.fuin.utils4swing.progress.FileCopyProgressListener;
+import org.fuin.utils4swing.progress.FileCopyProgressMonitor;
+import org.fuin.utils4swing.threadsafe.ThreadSafeJOptionPane;
+
+/**
+ * Main application.
+ */
+public final class Kickstart4J {
+
+    private static final Logger LOG = Logger.getLogger(Kickstart4J.class);
+
+    private static final String PROGRAM_TERMINATED_WITH_ERROR = "Program terminated with error!";
+
+    private static final String INCOMPLETE_FILE = ".incomplete";
+
+    private static final String PROGRAM_DIRECTORY_KEY = "program-directory";
+
+    /** Update all files. */
+    private static final int ALL_FILES = 0;
+
+    /** Update only the files needed to start the application. */
+    private static final int START_FILES = 1;
+
+    /** Update only the files not needed to start the application. */
+    private static final int REMAINING_FILES = 2;
+
+    /** Configuration used for the application. */
+    private final Config config;
+
+    /** Listens to life cycle events. */
+    private Kickstart4JListener listener;
+
+    /** Index with verified hashes of the local files or <code>null</code>. */
+    private HashIndex hashIndex;
+
+    /** Store shared by all applications or <code>null</code> if not used. */
+    private ContentStore contentStore;
+
+    /** Archives already extracted while loading - Type is {@link SrcFile}. */
+    private final Set unzippedFiles = Collections.synchronizedSet(new HashSet());
+
+    /** Current staged update or <code>null</code> if files are written directly. */
+    private StagedUpdate stagedUpdate;
+
+    /**
+     * Constructor with configuration.
+     * 
+     * @param config
+     *            Configuration to use.
+     */
+    public Kickstart4J(final Config config) {
+        super();
+        if (config == null) {
+            throw new IllegalArgumentException("The argument 'config' cannot be null!");
+        }
+        this.config = config;
+        this.listener = new DefaultListener();
+    }
+
+    /**
+     * Returns the life cycle listener.
+     * 
+     * @return Listener - Always non-<code>null</code>.
+     */
+    public final Kickstart4JListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the life cycle listener.
+     * 
+     * @param listener
+     *            Listener - Will be set to a default listener if
+     *            <code>null</code>.
+     */
+    public final void setListener(final Kickstart4JListener listener) {
+        if (listener == null) {
+            this.listener = new DefaultListener();
+        } else {
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Initialize file logging with configuration values.
+     */
+    private void initLogging() {
+
+        try {
+            final File logFile = new File(config.getLogFilename()).getCanonicalFile();
+
+            boolean ok = true;
+            if (!logFile.getParentFile().exists()) {
+                ok = logFile.getParentFile().mkdirs();
+            }
+
+            if (ok) {
+                final Properties props = new Properties();
+                props.put("log4j.rootLogger", "INFO, FILE");
+                props.put("log4j.appender.FILE", "org.apache.log4j.RollingFileAppender");
+                props.put("log4j.appender.FILE.File", logFile.toString());
+                props.put("log4j.appender.FILE.MaxFileSize", "1MB");
+                props.put("log4j.appender.FILE.MaxBackupIndex", "1");
+                props.put("log4j.appender.FILE.layout", "org.apache.log4j.PatternLayout");
+                props.put("log4j.appender.FILE.layout.ConversionPattern", "%d [%t] %-5p %c - %m%n");
+                PropertyConfigurator.configure(props);
+            } else {
+                LOG.error("Cannot create log directory: " + logFile.getParentFile());
+            }
+        } catch (final IOException ex) {
+            LOG.error("Cannot create log!", ex);
+        }
+
+    }
+
+    /**
+     * Executes the installer/updater.
+     * 
+     * @throws CanceledException
+     *             The user canceled the installation.
+     * @throws InvalidConfigException
+     *             The configuration is invalid.
+     */
+    public final void execute() throws CanceledException, InvalidConfigException {
+
+        Locale.setDefault(config.getLocale());
+        final File destDir = getDestDir();
+        config.getCmdLineOptions().put("destDir", destDir.toString());
+
+        // Check configuration AFTER destination directory is set
+        // and logging is initialized
+        config.check();
+        initLogging();
+        listener.initComplete();
+
+        // All transfers share the connections
+        Utils.setTransport(Utils.createTransport(config));
+
+        // Complete an update that was interrupted after the commit
+        try {
+            StagedUpdate.recover(destDir);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Cannot complete the previous update!", ex);
+        }
+        BackgroundUpdate.clear(destDir);
+
+        // Start the update
+        final HashIndex hashIndex = new HashIndex(destDir, config.isVerifyAllFiles(), config
+                .getHashAlgorithm());
+        final UpdateSet updateSet = new UpdateSet(config.getSrcFiles(), config.getMkDirs(),
+                destDir, config.isLazyLoading(), config.getHashAlgorithm(), hashIndex, config
+                        .getScanThreads(), loadPreviousSrcFiles(destDir));
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Local files: ChangedBySize=" + updateSet.getSizeChangedCount()
+                    + ", ComparedByHash=" + updateSet.getHashComparedCount()
+                    + ", HashCalculated=" + hashIndex.getMisses() + ", HashFromIndex="
+                    + hashIndex.getHits());
+        }
+        final boolean launchFirst = config.isLaunchFirst() && !config.isLazyLoading();
+        BackgroundUpdate backgroundUpdate = null;
+        if (updateSet.isUpdateNecessary()) {
+            if (LOG.isInfoEnabled()) {
+                LOG.info("An update is available: New=" + updateSet.getNewFiles().size()
+                        + ", Changed=" + updateSet.getChangedFiles().size() + ", Deleted="
+                        + updateSet.getDeletedFiles().size() + ", SilentInstall="
+                        + config.isSilentInstall() + ", SilentUpdate=" + config.isSilentUpdate()
+                        + ", FirstInstallation=" + config.isFirstInstallation());
+            }
+            if (config.isSilentUpdate() || config.isFirstInstallation()
+                    || isAnswerYes(config.getMessages().getUpdateAvailable())) {
+                try {
+                    if (launchFirst) {
+                        execute(updateSet, START_FILES);
+                    } else {
+                        execute(updateSet, ALL_FILES);
+                    }
+                } finally {
+                    // Keep the hashes of the files verified so far
+                    hashIndex.save();
+                }
+                if (launchFirst) {
+                    backgroundUpdate = startBackgroundUpdate(updateSet);
+                } else {
+                    deleteIncompleteFile(destDir);
+                }
+            }
+        } else {
+            LOG.info("Files are up to date");
+        }
+        hashIndex.save();
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Transfers: " + Utils.getTransport().getStatistics());
+        }
+
+        final JFrame startFrame = showStartFrame();
+
+        config.getCmdLineOptions().put("classpath", updateSet.createClasspath());
+
+        // Write the config to the target directory
+        saveConfigToTargetDir(destDir);
+
+        // Run the target application
+        final CommandLine commandLine = new CommandLine(config.getJavaExe());
+        commandLine.addArguments(config.getJavaArgs(), false);
+        logStart(destDir, commandLine.toString());
+        new ApplicationStarter(destDir, commandLine, startFrame, listener, config,
+                backgroundUpdate).execute();
+
+    }
+
+    /**
+     * Transfers the files not needed to start the application in a
+     * background thread.
+     * 
+     * @param updateSet
+     *            Update that was already executed for the start files.
+     * 
+     * @return Running background update.
+     */
+    private BackgroundUpdate startBackgroundUpdate(final UpdateSet updateSet) {
+        final BackgroundUpdate backgroundUpdate = new BackgroundUpdate(updateSet.getDestDir());
+        backgroundUpdate.start(new Runnable() {
+            public void run() {
+                try {
+                    execute(updateSet, REMAINING_FILES);
+                } catch (final CanceledException ex) {
+                    throw new RuntimeException(ex);
+                } finally {
+                    hashIndex.save();
+                }
+                deleteIncompleteFile(updateSet.getDestDir());
+                if (LOG.isInfoEnabled()) {
+                    LOG.info("Background update complete - Transfers: "
+                            + Utils.getTransport().getStatistics());
+                }
+            }
+        });
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Background update started");
+        }
+        return backgroundUpdate;
+    }
+
+    private static void deleteIncompleteFile(final File destDir) {
+        final File installationIncompleteFile = new File(destDir, INCOMPLETE_FILE);
+        if (installationIncompleteFile.exists()) {
+            installationIncompleteFile.delete();
+        }
+    }
+
+    private JFrame showStartFrame() {
+        if (config.isShowStartFrame()) {
+            final JFrame startFrame = Utils4Swing.createShowAndPosition(config.getMessages()
+                    .getStartDialogTitle(), new StartPanel(), false, new ScreenCenterPositioner());
+            startFrame.setResizable(false);
+            return startFrame;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the source files of the installed version from the configuration
+     * written by the last run.
+     * 
+     * @param destDir
+     *            Installation directory.
+     * 
+     * @return List of <code>SrcFile</code> objects or <code>null</code> if
+     *         there is no valid configuration.
+     */
+    private List loadPreviousSrcFiles(final File destDir) {
+        final File appXmlFile = new File(destDir, "application.xml");
+        if (!appXmlFile.exists()) {
+            return null;
+        }
+        try {
+            return ConfigParser.create(appXmlFile).getSrcFiles();
+        } catch (final InvalidConfigException ex) {
+            LOG.warn("Cannot read previous configuration - No files will be deleted: "
+                    + appXmlFile, ex);
+            return null;
+        }
+    }
+
+    private void saveConfigToTargetDir(final File destDir) {
+        final File appXmlFile = new File(destDir, "application.xml");
+        try {
+            final String localConfigFileUrl = appXmlFile.toURI().toURL().toString();
+            config.setConfigFileUrl(localConfigFileUrl);
+            config.getCmdLineOptions().put("configFileUrl", localConfigFileUrl);
+            config.writeToStaticXML(appXmlFile, true);
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error writing " + appXmlFile + "!", ex);
+        }
+    }
+
+    private File getIdFile(final Config config) {
+        return new File(Utils4J.getUserHomeDir(), config.getIdFilename());
+    }
+
+    /**
+     * Executes the update. If only the remaining files are updated no
+     * progress is displayed. Directories are created and files are deleted
+     * together with the start files.
+     * 
+     * @param updateSet
+     *            Update to execute.
+     * @param part
+     *            Files to update: <code>ALL_FILES</code>,
+     *            <code>START_FILES</code> or <code>REMAINING_FILES</code>.
+     * 
+     * @throws CanceledException
+     *             The user canceled the update.
+     */
+    private void execute(final UpdateSet updateSet, final int part) throws CanceledException {
+        hashIndex = updateSet.getHashIndex();
+        if (config.isSharedStore()) {
+            contentStore = new ContentStore(config.getHashAlgorithm());
+        }
+        final boolean showProgress = (part != REMAINING_FILES);
+        if (part != REMAINING_FILES) {
+            executeMkdirs(updateSet.getDestDir(), updateSet.getMkDirs());
+        }
+
+        // New and changed files go to the staging directory if enabled
+        final File workDir;
+        if (config.isStagedUpdate()) {
+            stagedUpdate = new StagedUpdate(updateSet.getDestDir());
+            try {
+                stagedUpdate.prepare();
+            } catch (final IOException ex) {
+                throw new RuntimeException("Cannot prepare staging directory!", ex);
+            }
+            workDir = stagedUpdate.getStagingDir();
+        } else {
+            workDir = updateSet.getDestDir();
+        }
+
+        final List orderList = updateSet.getOrderList();
+        for (int i = 0; i < orderList.size(); i++) {
+            final int order = ((Integer) orderList.get(i)).intValue();
+
+            final List newFiles = select(updateSet.getNewFiles(order), part);
+            final List changedFiles = select(updateSet.getChangedFiles(order), part);
+            final List deletedFiles;
+            if (part == REMAINING_FILES) {
+                deletedFiles = Collections.EMPTY_LIST;
+            } else {
+                deletedFiles = updateSet.getDeletedFiles(order);
+            }
+            executeCopy(workDir, newFiles, changedFiles, deletedFiles, showProgress);
+
+            final List decompressFiles = select(updateSet.getDecompressFiles(order), part);
+            executeDecompress(workDir, decompressFiles, showProgress);
+
+        }
+
+        if (stagedUpdate != null) {
+            try {
+                stagedUpdate.commit();
+            } catch (final IOException ex) {
+                throw new RuntimeException("Error moving the staged files!", ex);
+            }
+        }
+
+    }
+
+    /**
+     * Selects the files of a part of the update.
+     * 
+     * @param files
+     *            List of <code>SrcFile</code> objects.
+     * @param part
+     *            Files to select: <code>ALL_FILES</code>,
+     *            <code>START_FILES</code> or <code>REMAINING_FILES</code>.
+     * 
+     * @return Selected files.
+     */
+    private static List select(final List files, final int part) {
+        if (part == ALL_FILES) {
+            return files;
+        }
+        final List selected = new ArrayList();
+        for (int i = 0; i < files.size(); i++) {
+            final SrcFile file = (SrcFile) files.get(i);
+            final boolean startFile = file.isAddToClasspath() || file.isLoadAlways();
+            if (startFile == (part == START_FILES)) {
+                selected.add(file);
+            }
+        }
+        return selected;
+    }
+
+    private void executeMkdirs(final File destDir, final List mkdirs) {
+
+        for (int i = 0; i < mkdirs.size(); i++) {
+            final MkDir mkDir = (MkDir) mkdirs.get(i);
+            final File dirToCreate = mkDir.getDestDir(destDir);
+            if (dirToCreate.exists()) {
+                LOG.info("MKDIR: " + dirToCreate + " (Already exists)");
+            } else {
+                final boolean ok = dirToCreate.mkdirs();
+                if (LOG.isInfoEnabled()) {
+                    if (ok) {
+                        LOG.info("MKDIR: " + dirToCreate);
+                    } else {
+                        LOG.info("MKDIR FAILED: " + dirToCreate);
+                    }
+                }
+            }
+        }
+
+    }
+
+    private void executeCopy(final File destDir, final List newFiles, final List changedFiles,
+            final List deletedFiles, final boolean showProgress) throws CanceledException {
+
+        final int max = newFiles.size() + changedFiles.size() + deletedFiles.size();
+        if (max > 0) {
+
+            final Cancelable cancelable = new Cancelable() {
+
+                private volatile boolean canceled = false;
+
+                public void cancel() {
+                    canceled = true;
+                }
+
+                public boolean isCanceled() {
+                    return canceled;
+                }
+            };
+
+            final FileCopyProgressMonitor monitor;
+            if (showProgress) {
+                monitor = new FileCopyProgressMonitor(cancelable, config.getTitle(), config
+                        .getMessages().getProgressMonitorTransferText(), config.getMessages()
+                        .getProgressMonitorSrcLabelText(), config.getMessages()
+                        .getProgressMonitorDestLabelText(), max);
+                monitor.open();
+            } else {
+                monitor = null;
+            }
+
+            int count = 0;
+
+            try {
+
+                // Small files from packs
+                final List files = new ArrayList(newFiles);
+                files.addAll(changedFiles);
+                final Set packedFiles = new HashSet();
+                count = copyPacks(destDir, cancelable, monitor, files, packedFiles, count);
+
+                // New files
+                if (cancelable.isCanceled()) {
+                    throw new CanceledException();
+                }
+                count = copyFiles(destDir, cancelable, monitor, without(newFiles, packedFiles),
+                        count, "NEW");
+
+                // Changed files
+                if (cancelable.isCanceled()) {
+                    throw new CanceledException();
+                }
+                count = copyFiles(destDir, cancelable, monitor, without(changedFiles,
+                        packedFiles), count, "CHANGED");
+
+                // No longer existent (deleted) files
+                if (cancelable.isCanceled()) {
+                    throw new CanceledException();
+                }
+                for (int i = 0; i < deletedFiles.size(); i++) {
+                    if (cancelable.isCanceled()) {
+                        break;
+                    }
+                    count = count + 1;
+                    final SrcFile file = (SrcFile) deletedFiles.get(i);
+                    if (hashIndex != null) {
+                        hashIndex.remove(file.getRelativeSlashPathAndFilename());
+                    }
+                    if (stagedUpdate == null) {
+                        final File destFile = file.getDestFile(destDir);
+                        final boolean ok = destFile.delete();
+                        if (LOG.isInfoEnabled()) {
+                            if (ok) {
+                                LOG.info("DELETED: " + destFile);
+                            } else {
+                                LOG.info("DELETE FAILED: " + destFile);
+                            }
+                        }
+                        if (monitor != null) {
+                            monitor.updateFile("", destFile.toString(), count, 0);
+                        }
+                    } else {
+                        // Deleted on commit
+                        stagedUpdate.delete(file.getRelativeSlashPathAndFilename());
+                        if (monitor != null) {
+                            monitor.updateFile("", file.toString(), count, 0);
+                        }
+                    }
+                }
+
+            } finally {
+                if (monitor != null) {
+                    monitor.close();
+                }
+            }
+
+        }
+    }
+
+    private void executeDecompress(final File destDir, final List files,
+            final boolean showProgress) throws CanceledException {
+
+        final List compressedFiles = new ArrayList();
+        for (int i = 0; i < files.size(); i++) {
+            final SrcFile file = (SrcFile) files.get(i);
+            if (unzippedFiles.contains(file)) {
+                if (LOG.isInfoEnabled()) {
+                    LOG.info("Already decompressed while loading: " + file);
+                }
+            } else {
+                compressedFiles.add(file);
+            }
+        }
+
+        final int max = compressedFiles.size();
+        if (max > 0) {
+
+            final Cancelable cancelable = new Cancelable() {
+
+                private volatile boolean canceled = false;
+
+                public void cancel() {
+                    canceled = true;
+                }
+
+                public boolean isCanceled() {
+                    return canceled;
+                }
+            };
+
+            final FileCopyProgressMonitor monitor;
+            if (showProgress) {
+                monitor = new FileCopyProgressMonitor(cancelable, config.getTitle(), config
+                        .getMessages().getProgressMonitorDecompressText(), config.getMessages()
+                        .getProgressMonitorSrcLabelText(), config.getMessages()
+                        .getProgressMonitorDestLabelText(), max);
+                monitor.open();
+            } else {
+                monitor = null;
+            }
+
+            try {
+
+                for (int i = 0; i < max; i++) {
+                    final SrcFile file = (SrcFile) compressedFiles.get(i);
+                    final File compressedFile = file.getDestFile(destDir);
+                    if (LOG.isInfoEnabled()) {
+                        LOG.info("Decompressing: " + compressedFile);
+                    }
+                    Utils.unzip(monitor, compressedFile, (i + 1), destDir, cancelable, config
+                            .getUnzipThreads());
+                }
+
+            } finally {
+                if (monitor != null) {
+                    monitor.close();
+                }
+            }
+
+        }
+    }
+
+    private static List without(final List files, final Set excluded) {
+        if (excluded.size() == 0) {
+            return files;
+        }
+        final List result = new ArrayList();
+        for (int i = 0; i < files.size(); i++) {
+            final Object file = files.get(i);
+            if (!excluded.contains(file)) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads all packs with enough missing members and extracts these members.
+     * 
+     * @param destDir
+     *            Target directory.
+     * @param cancelable
+     *            Signals if the user canceled the update.
+     * @param listener
+     *            Progress listener or <code>null</code>.
+     * @param files
+     *            List of <code>SrcFile</code> objects to load.
+     * @param packedFiles
+     *            Set to add the successfully extracted source files to.
+     * @param total
+     *            Number of files already processed.
+     * 
+     * @return Number of files processed including the extracted ones.
+     */
+    private int copyPacks(final File destDir, final Cancelable cancelable,
+            final FileCopyProgressListener listener, final List files, final Set packedFiles,
+            final int total) {
+
+        final List packs = config.getPacks();
+        if ((packs.size() == 0) || (files.size() < config.getPackThreshold())) {
+            return total;
+        }
+
+        // Files in the shared store are not loaded at all
+        final Map missing = new HashMap();
+        for (int i = 0; i < files.size(); i++) {
+            final SrcFile file = (SrcFile) files.get(i);
+            if ((contentStore == null)
+                    || !contentStore.contains(file.getMd5Hash(), file.getSize())) {
+                missing.put(Pack.getMemberName(file), file);
+            }
+        }
+
+        int count = total;
+        for (int i = 0; i < packs.size(); i++) {
+            if (cancelable.isCanceled()) {
+                break;
+            }
+            final Pack pack = (Pack) packs.get(i);
+            final List members = pack.select(missing);
+            if (members.size() >= config.getPackThreshold()) {
+                count = copyPack(destDir, listener, pack, members, packedFiles, count);
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Loads a pack and extracts some of it's members. Members that cannot be
+     * extracted or have a wrong hash are not added to the set of extracted
+     * files and will be loaded as single files.
+     * 
+     * @param destDir
+     *            Target directory.
+     * @param listener
+     *            Progress listener or <code>null</code>.
+     * @param pack
+     *            Pack to load.
+     * @param members
+     *            List of <code>SrcFile</code> objects to extract.
+     * @param packedFiles
+     *            Set to add the successfully extracted source files to.
+     * @param total
+     *            Number of files already processed.
+     * 
+     * @return Number of files processed including the extracted ones.
+     */
+    private int copyPack(final File destDir, final FileCopyProgressListener listener,
+            final Pack pack, final List members, final Set packedFiles, final int total) {
+
+        int count = total;
+        File packFile = null;
+        try {
+            packFile = File.createTempFile("kickstart4j-pack-", ".zip");
+            new ResumableDownload(pack.getSrcFileURL(), packFile, null, config
+                    .getHashAlgorithm()).execute(listener, count + 1, pack.getSizeAsInt());
+            final ZipFile zipFile = new ZipFile(packFile);
+            try {
+                for (int i = 0; i < members.size(); i++) {
+                    final SrcFile file = (SrcFile) members.get(i);
+                    final ZipEntry entry = zipFile.getEntry(Pack.getMemberName(file));
+                    if ((entry != null) && extract(zipFile, entry, file, destDir)) {
+                        packedFiles.add(file);
+                        count = count + 1;
+                        if (listener != null) {
+                            listener.updateFile(pack.getSrcFileUrl(), file.getDestFile(destDir)
+                                    .toString(), count, 0);
+                        }
+                    }
+                }
+            } finally {
+                zipFile.close();
+            }
+            if (LOG.isInfoEnabled()) {
+                LOG.info("PACK: " + pack.getSrcFileUrl() + " (" + (count - total) + " of "
+                        + members.size() + " files extracted)");
+            }
+        } catch (final IOException ex) {
+            LOG.warn("Error loading pack - Loading single files instead: " + pack, ex);
+        } finally {
+            if (packFile != null) {
+                packFile.delete();
+            }
+        }
+        return count;
+
+    }
+
+    private boolean extract(final ZipFile zipFile, final ZipEntry entry, final SrcFile file,
+            final File destDir) throws IOException {
+
+        // The existing file may be a link into the shared store - Never write into it
+        final File destFile = file.getDestFile(destDir);
+        final File tmpFile = new File(destFile.getParentFile(), destFile.getName() + ".unpacked");
+        final String hash;
+        try {
+            final MessageDigest digest = HashAlgorithm.createDigest(config.getHashAlgorithm());
+            final InputStream in = zipFile.getInputStream(entry);
+            try {
+                final OutputStream out = new DigestOutputStream(FileUtils
+                        .openOutputStream(tmpFile), digest);
+                try {
+                    IOUtils.copy(in, out);
+                } finally {
+                    out.close();
+                }
+            } finally {
+                in.close();
+            }
+            hash = Utils.encodeHex(digest.digest());
+            if (!hash.equals(file.getMd5Hash())) {
+                LOG.error("Hash of packed file (" + hash
+                        + ") is different from configuration hash (" + file.getMd5Hash()
+                        + ")! [" + file + "]");
+                return false;
+            }
+            if (destFile.exists() && !destFile.delete()) {
+                throw new IOException("Cannot delete file: " + destFile);
+            }
+            if (!tmpFile.renameTo(destFile)) {
+                throw new IOException("Cannot rename file: " + tmpFile + " => " + destFile);
+            }
+        } finally {
+            tmpFile.delete();
+        }
+        if (hashIndex != null) {
+            hashIndex.put(file.getRelativeSlashPathAndFilename(), destFile, hash);
+        }
+        if (contentStore != null) {
+            contentStore.add(hash, destFile);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("PACKED: " + file + " => " + destFile);
+        }
+        return true;
+
+    }
+
+    private int copyFiles(final File destDir, final Cancelable cancelable,
+            final FileCopyProgressListener listener, final List files, final int total,
+            final String type) {
+
+        if ((config.getDownloadThreads() > 1) && (files.size() > 1)) {
+            return copyFilesParallel(destDir, cancelable, listener, files, total, type);
+        }
+
+        int count = total;
+
+        for (int i = 0; i < files.size(); i++) {
+            if (cancelable.isCanceled()) {
+                break;
+            }
+            count = count + 1;
+            final SrcFile file = (SrcFile) files.get(i);
+            copyFile(destDir, listener, file, count, type);
+        }
+
+        return count;
+
+    }
+
+    private int copyFilesParallel(final File destDir, final Cancelable cancelable,
+            final FileCopyProgressListener listener, final List files, final int total,
+            final String type) {
+
+        // The monitor shows one file at a time - With concurrent transfers
+        // it is only informed when a file is complete
+        final int[] count = new int[] { total };
+        final ParallelExecutor executor = new ParallelExecutor("Kickstart4J-Download", config
+                .getDownloadThreads());
+        executor.execute(files, new ParallelExecutor.Task() {
+            public void execute(final Object item, final int index) {
+                final SrcFile file = (SrcFile) item;
+                copyFile(destDir, null, file, total + index + 1, type);
+                synchronized (count) {
+                    count[0] = count[0] + 1;
+                    if (listener != null) {
+                        listener.updateFile(file.getSrcFileUrl(), file.getDestFile(destDir)
+                                .toString(), count[0], 0);
+                    }
+                }
+            }
+        }, cancelable);
+
+        synchronized (count) {
+            return count[0];
+        }
+
+    }
+
+    private void copyFile(final File destDir, final FileCopyProgressListener listener,
+            final SrcFile file, final int fileNo, final String type) {
+
+        final URL srcFileUrl = file.getSrcFileURL();
+        final File destFile = file.getDestFile(destDir);
+        if ((contentStore != null)
+                && contentStore.materialize(file.getMd5Hash(), file.getSize(), destFile)) {
+            if (hashIndex != null) {
+                hashIndex.put(file.getRelativeSlashPathAndFilename(), destFile, file
+                        .getMd5Hash());
+            }
+            if (LOG.isInfoEnabled()) {
+                LOG.info(type + " (STORE): " + srcFileUrl + " => " + destFile);
+            }
+            return;
+        }
+        if (applyPatch(file, destFile)) {
+            if (contentStore != null) {
+                contentStore.add(file.getMd5Hash(), destFile);
+            }
+            if (LOG.isInfoEnabled()) {
+                LOG.info(type + " (PATCHED): " + srcFileUrl + " => " + destFile);
+            }
+            return;
+        }
+        if (applyBlocks(file, destFile)) {
+            if (contentStore != null) {
+                contentStore.add(file.getMd5Hash(), destFile);
+            }
+            if (LOG.isInfoEnabled()) {
+                LOG.info(type + " (SYNCED): " + srcFileUrl + " => " + destFile);
+            }
+            return;
+        }
+        final ResumableDownload download;
+        if (file.isUnzip() && config.isStreamingUnzip()) {
+            download = file.createDownload(destFile, destDir, config.getHashAlgorithm());
+        } else {
+            download = file.createDownload(destFile, null, config.getHashAlgorithm());
+        }
+        final String hash;
+        try {
+            hash = download.execute(listener, fileNo, file.getSizeAsInt());
+        } catch (final FileNotFoundException ex) {
+            throw new RuntimeException("Source file not found!", ex);
+        }
+        if (download.isUnzipped()) {
+            unzippedFiles.add(file);
+        }
+        if (hash.equals(file.getMd5Hash())) {
+            if (hashIndex != null) {
+                hashIndex.put(file.getRelativeSlashPathAndFilename(), destFile, hash);
+            }
+            if (contentStore != null) {
+                contentStore.add(hash, destFile);
+            }
+        } else {
+            LOG.error("Hash local file (" + hash + ") is different from configuration hash ("
+                    + file.getMd5Hash() + ")! [" + srcFileUrl + "]");
+        }
+        if (LOG.isInfoEnabled()) {
+            LOG.info(type + ": " + srcFileUrl + " => " + destFile);
+        }
+
+    }
+
+    /**
+     * Tries to update an existing local file with a patch.
+     * 
+     * @param file
+     *            Source file.
+     * @param destFile
+     *            Target file.
+     * 
+     * @return If a matching patch was found and applied <code>true</code>
+     *         else <code>false</code>.
+     */
+    private boolean applyPatch(final SrcFile file, final File destFile) {
+        // The existing file is always in the installation directory
+        final File localFile;
+        if (stagedUpdate == null) {
+            localFile = destFile;
+        } else {
+            localFile = file.getDestFile(stagedUpdate.getDestDir());
+        }
+        if ((file.getPatches().size() == 0) || !localFile.exists()) {
+            return false;
+        }
+        final String key = file.getRelativeSlashPathAndFilename();
+        final String localHash;
+        if (hashIndex == null) {
+            localHash = HashAlgorithm.createHash(localFile, config.getHashAlgorithm());
+        } else {
+            localHash = hashIndex.getHash(key, localFile);
+        }
+        final SrcFilePatch patch = file.findPatch(localHash);
+        if ((patch == null)
+                || !patch.applyTo(localFile, destFile, file.getMd5Hash(), config
+                        .getHashAlgorithm())) {
+            return false;
+        }
+        if (hashIndex != null) {
+            hashIndex.put(key, destFile, file.getMd5Hash());
+        }
+        return true;
+    }
+
+    /**
+     * Tries to update an existing local file by loading only the blocks that
+     * are not already contained in it.
+     * 
+     * @param file
+     *            Source file.
+     * @param destFile
+     *            Target file.
+     * 
+     * @return If the file has a block index and was updated <code>true</code>
+     *         else <code>false</code>.
+     */
+    private boolean applyBlocks(final SrcFile file, final File destFile) {
+        // The existing file is always in the installation directory
+        final File localFile;
+        if (stagedUpdate == null) {
+            localFile = destFile;
+        } else {
+            localFile = file.getDestFile(stagedUpdate.getDestDir());
+        }
+        if ((file.getBlocksUrl() == null) || !localFile.isFile()) {
+            return false;
+        }
+        if (!BlockIndex.syncTo(file.getBlocksUrl(), file.getSrcFileURL(), localFile, destFile,
+                file.getMd5Hash(), config.getHashAlgorithm())) {
+            return false;
+        }
+        if (hashIndex != null) {
+            hashIndex.put(file.getRelativeSlashPathAndFilename(), destFile, file.getMd5Hash());
+        }
+        return true;
+    }
+
+    private void logStart(final File dir, final String commandLine) {
+        try {
+            final File file = new File(dir, "start.log");
+            final FileWriter writer = new FileWriter(file);
+            try {
+                writer.write(commandLine);
+            } finally {
+                writer.close();
+            }
+        } catch (final IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private File getDestDir() throws CanceledException {
+        final File installationIncompleteFile;
+        final File dir;
+        final File idFile = getIdFile(config);
+        if (idFile.exists()) {
+            // Update
+            final Properties props = Utils4J.loadProperties(idFile);
+            final String dirStr = props.getProperty(PROGRAM_DIRECTORY_KEY);
+            if (dirStr == null) {
+                throw new IllegalStateException("The property '" + PROGRAM_DIRECTORY_KEY
+                        + "' was not found inside '" + idFile + "'!");
+            }
+            dir = new File(dirStr);
+            Utils4J.checkValidDir(dir);
+            installationIncompleteFile = new File(dir, INCOMPLETE_FILE);
+        } else {
+            // First installation or file removed
+            final String dirStr;
+            final Properties props = new Properties();
+            if (config.isSilentInstall()) {
+                dirStr = config.getDestDir().toString();
+            } else {
+                // Ask User for destination directory
+                dirStr = DirectorySelector.selectDirectory(
+                        config.getMessages().getSelectDestinationDirectory(),
+                        config.getDestDir().toString()).getDirectory();
+            }
+            props.setProperty(PROGRAM_DIRECTORY_KEY, dirStr);
+            Utils4J.saveProperties(idFile, props,
+                    "# --- DO NOT EDIT OR DELETE --- Generated by Kickstart4J ---");
+            dir = new File(dirStr);
+            installationIncompleteFile = new File(dir, INCOMPLETE_FILE);
+            if (!dir.exists()) {
+                try {
+                    dir.mkdirs();
+                    installationIncompleteFile.createNewFile();
+                } catch (final IOException ex) {
+                    throw new RuntimeException("Cannot create file '" + installationIncompleteFile
+                            + "'!");
+                }
+            }
+        }
+        config.setFirstInstallation(installationIncompleteFile.exists());
+        return dir;
+    }
+
+    private static boolean isAnswerYes(final String message) {
+        final int result = ThreadSafeJOptionPane.showConfirmDialog(null, message, "TITLE",
+                JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        return result == JOptionPane.YES_OPTION;
+    }
+
+    /**
+     * Shows a message and exits the program with <code>System.exit(..)</code>.
+     * 
+     * @param message
+     *            Message to display.
+     * @param exitCode
+     *            System exit code.
+     */
+    public static void showMessageAndExit(final String message, final int exitCode) {
+        ThreadSafeJOptionPane.showMessageDialog(null, message, "Hint",
+                JOptionPane.INFORMATION_MESSAGE);
+        System.exit(exitCode);
+    }
+
+    /**
+     * Shows an error message and exits the program with
+     * <code>System.exit(..)</code>.
+     * 
+     * @param parser
+     *            Parser for usage display.
+     * @param ex
+     *            Exception to display.
+     * @param exitCode
+     *            System exit code.
+     */
+    public static void displayCmdLineExceptionAndExit(final CmdLineParser parser,
+            final CmdLineException ex, final int exitCode) {
+        final StringBuffer sb = new StringBuffer();
+        sb.append(ex.getMessage());
+        sb.append("\n");
+        sb.append("\n");
+        sb.append("java Kickstart4J [options]");
+        sb.append("\n");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parser.printUsage(out);
+        sb.append(out.toString());
+        sb.append("\n");
+        System.out.println(sb);
+        ErrorDialog.showAndExit(sb.toString(), exitCode);
+    }
+
+    /**
+     * Shows an error message and exits the program with
+     * <code>System.exit(..)</code>.
+     * 
+     * @param ex
+     *            Exception to display.
+     * @param exitCode
+     *            System exit code.
+     */
+    public static void displayExceptionAndExit(final Exception ex, final int exitCode) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ex.printStackTrace(new PrintStream(out));
+        final String msg = out.toString();
+        System.err.println(msg);
+        ErrorDialog.showAndExit(msg, exitCode);
+    }
+
+    /**
+     * Empty implementation.
+     */
+    private static final class DefaultListener implements Kickstart4JListener {
+
+        /**
+         * {@inheritDoc}
+         */
+        public final void initComplete() {
+            // Do nothing
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void startupComplete() {
+            // Do nothing
+        }
+
+    }
+
+    /**
+     * Main method used to start the installer/updater. If you want to start it
+     * from another Java application you can simply use
+     * <code>new Kickstart4J(kickstart4JConfig).execute()</code> instead of
+     * calling this method.
+     * 
+     * @param args
+     *            Command line arguments.
+     */
+    public static void main(final String[] args) {
+
+        final Logger log = Logger.getLogger(Kickstart4J.class);
+
+        final Config config = new Config();
+        try {
+
+            // Parse command line
+            final CmdLineParser cmdLineParser = new CmdLineParser(Locale.getDefault());
+            try {
+                cmdLineParser.parse(args);
+                if (log.isDebugEnabled()) {
+                    log.info("Command line arguments: " + cmdLineParser);
+                }
+
+                // Set user defined options from command line
+                cmdLineParser.copyToConfig(config);
+
+                // Load the configuration and start update
+                try {
+                    if (config.isUseManifest()) {
+                        ConfigManifest.parse(config, config.getConfigFileURL());
+                    } else {
+                        ConfigParser.parse(config, config.getConfigFileURL());
+                    }
+                    if (log.isInfoEnabled()) {
+                        log.info("Configuration: " + config);
+                    }
+
+                    Utils4Swing.initLookAndFeel(config.getLookAndFeelClassName());
+                    (new Kickstart4J(config)).execute();
+
+                } catch (final CanceledException ex) {
+                    log.info("Operation canceled by user!");
+                    showMessageAndExit(config.getMessages().getOperationCanceled(), 1);
+                } catch (final InvalidConfigException ex) {
+                    log.error(PROGRAM_TERMINATED_WITH_ERROR, ex);
+                    displayExceptionAndExit(ex, 1);
+                }
+
+            } catch (final CmdLineException ex) {
+                log.error(PROGRAM_TERMINATED_WITH_ERROR, ex);
+                displayCmdLineExceptionAndExit(cmdLineParser, ex, 1);
+            }
+
+        } catch (final RuntimeException ex) {
+            log.error(PROGRAM_TERMINATED_WITH_ERROR, ex);
+            displayExceptionAndExit(ex, 1);
+        }
+
+    }
+
+}
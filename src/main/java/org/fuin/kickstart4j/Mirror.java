@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import org.fuin.utils4j.ToDebugStringCapable;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Alternative location for all source files below a base URL. A source file
+ * URL that starts with the base URL can also be loaded from the mirror URL
+ * plus the rest of the source file URL. Several mirrors may share the same
+ * base URL. This class is immutable.
+ */
+public final class Mirror implements ToDebugStringCapable {
+
+    /** URL prefix of the original location. */
+    private final String baseUrl;
+
+    /** URL prefix of the mirror. */
+    private final String url;
+
+    /**
+     * Constructor with all arguments.
+     * 
+     * @param baseUrl
+     *            URL prefix of the original location - Cannot be
+     *            <code>null</code>.
+     * @param url
+     *            URL prefix of the mirror - Cannot be <code>null</code>.
+     */
+    public Mirror(final String baseUrl, final String url) {
+        super();
+        Utils4J.checkNotNull("baseUrl", baseUrl);
+        Utils4J.checkNotNull("url", url);
+        this.baseUrl = baseUrl;
+        this.url = url;
+    }
+
+    /**
+     * Returns the URL prefix of the original location.
+     * 
+     * @return Base URL.
+     */
+    public final String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Returns the URL prefix of the mirror.
+     * 
+     * @return Mirror URL.
+     */
+    public final String getUrl() {
+        return url;
+    }
+
+    /**
+     * Creates an XML representation of the object.
+     * 
+     * @return XML for element "mirror"
+     */
+    public final String toXML() {
+        return "<mirror baseUrl=\"" + Utils.escapeXml(baseUrl) + "\" url=\""
+                + Utils.escapeXml(url) + "\"/>";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + baseUrl.hashCode();
+        result = prime * result + url.hashCode();
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final Mirror other = (Mirror) obj;
+        return baseUrl.equals(other.baseUrl) && url.equals(other.url);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final String toDebugString() {
+        return "baseUrl=" + baseUrl + ", url=" + url;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final String toString() {
+        return url;
+    }
+
+}
@@ -0,0 +1,436 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Transport that loads files below a base URL from the original location or
+ * one of its mirrors. Each request goes to the site with the lowest expected
+ * cost: The measured latency plus the time for transferring a reference
+ * amount of data with the measured throughput, multiplied by the number of
+ * transfers currently running on the site. This spreads concurrent transfers
+ * across the sites and prefers fast sites. A site that fails (also while
+ * reading the response) is excluded for some time and the request is repeated
+ * with the next site. A file that is missing on one site only makes the
+ * request go to the next site - The site itself is not excluded. URLs that don't
+ * start with a known base URL are passed unchanged to the underlying
+ * transport.
+ */
+public final class MirrorTransport implements Transport {
+
+    private static final Logger LOG = Logger.getLogger(MirrorTransport.class);
+
+    /** Data size used to compare latency and throughput. */
+    private static final long REFERENCE_BYTES = 256 * 1024;
+
+    /** Minimum size of a transfer used for measuring the throughput. */
+    private static final long MIN_MEASURE_BYTES = 64 * 1024;
+
+    /** Time a failed site is excluded (multiplied by the number of failures). */
+    private static final long FAILURE_PAUSE_MILLIS = 30 * 1000;
+
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    /** Transport used for the requests. */
+    private final Transport delegate;
+
+    /** List of site groups - Type is {@link Site}[]. */
+    private final List groups = new ArrayList();
+
+    /**
+     * Constructor with underlying transport and mirrors.
+     * 
+     * @param delegate
+     *            Transport used for the requests - Cannot be
+     *            <code>null</code>.
+     * @param mirrors
+     *            List of {@link Mirror} objects - Cannot be <code>null</code>.
+     */
+    public MirrorTransport(final Transport delegate, final List mirrors) {
+        super();
+        Utils4J.checkNotNull("delegate", delegate);
+        Utils4J.checkNotNull("mirrors", mirrors);
+        this.delegate = delegate;
+        final List baseUrls = new ArrayList();
+        for (int i = 0; i < mirrors.size(); i++) {
+            final Mirror mirror = (Mirror) mirrors.get(i);
+            if (!baseUrls.contains(mirror.getBaseUrl())) {
+                baseUrls.add(mirror.getBaseUrl());
+            }
+        }
+        // Longest base URL first
+        Collections.sort(baseUrls, new Comparator() {
+            public int compare(final Object o1, final Object o2) {
+                return ((String) o2).length() - ((String) o1).length();
+            }
+        });
+        for (int i = 0; i < baseUrls.size(); i++) {
+            final String baseUrl = (String) baseUrls.get(i);
+            final List sites = new ArrayList();
+            sites.add(new Site(baseUrl, baseUrl));
+            for (int j = 0; j < mirrors.size(); j++) {
+                final Mirror mirror = (Mirror) mirrors.get(j);
+                if (mirror.getBaseUrl().equals(baseUrl)) {
+                    sites.add(new Site(baseUrl, mirror.getUrl()));
+                }
+            }
+            groups.add(sites.toArray(new Site[sites.size()]));
+        }
+    }
+
+    /**
+     * Measures the latency of all sites by requesting the base URL. The
+     * response status is not relevant. Sites that cannot be reached are
+     * excluded for some time.
+     */
+    public final void probe() {
+        for (int i = 0; i < groups.size(); i++) {
+            final Site[] sites = (Site[]) groups.get(i);
+            for (int j = 0; j < sites.length; j++) {
+                final Site site = sites[j];
+                final long start = System.currentTimeMillis();
+                try {
+                    final Response response = delegate.open(new URL(site.getUrl()), 0, -1);
+                    try {
+                        response.isPartial();
+                    } finally {
+                        response.close();
+                    }
+                    site.latency(System.currentTimeMillis() - start);
+                } catch (final IOException ex) {
+                    site.failed();
+                    LOG.warn("Mirror not available: " + site.getUrl() + " [" + ex + "]");
+                }
+            }
+        }
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Mirrors: " + this);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final Response open(final URL url, final long offset, final long end)
+            throws IOException {
+        final String urlStr = url.toExternalForm();
+        final Site[] sites = findGroup(urlStr);
+        if (sites == null) {
+            return delegate.open(url, offset, end);
+        }
+        final Site[] ordered = order(sites);
+        IOException lastException = null;
+        for (int i = 0; i < ordered.length; i++) {
+            final Site site = ordered[i];
+            final URL siteUrl = site.createUrl(urlStr);
+            site.begin();
+            final long start = System.currentTimeMillis();
+            Response response = null;
+            try {
+                response = delegate.open(siteUrl, offset, end);
+                if ((offset > 0) && response.isRangeNotSatisfiable()) {
+                    // Same on every site - Caller decides
+                    return new SiteResponse(site, response, null);
+                }
+                final InputStream in = response.getInputStream();
+                site.latency(System.currentTimeMillis() - start);
+                return new SiteResponse(site, response, in);
+            } catch (final FileNotFoundException ex) {
+                // Missing on this site only (for example not yet mirrored)
+                if (response != null) {
+                    response.close();
+                }
+                site.end();
+                lastException = ex;
+                if (LOG.isInfoEnabled() && (i < ordered.length - 1)) {
+                    LOG.info("Not found on mirror: " + siteUrl + " - Trying next");
+                }
+            } catch (final IOException ex) {
+                if (response != null) {
+                    response.close();
+                }
+                site.end();
+                site.failed();
+                lastException = ex;
+                if (LOG.isInfoEnabled() && (i < ordered.length - 1)) {
+                    LOG.info("Mirror failed: " + siteUrl + " [" + ex + "] - Trying next");
+                }
+            }
+        }
+        throw lastException;
+    }
+
+    private Site[] findGroup(final String url) {
+        for (int i = 0; i < groups.size(); i++) {
+            final Site[] sites = (Site[]) groups.get(i);
+            if (url.startsWith(sites[0].getBaseUrl())) {
+                return sites;
+            }
+        }
+        return null;
+    }
+
+    private static Site[] order(final Site[] sites) {
+        final long now = System.currentTimeMillis();
+        final Site[] ordered = new Site[sites.length];
+        final long[] costs = new long[sites.length];
+        for (int i = 0; i < sites.length; i++) {
+            final Site site = sites[i];
+            final long cost = site.getCost(now);
+            // Insertion sort - Lists are short and the original order is kept
+            // for equal costs
+            int j = i;
+            while ((j > 0) && (costs[j - 1] > cost)) {
+                ordered[j] = ordered[j - 1];
+                costs[j] = costs[j - 1];
+                j--;
+            }
+            ordered[j] = site;
+            costs[j] = cost;
+        }
+        return ordered;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final TransportStatistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final String toString() {
+        final StringBuffer sb = new StringBuffer();
+        for (int i = 0; i < groups.size(); i++) {
+            final Site[] sites = (Site[]) groups.get(i);
+            for (int j = 0; j < sites.length; j++) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(sites[j]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Original location or mirror with measured values.
+     */
+    private static final class Site {
+
+        private final String baseUrl;
+
+        private final String url;
+
+        /** Latency in milliseconds or -1 if unknown. */
+        private long latencyMillis = -1;
+
+        /** Throughput in bytes per second or -1 if unknown. */
+        private long bytesPerSecond = -1;
+
+        private int active = 0;
+
+        private int failures = 0;
+
+        private long excludedUntil = 0;
+
+        public Site(final String baseUrl, final String url) {
+            super();
+            this.baseUrl = baseUrl;
+            this.url = url;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public URL createUrl(final String originalUrl) throws IOException {
+            return new URL(url + originalUrl.substring(baseUrl.length()));
+        }
+
+        public synchronized void begin() {
+            active++;
+        }
+
+        public synchronized void end() {
+            active--;
+        }
+
+        public synchronized void latency(final long millis) {
+            latencyMillis = average(latencyMillis, millis);
+            failures = 0;
+        }
+
+        public synchronized void transferred(final long bytes, final long millis) {
+            if ((bytes >= MIN_MEASURE_BYTES) && (millis > 0)) {
+                bytesPerSecond = average(bytesPerSecond, bytes * MILLIS_PER_SECOND / millis);
+            }
+        }
+
+        public synchronized void failed() {
+            failures++;
+            excludedUntil = System.currentTimeMillis() + failures * FAILURE_PAUSE_MILLIS;
+        }
+
+        public synchronized long getCost(final long now) {
+            if (now < excludedUntil) {
+                return Long.MAX_VALUE;
+            }
+            long cost = 0;
+            if (latencyMillis > 0) {
+                cost = latencyMillis;
+            }
+            if (bytesPerSecond > 0) {
+                cost = cost + REFERENCE_BYTES * MILLIS_PER_SECOND / bytesPerSecond;
+            }
+            return cost * (active + 1);
+        }
+
+        private static long average(final long current, final long value) {
+            if (current < 0) {
+                return value;
+            }
+            return (current * 3 + value) / 4;
+        }
+
+        public synchronized String toString() {
+            return url + " [latency=" + latencyMillis + "ms, throughput=" + bytesPerSecond
+                    + "B/s, failures=" + failures + "]";
+        }
+
+    }
+
+    /**
+     * Response that reports the transfer to the site when closed.
+     */
+    private static final class SiteResponse implements Response {
+
+        private final Site site;
+
+        private final Response response;
+
+        private final InputStream raw;
+
+        private InputStream in = null;
+
+        private final long start = System.currentTimeMillis();
+
+        private long bytes = 0;
+
+        private boolean closed = false;
+
+        public SiteResponse(final Site site, final Response response, final InputStream raw) {
+            super();
+            this.site = site;
+            this.response = response;
+            this.raw = raw;
+        }
+
+        private synchronized void count(final long count) {
+            bytes = bytes + count;
+        }
+
+        public boolean isPartial() throws IOException {
+            return response.isPartial();
+        }
+
+        public boolean isRangeNotSatisfiable() throws IOException {
+            return response.isRangeNotSatisfiable();
+        }
+
+        public synchronized InputStream getInputStream() throws IOException {
+            if (in == null) {
+                final InputStream stream;
+                if (raw == null) {
+                    stream = response.getInputStream();
+                } else {
+                    stream = raw;
+                }
+                in = new FilterInputStream(stream) {
+                    public int read() throws IOException {
+                        final int b;
+                        try {
+                            b = super.read();
+                        } catch (final IOException ex) {
+                            site.failed();
+                            throw ex;
+                        }
+                        if (b > -1) {
+                            count(1);
+                        }
+                        return b;
+                    }
+
+                    public int read(final byte[] buf, final int off, final int len)
+                            throws IOException {
+                        final int count;
+                        try {
+                            count = super.read(buf, off, len);
+                        } catch (final IOException ex) {
+                            site.failed();
+                            throw ex;
+                        }
+                        if (count > 0) {
+                            count(count);
+                        }
+                        return count;
+                    }
+
+                    public void close() throws IOException {
+                        SiteResponse.this.close();
+                    }
+                };
+            }
+            return in;
+        }
+
+        public void close() {
+            final long transferred;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                transferred = bytes;
+            }
+            response.close();
+            site.end();
+            site.transferred(transferred, System.currentTimeMillis() - start);
+        }
+
+    }
+
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.fuin.utils4j.ToDebugStringCapable;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * ZIP archive that contains several small source files. Loading one pack is
+ * faster than loading a lot of small files one by one. The entries of the
+ * archive are named like the members (relative path and filename). The
+ * extracted files are always verified with the hash of the source file. This
+ * class is immutable.
+ */
+public final class Pack implements ToDebugStringCapable {
+
+    /** URL where the pack is located. */
+    private final String srcFileUrl;
+
+    /** Size of the pack. */
+    private final long size;
+
+    /** Relative path and filename of the files in the pack. */
+    private final List members;
+
+    /**
+     * Constructor with all arguments.
+     * 
+     * @param srcFileUrl
+     *            URL where the pack is located - Cannot be <code>null</code>.
+     * @param size
+     *            Size of the pack.
+     * @param members
+     *            Names of the files in the pack (See
+     *            {@link #getMemberName(SrcFile)}) - Cannot be
+     *            <code>null</code>.
+     */
+    public Pack(final String srcFileUrl, final long size, final List members) {
+        super();
+        Utils4J.checkNotNull("srcFileUrl", srcFileUrl);
+        Utils4J.checkNotNull("members", members);
+        this.srcFileUrl = srcFileUrl;
+        this.size = size;
+        this.members = Collections.unmodifiableList(new ArrayList(members));
+    }
+
+    /**
+     * Returns the URL where the pack is located.
+     * 
+     * @return URL (as String).
+     */
+    public final String getSrcFileUrl() {
+        return srcFileUrl;
+    }
+
+    /**
+     * Returns the URL where the pack is located. A
+     * <code>MalformedURLException</code> is wrapped into a
+     * <code>RuntimeException</code>.
+     * 
+     * @return URL.
+     */
+    public final URL getSrcFileURL() {
+        try {
+            return new URL(srcFileUrl);
+        } catch (final MalformedURLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Returns the size of the pack.
+     * 
+     * @return Pack size.
+     */
+    public final long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the size as integer value. If the size is greater than
+     * <code>Integer.MAX_VALUE</code> is returned.
+     * 
+     * @return Size.
+     */
+    public final int getSizeAsInt() {
+        if (size > Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) size;
+    }
+
+    /**
+     * Returns the names of the files in the pack.
+     * 
+     * @return Unmodifiable list of <code>String</code> objects.
+     */
+    public final List getMembers() {
+        return members;
+    }
+
+    /**
+     * Returns the source files that are members of the pack.
+     * 
+     * @param srcFiles
+     *            Key = Member name, Value = {@link SrcFile}.
+     * 
+     * @return List of <code>SrcFile</code> objects.
+     */
+    public final List select(final Map srcFiles) {
+        final List selected = new ArrayList();
+        for (int i = 0; i < members.size(); i++) {
+            final SrcFile srcFile = (SrcFile) srcFiles.get(members.get(i));
+            if (srcFile != null) {
+                selected.add(srcFile);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Creates an XML representation of the object.
+     * 
+     * @return XML for element "pack".
+     */
+    public final String toXML() {
+        final StringBuffer sb = new StringBuffer();
+        sb.append("<pack srcFileUrl=\"" + Utils.escapeXml(srcFileUrl) + "\" size=\"" + size
+                + "\">");
+        for (int i = 0; i < members.size(); i++) {
+            sb.append("<member name=\"" + Utils.escapeXml((String) members.get(i)) + "\"/>");
+        }
+        sb.append("</pack>");
+        return sb.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final int hashCode() {
+        return srcFileUrl.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final Pack other = (Pack) obj;
+        return srcFileUrl.equals(other.srcFileUrl) && (size == other.size)
+                && members.equals(other.members);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final String toDebugString() {
+        return "srcFileUrl=" + srcFileUrl + ", size=" + size + ", members.size()="
+                + members.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final String toString() {
+        return srcFileUrl;
+    }
+
+    /**
+     * Returns the name of a source file inside a pack.
+     * 
+     * @param srcFile
+     *            Source file.
+     * 
+     * @return Relative path and filename without a leading slash.
+     */
+    public static String getMemberName(final SrcFile srcFile) {
+        final String path = srcFile.getSlashPath();
+        if (path.length() == 0) {
+            return srcFile.getFilename();
+        }
+        return path + "/" + srcFile.getFilename();
+    }
+
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fuin.utils4j.Cancelable;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Processes a list of items with a fixed number of worker threads. The
+ * <code>execute(..)</code> method blocks until all items are processed, the
+ * operation was canceled or one of the tasks failed. The first exception
+ * thrown by a task is re-thrown in the calling thread.
+ */
+public final class ParallelExecutor {
+
+    /** Prefix for the names of the worker threads. */
+    private final String name;
+
+    /** Maximum number of worker threads. */
+    private final int maxThreads;
+
+    /** Lock for the shared state below. */
+    private final Object lock = new Object();
+
+    /** Index of the next item to process. */
+    private int nextIndex;
+
+    /** First exception thrown by a task or <code>null</code>. */
+    private Throwable error;
+
+    /**
+     * Constructor with name and number of threads.
+     *
+     * @param name
+     *            Prefix for the names of the worker threads - Cannot be
+     *            <code>null</code>.
+     * @param maxThreads
+     *            Maximum number of worker threads - Values less than one are
+     *            treated as one.
+     */
+    public ParallelExecutor(final String name, final int maxThreads) {
+        super();
+        Utils4J.checkNotNull("name", name);
+        this.name = name;
+        if (maxThreads < 1) {
+            this.maxThreads = 1;
+        } else {
+            this.maxThreads = maxThreads;
+        }
+    }
+
+    /**
+     * Returns the maximum number of worker threads.
+     *
+     * @return Number of threads (at least one).
+     */
+    public final int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Processes all items in the list. If only one thread is configured (or
+     * there is only one item) the items are processed in the calling thread.
+     *
+     * @param items
+     *            Items to process - Cannot be <code>null</code>.
+     * @param task
+     *            Task to execute for every item - Cannot be <code>null</code>.
+     * @param cancelable
+     *            Signals if the processing should be canceled - Can be
+     *            <code>null</code> if no cancel option is required.
+     */
+    public final void execute(final List items, final Task task, final Cancelable cancelable) {
+
+        Utils4J.checkNotNull("items", items);
+        Utils4J.checkNotNull("task", task);
+
+        final int threadCount = Math.min(maxThreads, items.size());
+        if (threadCount <= 1) {
+            for (int i = 0; i < items.size(); i++) {
+                if ((cancelable != null) && cancelable.isCanceled()) {
+                    break;
+                }
+                task.execute(items.get(i), i);
+            }
+            return;
+        }
+
+        synchronized (lock) {
+            nextIndex = 0;
+            error = null;
+        }
+
+        final List threads = new ArrayList();
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(new Worker(items, task, cancelable), name + "-"
+                    + (i + 1));
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        boolean interrupted = false;
+        for (int i = 0; i < threads.size(); i++) {
+            final Thread thread = (Thread) threads.get(i);
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (final InterruptedException ex) {
+                    interrupted = true;
+                    synchronized (lock) {
+                        // Prevent the workers from starting new items
+                        nextIndex = items.size();
+                    }
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        final Throwable t;
+        synchronized (lock) {
+            t = error;
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t != null) {
+            throw new RuntimeException(t);
+        }
+
+    }
+
+    /**
+     * Returns the index of the next item to process or <code>-1</code> if
+     * there is nothing more to do.
+     *
+     * @param size
+     *            Number of items.
+     * @param cancelable
+     *            Signals cancellation or <code>null</code>.
+     *
+     * @return Index or <code>-1</code>.
+     */
+    private int next(final int size, final Cancelable cancelable) {
+        synchronized (lock) {
+            if ((error != null) || (nextIndex >= size)
+                    || ((cancelable != null) && cancelable.isCanceled())) {
+                return -1;
+            }
+            final int index = nextIndex;
+            nextIndex++;
+            return index;
+        }
+    }
+
+    /**
+     * Stores the first exception thrown by a task.
+     *
+     * @param t
+     *            Exception.
+     */
+    private void failed(final Throwable t) {
+        synchronized (lock) {
+            if (error == null) {
+                error = t;
+            }
+        }
+    }
+
+    /**
+     * Takes items from the list until nothing is left.
+     */
+    private final class Worker implements Runnable {
+
+        private final List items;
+
+        private final Task task;
+
+        private final Cancelable cancelable;
+
+        public Worker(final List items, final Task task, final Cancelable cancelable) {
+            super();
+            this.items = items;
+            this.task = task;
+            this.cancelable = cancelable;
+        }
+
+        public final void run() {
+            try {
+                int index;
+                while ((index = next(items.size(), cancelable)) > -1) {
+                    task.execute(items.get(index), index);
+                }
+            } catch (final RuntimeException ex) {
+                failed(ex);
+            } catch (final Error err) {
+                failed(err);
+            }
+        }
+
+    }
+
+    /**
+     * Task executed for every item.
+     */
+    public interface Task {
+
+        /**
+         * Processes a single item. This method may be called concurrently by
+         * several threads.
+         *
+         * @param item
+         *            Item to process.
+         * @param index
+         *            Index of the item inside the list.
+         */
+        public void execute(Object item, int index);
+
+    }
+
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Cancelable;
+import org.fuin.utils4j.Utils4J;
+import org.fuin.utils4swing.progress.FileCopyProgressListener;
+
+/**
+ * Extracts the entries of a local ZIP archive with several threads. The
+ * entries are taken from the central directory and every worker thread reads
+ * the archive with it's own <code>ZipFile</code> instance. Larger entries are
+ * extracted first to keep all threads busy until the end.
+ */
+public final class ParallelUnzip {
+
+    private static final Logger LOG = Logger.getLogger(ParallelUnzip.class);
+
+    /** Archive to extract. */
+    private final File zipFile;
+
+    /** Target directory. */
+    private final File destDir;
+
+    /** Number of threads. */
+    private final int threads;
+
+    /** Open archives of the worker threads - Type is <code>ZipFile</code>. */
+    private final List openFiles = new ArrayList();
+
+    /** Archive of the current worker thread. */
+    private final ThreadLocal threadZipFile = new ThreadLocal();
+
+    /**
+     * Constructor with all arguments.
+     * 
+     * @param zipFile
+     *            Archive to extract - Cannot be <code>null</code>.
+     * @param destDir
+     *            Target directory - Cannot be <code>null</code>.
+     * @param threads
+     *            Number of threads.
+     */
+    public ParallelUnzip(final File zipFile, final File destDir, final int threads) {
+        super();
+        Utils4J.checkNotNull("zipFile", zipFile);
+        Utils4J.checkNotNull("destDir", destDir);
+        this.zipFile = zipFile;
+        this.destDir = destDir;
+        this.threads = threads;
+    }
+
+    /**
+     * Extracts the archive. The listener is informed after an entry is
+     * complete. <code>IOException</code>s are mapped into a
+     * <code>RuntimeException</code>.
+     * 
+     * @param listener
+     *            Listener to inform - Can be <code>null</code> if no progress
+     *            information is needed.
+     * @param zipFileNo
+     *            Number of the zip file.
+     * @param cancelable
+     *            Signals if the unzip should be canceled - Can be
+     *            <code>null</code> if no cancel option is required.
+     */
+    public final void execute(final FileCopyProgressListener listener, final int zipFileNo,
+            final Cancelable cancelable) {
+
+        try {
+            final List entries = readEntries();
+            final ParallelExecutor executor = new ParallelExecutor("Kickstart4J-Unzip", threads);
+            executor.execute(entries, new ParallelExecutor.Task() {
+                public void execute(final Object item, final int index) {
+                    final ZipEntry entry = (ZipEntry) item;
+                    final File destFile = extract(entry);
+                    if (listener != null) {
+                        synchronized (listener) {
+                            listener.updateFile(zipFile.toString(), destFile.toString(),
+                                    zipFileNo, 0);
+                        }
+                    }
+                }
+            }, cancelable);
+        } catch (final IOException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            closeAll();
+        }
+
+    }
+
+    /**
+     * Reads the central directory, creates all directories and returns the
+     * file entries sorted by size (largest first).
+     * 
+     * @return List of <code>ZipEntry</code> objects.
+     * 
+     * @throws IOException
+     *             Error reading the archive or creating a directory.
+     */
+    private List readEntries() throws IOException {
+        final List entries = new ArrayList();
+        final ZipFile zip = new ZipFile(zipFile);
+        try {
+            final Enumeration en = zip.entries();
+            while (en.hasMoreElements()) {
+                final ZipEntry entry = (ZipEntry) en.nextElement();
+                final File file = Utils.getInsideDir(destDir, entry.getName());
+                if (entry.isDirectory()) {
+                    if (!file.exists() && !file.mkdirs()) {
+                        throw new IOException("Cannot create directory: " + file);
+                    }
+                } else {
+                    entries.add(entry);
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        Collections.sort(entries, new Comparator() {
+            public int compare(final Object o1, final Object o2) {
+                final long size1 = ((ZipEntry) o1).getSize();
+                final long size2 = ((ZipEntry) o2).getSize();
+                if (size1 > size2) {
+                    return -1;
+                }
+                if (size1 < size2) {
+                    return 1;
+                }
+                return 0;
+            }
+        });
+        return entries;
+    }
+
+    private File extract(final ZipEntry entry) {
+        try {
+            final File destFile = Utils.getInsideDir(destDir, entry.getName());
+            if (LOG.isInfoEnabled()) {
+                LOG.info("UNZIP " + zipFile + " => " + destFile);
+            }
+            final InputStream in = getZipFile().getInputStream(entry);
+            try {
+                final OutputStream out = FileUtils.openOutputStream(destFile);
+                try {
+                    IOUtils.copy(in, out);
+                } finally {
+                    out.close();
+                }
+            } finally {
+                in.close();
+            }
+            return destFile;
+        } catch (final IOException ex) {
+            throw new RuntimeException("Error extracting '" + entry.getName() + "' from "
+                    + zipFile, ex);
+        }
+    }
+
+    private ZipFile getZipFile() throws IOException {
+        ZipFile zip = (ZipFile) threadZipFile.get();
+        if (zip == null) {
+            zip = new ZipFile(zipFile);
+            threadZipFile.set(zip);
+            synchronized (openFiles) {
+                openFiles.add(zip);
+            }
+        }
+        return zip;
+    }
+
+    private void closeAll() {
+        synchronized (openFiles) {
+            for (int i = 0; i < openFiles.size(); i++) {
+                final ZipFile zip = (ZipFile) openFiles.get(i);
+                try {
+                    zip.close();
+                } catch (final IOException ex) {
+                    LOG.warn("Cannot close " + zipFile, ex);
+                }
+            }
+            openFiles.clear();
+        }
+    }
+
+}
@@ -0,0 +1,458 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+import org.fuin.utils4swing.progress.FileCopyProgressInputStream;
+import org.fuin.utils4swing.progress.FileCopyProgressListener;
+
+/**
+ * Download of a single file that can be continued after an interruption. The
+ * data is written to a partial file (destination filename plus ".part") and a
+ * small state file (".part.state") records the source URL and the expected
+ * hash. If a matching partial file exists on the next run the transfer
+ * continues with a HTTP "Range" request. If the server ignores the range the
+ * file is transferred from the beginning. If the transfer fails it's continued
+ * at the current offset up to {@link #MAX_ATTEMPTS} times - A
+ * {@link MirrorTransport} selects another site for the next attempt. The
+ * partial file is renamed to the destination file after the transfer is
+ * complete. A GZIP compressed source is
+ * decompressed while loading - Such a transfer always starts from the
+ * beginning because an offset into the compressed data cannot be derived
+ * from the partial file.
+ */
+public final class ResumableDownload {
+
+    private static final Logger LOG = Logger.getLogger(ResumableDownload.class);
+
+    /** Extension of the partial file. */
+    public static final String PART_EXTENSION = ".part";
+
+    /** Extension of the state file. */
+    public static final String STATE_EXTENSION = ".part.state";
+
+    /** Maximum number of attempts to transfer the file. */
+    public static final int MAX_ATTEMPTS = 3;
+
+    private static final String KEY_URL = "url";
+
+    private static final String KEY_HASH = "hash";
+
+    private static final int GZIP_MAGIC_1 = 0x1F;
+
+    private static final int GZIP_MAGIC_2 = 0x8B;
+
+    /** URL of the source file. */
+    private final URL srcFileUrl;
+
+    /** Target file. */
+    private final File destFile;
+
+    /** Expected hash of the file or <code>null</code> if unknown. */
+    private final String expectedHash;
+
+    /** Partial file. */
+    private final File partFile;
+
+    /** State file. */
+    private final File stateFile;
+
+    /** Directory to extract the archive to while loading or <code>null</code>. */
+    private final File unzipDir;
+
+    /** The source is GZIP compressed. */
+    private final boolean gzip;
+
+    /** Name of the hash algorithm. */
+    private final String algorithm;
+
+    /** Signals if the archive was extracted while loading. */
+    private boolean unzipped = false;
+
+    /**
+     * Constructor with source, target and hash algorithm.
+     *
+     * @param srcFileUrl
+     *            URL of the source file - Cannot be <code>null</code>.
+     * @param destFile
+     *            Target file - Cannot be <code>null</code>.
+     * @param expectedHash
+     *            Expected hash of the file - If <code>null</code> a
+     *            partial file is only continued if it was loaded from the same
+     *            URL.
+     * @param algorithm
+     *            Name of the hash algorithm - Cannot be <code>null</code>.
+     */
+    public ResumableDownload(final URL srcFileUrl, final File destFile,
+            final String expectedHash, final String algorithm) {
+        this(srcFileUrl, destFile, expectedHash, null, false, algorithm);
+    }
+
+    /**
+     * Constructor with all arguments. The archive is still written to the
+     * destination file if it is extracted while loading. A resumed transfer is
+     * not extracted - Use {@link #isUnzipped()} to find out if the archive has
+     * to be decompressed after the transfer.
+     * 
+     * @param srcFileUrl
+     *            URL of the source file - Cannot be <code>null</code>.
+     * @param destFile
+     *            Target file - Cannot be <code>null</code>.
+     * @param expectedHash
+     *            Expected hash of the decompressed file - If
+     *            <code>null</code> a partial file is only continued if it was
+     *            loaded from the same URL.
+     * @param unzipDir
+     *            Directory to extract the archive to - Can be <code>null</code>
+     *            if the file should not be extracted.
+     * @param gzip
+     *            If the source is GZIP compressed and should be decompressed
+     *            while loading <code>true</code> else <code>false</code>.
+     * @param algorithm
+     *            Name of the hash algorithm - Cannot be <code>null</code>.
+     */
+    public ResumableDownload(final URL srcFileUrl, final File destFile,
+            final String expectedHash, final File unzipDir, final boolean gzip,
+            final String algorithm) {
+        super();
+        Utils4J.checkNotNull("srcFileUrl", srcFileUrl);
+        Utils4J.checkNotNull("destFile", destFile);
+        Utils4J.checkNotNull("algorithm", algorithm);
+        this.srcFileUrl = srcFileUrl;
+        this.destFile = destFile;
+        this.expectedHash = expectedHash;
+        this.partFile = new File(destFile.getParentFile(), destFile.getName() + PART_EXTENSION);
+        this.stateFile = new File(destFile.getParentFile(), destFile.getName() + STATE_EXTENSION);
+        this.unzipDir = unzipDir;
+        this.gzip = gzip;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Transfers the file. A failed transfer is continued with the partial
+     * file up to {@link #MAX_ATTEMPTS} times. If all attempts fail the
+     * <code>IOException</code> is mapped into a <code>RuntimeException</code>.
+     * The partial file is kept in case of an error.
+     *
+     * @param listener
+     *            Monitor to use - Can be <code>null</code> if no progress
+     *            information is needed.
+     * @param fileNo
+     *            Number of the current file.
+     * @param fileSize
+     *            File size.
+     *
+     * @return Hash of the destination file.
+     *
+     * @throws FileNotFoundException
+     *             The <code>srcFileUrl</code> was not found.
+     */
+    public final String execute(final FileCopyProgressListener listener, final int fileNo,
+            final int fileSize) throws FileNotFoundException {
+
+        if (listener != null) {
+            listener.updateFile(srcFileUrl.toString(), destFile.toString(), fileNo, fileSize);
+        }
+        int attempt = 1;
+        while (true) {
+            try {
+                return transfer(listener, fileSize);
+            } catch (final FileNotFoundException ex) {
+                throw ex;
+            } catch (final IOException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new RuntimeException(ex);
+                }
+                LOG.warn("Transfer failed (attempt " + attempt + " of " + MAX_ATTEMPTS
+                        + ") - Continuing: " + srcFileUrl + " [" + ex + "]");
+                attempt++;
+            }
+        }
+
+    }
+
+    /**
+     * Makes one attempt to transfer the file. Continues a matching partial
+     * file.
+     * 
+     * @param listener
+     *            Monitor to use or <code>null</code>.
+     * @param fileSize
+     *            File size.
+     * 
+     * @return Hash of the destination file.
+     * 
+     * @throws IOException
+     *             Error transferring the file - The partial file is kept.
+     */
+    private String transfer(final FileCopyProgressListener listener, final int fileSize)
+            throws IOException {
+
+        final MessageDigest digest = HashAlgorithm.createDigest(algorithm);
+        long offset = prepare(digest);
+
+        final Transport transport = Utils.getTransport();
+        Transport.Response response = transport.open(srcFileUrl, offset, -1);
+        if ((offset > 0) && isRangeNotSatisfiable(response)) {
+            // Partial file is invalid (for example larger than the source)
+            response.close();
+            discard();
+            digest.reset();
+            offset = prepare(digest);
+            response = transport.open(srcFileUrl, offset, -1);
+        }
+        final InputStream in;
+        try {
+            in = response.getInputStream();
+        } catch (final IOException ex) {
+            response.close();
+            throw ex;
+        }
+        try {
+            if ((offset > 0) && !response.isPartial()) {
+                // Server ignored the range - Start again
+                if (LOG.isInfoEnabled()) {
+                    LOG.info("RESTART (no range support): " + srcFileUrl);
+                }
+                offset = 0;
+                digest.reset();
+            } else if ((offset > 0) && LOG.isInfoEnabled()) {
+                LOG.info("RESUME at " + offset + ": " + srcFileUrl);
+            }
+            final InputStream decoded;
+            if (gzip) {
+                decoded = decompress(in);
+            } else {
+                decoded = in;
+            }
+            final InputStream input = new FileCopyProgressInputStream(listener,
+                    new DigestInputStream(decoded, digest), remaining(fileSize, offset));
+            final OutputStream output = new FileOutputStream(partFile, offset > 0);
+            try {
+                if ((unzipDir != null) && (offset == 0)) {
+                    unzipped = unzip(input, output);
+                } else {
+                    IOUtils.copy(input, output);
+                }
+            } finally {
+                IOUtils.closeQuietly(output);
+            }
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+
+        complete();
+        return Utils.encodeHex(digest.digest());
+
+    }
+
+    /**
+     * Checks if the server rejected the range. The response is closed if
+     * reading the status fails - Otherwise the connection would never be
+     * released.
+     * 
+     * @param response
+     *            Response of a range request.
+     * 
+     * @return If the server responded with status 416 <code>true</code> else
+     *         <code>false</code>.
+     * 
+     * @throws IOException
+     *             Error reading the status.
+     */
+    private static boolean isRangeNotSatisfiable(final Transport.Response response)
+            throws IOException {
+        boolean ok = false;
+        try {
+            final boolean result = response.isRangeNotSatisfiable();
+            ok = true;
+            return result;
+        } finally {
+            if (!ok) {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * Extracts the archive while writing it to the partial file.
+     * 
+     * @param input
+     *            Stream with the archive.
+     * @param output
+     *            Partial file.
+     * 
+     * @return If the archive was extracted <code>true</code> else
+     *         <code>false</code>.
+     * 
+     * @throws IOException
+     *             Error reading the stream or writing the partial file.
+     */
+    private boolean unzip(final InputStream input, final OutputStream output) throws IOException {
+        final InputStream tee = new TeeInputStream(input, output);
+        boolean ok;
+        try {
+            Utils.unzip(tee, srcFileUrl.toString(), unzipDir);
+            ok = true;
+        } catch (final IOException ex) {
+            // A network error will show up again below
+            LOG.warn("Streaming unzip failed - Archive will be decompressed after loading: "
+                    + srcFileUrl, ex);
+            ok = false;
+        }
+        // Rest of the archive (central directory) only goes to the file
+        IOUtils.copy(tee, new NullOutputStream());
+        return ok;
+    }
+
+    /**
+     * Decompresses a GZIP stream. Some servers send ".gz" files with the
+     * content encoding "gzip" - If the transport already decompressed the
+     * data it's returned unchanged.
+     * 
+     * @param in
+     *            Stream to decompress.
+     * 
+     * @return Decompressed stream.
+     * 
+     * @throws IOException
+     *             Error reading the GZIP header.
+     */
+    private static InputStream decompress(final InputStream in) throws IOException {
+        final InputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        final int b1 = buffered.read();
+        final int b2 = buffered.read();
+        buffered.reset();
+        if ((b1 == GZIP_MAGIC_1) && (b2 == GZIP_MAGIC_2)) {
+            return new GZIPInputStream(buffered);
+        }
+        return buffered;
+    }
+
+    /**
+     * Returns if the archive was extracted while it was loaded.
+     * 
+     * @return If the archive is already extracted <code>true</code> else
+     *         <code>false</code>.
+     */
+    public final boolean isUnzipped() {
+        return unzipped;
+    }
+
+    /**
+     * Checks if a matching partial file exists. If so, its content is added to
+     * the digest. Otherwise a new state file is written.
+     *
+     * @param digest
+     *            Digest to update with the already transferred bytes.
+     *
+     * @return Number of bytes already transferred.
+     *
+     * @throws IOException
+     *             Error reading the partial file or writing the state.
+     */
+    private long prepare(final MessageDigest digest) throws IOException {
+        if (!gzip && partFile.exists() && stateFile.exists() && isSameState()) {
+            final long offset = partFile.length();
+            final InputStream in = new FileInputStream(partFile);
+            try {
+                final byte[] buf = new byte[8192];
+                int len;
+                while ((len = in.read(buf)) > -1) {
+                    digest.update(buf, 0, len);
+                }
+            } finally {
+                in.close();
+            }
+            return offset;
+        }
+        discard();
+        final File dir = destFile.getParentFile();
+        if ((dir != null) && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory: " + dir);
+        }
+        final Properties props = new Properties();
+        props.setProperty(KEY_URL, srcFileUrl.toExternalForm());
+        if (expectedHash != null) {
+            props.setProperty(KEY_HASH, expectedHash);
+        }
+        Utils4J.saveProperties(stateFile, props, "# Kickstart4J partial download");
+        return 0;
+    }
+
+    private boolean isSameState() {
+        try {
+            final Properties props = Utils4J.loadProperties(stateFile);
+            return srcFileUrl.toExternalForm().equals(props.getProperty(KEY_URL))
+                    && Utils.nullSafeEquals(expectedHash, props.getProperty(KEY_HASH));
+        } catch (final RuntimeException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the destination file with the partial file and removes the
+     * state file.
+     *
+     * @throws IOException
+     *             Error renaming the file.
+     */
+    private void complete() throws IOException {
+        if (destFile.exists() && !destFile.delete()) {
+            throw new IOException("Cannot delete file: " + destFile);
+        }
+        if (!partFile.renameTo(destFile)) {
+            throw new IOException("Cannot rename file: " + partFile + " => " + destFile);
+        }
+        stateFile.delete();
+    }
+
+    private void discard() throws IOException {
+        if (partFile.exists() && !partFile.delete()) {
+            throw new IOException("Cannot delete partial file: " + partFile);
+        }
+        stateFile.delete();
+    }
+
+    private static int remaining(final int fileSize, final long offset) {
+        if (offset >= fileSize) {
+            return 0;
+        }
+        return (int) (fileSize - offset);
+    }
+
+}
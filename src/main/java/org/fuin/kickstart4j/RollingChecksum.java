@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+/**
+ * Weak checksum over a window of bytes that can be moved forward by one byte
+ * in constant time (same algorithm as used by "rsync"). This class is not
+ * thread safe.
+ */
+public final class RollingChecksum {
+
+    private static final int MASK = 0xFFFF;
+
+    /** Size of the window. */
+    private int length;
+
+    /** Sum of all bytes. */
+    private int a;
+
+    /** Weighted sum of all bytes. */
+    private int b;
+
+    /**
+     * Default constructor.
+     */
+    public RollingChecksum() {
+        super();
+    }
+
+    /**
+     * Calculates the checksum of a new window.
+     *
+     * @param data
+     *            Data.
+     * @param offset
+     *            Start of the window.
+     * @param len
+     *            Size of the window.
+     */
+    public final void reset(final byte[] data, final int offset, final int len) {
+        length = len;
+        a = 0;
+        b = 0;
+        for (int i = 0; i < len; i++) {
+            final int value = data[offset + i] & 0xFF;
+            a = a + value;
+            b = b + (len - i) * value;
+        }
+        a = a & MASK;
+        b = b & MASK;
+    }
+
+    /**
+     * Moves the window one byte forward.
+     *
+     * @param out
+     *            First byte of the current window (removed).
+     * @param in
+     *            Byte following the current window (added).
+     */
+    public final void roll(final byte out, final byte in) {
+        final int outValue = out & 0xFF;
+        final int inValue = in & 0xFF;
+        a = (a - outValue + inValue) & MASK;
+        b = (b - length * outValue + a) & MASK;
+    }
+
+    /**
+     * Returns the checksum of the current window.
+     *
+     * @return Checksum.
+     */
+    public final int getValue() {
+        return (b << 16) | a;
+    }
+
+    /**
+     * Calculates the checksum of a block.
+     *
+     * @param data
+     *            Data.
+     * @param offset
+     *            Start of the block.
+     * @param len
+     *            Size of the block.
+     *
+     * @return Checksum.
+     */
+    public static int calculate(final byte[] data, final int offset, final int len) {
+        final RollingChecksum checksum = new RollingChecksum();
+        checksum.reset(data, offset, len);
+        return checksum.getValue();
+    }
+
+}
@@ -1,270 +1,497 @@
-/**
- * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
- * reserved. <http://www.fuin.org/>
- *
- * This library is free software; you can redistribute it and/or modify it under
- * the terms of the GNU Lesser General Public License as published by the Free
- * Software Foundation; either version 3 of the License, or (at your option) any
- * later version.
- *
- * This library is distributed in the hope that it will be useful, but WITHOUT
- * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
- * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
- * details.
- *
- * You should have received a copy of the GNU Lesser General Public License
- * along with this library. If not, see <http://www.gnu.org/licenses/>.
- */
-package org.fuin.kickstart4j;
-
-import java.io.File;
-import java.net.MalformedURLException;
-import java.net.URL;
-
-import org.fuin.utils4j.ToDebugStringCapable;
-import org.fuin.utils4j.Utils4J;
-
-/**
- * A file at the source directory. This class is immutable.
- */
-public final class SrcFile extends AbstractFile implements ToDebugStringCapable {
-
-	/** Token used to mark archives to be unzipped at the target location. */
-	public static final String UNZIP_TOKEN = "UNZIP";
-
-	/** Size of the file. */
-	private final long size;
-
-	/** ZIP file that needs to be decompressed at the target location. */
-	private final boolean unzip;
-
-	/** Load file always (no matter if lazy loading is enabled or not). */
-	private final boolean loadAlways;
-
-	/** JAR file to be added to the classpath. */
-	private final boolean addToClasspath;
-
-	/** URL where the source file is located. */
-	private final String srcFileUrl;
-
-	/** Order the files should be installed or updated. */
-	private final int order;
-
-	/**
-	 * Constructor with base directory and file.
-	 * 
-	 * @param baseDir
-	 *            Base directory for calculating the relative path.
-	 * @param file
-	 *            File inside the base directory.
-	 * @param unzip
-	 *            If the file is an archive and should be decompressed at the
-	 *            target location <code>true</code> else <code>false</code>.
-	 * @param loadAlways
-	 *            Load file always (no matter if lazy loading is enabled or
-	 *            not).
-	 * @param addToClasspath
-	 *            JAR file to be added to the classpath.
-	 * @param srcFileUrl
-	 *            URL where the source file is located.
-	 */
-	public SrcFile(final File baseDir, final File file, final boolean unzip,
-			final boolean loadAlways, final boolean addToClasspath,
-			final String srcFileUrl) {
-		super(baseDir, file);
-		this.size = file.length();
-		this.unzip = unzip;
-		this.loadAlways = loadAlways;
-		this.addToClasspath = addToClasspath;
-		Utils4J.checkNotNull("srcFileUrl", srcFileUrl);
-		this.srcFileUrl = srcFileUrl;
-		this.order = 0;
-	}
-
-	/**
-	 * Constructor with all arguments.
-	 * 
-	 * @param path
-	 *            Path relative to the base directory.
-	 * @param filename
-	 *            Filename without path.
-	 * @param md5Hash
-	 *            MD5 hash code of the file.
-	 * @param size
-	 *            Size of the file.
-	 * @param unzip
-	 *            If the file is an archive and should be decompressed at the
-	 *            target location <code>true</code> else <code>false</code>.
-	 * @param loadAlways
-	 *            Load file always (no matter if lazy loading is enabled or
-	 *            not).
-	 * @param addToClasspath
-	 *            JAR file to be added to the classpath.
-	 * @param srcFileUrl
-	 *            URL where the source file is located.
-	 * @param order
-	 *            Order the files should be updated or installed.
-	 */
-	public SrcFile(final String path, final String filename,
-			final String md5Hash, final long size, final boolean unzip,
-			final boolean loadAlways, final boolean addToClasspath,
-			final String srcFileUrl, final int order) {
-		super(path, filename, md5Hash);
-		this.size = size;
-		this.unzip = unzip;
-		this.loadAlways = loadAlways;
-		this.addToClasspath = addToClasspath;
-		Utils4J.checkNotNull("srcFileUrl", srcFileUrl);
-		this.srcFileUrl = srcFileUrl;
-		this.order = order;
-	}
-
-	/**
-	 * Copy-Constructor with source file and local file.
-	 * 
-	 * @param srcFile
-	 *            Source file to copy values from (except hash and file size).
-	 * @param file
-	 *            File to create hash for and get file size from.
-	 */
-	public SrcFile(final SrcFile srcFile, final File file) {
-		this(srcFile.getPath(), srcFile.getFilename(), Utils4J
-				.createHashMD5(file), file.length(), srcFile.isUnzip(), srcFile
-				.isLoadAlways(), srcFile.isAddToClasspath(), srcFile
-				.getSrcFileUrl(), srcFile.getOrder());
-	}
-
-	/**
-	 * Returns the size of the file.
-	 * 
-	 * @return File size.
-	 */
-	public final long getSize() {
-		return size;
-	}
-
-	/**
-	 * Returns the size as integer value. If the size is greater than
-	 * <code>Integer.MAX_VALUE</code> is returned.
-	 * 
-	 * @return Size.
-	 */
-	public final int getSizeAsInt() {
-		if (size > Integer.MAX_VALUE) {
-			return Integer.MAX_VALUE;
-		} else {
-			return (int) size;
-		}
-	}
-
-	/**
-	 * Returns if the file is an atchive and should be decompressed at the
-	 * target location.
-	 * 
-	 * @return Unzip the file at the destination directory <code>true</code>
-	 *         else <code>false</code>
-	 */
-	public final boolean isUnzip() {
-		return unzip;
-	}
-
-	/**
-	 * Returns if this is a JAR file to be added to the classpath.
-	 * 
-	 * @return If added to the classpath <code>true</code> else
-	 *         <code>false</code>.
-	 */
-	public final boolean isAddToClasspath() {
-		return addToClasspath;
-	}
-
-	/**
-	 * Returns if this file sould be loaded always (no matter if lazy loading is
-	 * enabled or not).
-	 * 
-	 * @return If loaded always <code>true</code> else <code>false</code>.
-	 */
-	public final boolean isLoadAlways() {
-		return loadAlways;
-	}
-
-	/**
-	 * Returns the URL where the source file is located.
-	 * 
-	 * @return URL (as String).
-	 */
-	public final String getSrcFileUrl() {
-		return srcFileUrl;
-	}
-
-	/**
-	 * Returns the URL where the source file is located. A
-	 * <code>MalformedURLException</code> is wrapped into a
-	 * <code>RuntimeException</code>.
-	 * 
-	 * @return URL.
-	 */
-	public final URL getSrcFileURL() {
-		if (srcFileUrl == null) {
-			return null;
-		}
-		try {
-			return new URL(srcFileUrl);
-		} catch (final MalformedURLException ex) {
-			throw new RuntimeException(ex);
-		}
-	}
-
-	/**
-	 * Returns the order the files should be installed or updated.
-	 * 
-	 * @return Number starting with 0 (default).
-	 */
-	public final int getOrder() {
-		return order;
-	}
-	
-    /**
-     * Creates an XML representation of the object.
-     * 
-     * @return XML for element "file"
-     */
-	public final String toXML() {
-		final String orderStr;
-		if (order == 0) {
-			orderStr = "";
-		} else {
-			orderStr = " order=\"" + order + "\"";
-		}
-		return "<file path=\"" + getSlashPath() + "\" file=\"" + getFilename()
-				+ "\" hash=\"" + getMd5Hash() + "\" size=\"" + size
-				+ "\" unzip=\"" + unzip + "\" loadAlways=\"" + loadAlways
-				+ "\" addToClasspath=\"" + addToClasspath + "\" srcFileUrl=\""
-				+ Utils.escapeXml(srcFileUrl) + "\"" + orderStr + "/>";
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	public final String toString() {
-		return getRelativeSlashPathAndFilename();
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	public final String toDebugString() {
-		final StringBuffer sb = new StringBuffer();
-		sb.append("path=" + getPath() + ", ");
-		sb.append("file=" + getFilename() + ", ");
-		sb.append("hash=" + getMd5Hash() + ", ");
-		sb.append("size=" + size + ", ");
-		sb.append("unzip=" + unzip + ", ");
-		sb.append("loadAlways=" + loadAlways + ", ");
-		sb.append("addToClasspath=" + addToClasspath + ", ");
-		sb.append("srcFileUrl=" + srcFileUrl + ", ");
-		sb.append("order=" + order);
-		return sb.toString();
-	}
-
-}
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.fuin.utils4j.ToDebugStringCapable;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * A file at the source directory. This class is immutable.
+ */
+public final class SrcFile extends AbstractFile implements ToDebugStringCapable {
+
+	/** Token used to mark archives to be unzipped at the target location. */
+	public static final String UNZIP_TOKEN = "UNZIP";
+
+	/** Size of the file. */
+	private final long size;
+
+	/** ZIP file that needs to be decompressed at the target location. */
+	private final boolean unzip;
+
+	/** Load file always (no matter if lazy loading is enabled or not). */
+	private final boolean loadAlways;
+
+	/** JAR file to be added to the classpath. */
+	private final boolean addToClasspath;
+
+	/** URL where the source file is located. */
+	private final String srcFileUrl;
+
+	/** Order the files should be installed or updated. */
+	private final int order;
+
+	/** Patches from older versions of the file - Type is {@link SrcFilePatch}. */
+	private final List patches;
+
+	/** URL of a GZIP compressed copy of the file or <code>null</code>. */
+	private final String gzipSrcFileUrl;
+
+	/** URL of the block index of the file or <code>null</code>. */
+	private final String blocksUrl;
+
+	/**
+	 * Constructor with base directory and file.
+	 * 
+	 * @param baseDir
+	 *            Base directory for calculating the relative path.
+	 * @param file
+	 *            File inside the base directory.
+	 * @param unzip
+	 *            If the file is an archive and should be decompressed at the
+	 *            target location <code>true</code> else <code>false</code>.
+	 * @param loadAlways
+	 *            Load file always (no matter if lazy loading is enabled or
+	 *            not).
+	 * @param addToClasspath
+	 *            JAR file to be added to the classpath.
+	 * @param srcFileUrl
+	 *            URL where the source file is located.
+	 * @param algorithm
+	 *            Name of the hash algorithm - Cannot be <code>null</code>.
+	 */
+	public SrcFile(final File baseDir, final File file, final boolean unzip,
+			final boolean loadAlways, final boolean addToClasspath,
+			final String srcFileUrl, final String algorithm) {
+		super(baseDir, file, algorithm);
+		this.size = file.length();
+		this.unzip = unzip;
+		this.loadAlways = loadAlways;
+		this.addToClasspath = addToClasspath;
+		Utils4J.checkNotNull("srcFileUrl", srcFileUrl);
+		this.srcFileUrl = srcFileUrl;
+		this.order = 0;
+		this.patches = Collections.EMPTY_LIST;
+		this.gzipSrcFileUrl = null;
+		this.blocksUrl = null;
+	}
+
+	/**
+	 * Constructor without patches, compressed copy and block index. Use
+	 * {@link #withPatches(List)}, {@link #withGzipSrcFileUrl(String)} and
+	 * {@link #withBlocksUrl(String)} to add them.
+	 * 
+	 * @param path
+	 *            Path relative to the base directory.
+	 * @param filename
+	 *            Filename without path.
+	 * @param md5Hash
+	 *            MD5 hash code of the file.
+	 * @param size
+	 *            Size of the file.
+	 * @param unzip
+	 *            If the file is an archive and should be decompressed at the
+	 *            target location <code>true</code> else <code>false</code>.
+	 * @param loadAlways
+	 *            Load file always (no matter if lazy loading is enabled or
+	 *            not).
+	 * @param addToClasspath
+	 *            JAR file to be added to the classpath.
+	 * @param srcFileUrl
+	 *            URL where the source file is located.
+	 * @param order
+	 *            Order the files should be updated or installed.
+	 */
+	public SrcFile(final String path, final String filename,
+			final String md5Hash, final long size, final boolean unzip,
+			final boolean loadAlways, final boolean addToClasspath,
+			final String srcFileUrl, final int order) {
+		this(path, filename, md5Hash, size, unzip, loadAlways, addToClasspath,
+				srcFileUrl, order, null, null, null);
+	}
+
+	/**
+	 * Constructor with all arguments, patches, a compressed copy and a block
+	 * index.
+	 * 
+	 * @param path
+	 *            Path relative to the base directory.
+	 * @param filename
+	 *            Filename without path.
+	 * @param md5Hash
+	 *            MD5 hash code of the file.
+	 * @param size
+	 *            Size of the file.
+	 * @param unzip
+	 *            If the file is an archive and should be decompressed at the
+	 *            target location <code>true</code> else <code>false</code>.
+	 * @param loadAlways
+	 *            Load file always (no matter if lazy loading is enabled or
+	 *            not).
+	 * @param addToClasspath
+	 *            JAR file to be added to the classpath.
+	 * @param srcFileUrl
+	 *            URL where the source file is located.
+	 * @param order
+	 *            Order the files should be updated or installed.
+	 * @param patches
+	 *            Patches from older versions of the file (Type
+	 *            {@link SrcFilePatch}) - Can be <code>null</code>.
+	 * @param gzipSrcFileUrl
+	 *            URL where a GZIP compressed copy of the source file is
+	 *            located - Can be <code>null</code>.
+	 * @param blocksUrl
+	 *            URL of the {@link BlockIndex} of the file - Can be
+	 *            <code>null</code>.
+	 */
+	private SrcFile(final String path, final String filename,
+			final String md5Hash, final long size, final boolean unzip,
+			final boolean loadAlways, final boolean addToClasspath,
+			final String srcFileUrl, final int order, final List patches,
+			final String gzipSrcFileUrl, final String blocksUrl) {
+		super(path, filename, md5Hash);
+		this.size = size;
+		this.unzip = unzip;
+		this.loadAlways = loadAlways;
+		this.addToClasspath = addToClasspath;
+		Utils4J.checkNotNull("srcFileUrl", srcFileUrl);
+		this.srcFileUrl = srcFileUrl;
+		this.order = order;
+		if ((patches == null) || (patches.size() == 0)) {
+			this.patches = Collections.EMPTY_LIST;
+		} else {
+			this.patches = Collections.unmodifiableList(new ArrayList(patches));
+		}
+		this.gzipSrcFileUrl = gzipSrcFileUrl;
+		this.blocksUrl = blocksUrl;
+	}
+
+	/**
+	 * Copy-Constructor with source file, local file and its hash. The hash
+	 * is usually calculated while the file is transferred to avoid reading
+	 * the file again.
+	 * 
+	 * @param srcFile
+	 *            Source file to copy values from (except hash and file size).
+	 * @param file
+	 *            File to get file size from.
+	 * @param md5Hash
+	 *            MD5 hash code of the file.
+	 */
+	public SrcFile(final SrcFile srcFile, final File file, final String md5Hash) {
+		this(srcFile.getPath(), srcFile.getFilename(), md5Hash, file.length(),
+				srcFile.isUnzip(), srcFile.isLoadAlways(), srcFile
+						.isAddToClasspath(), srcFile.getSrcFileUrl(), srcFile
+						.getOrder(), srcFile.getPatches(), srcFile
+						.getGzipSrcFileUrl(), srcFile.getBlocksUrl());
+	}
+
+	/**
+	 * Returns a copy of this file with other patches.
+	 * 
+	 * @param patches
+	 *            Patches from older versions of the file (Type
+	 *            {@link SrcFilePatch}) - Can be <code>null</code>.
+	 * 
+	 * @return New instance.
+	 */
+	public final SrcFile withPatches(final List patches) {
+		return new SrcFile(getPath(), getFilename(), getMd5Hash(), size, unzip,
+				loadAlways, addToClasspath, srcFileUrl, order, patches,
+				gzipSrcFileUrl, blocksUrl);
+	}
+
+	/**
+	 * Returns a copy of this file with another compressed copy.
+	 * 
+	 * @param gzipSrcFileUrl
+	 *            URL where a GZIP compressed copy of the source file is
+	 *            located - Can be <code>null</code>.
+	 * 
+	 * @return New instance.
+	 */
+	public final SrcFile withGzipSrcFileUrl(final String gzipSrcFileUrl) {
+		return new SrcFile(getPath(), getFilename(), getMd5Hash(), size, unzip,
+				loadAlways, addToClasspath, srcFileUrl, order, patches,
+				gzipSrcFileUrl, blocksUrl);
+	}
+
+	/**
+	 * Returns a copy of this file with another block index.
+	 * 
+	 * @param blocksUrl
+	 *            URL of the {@link BlockIndex} of the file - Can be
+	 *            <code>null</code>.
+	 * 
+	 * @return New instance.
+	 */
+	public final SrcFile withBlocksUrl(final String blocksUrl) {
+		return new SrcFile(getPath(), getFilename(), getMd5Hash(), size, unzip,
+				loadAlways, addToClasspath, srcFileUrl, order, patches,
+				gzipSrcFileUrl, blocksUrl);
+	}
+
+	/**
+	 * Returns the size of the file.
+	 * 
+	 * @return File size.
+	 */
+	public final long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the size as integer value. If the size is greater than
+	 * <code>Integer.MAX_VALUE</code> is returned.
+	 * 
+	 * @return Size.
+	 */
+	public final int getSizeAsInt() {
+		if (size > Integer.MAX_VALUE) {
+			return Integer.MAX_VALUE;
+		} else {
+			return (int) size;
+		}
+	}
+
+	/**
+	 * Returns if the file is an atchive and should be decompressed at the
+	 * target location.
+	 * 
+	 * @return Unzip the file at the destination directory <code>true</code>
+	 *         else <code>false</code>
+	 */
+	public final boolean isUnzip() {
+		return unzip;
+	}
+
+	/**
+	 * Returns if this is a JAR file to be added to the classpath.
+	 * 
+	 * @return If added to the classpath <code>true</code> else
+	 *         <code>false</code>.
+	 */
+	public final boolean isAddToClasspath() {
+		return addToClasspath;
+	}
+
+	/**
+	 * Returns if this file sould be loaded always (no matter if lazy loading is
+	 * enabled or not).
+	 * 
+	 * @return If loaded always <code>true</code> else <code>false</code>.
+	 */
+	public final boolean isLoadAlways() {
+		return loadAlways;
+	}
+
+	/**
+	 * Returns the URL where the source file is located.
+	 * 
+	 * @return URL (as String).
+	 */
+	public final String getSrcFileUrl() {
+		return srcFileUrl;
+	}
+
+	/**
+	 * Returns the URL where the source file is located. A
+	 * <code>MalformedURLException</code> is wrapped into a
+	 * <code>RuntimeException</code>.
+	 * 
+	 * @return URL.
+	 */
+	public final URL getSrcFileURL() {
+		if (srcFileUrl == null) {
+			return null;
+		}
+		try {
+			return new URL(srcFileUrl);
+		} catch (final MalformedURLException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Returns the URL where a GZIP compressed copy of the source file is
+	 * located.
+	 * 
+	 * @return URL (as String) or <code>null</code> if there is no compressed
+	 *         copy.
+	 */
+	public final String getGzipSrcFileUrl() {
+		return gzipSrcFileUrl;
+	}
+
+	/**
+	 * Returns the URL of the block index that allows to load only the changed
+	 * parts of the file.
+	 * 
+	 * @return URL (as String) or <code>null</code> if there is no block
+	 *         index.
+	 */
+	public final String getBlocksUrl() {
+		return blocksUrl;
+	}
+
+	/**
+	 * Creates a download for the file. The compressed copy is used if one
+	 * exists.
+	 * 
+	 * @param destFile
+	 *            Target file.
+	 * @param unzipDir
+	 *            Directory to extract the archive to while loading - Can be
+	 *            <code>null</code>.
+	 * @param algorithm
+	 *            Name of the hash algorithm of the configuration.
+	 * 
+	 * @return New download.
+	 */
+	public final ResumableDownload createDownload(final File destFile,
+			final File unzipDir, final String algorithm) {
+		if (gzipSrcFileUrl == null) {
+			return new ResumableDownload(getSrcFileURL(), destFile,
+					getMd5Hash(), unzipDir, false, algorithm);
+		}
+		try {
+			return new ResumableDownload(new URL(gzipSrcFileUrl), destFile,
+					getMd5Hash(), unzipDir, true, algorithm);
+		} catch (final MalformedURLException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Returns the order the files should be installed or updated.
+	 * 
+	 * @return Number starting with 0 (default).
+	 */
+	public final int getOrder() {
+		return order;
+	}
+
+	/**
+	 * Returns the patches from older versions of the file.
+	 * 
+	 * @return Unmodifiable list of {@link SrcFilePatch} objects.
+	 */
+	public final List getPatches() {
+		return patches;
+	}
+
+	/**
+	 * Returns the patch for a given version of the file.
+	 * 
+	 * @param fromHash
+	 *            MD5 hash of the existing local file.
+	 * 
+	 * @return Patch or <code>null</code> if there is no patch for the hash.
+	 */
+	public final SrcFilePatch findPatch(final String fromHash) {
+		for (int i = 0; i < patches.size(); i++) {
+			final SrcFilePatch patch = (SrcFilePatch) patches.get(i);
+			if (patch.getFromHash().equals(fromHash)) {
+				return patch;
+			}
+		}
+		return null;
+	}
+	
+    /**
+     * Creates an XML representation of the object.
+     * 
+     * @return XML for element "file"
+     */
+	public final String toXML() {
+		final String orderStr;
+		if (order == 0) {
+			orderStr = "";
+		} else {
+			orderStr = " order=\"" + order + "\"";
+		}
+		return "<file path=\"" + getSlashPath() + "\" file=\"" + getFilename()
+				+ "\" hash=\"" + getMd5Hash() + "\" size=\"" + size
+				+ "\" unzip=\"" + unzip + "\" loadAlways=\"" + loadAlways
+				+ "\" addToClasspath=\"" + addToClasspath + "\" srcFileUrl=\""
+				+ Utils.escapeXml(srcFileUrl) + "\"" + gzipToXML() + blocksToXML()
+				+ orderStr + patchesToXML();
+	}
+
+	private String gzipToXML() {
+		if (gzipSrcFileUrl == null) {
+			return "";
+		}
+		return " gzipSrcFileUrl=\"" + Utils.escapeXml(gzipSrcFileUrl) + "\"";
+	}
+
+	private String blocksToXML() {
+		if (blocksUrl == null) {
+			return "";
+		}
+		return " blocksUrl=\"" + Utils.escapeXml(blocksUrl) + "\"";
+	}
+
+	private String patchesToXML() {
+		if (patches.size() == 0) {
+			return "/>";
+		}
+		final StringBuffer sb = new StringBuffer(">");
+		for (int i = 0; i < patches.size(); i++) {
+			final SrcFilePatch patch = (SrcFilePatch) patches.get(i);
+			sb.append(patch.toXML());
+		}
+		sb.append("</file>");
+		return sb.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final String toString() {
+		return getRelativeSlashPathAndFilename();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final String toDebugString() {
+		final StringBuffer sb = new StringBuffer();
+		sb.append("path=" + getPath() + ", ");
+		sb.append("file=" + getFilename() + ", ");
+		sb.append("hash=" + getMd5Hash() + ", ");
+		sb.append("size=" + size + ", ");
+		sb.append("unzip=" + unzip + ", ");
+		sb.append("loadAlways=" + loadAlways + ", ");
+		sb.append("addToClasspath=" + addToClasspath + ", ");
+		sb.append("srcFileUrl=" + srcFileUrl + ", ");
+		sb.append("gzipSrcFileUrl=" + gzipSrcFileUrl + ", ");
+		sb.append("blocksUrl=" + blocksUrl + ", ");
+		sb.append("order=" + order + ", ");
+		sb.append("patches=" + patches);
+		return sb.toString();
+	}
+
+}
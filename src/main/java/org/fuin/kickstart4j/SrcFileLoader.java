@@ -1,256 +1,528 @@
-/**
- * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
- * reserved. <http://www.fuin.org/>
- *
- * This library is free software; you can redistribute it and/or modify it under
- * the terms of the GNU Lesser General Public License as published by the Free
- * Software Foundation; either version 3 of the License, or (at your option) any
- * later version.
- *
- * This library is distributed in the hope that it will be useful, but WITHOUT
- * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
- * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
- * details.
- *
- * You should have received a copy of the GNU Lesser General Public License
- * along with this library. If not, see <http://www.gnu.org/licenses/>.
- */
-package org.fuin.kickstart4j;
-
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.net.URL;
-
-import org.apache.commons.io.FileUtils;
-import org.apache.log4j.Logger;
-import org.fuin.utils4j.Utils4J;
-import org.fuin.utils4swing.progress.FileCopyProgressListener;
-
-/**
- * Supports loading files defined in a update set into a local directory.
- */
-public final class SrcFileLoader implements FileLoader {
-
-	private static final Logger LOG = Logger.getLogger(SrcFileLoader.class);
-
-	/** Configuration with known source files. */
-	private final Config config;
-
-	/**
-	 * Default constructor. Assumes the configuration file is named
-	 * "application.xml" and is located in the current directory.
-	 * 
-	 * @throws InvalidConfigException
-	 *             Cannot read the configuration XML file.
-	 */
-	public SrcFileLoader() throws InvalidConfigException {
-		super();
-		try {
-			final File configFile = new File("application.xml").getCanonicalFile();
-			Utils4J.checkValidFile(configFile);
-			this.config = ConfigParser.create(configFile);
-		} catch (final IOException ex) {
-			throw new RuntimeException("Cannot get canonical file!", ex);
-		}
-	}
-
-	/**
-	 * Constructor with configuration path and filename.
-	 * 
-	 * @param configPathAndFilename
-	 *            Path and filename of XML configuration.
-	 * 
-	 * @throws InvalidConfigException
-	 *             Cannot read the configuration XML file.
-	 */
-	public SrcFileLoader(final String configPathAndFilename) throws InvalidConfigException {
-		super();
-		try {
-			final File configFile = new File(configPathAndFilename).getCanonicalFile();
-			Utils4J.checkValidFile(configFile);
-			this.config = ConfigParser.create(configFile);
-		} catch (final IOException ex) {
-			throw new RuntimeException("Cannot get canonical file!", ex);
-		}
-	}
-
-	/**
-	 * Constructor with URL.
-	 * 
-	 * @param configFileURL
-	 *            URL of the configuration file.
-	 * 
-	 * @throws InvalidConfigException
-	 *             Error reading the file.
-	 */
-	public SrcFileLoader(final URL configFileURL) throws InvalidConfigException {
-		super();
-		Utils4J.checkNotNull("configFileURL", configFileURL);
-		this.config = ConfigParser.create(configFileURL);
-	}
-
-	/**
-	 * Constructor with configuration.
-	 * 
-	 * @param config
-	 *            Configuration.
-	 */
-	public SrcFileLoader(final Config config) {
-		super();
-		Utils4J.checkNotNull("config", config);
-		this.config = config;
-	}
-
-	/**
-	 * Returns the configuration.
-	 * 
-	 * @return Configuration used for loading the files.
-	 */
-	public final Config getConfig() {
-		return config;
-	}
-
-	private File loadHashedFile(final String path, final String filename,
-			final FileCopyProgressListener listener) throws SrcFileNotFoundException,
-			FileNotFoundException {
-
-		final SrcFile srcFile = config.findSrcFile(path, filename);
-		final URL srcFileUrl = srcFile.getSrcFileURL();
-		final File destFile = srcFile.getDestFile(config.getDestDir());
-
-		if (destFile.exists()) {
-			final String destHash = Utils4J.createHashMD5(destFile);
-			if (!srcFile.getMd5Hash().equals(destHash)) {
-				// Changed file
-				Utils.copyURLToFile(listener, srcFileUrl, destFile, 1, srcFile.getSizeAsInt());
-				if (LOG.isInfoEnabled()) {
-					LOG.info("CHANGED: " + srcFileUrl + " => " + destFile);
-				}
-			}
-		} else {
-			// New file
-			Utils.copyURLToFile(listener, srcFileUrl, destFile, 1, srcFile.getSizeAsInt());
-			if (LOG.isInfoEnabled()) {
-				LOG.info("NEW: " + srcFileUrl + " => " + destFile);
-			}
-		}
-		return destFile;
-	}
-
-	private File loadByDirectory(final String path, final String filename,
-			final FileCopyProgressListener listener) throws SrcDirNotFoundException,
-			FileNotFoundException {
-
-		final SrcDir srcDir = config.findSrcDir(path);
-		final URL srcFileUrl = srcDir.getSrcFileURL(filename);
-		final File destFile = srcDir.getDestFile(config.getDestDir(), filename);
-		Utils.copyURLToFile(listener, srcFileUrl, destFile, 1, 0);
-		if (LOG.isInfoEnabled()) {
-			LOG.info("COPY: " + srcFileUrl + " => " + destFile);
-		}
-		return destFile;
-
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	public File loadFile(final String path, final String filename) throws LoadingFileException {
-		return loadFile(path, filename, null);
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	public File loadFile(final String path, final String filename,
-			final FileCopyProgressListener listener) throws LoadingFileException {
-
-		Utils4J.checkNotNull("path", path);
-		Utils4J.checkNotNull("filename", filename);
-
-		try {
-			try {
-				return loadHashedFile(path, filename, listener);
-			} catch (final SrcFileNotFoundException ex) {
-				return loadByDirectory(path, filename, listener);
-			}
-		} catch (final FileNotFoundException ex) {
-			if (LOG.isInfoEnabled()) {
-				LOG.info("NOT FOUND: " + ex.getMessage());
-			}
-			throw new LoadingFileException("Source file not found! [path='" + path
-					+ "', filename='" + filename + "']", ex);
-		} catch (final SrcDirNotFoundException ex) {
-			throw new LoadingFileException("Unknown file! [path='" + path + "', filename='"
-					+ filename + "']", ex);
-		} catch (final RuntimeException ex) {
-			throw new LoadingFileException("Load error! [path='" + path + "', filename='"
-					+ filename + "']", ex);
-		}
-
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	public final void deleteFile(final String path, final String filename)
-			throws DeleteException {
-
-		Utils4J.checkNotNull("path", path);
-		Utils4J.checkNotNull("filename", filename);
-		final String trimmedFilename = filename.trim();
-		Utils4J.checkNotEmpty("filename", trimmedFilename);
-
-		final String trimmedPath = path.trim();
-		try {
-			final File dir;
-			if (trimmedPath.length() == 0) {
-				dir = config.getDestDir();
-			} else {
-				dir = new File(config.getDestDir(), trimmedPath);
-			}
-			final File file = new File(dir, trimmedFilename);
-			if (file.exists()) {
-				if (file.delete()) {
-					LOG.info("DELETED " + file);
-				} else {
-					throw new DeleteException("Cannot delete file '" + file + "'!");
-				}
-			} else {
-				LOG.info("DELETE (does not exist) " + file);
-			}
-		} catch (final RuntimeException ex) {
-			throw new DeleteException("Unexpected delete error! [path='" + path
-					+ "', filename='" + filename + "']", ex);
-		}
-
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	public final void deletePath(final String path) throws DeleteException {
-
-		Utils4J.checkNotNull("path", path);
-		final String trimmedPath = path.trim();
-		Utils4J.checkNotEmpty("path", trimmedPath);
-		try {
-			final File dir = new File(config.getDestDir(), trimmedPath);
-			if (dir.exists()) {
-				try {
-					FileUtils.deleteDirectory(dir);
-					LOG.info("DELETED " + dir);
-				} catch (final IOException e) {
-					throw new DeleteException("Cannot delete directory '" + dir + "'!");
-				}
-			} else {
-				LOG.info("DELETE (does not exist) " + dir);
-			}
-		} catch (final RuntimeException ex) {
-			throw new DeleteException("Unexpected delete error! [path='" + path + "']", ex);
-		}
-
-	}
-
-}
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+import org.fuin.utils4swing.progress.FileCopyProgressListener;
+
+/**
+ * Supports loading files defined in a update set into a local directory.
+ */
+public final class SrcFileLoader implements FileLoader {
+
+	private static final Logger LOG = Logger.getLogger(SrcFileLoader.class);
+
+	/** Configuration with known source files. */
+	private final Config config;
+
+	/** Shared store - Created on first use. */
+	private ContentStore contentStore;
+
+	/** Files verified by this instance - Relative paths with slash ("/"). */
+	private final Set verifiedFiles = Collections.synchronizedSet(new HashSet());
+
+	/** Locks for loading a single file - Key is the relative path. */
+	private final Map locks = new HashMap();
+
+	/** Background prefetch or <code>null</code> if not started. */
+	private Prefetch prefetch;
+
+	/**
+	 * Default constructor. Assumes the configuration file is named
+	 * "application.xml" and is located in the current directory.
+	 * 
+	 * @throws InvalidConfigException
+	 *             Cannot read the configuration XML file.
+	 */
+	public SrcFileLoader() throws InvalidConfigException {
+		super();
+		try {
+			final File configFile = new File("application.xml").getCanonicalFile();
+			Utils4J.checkValidFile(configFile);
+			this.config = ConfigParser.create(configFile);
+		} catch (final IOException ex) {
+			throw new RuntimeException("Cannot get canonical file!", ex);
+		}
+		initTransport();
+	}
+
+	/**
+	 * Constructor with configuration path and filename.
+	 * 
+	 * @param configPathAndFilename
+	 *            Path and filename of XML configuration.
+	 * 
+	 * @throws InvalidConfigException
+	 *             Cannot read the configuration XML file.
+	 */
+	public SrcFileLoader(final String configPathAndFilename) throws InvalidConfigException {
+		super();
+		try {
+			final File configFile = new File(configPathAndFilename).getCanonicalFile();
+			Utils4J.checkValidFile(configFile);
+			this.config = ConfigParser.create(configFile);
+		} catch (final IOException ex) {
+			throw new RuntimeException("Cannot get canonical file!", ex);
+		}
+		initTransport();
+	}
+
+	/**
+	 * Constructor with URL of the XML configuration.
+	 * 
+	 * @param configFileURL
+	 *            URL of the configuration file.
+	 * 
+	 * @throws InvalidConfigException
+	 *             Error reading the file.
+	 */
+	public SrcFileLoader(final URL configFileURL) throws InvalidConfigException {
+		this(configFileURL, false);
+	}
+
+	/**
+	 * Constructor with URL.
+	 * 
+	 * @param configFileURL
+	 *            URL of the configuration file.
+	 * @param useManifest
+	 *            Prefer the {@link ConfigManifest} next to the configuration
+	 *            file (like {@link Kickstart4J} with "-useManifest true")
+	 *            <code>true</code> or always read the XML configuration
+	 *            <code>false</code>.
+	 * 
+	 * @throws InvalidConfigException
+	 *             Error reading the file.
+	 */
+	public SrcFileLoader(final URL configFileURL, final boolean useManifest)
+			throws InvalidConfigException {
+		super();
+		Utils4J.checkNotNull("configFileURL", configFileURL);
+		if (useManifest) {
+			this.config = ConfigManifest.create(configFileURL);
+		} else {
+			this.config = ConfigParser.create(configFileURL);
+		}
+		initTransport();
+	}
+
+	/**
+	 * Constructor with configuration.
+	 * 
+	 * @param config
+	 *            Configuration.
+	 * 
+	 * @throws InvalidConfigException
+	 *             The configured transport class cannot be loaded or
+	 *             instantiated.
+	 */
+	public SrcFileLoader(final Config config) throws InvalidConfigException {
+		super();
+		Utils4J.checkNotNull("config", config);
+		this.config = config;
+		initTransport();
+	}
+
+	/**
+	 * Sets the transport for all transfers of the process. The application
+	 * runs in its own process, so the installer's transport (timeouts,
+	 * connections per host, mirrors and cache proxy) is created here again
+	 * from the configuration.
+	 * 
+	 * @throws InvalidConfigException
+	 *             The configured transport class cannot be loaded or
+	 *             instantiated.
+	 */
+	private void initTransport() throws InvalidConfigException {
+		Utils.setTransport(Utils.createTransport(config));
+	}
+
+	/**
+	 * Returns the configuration.
+	 * 
+	 * @return Configuration used for loading the files.
+	 */
+	public final Config getConfig() {
+		return config;
+	}
+
+	/**
+	 * Starts loading all files that are not loaded by the installer ("lazy"
+	 * files) in a background thread with low priority. The thread pauses
+	 * between two files (See {@link Config#getPrefetchPauseMillis()}). Files
+	 * that are already loaded or verified are skipped. A call to
+	 * {@link #loadFile(String, String)} for a file that is just being loaded
+	 * in the background waits for that transfer. Calling this method while
+	 * the prefetch is running has no effect.
+	 */
+	public final synchronized void startPrefetch() {
+		if ((prefetch != null) && prefetch.isRunning()) {
+			return;
+		}
+		final List files = new ArrayList();
+		final List srcFiles = config.getSrcFiles();
+		for (int i = 0; i < srcFiles.size(); i++) {
+			final SrcFile srcFile = (SrcFile) srcFiles.get(i);
+			if (!srcFile.isLoadAlways() && !srcFile.isAddToClasspath()) {
+				files.add(srcFile);
+			}
+		}
+		prefetch = new Prefetch(files, config.getPrefetchPauseMillis());
+		final Thread thread = new Thread(prefetch, "Kickstart4J-Prefetch");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
+	/**
+	 * Stops the background prefetch after the current file. A partially
+	 * transferred file is continued the next time it's loaded.
+	 */
+	public final synchronized void cancelPrefetch() {
+		if (prefetch != null) {
+			prefetch.cancel();
+		}
+	}
+
+	/**
+	 * Returns if the background prefetch is running.
+	 * 
+	 * @return If files are loaded in the background <code>true</code> else
+	 *         <code>false</code>.
+	 */
+	public final synchronized boolean isPrefetchRunning() {
+		return (prefetch != null) && prefetch.isRunning();
+	}
+
+	private File loadHashedFile(final String path, final String filename,
+			final FileCopyProgressListener listener) throws SrcFileNotFoundException,
+			FileNotFoundException {
+
+		final SrcFile srcFile = config.findSrcFile(path, filename);
+		final String key = srcFile.getRelativeSlashPathAndFilename();
+		synchronized (getLock(key)) {
+			final File destFile = srcFile.getDestFile(config.getDestDir());
+			if (verifiedFiles.contains(key) && destFile.exists()
+					&& (destFile.length() == srcFile.getSize())) {
+				return destFile;
+			}
+			if (loadHashedFile(srcFile, destFile, listener)) {
+				verifiedFiles.add(key);
+			}
+			return destFile;
+		}
+
+	}
+
+	private boolean loadHashedFile(final SrcFile srcFile, final File destFile,
+			final FileCopyProgressListener listener) throws FileNotFoundException {
+
+		final URL srcFileUrl = srcFile.getSrcFileURL();
+		if (destFile.exists()) {
+			final String destHash = HashAlgorithm.createHash(destFile, config
+					.getHashAlgorithm());
+			if (srcFile.getMd5Hash().equals(destHash)) {
+				return true;
+			}
+			// Changed file
+			final SrcFilePatch patch = srcFile.findPatch(destHash);
+			if (materialize(srcFile, destFile)) {
+				if (LOG.isInfoEnabled()) {
+					LOG.info("CHANGED (STORE): " + srcFileUrl + " => " + destFile);
+				}
+				return true;
+			}
+			if ((patch != null)
+					&& patch.applyTo(destFile, srcFile.getMd5Hash(), config.getHashAlgorithm())) {
+				addToStore(srcFile, destFile);
+				if (LOG.isInfoEnabled()) {
+					LOG.info("CHANGED (PATCHED): " + srcFileUrl + " => " + destFile);
+				}
+				return true;
+			}
+			if ((srcFile.getBlocksUrl() != null)
+					&& BlockIndex.syncTo(srcFile.getBlocksUrl(), srcFileUrl, destFile, destFile,
+							srcFile.getMd5Hash(), config.getHashAlgorithm())) {
+				addToStore(srcFile, destFile);
+				if (LOG.isInfoEnabled()) {
+					LOG.info("CHANGED (SYNCED): " + srcFileUrl + " => " + destFile);
+				}
+				return true;
+			}
+			final boolean ok = copyAndCheckHash(listener, srcFile, srcFileUrl, destFile);
+			if (LOG.isInfoEnabled()) {
+				LOG.info("CHANGED: " + srcFileUrl + " => " + destFile);
+			}
+			return ok;
+		}
+		if (materialize(srcFile, destFile)) {
+			if (LOG.isInfoEnabled()) {
+				LOG.info("NEW (STORE): " + srcFileUrl + " => " + destFile);
+			}
+			return true;
+		}
+		// New file
+		final boolean ok = copyAndCheckHash(listener, srcFile, srcFileUrl, destFile);
+		if (LOG.isInfoEnabled()) {
+			LOG.info("NEW: " + srcFileUrl + " => " + destFile);
+		}
+		return ok;
+
+	}
+
+	private Object getLock(final String key) {
+		synchronized (locks) {
+			Object lock = locks.get(key);
+			if (lock == null) {
+				lock = new Object();
+				locks.put(key, lock);
+			}
+			return lock;
+		}
+	}
+
+	private boolean materialize(final SrcFile srcFile, final File destFile) {
+		if (!config.isSharedStore()) {
+			return false;
+		}
+		return getContentStore().materialize(srcFile.getMd5Hash(),
+				srcFile.getSize(), destFile);
+	}
+
+	private void addToStore(final SrcFile srcFile, final File destFile) {
+		if (config.isSharedStore()) {
+			getContentStore().add(srcFile.getMd5Hash(), destFile);
+		}
+	}
+
+	private synchronized ContentStore getContentStore() {
+		if (contentStore == null) {
+			contentStore = new ContentStore(config.getHashAlgorithm());
+		}
+		return contentStore;
+	}
+
+	private boolean copyAndCheckHash(final FileCopyProgressListener listener,
+			final SrcFile srcFile, final URL srcFileUrl, final File destFile)
+			throws FileNotFoundException {
+
+		final String hash = srcFile.createDownload(destFile, null,
+				config.getHashAlgorithm()).execute(listener, 1, srcFile.getSizeAsInt());
+		if (hash.equals(srcFile.getMd5Hash())) {
+			addToStore(srcFile, destFile);
+			return true;
+		}
+		LOG.error("Hash local file (" + hash
+				+ ") is different from configuration hash ("
+				+ srcFile.getMd5Hash() + ")! [" + srcFileUrl + "]");
+		return false;
+
+	}
+
+	private File loadByDirectory(final String path, final String filename,
+			final FileCopyProgressListener listener) throws SrcDirNotFoundException,
+			FileNotFoundException {
+
+		final SrcDir srcDir = config.findSrcDir(path);
+		final URL srcFileUrl = srcDir.getSrcFileURL(filename);
+		final File destFile = srcDir.getDestFile(config.getDestDir(), filename);
+		new ResumableDownload(srcFileUrl, destFile, null, config.getHashAlgorithm())
+				.execute(listener, 1, 0);
+		if (LOG.isInfoEnabled()) {
+			LOG.info("COPY: " + srcFileUrl + " => " + destFile);
+		}
+		return destFile;
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public File loadFile(final String path, final String filename) throws LoadingFileException {
+		return loadFile(path, filename, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public File loadFile(final String path, final String filename,
+			final FileCopyProgressListener listener) throws LoadingFileException {
+
+		Utils4J.checkNotNull("path", path);
+		Utils4J.checkNotNull("filename", filename);
+
+		try {
+			try {
+				return loadHashedFile(path, filename, listener);
+			} catch (final SrcFileNotFoundException ex) {
+				return loadByDirectory(path, filename, listener);
+			}
+		} catch (final FileNotFoundException ex) {
+			if (LOG.isInfoEnabled()) {
+				LOG.info("NOT FOUND: " + ex.getMessage());
+			}
+			throw new LoadingFileException("Source file not found! [path='" + path
+					+ "', filename='" + filename + "']", ex);
+		} catch (final SrcDirNotFoundException ex) {
+			throw new LoadingFileException("Unknown file! [path='" + path + "', filename='"
+					+ filename + "']", ex);
+		} catch (final RuntimeException ex) {
+			throw new LoadingFileException("Load error! [path='" + path + "', filename='"
+					+ filename + "']", ex);
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final void deleteFile(final String path, final String filename)
+			throws DeleteException {
+
+		Utils4J.checkNotNull("path", path);
+		Utils4J.checkNotNull("filename", filename);
+		final String trimmedFilename = filename.trim();
+		Utils4J.checkNotEmpty("filename", trimmedFilename);
+
+		final String trimmedPath = path.trim();
+		try {
+			final File dir;
+			if (trimmedPath.length() == 0) {
+				dir = config.getDestDir();
+			} else {
+				dir = new File(config.getDestDir(), trimmedPath);
+			}
+			final File file = new File(dir, trimmedFilename);
+			verifiedFiles.clear();
+			if (file.exists()) {
+				if (file.delete()) {
+					LOG.info("DELETED " + file);
+				} else {
+					throw new DeleteException("Cannot delete file '" + file + "'!");
+				}
+			} else {
+				LOG.info("DELETE (does not exist) " + file);
+			}
+		} catch (final RuntimeException ex) {
+			throw new DeleteException("Unexpected delete error! [path='" + path
+					+ "', filename='" + filename + "']", ex);
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final void deletePath(final String path) throws DeleteException {
+
+		Utils4J.checkNotNull("path", path);
+		final String trimmedPath = path.trim();
+		Utils4J.checkNotEmpty("path", trimmedPath);
+		try {
+			final File dir = new File(config.getDestDir(), trimmedPath);
+			verifiedFiles.clear();
+			if (dir.exists()) {
+				try {
+					FileUtils.deleteDirectory(dir);
+					LOG.info("DELETED " + dir);
+				} catch (final IOException e) {
+					throw new DeleteException("Cannot delete directory '" + dir + "'!");
+				}
+			} else {
+				LOG.info("DELETE (does not exist) " + dir);
+			}
+		} catch (final RuntimeException ex) {
+			throw new DeleteException("Unexpected delete error! [path='" + path + "']", ex);
+		}
+
+	}
+
+	/**
+	 * Loads a list of files one after another.
+	 */
+	private final class Prefetch implements Runnable {
+
+		/** List of {@link SrcFile} objects. */
+		private final List files;
+
+		private final long pauseMillis;
+
+		private volatile boolean canceled = false;
+
+		private volatile boolean running = true;
+
+		public Prefetch(final List files, final long pauseMillis) {
+			super();
+			this.files = files;
+			this.pauseMillis = pauseMillis;
+		}
+
+		public void run() {
+			try {
+				int loaded = 0;
+				for (int i = 0; (i < files.size()) && !canceled; i++) {
+					final SrcFile srcFile = (SrcFile) files.get(i);
+					if (verifiedFiles.contains(srcFile.getRelativeSlashPathAndFilename())) {
+						continue;
+					}
+					try {
+						loadFile(srcFile.getPath(), srcFile.getFilename());
+						loaded++;
+					} catch (final LoadingFileException ex) {
+						LOG.warn("Prefetch failed: " + srcFile, ex);
+					}
+					if (pauseMillis > 0) {
+						Thread.sleep(pauseMillis);
+					}
+				}
+				if (LOG.isInfoEnabled()) {
+					LOG.info("Prefetch " + (canceled ? "canceled" : "complete") + ": "
+							+ loaded + " files");
+				}
+			} catch (final InterruptedException ex) {
+				LOG.info("Prefetch interrupted");
+			} finally {
+				running = false;
+			}
+		}
+
+		public void cancel() {
+			canceled = true;
+		}
+
+		public boolean isRunning() {
+			return running;
+		}
+
+	}
+
+}
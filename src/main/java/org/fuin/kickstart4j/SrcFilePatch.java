@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Binary patch that converts an older version of a source file into the
+ * current one. This class is immutable.
+ */
+public final class SrcFilePatch {
+
+    private static final Logger LOG = Logger.getLogger(SrcFilePatch.class);
+
+    /** MD5 hash of the file version the patch can be applied to. */
+    private final String fromHash;
+
+    /** Size of the patch. */
+    private final long size;
+
+    /** URL where the patch is located. */
+    private final String srcFileUrl;
+
+    /**
+     * Constructor with all arguments.
+     *
+     * @param fromHash
+     *            MD5 hash of the file version the patch can be applied to -
+     *            Cannot be <code>null</code>.
+     * @param size
+     *            Size of the patch.
+     * @param srcFileUrl
+     *            URL where the patch is located - Cannot be <code>null</code>.
+     */
+    public SrcFilePatch(final String fromHash, final long size, final String srcFileUrl) {
+        super();
+        Utils4J.checkNotNull("fromHash", fromHash);
+        Utils4J.checkNotNull("srcFileUrl", srcFileUrl);
+        this.fromHash = fromHash;
+        this.size = size;
+        this.srcFileUrl = srcFileUrl;
+    }
+
+    /**
+     * Returns the hash of the file version the patch can be applied to.
+     *
+     * @return MD5 hash.
+     */
+    public final String getFromHash() {
+        return fromHash;
+    }
+
+    /**
+     * Returns the size of the patch.
+     *
+     * @return Patch size.
+     */
+    public final long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the size as integer value. If the size is greater than
+     * <code>Integer.MAX_VALUE</code> is returned.
+     *
+     * @return Size.
+     */
+    public final int getSizeAsInt() {
+        if (size > Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) size;
+    }
+
+    /**
+     * Returns the URL where the patch is located.
+     *
+     * @return URL (as String).
+     */
+    public final String getSrcFileUrl() {
+        return srcFileUrl;
+    }
+
+    /**
+     * Returns the URL where the patch is located. A
+     * <code>MalformedURLException</code> is wrapped into a
+     * <code>RuntimeException</code>.
+     *
+     * @return URL.
+     */
+    public final URL getSrcFileURL() {
+        try {
+            return new URL(srcFileUrl);
+        } catch (final MalformedURLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Downloads the patch and applies it to a local file. The local file is
+     * only replaced if the result has the expected hash. Errors are logged
+     * and signaled by the return value - The caller is expected to fall back
+     * to a full download in this case.
+     *
+     * @param localFile
+     *            Local file with hash <code>fromHash</code>.
+     * @param expectedHash
+     *            Expected MD5 hash of the patched file.
+     * @param algorithm
+     *            Name of the hash algorithm of the expected hash.
+     *
+     * @return If the local file was successfully patched <code>true</code>
+     *         else <code>false</code>.
+     */
+    public final boolean applyTo(final File localFile, final String expectedHash,
+            final String algorithm) {
+        return applyTo(localFile, localFile, expectedHash, algorithm);
+    }
+
+    /**
+     * Downloads the patch, applies it to a local file and writes the result to
+     * a target file. The target file is only replaced if the result has the
+     * expected hash. Errors are logged and signaled by the return value.
+     *
+     * @param localFile
+     *            Local file with hash <code>fromHash</code>.
+     * @param targetFile
+     *            File to create - May be the same as the local file.
+     * @param expectedHash
+     *            Expected MD5 hash of the patched file.
+     * @param algorithm
+     *            Name of the hash algorithm of the expected hash.
+     *
+     * @return If the target file was successfully created <code>true</code>
+     *         else <code>false</code>.
+     */
+    public final boolean applyTo(final File localFile, final File targetFile,
+            final String expectedHash, final String algorithm) {
+        final File dir = targetFile.getParentFile();
+        final File patchFile = new File(dir, targetFile.getName() + ".patch");
+        final File newFile = new File(dir, targetFile.getName() + ".patched");
+        try {
+            new ResumableDownload(getSrcFileURL(), patchFile, null, algorithm).execute(null,
+                    0, getSizeAsInt());
+            final String hash = BinaryPatch.apply(localFile, patchFile, newFile, algorithm);
+            if (!hash.equals(expectedHash)) {
+                LOG.warn("Patched file has wrong hash: " + localFile + " [expected="
+                        + expectedHash + ", actual=" + hash + "]");
+                return false;
+            }
+            if (targetFile.exists() && !targetFile.delete()) {
+                throw new IOException("Cannot delete file: " + targetFile);
+            }
+            if (!newFile.renameTo(targetFile)) {
+                throw new IOException("Cannot rename file: " + newFile + " => " + targetFile);
+            }
+            return true;
+        } catch (final IOException ex) {
+            LOG.warn("Error applying patch: " + srcFileUrl, ex);
+            return false;
+        } catch (final RuntimeException ex) {
+            LOG.warn("Error applying patch: " + srcFileUrl, ex);
+            return false;
+        } finally {
+            patchFile.delete();
+            newFile.delete();
+        }
+    }
+
+    /**
+     * Creates an XML representation of the object.
+     *
+     * @return XML for element "patch".
+     */
+    public final String toXML() {
+        return "<patch fromHash=\"" + fromHash + "\" size=\"" + size + "\" srcFileUrl=\""
+                + Utils.escapeXml(srcFileUrl) + "\"/>";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final String toString() {
+        return srcFileUrl;
+    }
+
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Update that writes all new and changed files into a staging directory
+ * inside the installation directory. The installation directory itself is
+ * not touched until {@link #commit()} is called. The commit writes a journal
+ * with all staged and deleted files and then moves the files into place. The
+ * completely written journal is the point of no return: If the process is
+ * interrupted while moving the files, {@link #recover(File)} finishes the
+ * update on the next start by replaying the journal - No file has to be
+ * checked again. If the process is interrupted before the commit the
+ * installation directory still contains the previous version.
+ */
+public final class StagedUpdate {
+
+    private static final Logger LOG = Logger.getLogger(StagedUpdate.class);
+
+    /** Name of the staging directory inside the installation directory. */
+    public static final String STAGING_DIRNAME = ".kickstart4j-staging";
+
+    /** Name of the journal file inside the installation directory. */
+    public static final String JOURNAL_FILENAME = ".kickstart4j-commit";
+
+    private static final String ENCODING = "UTF-8";
+
+    private static final String MOVE = "M ";
+
+    private static final String DELETE = "D ";
+
+    /** Installation directory. */
+    private final File destDir;
+
+    /** Staging directory. */
+    private final File stagingDir;
+
+    /** Files to delete - Relative paths with slash ("/") as separator. */
+    private final List deletedFiles = new ArrayList();
+
+    /**
+     * Constructor with installation directory.
+     * 
+     * @param destDir
+     *            Installation directory - Cannot be <code>null</code>.
+     */
+    public StagedUpdate(final File destDir) {
+        super();
+        Utils4J.checkNotNull("destDir", destDir);
+        this.destDir = destDir;
+        this.stagingDir = new File(destDir, STAGING_DIRNAME);
+    }
+
+    /**
+     * Returns the installation directory.
+     * 
+     * @return Directory the files are finally moved to.
+     */
+    public final File getDestDir() {
+        return destDir;
+    }
+
+    /**
+     * Returns the staging directory.
+     * 
+     * @return Directory to write new and changed files to.
+     */
+    public final File getStagingDir() {
+        return stagingDir;
+    }
+
+    /**
+     * Creates the staging directory. Files left over from an earlier update
+     * that was not committed are removed - Only partial downloads are kept so
+     * they can be continued.
+     * 
+     * @throws IOException
+     *             Error creating the directory or removing a file.
+     */
+    public final void prepare() throws IOException {
+        if (stagingDir.exists()) {
+            final List files = new ArrayList();
+            listFiles(stagingDir, "", files);
+            for (int i = 0; i < files.size(); i++) {
+                final String file = (String) files.get(i);
+                if (!isPartialDownload(file)) {
+                    FileUtils.forceDelete(new File(stagingDir, file));
+                }
+            }
+        } else if (!stagingDir.mkdirs()) {
+            throw new IOException("Cannot create staging directory: " + stagingDir);
+        }
+    }
+
+    /**
+     * Marks a file in the installation directory to be deleted on commit.
+     * 
+     * @param relativePath
+     *            Path and filename relative to the installation directory.
+     */
+    public final synchronized void delete(final String relativePath) {
+        final String path = relativePath.replace(File.separatorChar, '/');
+        if (path.startsWith("/")) {
+            deletedFiles.add(path.substring(1));
+        } else {
+            deletedFiles.add(path);
+        }
+    }
+
+    /**
+     * Writes the journal and moves all staged files into the installation
+     * directory.
+     * 
+     * @throws IOException
+     *             Error writing the journal or moving the files. The update
+     *             will be completed by {@link #recover(File)} in case the
+     *             journal was written.
+     */
+    public final void commit() throws IOException {
+        final List lines = new ArrayList();
+        final List files = new ArrayList();
+        listFiles(stagingDir, "", files);
+        for (int i = 0; i < files.size(); i++) {
+            final String file = (String) files.get(i);
+            if (!isPartialDownload(file)) {
+                lines.add(MOVE + file);
+            }
+        }
+        synchronized (this) {
+            for (int i = 0; i < deletedFiles.size(); i++) {
+                lines.add(DELETE + deletedFiles.get(i));
+            }
+        }
+        writeJournal(destDir, lines);
+        promote(destDir, lines);
+    }
+
+    /**
+     * Completes an update that was interrupted after the commit. Nothing
+     * happens if there is no journal.
+     * 
+     * @param destDir
+     *            Installation directory.
+     * 
+     * @return If an interrupted update was completed <code>true</code> else
+     *         <code>false</code>.
+     * 
+     * @throws IOException
+     *             Error reading the journal or moving the files.
+     */
+    public static boolean recover(final File destDir) throws IOException {
+        final File journalFile = new File(destDir, JOURNAL_FILENAME);
+        if (!journalFile.exists()) {
+            return false;
+        }
+        LOG.info("Completing interrupted update: " + destDir);
+        promote(destDir, readJournal(journalFile));
+        return true;
+    }
+
+    private static void writeJournal(final File destDir, final List lines) throws IOException {
+        final File journalFile = new File(destDir, JOURNAL_FILENAME);
+        final File tmpFile = new File(destDir, JOURNAL_FILENAME + ".tmp");
+        final FileOutputStream out = new FileOutputStream(tmpFile);
+        try {
+            final Writer writer = new OutputStreamWriter(out, ENCODING);
+            for (int i = 0; i < lines.size(); i++) {
+                writer.write((String) lines.get(i));
+                writer.write('\n');
+            }
+            writer.flush();
+            // Make sure the journal is on disk before it becomes valid
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        if (!tmpFile.renameTo(journalFile)) {
+            throw new IOException("Cannot rename journal: " + tmpFile + " => " + journalFile);
+        }
+    }
+
+    private static List readJournal(final File journalFile) throws IOException {
+        final List lines = new ArrayList();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(journalFile), ENCODING));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() > 0) {
+                    lines.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    /**
+     * Executes the journal. Every step can be repeated without harm.
+     * 
+     * @param destDir
+     *            Installation directory.
+     * @param lines
+     *            Journal entries.
+     * 
+     * @throws IOException
+     *             Error moving a file.
+     */
+    private static void promote(final File destDir, final List lines) throws IOException {
+        final File stagingDir = new File(destDir, STAGING_DIRNAME);
+        for (int i = 0; i < lines.size(); i++) {
+            final String line = (String) lines.get(i);
+            final String file = line.substring(2);
+            if (line.startsWith(MOVE)) {
+                final File srcFile = new File(stagingDir, file);
+                if (srcFile.exists()) {
+                    move(srcFile, new File(destDir, file));
+                }
+            } else if (line.startsWith(DELETE)) {
+                final File destFile = new File(destDir, file);
+                if (destFile.exists()) {
+                    if (destFile.delete()) {
+                        LOG.info("DELETED: " + destFile);
+                    } else {
+                        LOG.warn("DELETE FAILED: " + destFile);
+                    }
+                }
+            }
+        }
+        final File journalFile = new File(destDir, JOURNAL_FILENAME);
+        if (!journalFile.delete()) {
+            throw new IOException("Cannot delete journal: " + journalFile);
+        }
+        FileUtils.deleteDirectory(stagingDir);
+    }
+
+    private static void move(final File srcFile, final File destFile) throws IOException {
+        final File dir = destFile.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory: " + dir);
+        }
+        if (destFile.exists() && !destFile.delete()) {
+            throw new IOException("Cannot delete file: " + destFile);
+        }
+        if (!srcFile.renameTo(destFile)) {
+            FileUtils.copyFile(srcFile, destFile);
+            if (!srcFile.delete()) {
+                LOG.warn("Cannot delete staged file: " + srcFile);
+            }
+        }
+    }
+
+    private static void listFiles(final File dir, final String path, final List files) {
+        final File[] list = dir.listFiles();
+        if (list == null) {
+            return;
+        }
+        for (int i = 0; i < list.length; i++) {
+            final String name = path + list[i].getName();
+            if (list[i].isDirectory()) {
+                listFiles(list[i], name + "/", files);
+            } else {
+                files.add(name);
+            }
+        }
+    }
+
+    private static boolean isPartialDownload(final String file) {
+        return file.endsWith(ResumableDownload.PART_EXTENSION)
+                || file.endsWith(ResumableDownload.STATE_EXTENSION);
+    }
+
+}
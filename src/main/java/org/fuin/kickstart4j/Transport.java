@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/**
+ * Transfers files from a server. All transfers of the package use the
+ * instance returned by {@link Utils#getTransport()}. Implementations must be
+ * thread safe.
+ */
+public interface Transport {
+
+    /**
+     * Starts a transfer.
+     * 
+     * @param url
+     *            URL to load.
+     * @param offset
+     *            Number of bytes to skip at the beginning of the file or
+     *            <code>0</code> to load the file from the start.
+     * @param end
+     *            Position after the last byte to load or <code>-1</code> to
+     *            load up to the end of the file. Implementations that don't
+     *            support ranges may ignore this and the offset.
+     * 
+     * @return Response - The caller must call <code>close()</code> when done.
+     * 
+     * @throws IOException
+     *             Error connecting the server.
+     */
+    public Response open(URL url, long offset, long end) throws IOException;
+
+    /**
+     * Returns the statistics of all transfers.
+     * 
+     * @return Statistics - Always non-<code>null</code>.
+     */
+    public TransportStatistics getStatistics();
+
+    /**
+     * Response of the server.
+     */
+    public interface Response {
+
+        /**
+         * Returns if the server sent the requested range only.
+         * 
+         * @return If the response starts at the requested offset and ends at
+         *         the requested end (or the end of the file)
+         *         <code>true</code> else <code>false</code> (complete file).
+         * 
+         * @throws IOException
+         *             Error reading the response.
+         */
+        public boolean isPartial() throws IOException;
+
+        /**
+         * Returns if the server rejected the requested range (for example
+         * because it's beyond the end of the file).
+         * 
+         * @return If the range is invalid <code>true</code> else
+         *         <code>false</code>.
+         * 
+         * @throws IOException
+         *             Error reading the response.
+         */
+        public boolean isRangeNotSatisfiable() throws IOException;
+
+        /**
+         * Returns the content. Closing the stream also closes the response.
+         * 
+         * @return Stream.
+         * 
+         * @throws IOException
+         *             Error reading the response. A
+         *             <code>FileNotFoundException</code> signals that the
+         *             resource does not exist.
+         */
+        public InputStream getInputStream() throws IOException;
+
+        /**
+         * Releases all resources. Calling this method more than once has no
+         * effect.
+         */
+        public void close();
+
+    }
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+/**
+ * Counters for the transfers of a {@link Transport}. All methods are thread
+ * safe.
+ */
+public final class TransportStatistics {
+
+    /** Number of requests. */
+    private int requests = 0;
+
+    /** Number of requests that used an existing connection. */
+    private int reusedConnections = 0;
+
+    /** Number of failed requests. */
+    private int errors = 0;
+
+    /** Number of bytes received. */
+    private long bytes = 0;
+
+    /**
+     * Default constructor.
+     */
+    public TransportStatistics() {
+        super();
+    }
+
+    /**
+     * Counts a request.
+     * 
+     * @param reused
+     *            If the request used an existing connection <code>true</code>
+     *            else <code>false</code>.
+     */
+    public final synchronized void addRequest(final boolean reused) {
+        requests++;
+        if (reused) {
+            reusedConnections++;
+        }
+    }
+
+    /**
+     * Counts a failed request.
+     */
+    public final synchronized void addError() {
+        errors++;
+    }
+
+    /**
+     * Adds received bytes.
+     * 
+     * @param count
+     *            Number of bytes.
+     */
+    public final synchronized void addBytes(final long count) {
+        bytes = bytes + count;
+    }
+
+    /**
+     * Returns the number of requests.
+     * 
+     * @return Requests.
+     */
+    public final synchronized int getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of requests that used an existing connection.
+     * 
+     * @return Reused connections.
+     */
+    public final synchronized int getReusedConnections() {
+        return reusedConnections;
+    }
+
+    /**
+     * Returns the number of new connections.
+     * 
+     * @return Requests that had to open a connection.
+     */
+    public final synchronized int getNewConnections() {
+        return requests - reusedConnections;
+    }
+
+    /**
+     * Returns the number of failed requests.
+     * 
+     * @return Errors.
+     */
+    public final synchronized int getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns the number of bytes received.
+     * 
+     * @return Bytes.
+     */
+    public final synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public final synchronized String toString() {
+        return "Requests=" + requests + ", NewConnections=" + (requests - reusedConnections)
+                + ", ReusedConnections=" + reusedConnections + ", Errors=" + errors
+                + ", Bytes=" + bytes;
+    }
+
+}
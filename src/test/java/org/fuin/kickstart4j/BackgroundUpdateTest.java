@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link BackgroundUpdate}.
+ */
+// CHECKSTYLE:OFF
+public final class BackgroundUpdateTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testStartAndWait() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-background-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        final Object lock = new Object();
+        final boolean[] release = new boolean[] { false };
+        final BackgroundUpdate testee = new BackgroundUpdate(dir);
+
+        // Test
+        testee.start(new Runnable() {
+            public void run() {
+                synchronized (lock) {
+                    while (!release[0]) {
+                        try {
+                            lock.wait();
+                        } catch (final InterruptedException ex) {
+                            return;
+                        }
+                    }
+                }
+            }
+        });
+
+        // Assert
+        Assert.assertTrue(testee.isRunning());
+        Assert.assertTrue(BackgroundUpdate.isRunning(dir));
+        Assert.assertFalse(BackgroundUpdate.waitFor(dir, 300));
+
+        synchronized (lock) {
+            release[0] = true;
+            lock.notifyAll();
+        }
+        testee.waitFor();
+        Assert.assertFalse(testee.isRunning());
+        Assert.assertFalse(testee.isFailed());
+        Assert.assertFalse(BackgroundUpdate.isRunning(dir));
+        Assert.assertFalse(BackgroundUpdate.isFailed(dir));
+        Assert.assertTrue(BackgroundUpdate.waitFor(dir, 0));
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testFailed() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-background-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        final BackgroundUpdate testee = new BackgroundUpdate(dir);
+
+        // Test
+        testee.start(new Runnable() {
+            public void run() {
+                throw new RuntimeException("Test");
+            }
+        });
+        testee.waitFor();
+
+        // Assert
+        Assert.assertTrue(testee.isFailed());
+        Assert.assertFalse(BackgroundUpdate.isRunning(dir));
+        Assert.assertTrue(BackgroundUpdate.isFailed(dir));
+        BackgroundUpdate.clear(dir);
+        Assert.assertFalse(BackgroundUpdate.isFailed(dir));
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link BinaryPatch}.
+ */
+// CHECKSTYLE:OFF
+public final class BinaryPatchTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testCreateAndApply() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-patch-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        final byte[] oldData = new byte[100000];
+        new Random(1).nextBytes(oldData);
+        final byte[] newData = new byte[oldData.length + 10];
+        System.arraycopy(oldData, 0, newData, 0, 50000);
+        System.arraycopy("0123456789".getBytes(), 0, newData, 50000, 10);
+        System.arraycopy(oldData, 50000, newData, 50010, 50000);
+        newData[90000] = (byte) (newData[90000] + 1);
+        final File oldFile = new File(dir, "old.bin");
+        final File newFile = new File(dir, "new.bin");
+        final File patchFile = new File(dir, "test.patch");
+        final File resultFile = new File(dir, "result.bin");
+        FileUtils.writeByteArrayToFile(oldFile, oldData);
+        FileUtils.writeByteArrayToFile(newFile, newData);
+
+        // Test
+        BinaryPatch.create(oldFile, newFile, patchFile);
+        final String hash = BinaryPatch.apply(oldFile, patchFile, resultFile,
+                HashAlgorithm.MD5);
+
+        // Assert
+        Assert.assertEquals(hash, Utils4J.createHashMD5(newFile));
+        Assert.assertEquals(FileUtils.readFileToByteArray(resultFile), newData);
+        Assert.assertTrue(patchFile.length() < 5000);
+
+    }
+
+}
+// CHECKSTYLE:ON
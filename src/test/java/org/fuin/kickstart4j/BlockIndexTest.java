@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link BlockIndex}.
+ */
+// CHECKSTYLE:OFF
+public final class BlockIndexTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testWriteAndRead() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-blocks-test");
+        FileUtils.deleteDirectory(dir);
+        final byte[] data = new byte[10000];
+        new Random(1).nextBytes(data);
+        final File file = new File(dir, "test.bin");
+        FileUtils.writeByteArrayToFile(file, data);
+        final BlockIndex index = BlockIndex.create(file, 1000);
+
+        // Test
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        final BlockIndex copy = BlockIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+        // Assert
+        Assert.assertEquals(copy.getBlockSize(), 1000);
+        Assert.assertEquals(copy.getFileLength(), 10000);
+        Assert.assertEquals(copy.getBlockCount(), 10);
+        final long[] found = copy.findBlocks(file);
+        for (int i = 0; i < found.length; i++) {
+            Assert.assertEquals(found[i], i * 1000);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testFindBlocks() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-blocks-test");
+        FileUtils.deleteDirectory(dir);
+        final byte[] newData = new byte[100500];
+        new Random(1).nextBytes(newData);
+        // Old version has 10 bytes inserted and a changed byte
+        final byte[] oldData = new byte[newData.length + 10];
+        System.arraycopy(newData, 0, oldData, 0, 50000);
+        System.arraycopy("0123456789".getBytes(), 0, oldData, 50000, 10);
+        System.arraycopy(newData, 50000, oldData, 50010, newData.length - 50000);
+        oldData[90010] = (byte) (oldData[90010] + 1);
+        final File newFile = new File(dir, "new.bin");
+        final File oldFile = new File(dir, "old.bin");
+        FileUtils.writeByteArrayToFile(newFile, newData);
+        FileUtils.writeByteArrayToFile(oldFile, oldData);
+
+        // Test
+        final long[] found = BlockIndex.create(newFile, 1000).findBlocks(oldFile);
+
+        // Assert
+        Assert.assertEquals(found.length, 100);
+        for (int i = 0; i < found.length; i++) {
+            if (i < 50) {
+                Assert.assertEquals(found[i], i * 1000);
+            } else if (i == 90) {
+                Assert.assertEquals(found[i], -1);
+            } else {
+                Assert.assertEquals(found[i], i * 1000 + 10);
+            }
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testSync() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-blocks-test");
+        FileUtils.deleteDirectory(dir);
+        final byte[] newData = new byte[100500];
+        new Random(1).nextBytes(newData);
+        // Old version has a changed byte in block 10 and 90
+        final byte[] oldData = (byte[]) newData.clone();
+        oldData[10500] = (byte) (oldData[10500] + 1);
+        oldData[90010] = (byte) (oldData[90010] + 1);
+        final File newFile = new File(dir, "new.bin");
+        final File oldFile = new File(dir, "old.bin");
+        final File targetFile = new File(dir, "target.bin");
+        FileUtils.writeByteArrayToFile(newFile, newData);
+        FileUtils.writeByteArrayToFile(oldFile, oldData);
+        final String url = "http://www.fuin.org/new.bin";
+        final StubTransport transport = new StubTransport();
+        transport.put(url, newData);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            final long loaded = BlockIndex.create(newFile, 1000).sync(oldFile, new URL(url),
+                    targetFile);
+
+            // Assert
+            Assert.assertEquals(FileUtils.readFileToByteArray(targetFile), newData);
+            Assert.assertEquals(loaded, 11500);
+            final List requests = transport.getRequests();
+            Assert.assertEquals(requests.size(), 2);
+            // Block 90 and the tail are close enough for a single request
+            Assert.assertEquals(requests.get(0), url + "@10000-11000");
+            Assert.assertEquals(requests.get(1), url + "@90000-100500");
+
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
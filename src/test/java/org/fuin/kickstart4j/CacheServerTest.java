@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Locale;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link CacheServer}.
+ */
+// CHECKSTYLE:OFF
+public final class CacheServerTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testServe() throws IOException, InvalidConfigException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-cache-test");
+        FileUtils.deleteDirectory(dir);
+        final File origin = new File(dir, "origin/test.bin");
+        final byte[] data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        FileUtils.writeByteArrayToFile(origin, data);
+        final String originUrl = origin.toURI().toURL().toExternalForm();
+
+        final Config config = new Config();
+        config.setIdFilename("myTestApp");
+        config.setTitle("My Test App");
+        config.setDestPath("c:/test");
+        config.setLocale(Locale.ENGLISH);
+        config.setJavaExe("jre/bin/java.exe");
+        config.setJavaArgs("-classpath ${classpath} org.fuin.kickstart4j.TestMain");
+        config.getSrcFiles().add(
+                new SrcFile("", "test.bin", Utils4J.createHashMD5(origin), origin.length(),
+                        false, false, false, originUrl, 0));
+        final File configFile = new File(dir, "config.xml");
+        config.writeToVarXML(configFile, false);
+
+        final CacheServer testee = new CacheServer(configFile.toURI().toURL(), new File(dir,
+                "cache"), 0);
+        testee.start();
+        try {
+            final String prefix = "http://127.0.0.1:" + testee.getPort() + "/";
+            final Transport transport = new DefaultTransport();
+
+            // Test & Assert complete file
+            Transport.Response response = transport.open(new URL(prefix + originUrl), 0, -1);
+            try {
+                Assert.assertEquals(IOUtils.toByteArray(response.getInputStream()), data);
+            } finally {
+                response.close();
+            }
+
+            // Test & Assert range (Served from the cache)
+            origin.delete();
+            response = transport.open(new URL(prefix + originUrl), 9000, -1);
+            try {
+                Assert.assertTrue(response.isPartial());
+                Assert.assertEquals(IOUtils.toByteArray(response.getInputStream()).length, 1000);
+            } finally {
+                response.close();
+            }
+
+            // Test & Assert bounded range
+            response = transport.open(new URL(prefix + originUrl), 100, 200);
+            try {
+                Assert.assertTrue(response.isPartial());
+                final byte[] expected = new byte[100];
+                System.arraycopy(data, 100, expected, 0, expected.length);
+                Assert.assertEquals(IOUtils.toByteArray(response.getInputStream()), expected);
+            } finally {
+                response.close();
+            }
+
+            // Test & Assert unknown file
+            try {
+                transport.open(new URL(prefix + originUrl + ".unknown"), 0, -1).getInputStream();
+                Assert.fail("Expected FileNotFoundException");
+            } catch (final FileNotFoundException ex) {
+                // OK
+            }
+        } finally {
+            testee.stop();
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.testng.Assert;
+
+/**
+ * Tests for {@link ConfigManifest}.
+ */
+// CHECKSTYLE:OFF
+public final class ConfigManifestTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testWriteAndRead() throws IOException, InvalidConfigException {
+
+        // Prepare
+        final Config config = new Config();
+        config.setIdFilename("myTestApp");
+        config.setTitle("My Test App");
+        config.setDestPath("c:/test");
+        config.setLocale(Locale.ENGLISH);
+        config.setJavaExe("jre/bin/java.exe");
+        config.setJavaArgs("-classpath ${classpath} org.fuin.kickstart4j.TestMain");
+        config.getMkDirs().add(new MkDir("logs"));
+        final String baseUrl = "http://www.fuin.org/kickstart4j/";
+        final List patches = new ArrayList();
+        patches.add(new SrcFilePatch("0123456789abcdef0123456789abcdef", 123, baseUrl
+                + "patches/a.jar.patch"));
+        config.getSrcFiles().add(
+                new SrcFile("lib", "a.jar", "d41d8cd98f00b204e9800998ecf8427e", 4711, false,
+                        true, true, baseUrl + "lib/a.jar", -1).withPatches(patches)
+                        .withGzipSrcFileUrl(baseUrl + "lib/a.jar.gz").withBlocksUrl(
+                                baseUrl + "blocks/a.jar.blocks"));
+        config.getSrcFiles().add(
+                new SrcFile("lib", "b.zip", "D41D8CD98F00B204E9800998ECF8427E", 12, true, false,
+                        false, baseUrl + "other.zip", 2));
+        config.getSrcFiles().add(
+                new SrcFile("", "readme.txt", "0cc175b9c0f1b6a831c399e269772661", 0, false,
+                        false, false, baseUrl + "readme.txt", 0));
+        final List members = new ArrayList();
+        members.add("lib/b.zip");
+        members.add("readme.txt");
+        config.getPacks().add(new Pack(baseUrl + "packs/pack-1.zip", 99, members));
+
+        // Test
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConfigManifest.write(config, out);
+        final Config copy = new Config();
+        ConfigManifest.read(copy, out.toByteArray(), new URL(baseUrl));
+
+        // Assert
+        Assert.assertEquals(copy.toVarXML(), config.toVarXML());
+        Assert.assertTrue(out.size() < config.toVarXML().length());
+
+    }
+
+    private static byte[] createManifest(final Config config) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConfigManifest.write(config, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testIsReferencedBy() throws IOException {
+
+        // Prepare
+        final Config config = new Config();
+        config.setIdFilename("myTestApp");
+        config.setTitle("My Test App");
+        final byte[] data = createManifest(config);
+        config.setManifestFingerprint(ConfigManifest.createFingerprint(data));
+        final byte[] xml = config.toVarXML().getBytes("UTF-8");
+        config.setTitle("My Edited App");
+        final byte[] otherData = createManifest(config);
+
+        // Test & Assert
+        Assert.assertEquals(ConfigManifest.getFingerprint(xml), ConfigManifest
+                .createFingerprint(data));
+        Assert.assertTrue(ConfigManifest.isReferencedBy(data, xml));
+        Assert.assertFalse(ConfigManifest.isReferencedBy(otherData, xml));
+        config.setManifestFingerprint(null);
+        final byte[] xmlWithout = config.toVarXML().getBytes("UTF-8");
+        Assert.assertNull(ConfigManifest.getFingerprint(xmlWithout));
+        Assert.assertFalse(ConfigManifest.isReferencedBy(data, xmlWithout));
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testParseLoadsOnlyXmlHead() throws IOException, InvalidConfigException {
+
+        // Prepare
+        final String configUrl = "http://www.fuin.org/kickstart4j/config.xml";
+        final Config config = new Config();
+        config.setIdFilename("myTestApp");
+        config.setTitle("My Test App");
+        final byte[] data = createManifest(config);
+        config.setManifestFingerprint(ConfigManifest.createFingerprint(data));
+        final byte[] xml = config.toVarXML().getBytes("UTF-8");
+        final StubTransport transport = new StubTransport();
+        transport.put(configUrl, xml);
+        transport.put(configUrl + ConfigManifest.EXTENSION, data);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            final Config copy = ConfigManifest.create(new URL(configUrl));
+
+            // Assert
+            Assert.assertEquals(copy.getTitle(), "My Test App");
+            final List requests = transport.getRequests();
+            Assert.assertEquals(requests.size(), 2);
+            Assert.assertEquals(requests.get(0), configUrl + ConfigManifest.EXTENSION + "@0");
+            Assert.assertEquals(requests.get(1), configUrl + "@0-1024");
+
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testParseIgnoresUnreferencedManifest() throws IOException,
+            InvalidConfigException {
+
+        // Prepare
+        final String configUrl = "http://www.fuin.org/kickstart4j/config.xml";
+        final Config config = new Config();
+        config.setIdFilename("myTestApp");
+        config.setTitle("My Test App");
+        final byte[] data = createManifest(config);
+        config.setTitle("My Edited App");
+        config.setManifestFingerprint(ConfigManifest.createFingerprint(createManifest(config)));
+        final StubTransport transport = new StubTransport();
+        transport.put(configUrl, config.toVarXML().getBytes("UTF-8"));
+        transport.put(configUrl + ConfigManifest.EXTENSION, data);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            final Config copy = ConfigManifest.create(new URL(configUrl));
+
+            // Assert
+            Assert.assertEquals(copy.getTitle(), "My Edited App");
+
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link ContentStore}.
+ */
+// CHECKSTYLE:OFF
+public final class ContentStoreTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testAddAndMaterialize() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-store-test");
+        FileUtils.deleteDirectory(dir);
+        final File file = new File(dir, "app1/a.txt");
+        FileUtils.writeStringToFile(file, "content");
+        final String hash = HashAlgorithm.createHash(file, HashAlgorithm.MD5);
+        final ContentStore testee = new ContentStore(new File(dir, "store"), HashAlgorithm.MD5);
+
+        // Test
+        testee.add(hash, file);
+        final File destFile = new File(dir, "app2/a.txt");
+        final boolean materialized = testee.materialize(hash, file.length(), destFile);
+
+        // Assert
+        Assert.assertTrue(materialized);
+        Assert.assertEquals(FileUtils.readFileToString(destFile), "content");
+        // The store has a copy - Not a link to the installed file
+        FileUtils.writeStringToFile(file, "CONTENT");
+        Assert.assertTrue(testee.contains(hash, file.length()));
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testModifiedStoreFile() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-store-test");
+        FileUtils.deleteDirectory(dir);
+        final File file = new File(dir, "app1/a.txt");
+        FileUtils.writeStringToFile(file, "content");
+        final String hash = HashAlgorithm.createHash(file, HashAlgorithm.MD5);
+        final ContentStore testee = new ContentStore(new File(dir, "store"), HashAlgorithm.MD5);
+        testee.add(hash, file);
+        final File storeFile = testee.getFile(hash);
+
+        // Test (Same size and modification time but other content)
+        final long lastModified = storeFile.lastModified();
+        FileUtils.writeStringToFile(storeFile, "CONTENT");
+        storeFile.setLastModified(lastModified);
+        final File destFile = new File(dir, "app2/a.txt");
+        final boolean materialized = testee.materialize(hash, file.length(), destFile);
+
+        // Assert
+        Assert.assertFalse(materialized);
+        Assert.assertFalse(destFile.exists());
+        Assert.assertFalse(storeFile.exists());
+
+    }
+
+}
+// CHECKSTYLE:ON
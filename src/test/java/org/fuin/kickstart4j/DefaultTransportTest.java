@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link DefaultTransport}.
+ */
+// CHECKSTYLE:OFF
+public final class DefaultTransportTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testGzipContentEncoding() throws Exception {
+
+        // Prepare
+        final byte[] data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 7);
+        }
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        final GZIPOutputStream gzipOut = new GZIPOutputStream(bout);
+        gzipOut.write(data);
+        gzipOut.close();
+        final byte[] compressed = bout.toByteArray();
+
+        // Server that answers a single request with a GZIP encoded body
+        final ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress
+                .getByName("127.0.0.1"));
+        final String[] acceptEncoding = new String[1];
+        final Thread server = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    try {
+                        final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                                socket.getInputStream(), "US-ASCII"));
+                        String line;
+                        while (((line = reader.readLine()) != null) && (line.length() > 0)) {
+                            if (line.toLowerCase().startsWith("accept-encoding:")) {
+                                acceptEncoding[0] = line.substring(16).trim();
+                            }
+                        }
+                        final OutputStream out = socket.getOutputStream();
+                        out.write(("HTTP/1.1 200 OK\r\nContent-Encoding: gzip\r\n"
+                                + "Content-Length: " + compressed.length
+                                + "\r\nConnection: close\r\n\r\n").getBytes("US-ASCII"));
+                        out.write(compressed);
+                        out.flush();
+                    } finally {
+                        socket.close();
+                    }
+                } catch (final IOException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        });
+        server.start();
+        try {
+            final DefaultTransport testee = new DefaultTransport();
+            final URL url = new URL("http://127.0.0.1:" + serverSocket.getLocalPort() + "/a.jar");
+
+            // Test
+            final Transport.Response response = testee.open(url, 0, -1);
+            final byte[] result;
+            try {
+                result = IOUtils.toByteArray(response.getInputStream());
+            } finally {
+                response.close();
+            }
+
+            // Assert
+            server.join(5000);
+            Assert.assertEquals(acceptEncoding[0], "gzip");
+            Assert.assertEquals(result, data);
+            Assert.assertEquals(testee.getStatistics().getBytes(), compressed.length);
+        } finally {
+            serverSocket.close();
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
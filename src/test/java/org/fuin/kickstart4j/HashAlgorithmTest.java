@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link HashAlgorithm}.
+ */
+// CHECKSTYLE:OFF
+public final class HashAlgorithmTest {
+
+    private static String hash(final String algorithm, final String text) {
+        return hash(algorithm, text.getBytes());
+    }
+
+    private static String hash(final String algorithm, final byte[] data) {
+        final MessageDigest digest = HashAlgorithm.createDigest(algorithm);
+        digest.update(data);
+        return Utils.encodeHex(digest.digest());
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testKnownValues() {
+        Assert.assertEquals(hash(HashAlgorithm.MD5, "abc"), "900150983cd24fb0d6963f7d28e17f72");
+        Assert.assertEquals(hash(HashAlgorithm.SHA256, "abc"),
+                "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        Assert.assertEquals(hash(HashAlgorithm.CRC32, "123456789"), "cbf43926");
+        Assert.assertEquals(hash(HashAlgorithm.ADLER32, "Wikipedia"), "11e60398");
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testDigestIsReset() {
+        final MessageDigest digest = HashAlgorithm.createDigest(HashAlgorithm.CRC32);
+        digest.update("xyz".getBytes());
+        digest.digest();
+        digest.update("123456789".getBytes());
+        Assert.assertEquals(Utils.encodeHex(digest.digest()), "cbf43926");
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testCreateHashFile() throws IOException {
+        final File file = new File(Utils4J.getTempDir(), "kickstart4j-hash-test.txt");
+        FileUtils.writeStringToFile(file, "123456789");
+        try {
+            Assert.assertEquals(HashAlgorithm.createHash(file, HashAlgorithm.CRC32), "cbf43926");
+            Assert.assertEquals(HashAlgorithm.createHash(file, HashAlgorithm.MD5), Utils4J
+                    .createHashMD5(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testCreateHashLargeFile() throws IOException {
+        final File file = new File(Utils4J.getTempDir(), "kickstart4j-hash-test.bin");
+        final byte[] data = new byte[(int) HashAlgorithm.DIRECT_THRESHOLD + 12345];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        FileUtils.writeByteArrayToFile(file, data);
+        try {
+            // Direct buffer path for the checksum, stream for the digest
+            Assert.assertEquals(HashAlgorithm.createHash(file, HashAlgorithm.CRC32),
+                    hash(HashAlgorithm.CRC32, data));
+            Assert.assertEquals(HashAlgorithm.createHash(file, HashAlgorithm.MD5), hash(
+                    HashAlgorithm.MD5, data));
+        } finally {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testSupported() {
+        Assert.assertTrue(HashAlgorithm.isSupported(HashAlgorithm.SHA1));
+        Assert.assertFalse(HashAlgorithm.isSupported("Unknown"));
+        Assert.assertTrue(HashAlgorithm.getNames().contains(HashAlgorithm.ADLER32));
+    }
+
+}
+// CHECKSTYLE:ON
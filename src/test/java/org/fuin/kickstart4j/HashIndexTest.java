@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link HashIndex}.
+ */
+// CHECKSTYLE:OFF
+public final class HashIndexTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testGetHash() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-hashindex-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        final File file = new File(dir, "a.txt");
+        FileUtils.writeStringToFile(file, "Hello");
+        final String expected = Utils4J.createHashMD5(file);
+
+        // Test & Assert
+        final HashIndex testee = new HashIndex(dir, false, HashAlgorithm.MD5);
+        Assert.assertEquals(testee.getHash("/a.txt", file), expected);
+        Assert.assertEquals(testee.getMisses(), 1);
+        Assert.assertEquals(testee.getHash("/a.txt", file), expected);
+        Assert.assertEquals(testee.getHits(), 1);
+        testee.save();
+
+        final HashIndex reloaded = new HashIndex(dir, false, HashAlgorithm.MD5);
+        Assert.assertEquals(reloaded.getHash("/a.txt", file), expected);
+        Assert.assertEquals(reloaded.getHits(), 1);
+        Assert.assertEquals(reloaded.getMisses(), 0);
+
+        final HashIndex verifyAll = new HashIndex(dir, true, HashAlgorithm.MD5);
+        Assert.assertEquals(verifyAll.getHash("/a.txt", file), expected);
+        Assert.assertEquals(verifyAll.getHits(), 0);
+        Assert.assertEquals(verifyAll.getMisses(), 1);
+
+        FileUtils.writeStringToFile(file, "Hello World");
+        final HashIndex changed = new HashIndex(dir, false, HashAlgorithm.MD5);
+        Assert.assertEquals(changed.getHash("/a.txt", file), Utils4J.createHashMD5(file));
+        Assert.assertEquals(changed.getMisses(), 1);
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testOtherAlgorithm() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-hashindex-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        final File file = new File(dir, "a.txt");
+        FileUtils.writeStringToFile(file, "Hello");
+        final HashIndex md5Index = new HashIndex(dir, false, HashAlgorithm.MD5);
+        md5Index.getHash("/a.txt", file);
+        md5Index.save();
+
+        // Test & Assert
+        final HashIndex testee = new HashIndex(dir, false, HashAlgorithm.CRC32);
+        Assert.assertEquals(testee.getHash("/a.txt", file), HashAlgorithm.createHash(file,
+                HashAlgorithm.CRC32));
+        Assert.assertEquals(testee.getMisses(), 1);
+
+    }
+
+}
+// CHECKSTYLE:ON
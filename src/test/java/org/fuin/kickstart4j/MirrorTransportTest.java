@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link MirrorTransport}.
+ */
+// CHECKSTYLE:OFF
+public final class MirrorTransportTest {
+
+    private static final String BASE_URL = "http://www.fuin.org/kickstart4j/";
+
+    private static final String MIRROR_URL = "http://mirror.fuin.org/kickstart4j/";
+
+    private static final byte[] CONTENT = new byte[] { 1, 2, 3 };
+
+    private static StubTransport createStubTransport() {
+        final StubTransport stub = new StubTransport();
+        stub.put(BASE_URL + "a.jar", CONTENT);
+        stub.put(MIRROR_URL + "a.jar", CONTENT);
+        return stub;
+    }
+
+    private static MirrorTransport createTestee(final StubTransport stub) {
+        final List mirrors = new ArrayList();
+        mirrors.add(new Mirror(BASE_URL, MIRROR_URL));
+        return new MirrorTransport(stub, mirrors);
+    }
+
+    private static byte[] load(final Transport transport, final String url) throws IOException {
+        final InputStream in = transport.open(new URL(url), 0, -1).getInputStream();
+        try {
+            return IOUtils.toByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testOrder() throws IOException {
+
+        // Prepare
+        final StubTransport stub = createStubTransport();
+        final MirrorTransport testee = createTestee(stub);
+
+        // Test & Assert (Equal costs keep the original location first)
+        Assert.assertEquals(load(testee, BASE_URL + "a.jar"), CONTENT);
+        Assert.assertEquals(stub.getRequests().get(0), BASE_URL + "a.jar@0");
+
+        // Test & Assert (Slow original location)
+        stub.setLatency(BASE_URL, 100);
+        testee.probe();
+        stub.clearRequests();
+        Assert.assertEquals(load(testee, BASE_URL + "a.jar"), CONTENT);
+        Assert.assertEquals(stub.getRequests().size(), 1);
+        Assert.assertEquals(stub.getRequests().get(0), MIRROR_URL + "a.jar@0");
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testFailover() throws IOException {
+
+        // Prepare
+        final StubTransport stub = createStubTransport();
+        stub.setDown(BASE_URL, true);
+        final MirrorTransport testee = createTestee(stub);
+
+        // Test
+        final byte[] data = load(testee, BASE_URL + "a.jar");
+
+        // Assert
+        Assert.assertEquals(data, CONTENT);
+        Assert.assertEquals(stub.getRequests().size(), 2);
+        Assert.assertEquals(stub.getRequests().get(0), BASE_URL + "a.jar@0");
+        Assert.assertEquals(stub.getRequests().get(1), MIRROR_URL + "a.jar@0");
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testExcludedAfterFailure() throws IOException {
+
+        // Prepare
+        final StubTransport stub = createStubTransport();
+        stub.setDown(BASE_URL, true);
+        final MirrorTransport testee = createTestee(stub);
+        load(testee, BASE_URL + "a.jar");
+        stub.setDown(BASE_URL, false);
+        stub.clearRequests();
+
+        // Test
+        final byte[] data = load(testee, BASE_URL + "a.jar");
+
+        // Assert (Failed site is only used as last resort)
+        Assert.assertEquals(data, CONTENT);
+        Assert.assertEquals(stub.getRequests().size(), 1);
+        Assert.assertEquals(stub.getRequests().get(0), MIRROR_URL + "a.jar@0");
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testNotFoundOnSite() throws IOException {
+
+        // Prepare (File only exists on the mirror)
+        final StubTransport stub = createStubTransport();
+        stub.put(MIRROR_URL + "b.jar", CONTENT);
+        final MirrorTransport testee = createTestee(stub);
+        final byte[] data = load(testee, BASE_URL + "b.jar");
+        stub.clearRequests();
+
+        // Test
+        load(testee, BASE_URL + "a.jar");
+
+        // Assert (Original location is not excluded)
+        Assert.assertEquals(data, CONTENT);
+        Assert.assertEquals(stub.getRequests().size(), 1);
+        Assert.assertEquals(stub.getRequests().get(0), BASE_URL + "a.jar@0");
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testAllSitesFailed() throws IOException {
+
+        // Prepare
+        final StubTransport stub = createStubTransport();
+        stub.setDown(BASE_URL, true);
+        stub.setDown(MIRROR_URL, true);
+        final MirrorTransport testee = createTestee(stub);
+
+        // Test & Assert
+        try {
+            load(testee, BASE_URL + "a.jar");
+            Assert.fail("Expected an IOException");
+        } catch (final IOException ex) {
+            Assert.assertEquals(stub.getRequests().size(), 2);
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fuin.utils4j.CancelableVolatile;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link ParallelExecutor}.
+ */
+// CHECKSTYLE:OFF
+public final class ParallelExecutorTest {
+
+    /**
+     * @testng.test
+     */
+    public final void testExecuteAllItems() {
+
+        // Prepare
+        final List items = new ArrayList();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Integer(i));
+        }
+        final int[] processed = new int[items.size()];
+        final ParallelExecutor testee = new ParallelExecutor("Test", 4);
+
+        // Test
+        testee.execute(items, new ParallelExecutor.Task() {
+            public void execute(final Object item, final int index) {
+                synchronized (processed) {
+                    processed[((Integer) item).intValue()]++;
+                }
+            }
+        }, new CancelableVolatile());
+
+        // Assert
+        for (int i = 0; i < processed.length; i++) {
+            Assert.assertEquals(processed[i], 1);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testExecuteRethrowsException() {
+
+        // Prepare
+        final List items = new ArrayList();
+        for (int i = 0; i < 10; i++) {
+            items.add(new Integer(i));
+        }
+        final ParallelExecutor testee = new ParallelExecutor("Test", 3);
+
+        // Test
+        try {
+            testee.execute(items, new ParallelExecutor.Task() {
+                public void execute(final Object item, final int index) {
+                    if (index == 5) {
+                        throw new IllegalStateException("Test");
+                    }
+                }
+            }, null);
+            Assert.fail("Expected an exception");
+        } catch (final IllegalStateException ex) {
+            Assert.assertEquals(ex.getMessage(), "Test");
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Cancelable;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link ParallelUnzip}.
+ */
+// CHECKSTYLE:OFF
+public final class ParallelUnzipTest {
+
+    private File prepareDir() throws IOException {
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-unzip-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        return dir;
+    }
+
+    private static File createZipFile(final File dir, final String name) throws IOException {
+        final File zipFile = new File(dir, "test.zip");
+        FileUtils.writeByteArrayToFile(zipFile, UtilsTest.createZip(name));
+        return zipFile;
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testExecute() throws IOException {
+
+        // Prepare
+        final File dir = prepareDir();
+        final File zipFile = createZipFile(dir, "b.txt");
+        final File destDir = new File(dir, "unzipped");
+        destDir.mkdirs();
+        final ParallelUnzip testee = new ParallelUnzip(zipFile, destDir, 2);
+
+        // Test
+        testee.execute(null, 1, null);
+
+        // Assert
+        Assert.assertTrue(new File(destDir, "dir").isDirectory());
+        Assert.assertEquals(FileUtils.readFileToString(new File(destDir, "dir/a.txt")), "AAA");
+        Assert.assertEquals(FileUtils.readFileToString(new File(destDir, "b.txt")), "BB");
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testCancel() throws IOException {
+
+        // Prepare
+        final File dir = prepareDir();
+        final File zipFile = createZipFile(dir, "b.txt");
+        final File destDir = new File(dir, "unzipped");
+        destDir.mkdirs();
+        final ParallelUnzip testee = new ParallelUnzip(zipFile, destDir, 2);
+
+        // Test
+        testee.execute(null, 1, new Cancelable() {
+            public void cancel() {
+                // Always canceled
+            }
+
+            public boolean isCanceled() {
+                return true;
+            }
+        });
+
+        // Assert (Directories are created before the files are extracted)
+        Assert.assertTrue(new File(destDir, "dir").isDirectory());
+        Assert.assertFalse(new File(destDir, "dir/a.txt").exists());
+        Assert.assertFalse(new File(destDir, "b.txt").exists());
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testEntryOutsideDir() throws IOException {
+
+        // Prepare
+        final File dir = prepareDir();
+        final File zipFile = createZipFile(dir, "../evil.txt");
+        final File destDir = new File(dir, "unzipped");
+        destDir.mkdirs();
+        final ParallelUnzip testee = new ParallelUnzip(zipFile, destDir, 2);
+
+        // Test
+        try {
+            testee.execute(null, 1, null);
+            Assert.fail("Expected a RuntimeException");
+        } catch (final RuntimeException ex) {
+            // Expected
+        }
+
+        // Assert (The archive is rejected before anything is extracted)
+        Assert.assertFalse(new File(dir, "evil.txt").exists());
+        Assert.assertFalse(new File(destDir, "dir/a.txt").exists());
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,443 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link ResumableDownload}.
+ */
+// CHECKSTYLE:OFF
+public final class ResumableDownloadTest {
+
+    private static final String URL_STR = "http://www.fuin.org/kickstart4j/a.jar";
+
+    private File prepareDir() throws IOException {
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-resume-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        return dir;
+    }
+
+    private static byte[] createContent(final int size, final int seed) {
+        final byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i * 31 + seed);
+        }
+        return content;
+    }
+
+    private static String hash(final byte[] content) {
+        return Utils.encodeHex(HashAlgorithm.createDigest(HashAlgorithm.MD5).digest(content));
+    }
+
+    private static ResumableDownload download(final File destFile, final String expectedHash)
+            throws IOException {
+        return new ResumableDownload(new URL(URL_STR), destFile, expectedHash,
+                HashAlgorithm.MD5);
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final GZIPOutputStream gzipOut = new GZIPOutputStream(out);
+        gzipOut.write(content);
+        gzipOut.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * Starts a transfer that fails after a number of bytes.
+     */
+    private static void interrupt(final StubTransport transport, final ResumableDownload testee,
+            final long failAfter) {
+        transport.setFailAfter(failAfter);
+        try {
+            testee.execute(null, 1, 0);
+            Assert.fail("Expected an interrupted transfer");
+        } catch (final RuntimeException ex) {
+            // Expected
+        } catch (final IOException ex) {
+            Assert.fail(ex.toString());
+        }
+        transport.setFailAfter(-1);
+        transport.clearRequests();
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testResume() throws IOException {
+
+        // Prepare
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] content = createContent(1000, 1);
+        final String hash = hash(content);
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR, content);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+            interrupt(transport, download(destFile, hash), 400);
+            final File partFile = new File(destFile.getParentFile(), destFile.getName()
+                    + ResumableDownload.PART_EXTENSION);
+            Assert.assertEquals(partFile.length(), 400);
+
+            // Test
+            final String result = download(destFile, hash).execute(null, 1, content.length);
+
+            // Assert
+            Assert.assertEquals(transport.getRequests().size(), 1);
+            Assert.assertEquals(transport.getRequests().get(0), URL_STR + "@400");
+            Assert.assertEquals(result, hash);
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+            Assert.assertFalse(partFile.exists());
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testRetry() throws IOException {
+
+        // Prepare
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] content = createContent(1000, 1);
+        final String hash = hash(content);
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR, content);
+        transport.setFailAfter(400, 1);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            final String result = download(destFile, hash).execute(null, 1, content.length);
+
+            // Assert
+            Assert.assertEquals(transport.getRequests().size(), 2);
+            Assert.assertEquals(transport.getRequests().get(0), URL_STR + "@0");
+            Assert.assertEquals(transport.getRequests().get(1), URL_STR + "@400");
+            Assert.assertEquals(result, hash);
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testRetryLimit() throws IOException {
+
+        // Prepare
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] content = createContent(1000, 1);
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR, content);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            interrupt(transport, download(destFile, hash(content)), 400);
+
+            // Assert
+            final File partFile = new File(destFile.getParentFile(), destFile.getName()
+                    + ResumableDownload.PART_EXTENSION);
+            Assert.assertEquals(partFile.length(), 400);
+            Assert.assertFalse(destFile.exists());
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testRetryOnMirror() throws IOException {
+
+        // Prepare
+        final String mirrorUrl = "http://mirror.fuin.org/kickstart4j/";
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] content = createContent(1000, 1);
+        final String hash = hash(content);
+        final StubTransport stub = new StubTransport();
+        stub.put(URL_STR, content);
+        stub.put(mirrorUrl + "a.jar", content);
+        stub.setFailAfter(400, 1);
+        final List mirrors = new ArrayList();
+        mirrors.add(new Mirror("http://www.fuin.org/kickstart4j/", mirrorUrl));
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(new MirrorTransport(stub, mirrors));
+        try {
+
+            // Test
+            final String result = download(destFile, hash).execute(null, 1, content.length);
+
+            // Assert (Read error excludes the original location)
+            Assert.assertEquals(stub.getRequests().size(), 2);
+            Assert.assertEquals(stub.getRequests().get(0), URL_STR + "@0");
+            Assert.assertEquals(stub.getRequests().get(1), mirrorUrl + "a.jar@400");
+            Assert.assertEquals(result, hash);
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testRangeNotSatisfiable() throws IOException {
+
+        // Prepare
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] content = createContent(1000, 1);
+        final String hash = hash(content);
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR, content);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+            interrupt(transport, download(destFile, hash), 800);
+            // Server file is now shorter than the partial file
+            final byte[] shorter = createContent(500, 1);
+            transport.put(URL_STR, shorter);
+
+            // Test
+            final String result = download(destFile, hash).execute(null, 1, shorter.length);
+
+            // Assert
+            Assert.assertEquals(transport.getRequests().size(), 2);
+            Assert.assertEquals(transport.getRequests().get(0), URL_STR + "@800");
+            Assert.assertEquals(transport.getRequests().get(1), URL_STR + "@0");
+            Assert.assertEquals(result, hash(shorter));
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), shorter);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testRangeIgnored() throws IOException {
+
+        // Prepare
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] content = createContent(1000, 1);
+        final String hash = hash(content);
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR, content);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+            interrupt(transport, download(destFile, hash), 400);
+            transport.setRangeSupported(false);
+
+            // Test
+            final String result = download(destFile, hash).execute(null, 1, content.length);
+
+            // Assert
+            Assert.assertEquals(transport.getRequests().size(), 1);
+            Assert.assertEquals(transport.getRequests().get(0), URL_STR + "@400");
+            Assert.assertEquals(result, hash);
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testStateMismatch() throws IOException {
+
+        // Prepare
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] oldContent = createContent(1000, 1);
+        final byte[] content = createContent(1000, 2);
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR, oldContent);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+            interrupt(transport, download(destFile, hash(oldContent)), 400);
+            transport.put(URL_STR, content);
+
+            // Test (Partial file belongs to another version)
+            final String result = download(destFile, hash(content)).execute(null, 1,
+                    content.length);
+
+            // Assert
+            Assert.assertEquals(transport.getRequests().size(), 1);
+            Assert.assertEquals(transport.getRequests().get(0), URL_STR + "@0");
+            Assert.assertEquals(result, hash(content));
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testUnzipWhileLoading() throws IOException {
+
+        // Prepare
+        final File dir = prepareDir();
+        final File destFile = new File(dir, "a.zip");
+        final File unzipDir = new File(dir, "unzipped");
+        unzipDir.mkdirs();
+        final byte[] content = UtilsTest.createZip("b.txt");
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR, content);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            final ResumableDownload testee = new ResumableDownload(new URL(URL_STR), destFile,
+                    hash(content), unzipDir, false, HashAlgorithm.MD5);
+            final String result = testee.execute(null, 1, content.length);
+
+            // Assert
+            Assert.assertTrue(testee.isUnzipped());
+            Assert.assertEquals(result, hash(content));
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+            Assert.assertEquals(FileUtils.readFileToString(new File(unzipDir, "dir/a.txt")),
+                    "AAA");
+            Assert.assertEquals(FileUtils.readFileToString(new File(unzipDir, "b.txt")), "BB");
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testUnzipFallback() throws IOException {
+
+        // Prepare (Entry outside the directory makes the streaming unzip fail)
+        final File dir = prepareDir();
+        final File destFile = new File(dir, "a.zip");
+        final File unzipDir = new File(dir, "unzipped");
+        unzipDir.mkdirs();
+        final byte[] content = UtilsTest.createZip("../evil.txt");
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR, content);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            final ResumableDownload testee = new ResumableDownload(new URL(URL_STR), destFile,
+                    hash(content), unzipDir, false, HashAlgorithm.MD5);
+            final String result = testee.execute(null, 1, content.length);
+
+            // Assert (Archive is still loaded completely)
+            Assert.assertFalse(testee.isUnzipped());
+            Assert.assertEquals(result, hash(content));
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+            Assert.assertFalse(new File(dir, "evil.txt").exists());
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testGzip() throws IOException {
+
+        // Prepare
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] content = createContent(1000, 1);
+        final String hash = hash(content);
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR + ".gz", gzip(content));
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            final String result = new ResumableDownload(new URL(URL_STR + ".gz"), destFile,
+                    hash, null, true, HashAlgorithm.MD5).execute(null, 1,
+                    content.length);
+
+            // Assert (Hash of the decompressed content)
+            Assert.assertEquals(result, hash);
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testGzipAlreadyDecoded() throws IOException {
+
+        // Prepare (Transport already removed a "gzip" content encoding)
+        final File destFile = new File(prepareDir(), "a.jar");
+        final byte[] content = createContent(1000, 1);
+        final String hash = hash(content);
+        final StubTransport transport = new StubTransport();
+        transport.put(URL_STR + ".gz", content);
+        final Transport original = Utils.getTransport();
+        Utils.setTransport(transport);
+        try {
+
+            // Test
+            final String result = new ResumableDownload(new URL(URL_STR + ".gz"), destFile,
+                    hash, null, true, HashAlgorithm.MD5).execute(null, 1,
+                    content.length);
+
+            // Assert
+            Assert.assertEquals(result, hash);
+            Assert.assertEquals(FileUtils.readFileToByteArray(destFile), content);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link SrcFileLoader}.
+ */
+// CHECKSTYLE:OFF
+public final class SrcFileLoaderTest {
+
+    private static final String URL = "http://www.fuin.org/kickstart4j/";
+
+    private File prepareDir() throws IOException {
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-loader-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        return dir;
+    }
+
+    private static byte[] createContent(final int size, final int seed) {
+        final byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i * 31 + seed);
+        }
+        return content;
+    }
+
+    /**
+     * Adds a file to the configuration and the transport.
+     */
+    private static void addFile(final Config config, final StubTransport transport,
+            final String filename, final boolean addToClasspath) {
+        final byte[] content = createContent(1000, filename.hashCode());
+        final String hash = Utils.encodeHex(HashAlgorithm.createDigest(HashAlgorithm.MD5)
+                .digest(content));
+        config.getSrcFiles().add(
+                new SrcFile("", filename, hash, content.length, false, false, addToClasspath,
+                        URL + filename, 0));
+        transport.put(URL + filename, content);
+    }
+
+    private static Config createConfig(final File dir, final int pauseMillis) {
+        final Config config = new Config();
+        config.setDestPath(dir.getPath());
+        config.setPrefetchPauseMillis(pauseMillis);
+        return config;
+    }
+
+    private static void waitForPrefetch(final SrcFileLoader testee) throws InterruptedException {
+        final long end = System.currentTimeMillis() + 10000;
+        while (testee.isPrefetchRunning() && (System.currentTimeMillis() < end)) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(testee.isPrefetchRunning());
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testPrefetch() throws Exception {
+
+        // Prepare
+        final File dir = prepareDir();
+        final StubTransport transport = new StubTransport();
+        final Config config = createConfig(dir, 0);
+        addFile(config, transport, "a.txt", false);
+        addFile(config, transport, "b.txt", false);
+        addFile(config, transport, "lib.jar", true);
+        final Transport original = Utils.getTransport();
+        try {
+            final SrcFileLoader testee = new SrcFileLoader(config);
+            Utils.setTransport(transport);
+
+            // Test
+            testee.startPrefetch();
+            waitForPrefetch(testee);
+
+            // Assert (Files on the classpath are loaded by the installer)
+            Assert.assertEquals(transport.getRequests().size(), 2);
+            Assert.assertEquals(transport.getRequests().get(0), URL + "a.txt@0");
+            Assert.assertEquals(transport.getRequests().get(1), URL + "b.txt@0");
+            Assert.assertTrue(new File(dir, "a.txt").exists());
+            Assert.assertTrue(new File(dir, "b.txt").exists());
+            Assert.assertFalse(new File(dir, "lib.jar").exists());
+
+            // Assert (Prefetched files are not loaded again)
+            testee.loadFile("", "a.txt");
+            Assert.assertEquals(transport.getRequests().size(), 2);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testCancelPrefetch() throws Exception {
+
+        // Prepare
+        final File dir = prepareDir();
+        final StubTransport transport = new StubTransport();
+        final Config config = createConfig(dir, 500);
+        addFile(config, transport, "a.txt", false);
+        addFile(config, transport, "b.txt", false);
+        addFile(config, transport, "c.txt", false);
+        final Transport original = Utils.getTransport();
+        try {
+            final SrcFileLoader testee = new SrcFileLoader(config);
+            Utils.setTransport(transport);
+            testee.startPrefetch();
+            final long end = System.currentTimeMillis() + 10000;
+            while ((transport.getRequests().size() == 0) && (System.currentTimeMillis() < end)) {
+                Thread.sleep(10);
+            }
+
+            // Test (Prefetch is loading the first file or pausing after it)
+            testee.cancelPrefetch();
+            waitForPrefetch(testee);
+
+            // Assert
+            Assert.assertEquals(transport.getRequests().size(), 1);
+            Assert.assertTrue(new File(dir, "a.txt").exists());
+            Assert.assertFalse(new File(dir, "b.txt").exists());
+            Assert.assertFalse(new File(dir, "c.txt").exists());
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testLoadSameFileConcurrently() throws Exception {
+
+        // Prepare
+        final File dir = prepareDir();
+        final StubTransport transport = new StubTransport();
+        transport.setLatency(URL, 200);
+        final Config config = createConfig(dir, 0);
+        addFile(config, transport, "a.txt", false);
+        final Transport original = Utils.getTransport();
+        try {
+            final SrcFileLoader testee = new SrcFileLoader(config);
+            Utils.setTransport(transport);
+            final File[] results = new File[2];
+            final Thread[] threads = new Thread[results.length];
+            for (int i = 0; i < threads.length; i++) {
+                final int index = i;
+                threads[i] = new Thread(new Runnable() {
+                    public void run() {
+                        try {
+                            results[index] = testee.loadFile("", "a.txt");
+                        } catch (final LoadingFileException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                });
+            }
+
+            // Test
+            for (int i = 0; i < threads.length; i++) {
+                threads[i].start();
+            }
+            for (int i = 0; i < threads.length; i++) {
+                threads[i].join();
+            }
+
+            // Assert (Second caller waits for the first transfer)
+            Assert.assertEquals(transport.getRequests().size(), 1);
+            final File expected = new File(dir, "a.txt").getCanonicalFile();
+            Assert.assertEquals(results[0].getCanonicalFile(), expected);
+            Assert.assertEquals(results[1].getCanonicalFile(), expected);
+        } finally {
+            Utils.setTransport(original);
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link StagedUpdate}.
+ */
+// CHECKSTYLE:OFF
+public final class StagedUpdateTest {
+
+    private static File createDir() throws IOException {
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-staged-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        FileUtils.writeStringToFile(new File(dir, "a.txt"), "old");
+        FileUtils.writeStringToFile(new File(dir, "c.txt"), "deleted");
+        return dir;
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testCommit() throws IOException {
+
+        // Prepare
+        final File dir = createDir();
+        final StagedUpdate testee = new StagedUpdate(dir);
+        testee.prepare();
+        FileUtils.writeStringToFile(new File(testee.getStagingDir(), "a.txt"), "new");
+        FileUtils.writeStringToFile(new File(testee.getStagingDir(), "lib/b.txt"), "b");
+        testee.delete("c.txt");
+
+        // Installation directory is unchanged before the commit
+        Assert.assertEquals(FileUtils.readFileToString(new File(dir, "a.txt")), "old");
+        Assert.assertTrue(new File(dir, "c.txt").exists());
+
+        // Test
+        testee.commit();
+
+        // Assert
+        Assert.assertEquals(FileUtils.readFileToString(new File(dir, "a.txt")), "new");
+        Assert.assertEquals(FileUtils.readFileToString(new File(dir, "lib/b.txt")), "b");
+        Assert.assertFalse(new File(dir, "c.txt").exists());
+        Assert.assertFalse(testee.getStagingDir().exists());
+        Assert.assertFalse(new File(dir, StagedUpdate.JOURNAL_FILENAME).exists());
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testRecover() throws IOException {
+
+        // Prepare (Interrupted after the journal was written)
+        final File dir = createDir();
+        final File stagingDir = new File(dir, StagedUpdate.STAGING_DIRNAME);
+        FileUtils.writeStringToFile(new File(stagingDir, "a.txt"), "new");
+        FileUtils.writeStringToFile(new File(dir, StagedUpdate.JOURNAL_FILENAME),
+                "M a.txt\nM lib/b.txt\nD c.txt\n");
+
+        // Test
+        Assert.assertTrue(StagedUpdate.recover(dir));
+
+        // Assert
+        Assert.assertEquals(FileUtils.readFileToString(new File(dir, "a.txt")), "new");
+        Assert.assertFalse(new File(dir, "c.txt").exists());
+        Assert.assertFalse(stagingDir.exists());
+        Assert.assertFalse(StagedUpdate.recover(dir));
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,229 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transport that serves byte arrays from memory. Used for testing classes
+ * that load files with a {@link Transport}.
+ */
+// CHECKSTYLE:OFF
+final class StubTransport implements Transport {
+
+    /** Content by URL - Type is <code>String</code> => <code>byte[]</code>. */
+    private final Map contents = new HashMap();
+
+    /** URL prefixes of sites that cannot be reached. */
+    private final List downPrefixes = new ArrayList();
+
+    /** Delay by URL prefix - Type is <code>String</code> => <code>Long</code>. */
+    private final Map latencies = new HashMap();
+
+    /** Requests in the form "URL@offset" or "URL@offset-end". */
+    private final List requests = new ArrayList();
+
+    private final TransportStatistics statistics = new TransportStatistics();
+
+    private boolean rangeSupported = true;
+
+    /** Position in the file where transfers fail or -1. */
+    private long failAfter = -1;
+
+    /** Number of transfers that will fail or -1 for all. */
+    private int failures = -1;
+
+    public synchronized void put(final String url, final byte[] content) {
+        contents.put(url, content);
+    }
+
+    public synchronized void setDown(final String urlPrefix, final boolean down) {
+        if (down) {
+            downPrefixes.add(urlPrefix);
+        } else {
+            downPrefixes.remove(urlPrefix);
+        }
+    }
+
+    public synchronized void setLatency(final String urlPrefix, final long millis) {
+        latencies.put(urlPrefix, new Long(millis));
+    }
+
+    public synchronized void setRangeSupported(final boolean rangeSupported) {
+        this.rangeSupported = rangeSupported;
+    }
+
+    public synchronized void setFailAfter(final long failAfter) {
+        setFailAfter(failAfter, -1);
+    }
+
+    public synchronized void setFailAfter(final long failAfter, final int failures) {
+        this.failAfter = failAfter;
+        this.failures = failures;
+    }
+
+    public synchronized List getRequests() {
+        return new ArrayList(requests);
+    }
+
+    public synchronized void clearRequests() {
+        requests.clear();
+    }
+
+    public Response open(final URL url, final long offset, final long end)
+            throws IOException {
+        final String urlStr = url.toExternalForm();
+        final long latency = getLatency(urlStr);
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (final InterruptedException ex) {
+                throw new IOException("Interrupted");
+            }
+        }
+        return openNow(urlStr, offset, end);
+    }
+
+    private synchronized long getLatency(final String urlStr) {
+        final Iterator it = latencies.keySet().iterator();
+        while (it.hasNext()) {
+            final String prefix = (String) it.next();
+            if (urlStr.startsWith(prefix)) {
+                return ((Long) latencies.get(prefix)).longValue();
+            }
+        }
+        return 0;
+    }
+
+    private synchronized Response openNow(final String urlStr, final long offset,
+            final long end) throws IOException {
+        if (end == -1) {
+            requests.add(urlStr + "@" + offset);
+        } else {
+            requests.add(urlStr + "@" + offset + "-" + end);
+        }
+        statistics.addRequest(false);
+        for (int i = 0; i < downPrefixes.size(); i++) {
+            if (urlStr.startsWith((String) downPrefixes.get(i))) {
+                statistics.addError();
+                throw new IOException("Connection refused: " + urlStr);
+            }
+        }
+        final byte[] content = (byte[]) contents.get(urlStr);
+        final boolean notSatisfiable = rangeSupported && (content != null) && (offset > 0)
+                && (offset >= content.length);
+        final boolean partial = rangeSupported && ((offset > 0) || (end > -1))
+                && !notSatisfiable;
+        long fail = -1;
+        if ((failAfter > -1) && (failures != 0)) {
+            fail = failAfter;
+            if (failures > 0) {
+                failures--;
+            }
+        }
+        final long failAt = fail;
+        return new Response() {
+
+            public boolean isPartial() {
+                return partial;
+            }
+
+            public boolean isRangeNotSatisfiable() {
+                return notSatisfiable;
+            }
+
+            public InputStream getInputStream() throws IOException {
+                if (content == null) {
+                    throw new FileNotFoundException(urlStr);
+                }
+                if (notSatisfiable) {
+                    throw new IOException("Range not satisfiable: " + urlStr);
+                }
+                int start = 0;
+                int stop = content.length;
+                if (partial) {
+                    start = (int) offset;
+                    if ((end > -1) && (end < stop)) {
+                        stop = (int) end;
+                    }
+                }
+                long failAfterBytes = -1;
+                if (failAt > -1) {
+                    failAfterBytes = Math.max(0, failAt - start);
+                }
+                return new FailingInputStream(content, start, stop, failAfterBytes);
+            }
+
+            public void close() {
+                // Nothing to release
+            }
+
+        };
+    }
+
+    public TransportStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Stream that throws an exception after a number of bytes.
+     */
+    private static final class FailingInputStream extends InputStream {
+
+        private final byte[] content;
+
+        private final int stop;
+
+        private int pos;
+
+        private long remaining;
+
+        public FailingInputStream(final byte[] content, final int start, final int stop,
+                final long failAfter) {
+            super();
+            this.content = content;
+            this.pos = start;
+            this.stop = stop;
+            this.remaining = failAfter;
+        }
+
+        public int read() throws IOException {
+            if (remaining == 0) {
+                throw new IOException("Connection reset");
+            }
+            if (pos >= stop) {
+                return -1;
+            }
+            if (remaining > 0) {
+                remaining--;
+            }
+            return content[pos++] & 0xFF;
+        }
+
+    }
+
+}
+// CHECKSTYLE:ON
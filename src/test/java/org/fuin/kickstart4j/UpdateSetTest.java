@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+import org.testng.Assert;
+
+/**
+ * Tests for {@link UpdateSet}.
+ */
+// CHECKSTYLE:OFF
+public final class UpdateSetTest {
+
+    private static final String URL = "http://www.fuin.org/examples/kickstart4j/";
+
+    /**
+     * @testng.test
+     */
+    public final void testParallelScanKeepsOrder() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-updateset-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        final List srcFiles = new ArrayList();
+        for (int i = 0; i < 50; i++) {
+            final String filename = "file" + i + ".txt";
+            final File file = new File(dir, filename);
+            final String content = "Content " + i;
+            final String hash;
+            if (i % 3 == 0) {
+                // New
+                hash = "00000000000000000000000000000000";
+            } else {
+                FileUtils.writeStringToFile(file, content);
+                if (i % 3 == 1) {
+                    // Unchanged
+                    hash = Utils4J.createHashMD5(file);
+                } else {
+                    // Changed
+                    hash = "11111111111111111111111111111111";
+                }
+            }
+            srcFiles.add(new SrcFile("", filename, hash, content.length(), false, false, true,
+                    URL + filename, i % 2));
+        }
+
+        // Test
+        final UpdateSet sequential = new UpdateSet(srcFiles, new ArrayList(), dir, false,
+                HashAlgorithm.MD5, null, 1, null);
+        final UpdateSet parallel = new UpdateSet(srcFiles, new ArrayList(), dir, false,
+                HashAlgorithm.MD5, null, 4, null);
+
+        // Assert
+        Assert.assertEquals(parallel.getNewFiles(), sequential.getNewFiles());
+        Assert.assertEquals(parallel.getChangedFiles(), sequential.getChangedFiles());
+        Assert.assertEquals(parallel.getUnchangedFiles(), sequential.getUnchangedFiles());
+        Assert.assertEquals(parallel.getOrderList(), sequential.getOrderList());
+        Assert.assertEquals(parallel.createClasspath(), sequential.createClasspath());
+        Assert.assertEquals(sequential.getNewFiles().size(), 17);
+        Assert.assertEquals(sequential.getUnchangedFiles().size(), 17);
+        Assert.assertEquals(sequential.getChangedFiles().size(), 16);
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testSizeFirstComparison() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-updateset-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        final File sameSize = new File(dir, "same.txt");
+        FileUtils.writeStringToFile(sameSize, "abc");
+        final File otherSize = new File(dir, "other.txt");
+        FileUtils.writeStringToFile(otherSize, "abcdef");
+        final List srcFiles = new ArrayList();
+        srcFiles.add(new SrcFile("", "same.txt", Utils4J.createHashMD5(sameSize), 3, false,
+                false, false, URL + "same.txt", 0));
+        srcFiles.add(new SrcFile("", "other.txt", Utils4J.createHashMD5(otherSize), 3, false,
+                false, false, URL + "other.txt", 0));
+
+        // Test
+        final UpdateSet testee = new UpdateSet(srcFiles, new ArrayList(), dir, false,
+                HashAlgorithm.MD5);
+
+        // Assert
+        Assert.assertEquals(testee.getUnchangedFiles().size(), 1);
+        Assert.assertEquals(testee.getChangedFiles().size(), 1);
+        Assert.assertEquals(((SrcFile) testee.getChangedFiles().get(0)).getFilename(),
+                "other.txt");
+        Assert.assertEquals(testee.getSizeChangedCount(), 1);
+        Assert.assertEquals(testee.getHashComparedCount(), 1);
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public final void testDeletedFiles() throws IOException {
+
+        // Prepare
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-updateset-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        final File kept = new File(dir, "kept.txt");
+        FileUtils.writeStringToFile(kept, "abc");
+        final File obsolete = new File(dir, "obsolete.txt");
+        FileUtils.writeStringToFile(obsolete, "abc");
+        final String hash = Utils4J.createHashMD5(kept);
+        final SrcFile keptSrcFile = new SrcFile("", "kept.txt", hash, 3, false, false, false,
+                URL + "kept.txt", 0);
+        final List srcFiles = new ArrayList();
+        srcFiles.add(keptSrcFile);
+        final List previousSrcFiles = new ArrayList();
+        previousSrcFiles.add(keptSrcFile);
+        previousSrcFiles.add(new SrcFile("", "obsolete.txt", hash, 3, false, false, false, URL
+                + "obsolete.txt", 2));
+        previousSrcFiles.add(new SrcFile("", "missing.txt", hash, 3, false, false, false, URL
+                + "missing.txt", 0));
+
+        // Test
+        final UpdateSet testee = new UpdateSet(srcFiles, new ArrayList(), dir, false,
+                HashAlgorithm.MD5, null, 1, previousSrcFiles);
+
+        // Assert
+        Assert.assertEquals(testee.getDeletedFiles().size(), 1);
+        Assert.assertEquals(((SrcFile) testee.getDeletedFiles().get(0)).getFilename(),
+                "obsolete.txt");
+        Assert.assertEquals(testee.getDeletedFiles(2).size(), 1);
+        Assert.assertTrue(testee.getOrderList().contains(new Integer(2)));
+        Assert.assertTrue(testee.isUpdateNecessary());
+
+    }
+
+}
+// CHECKSTYLE:ON
@@ -1,40 +1,125 @@
-/**
- * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
- * reserved. <http://www.fuin.org/>
- *
- * This library is free software; you can redistribute it and/or modify it under
- * the terms of the GNU Lesser General Public License as published by the Free
- * Software Foundation; either version 3 of the License, or (at your option) any
- * later version.
- *
- * This library is distributed in the hope that it will be useful, but WITHOUT
- * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
- * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
- * details.
- *
- * You should have received a copy of the GNU Lesser General Public License
- * along with this library. If not, see <http://www.gnu.org/licenses/>.
- */
-package org.fuin.kickstart4j;
-
-import junit.framework.Assert;
-
-/**
- * Tests for {@link Utils}.
- */
-// CHECKSTYLE:OFF
-public class UtilsTest {
-
-    
-    /**
-     * @testng.test
-     */
-    public void testEscapeXml() {
-        Assert.assertEquals(null, Utils.escapeXml(null));
-        Assert.assertEquals("", Utils.escapeXml(""));
-        Assert.assertEquals("abc123", Utils.escapeXml("abc123"));
-        Assert.assertEquals("&lt;&gt;&amp;&quot;&apos;", Utils.escapeXml("<>&\"'"));
-    }
-    
-}
-//CHECKSTYLE:ON
+/**
+ * Copyright (C) 2009 Future Invent Informationsmanagement GmbH. All rights
+ * reserved. <http://www.fuin.org/>
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.fuin.kickstart4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.fuin.utils4j.Utils4J;
+
+/**
+ * Tests for {@link Utils}.
+ */
+// CHECKSTYLE:OFF
+public class UtilsTest {
+
+    
+    /**
+     * @testng.test
+     */
+    public void testEscapeXml() {
+        Assert.assertEquals(null, Utils.escapeXml(null));
+        Assert.assertEquals("", Utils.escapeXml(""));
+        Assert.assertEquals("abc123", Utils.escapeXml("abc123"));
+        Assert.assertEquals("&lt;&gt;&amp;&quot;&apos;", Utils.escapeXml("<>&\"'"));
+    }
+
+    /**
+     * @testng.test
+     */
+    public void testEncodeHex() {
+        Assert.assertEquals("", Utils.encodeHex(new byte[0]));
+        Assert.assertEquals("000fa0ff", Utils.encodeHex(new byte[] { 0x00, 0x0F, (byte) 0xA0,
+                (byte) 0xFF }));
+    }
+
+    private static File prepareDir() throws IOException {
+        final File dir = new File(Utils4J.getTempDir(), "kickstart4j-utils-test");
+        FileUtils.deleteDirectory(dir);
+        dir.mkdirs();
+        return dir;
+    }
+
+    /**
+     * Creates an archive with "dir/", "dir/a.txt" and an entry with the given
+     * name.
+     */
+    static byte[] createZip(final String name) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ZipOutputStream zout = new ZipOutputStream(out);
+        zout.putNextEntry(new ZipEntry("dir/"));
+        zout.closeEntry();
+        zout.putNextEntry(new ZipEntry("dir/a.txt"));
+        zout.write("AAA".getBytes());
+        zout.closeEntry();
+        zout.putNextEntry(new ZipEntry(name));
+        zout.write("BB".getBytes());
+        zout.closeEntry();
+        zout.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * @testng.test
+     */
+    public void testUnzipStream() throws IOException {
+
+        // Prepare
+        final File dir = prepareDir();
+
+        // Test
+        Utils.unzip(new ByteArrayInputStream(createZip("b.txt")), "test.zip", dir);
+
+        // Assert
+        Assert.assertTrue(new File(dir, "dir").isDirectory());
+        Assert.assertEquals("AAA", FileUtils.readFileToString(new File(dir, "dir/a.txt")));
+        Assert.assertEquals("BB", FileUtils.readFileToString(new File(dir, "b.txt")));
+
+    }
+
+    /**
+     * @testng.test
+     */
+    public void testUnzipStreamOutsideDir() throws IOException {
+
+        // Prepare
+        final File dir = new File(prepareDir(), "target");
+        dir.mkdirs();
+
+        // Test
+        try {
+            Utils.unzip(new ByteArrayInputStream(createZip("../evil.txt")), "test.zip", dir);
+            Assert.fail("Expected an IOException");
+        } catch (final IOException ex) {
+            // Expected
+        }
+
+        // Assert
+        Assert.assertFalse(new File(dir.getParentFile(), "evil.txt").exists());
+
+    }
+
+}
+//CHECKSTYLE:ON